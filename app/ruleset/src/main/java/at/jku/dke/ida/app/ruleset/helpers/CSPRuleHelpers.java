@@ -4,6 +4,7 @@ import at.jku.dke.ida.csp.domain.AnalysisSituation;
 import at.jku.dke.ida.csp.domain.AnalysisSituationElement;
 import at.jku.dke.ida.data.models.CubeSimilarity;
 import at.jku.dke.ida.data.models.DimensionSimilarity;
+import at.jku.dke.ida.shared.IRISet;
 
 import java.math.BigDecimal;
 import java.util.function.Function;
@@ -56,11 +57,11 @@ public final class CSPRuleHelpers {
         if (elem.getElements().stream().noneMatch(x -> x instanceof DimensionSimilarity)) return true;
         if (elem.getElements().stream().anyMatch(x -> !(x instanceof DimensionSimilarity))) return false;
 
-        return elem.getElements().stream()
-                .map(x -> ((DimensionSimilarity) x).getDimension())
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
-                .values().stream()
-                .allMatch(x -> x <= 1);
+        final IRISet dimensions = new IRISet();
+        for (CubeSimilarity similarity : elem.getElements()) {
+            if (!dimensions.add(((DimensionSimilarity) similarity).getDimension())) return false;
+        }
+        return true;
     }
 
     /**
@@ -71,11 +72,12 @@ public final class CSPRuleHelpers {
      */
     public static boolean containsDuplicates(AnalysisSituation as) {
         if (as == null) return false;
-        return as.getAllSimilarities().stream()
-                .collect(Collectors.groupingBy(CubeSimilarity::getElement, Collectors.counting()))
-                .values()
-                .stream()
-                .anyMatch(x -> x > 1);
+
+        final IRISet elements = new IRISet();
+        for (CubeSimilarity similarity : as.getAllSimilarities()) {
+            if (!elements.add(similarity.getElement())) return true;
+        }
+        return false;
     }
 
     /**
@@ -15,6 +15,16 @@ public final class Constants {
      */
     public static final String ADD_DATA_LEVEL = "level";
 
+    /**
+     * Used for storing the token of the next page of a paginated value list.
+     */
+    public static final String ADD_DATA_PAGE_TOKEN = "pageToken";
+
+    /**
+     * The displayable-id of the keyword requesting the next page of a paginated value list.
+     */
+    public static final String SHOW_MORE = "showMore";
+
     /**
      * Used for storing the word groups of the user input.
      */
@@ -4,6 +4,8 @@ import at.jku.dke.ida.data.QueryException;
 import at.jku.dke.ida.data.models.DimensionLabel;
 import at.jku.dke.ida.data.models.DimensionLevelLabel;
 import at.jku.dke.ida.data.models.Label;
+import at.jku.dke.ida.data.models.Page;
+import at.jku.dke.ida.data.repositories.LevelMemberRepository;
 import at.jku.dke.ida.data.repositories.LevelRepository;
 import at.jku.dke.ida.rules.interfaces.ValueDisplayServiceModel;
 import at.jku.dke.ida.shared.models.DimensionQualification;
@@ -114,19 +116,21 @@ public final class QueryHelper {
     }
 
     /**
-     * Calls {@link at.jku.dke.ida.data.repositories.LevelPredicateRepository#getLabelsByLangAndDimension(String, String, Collection)}
-     * with the dimension set in additional data and with the already selected ones excluded.
+     * Calls {@link LevelMemberRepository#getLabelsByLangAndLevel(String, String, Collection, String, int)}
+     * with the level and the page token set in additional data.
      *
      * @param model The model.
-     * @return The level predicates.
+     * @return One page of the level members.
      * @throws QueryException If an error occurred while executing the query.
      */
-    public static List<DimensionLevelLabel> getLevelMembersToAdd(ValueDisplayServiceModel model) throws QueryException {
+    public static Page<DimensionLevelLabel> getLevelMembersToAdd(ValueDisplayServiceModel model) throws QueryException {
         return model.getLevelMemberRepository()
                 .getLabelsByLangAndLevel(
                         model.getLanguage(),
                         model.getAdditionalData(Constants.ADD_DATA_LEVEL, String.class),
-                        Collections.emptySet());
+                        Collections.emptySet(),
+                        model.getAdditionalData(Constants.ADD_DATA_PAGE_TOKEN, String.class),
+                        LevelMemberRepository.DEFAULT_PAGE_SIZE);
     }
 
     /**
@@ -1,5 +1,6 @@
 package at.jku.dke.ida.app.ruleset.interception.interceptors;
 
+import at.jku.dke.ida.app.ruleset.helpers.Constants;
 import at.jku.dke.ida.data.models.DimensionLabel;
 import at.jku.dke.ida.data.models.DimensionLevelLabel;
 import at.jku.dke.ida.data.models.Label;
@@ -227,6 +228,23 @@ final class InterceptionHelper {
 
         return numbered;
     }
+
+    /**
+     * Calculates the string similarity for the keywords requesting the next page of a paginated list.
+     *
+     * @param currentState The current state.
+     * @param sessionModel The session model.
+     * @param locale       The locale.
+     * @return List with keyword similarities (the displayable-id is {@link Constants#SHOW_MORE})
+     */
+    static Set<Similarity<Displayable>> computeShowMoreStringSimilarities(String currentState, SessionModel sessionModel, Locale locale) {
+        List<Displayable> keywords = List.of(
+                new SimpleDisplayable(Constants.SHOW_MORE, locale, "ruleset.Keywords", "More"),
+                new SimpleDisplayable(Constants.SHOW_MORE, locale, "ruleset.Keywords", "ShowMore")
+        );
+
+        return new StringSimilarityService().executeRules(new StringSimilarityServiceModel(currentState, sessionModel, keywords));
+    }
     // endregion
 
     private static Displayable clone(Displayable value, String label) {
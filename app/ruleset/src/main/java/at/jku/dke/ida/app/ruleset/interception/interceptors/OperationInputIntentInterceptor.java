@@ -35,6 +35,7 @@ public class OperationInputIntentInterceptor implements DetermineOperationInputI
     public OperationIntentServiceModel modifyModel(OperationIntentServiceModel operationIntentServiceModel) {// Delete possibly present additional data
         operationIntentServiceModel.removeAdditionalData(Constants.ADD_DATA_DIMENSION);
         operationIntentServiceModel.removeAdditionalData(Constants.ADD_DATA_LEVEL);
+        operationIntentServiceModel.removeAdditionalData(Constants.ADD_DATA_PAGE_TOKEN);
 
         // Only number or empty input?
         if (operationIntentServiceModel.getUserInput() == null || operationIntentServiceModel.getUserInput().isBlank())
@@ -60,6 +60,16 @@ public class ValueInputIntentInterceptor implements DetermineValueInputIntentInt
                 false
         ));
 
+        // execute show more string similarity if the list has more pages
+        Display display = valueIntentServiceModel.getDisplayData();
+        if (display instanceof ListDisplay && ((ListDisplay) display).hasMore()) {
+            result.addAll(InterceptionHelper.computeShowMoreStringSimilarities(
+                    valueIntentServiceModel.getCurrentState(),
+                    valueIntentServiceModel.getSessionModel(),
+                    valueIntentServiceModel.getLocale()
+            ));
+        }
+
         // Return
         return new ValueInputIntentModel(
                 valueIntentServiceModel.getCurrentState(),
@@ -0,0 +1,92 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.shared.IRIDictionary;
+import at.jku.dke.ida.shared.IRISet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares IRIs stored as separate strings (as returned by query results) with IRIs interned in the
+ * {@link IRIDictionary}, using 16 concurrent sessions which check the IRIs of their analysis situation against
+ * the schema elements of the cube ({@code membership}) and convert query results ({@code convert}).
+ * <p>
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class IRIDictionaryBenchmark {
+
+    private static final String PREFIX = "http://www.example.org/drugs#DrugDimensionDrugLevelMember";
+    private static final int SCHEMA_SIZE = 5_000;
+    private static final int SESSION_SIZE = 64;
+
+    @Param({"string", "interned", "id"})
+    private String mode;
+
+    private Set<String> context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = mode.equals("string") ? new HashSet<>() : new IRISet();
+        for (int i = 0; i < SCHEMA_SIZE; i++)
+            context.add(PREFIX + i);
+    }
+
+    /**
+     * The IRIs held by the analysis situation of a session.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+        private String[] values;
+        private int[] ids;
+        private char[][] results;
+
+        @Setup(Level.Trial)
+        public void setUp(IRIDictionaryBenchmark benchmark) {
+            Random random = new Random(Thread.currentThread().getId());
+            values = new String[SESSION_SIZE];
+            ids = new int[SESSION_SIZE];
+            results = new char[SESSION_SIZE][];
+            for (int i = 0; i < SESSION_SIZE; i++) {
+                String iri = PREFIX + random.nextInt(SCHEMA_SIZE * 2);
+                values[i] = benchmark.mode.equals("string") ? new String(iri) : IRIDictionary.intern(iri);
+                ids[i] = IRIDictionary.lookup(iri);
+                results[i] = iri.toCharArray();
+            }
+        }
+    }
+
+    @Benchmark
+    public int membership(Session session) {
+        int found = 0;
+        if (mode.equals("id")) {
+            final IRISet set = (IRISet) context;
+            for (int id : session.ids)
+                if (set.contains(id)) found++;
+        } else {
+            for (String value : session.values)
+                if (context.contains(value)) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public void convert(Session session, Blackhole bh) {
+        final Set<String> converted = mode.equals("string") ? new HashSet<>() : new IRISet();
+        for (char[] result : session.results) {
+            String value = new String(result);
+            converted.add(mode.equals("string") ? value : IRIDictionary.intern(value));
+        }
+        bh.consume(converted);
+    }
+}
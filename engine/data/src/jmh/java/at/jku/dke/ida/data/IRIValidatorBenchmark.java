@@ -0,0 +1,70 @@
+package at.jku.dke.ida.data;
+
+import org.eclipse.rdf4j.common.net.ParsedIRI;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares validating every cell of a query result (as done when prettifying the CSV result of an analysis
+ * situation) by parsing it with validating it with {@link IRIValidator}.
+ * <p>
+ * The result contains 5,000 rows with two level member IRIs of 500 distinct members each, a year,
+ * a decimal measure value and a count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IRIValidatorBenchmark {
+
+    private static final String DRUGS = "http://www.example.org/drugs#";
+    private static final int ROWS = 5_000;
+
+    private String[][] records;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        records = new String[ROWS + 1][];
+        records[0] = new String[]{"drug", "doctor", "year", "sumCosts", "count"};
+        for (int i = 1; i <= ROWS; i++) {
+            records[i] = new String[]{
+                    DRUGS + "DrugDimensionDrugLevelMember" + random.nextInt(500),
+                    DRUGS + "DoctorDimensionDoctorLevelMember" + random.nextInt(500),
+                    String.valueOf(2010 + random.nextInt(10)),
+                    String.format("%.2f", random.nextDouble() * 10_000),
+                    String.valueOf(random.nextInt(1_000))
+            };
+        }
+    }
+
+    @Benchmark
+    public int parser() {
+        int count = 0;
+        for (String[] record : records) {
+            for (String cell : record) {
+                try {
+                    if (ParsedIRI.create(cell).isAbsolute()) count++;
+                } catch (IllegalArgumentException ex) {
+                    // not an IRI
+                }
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int validator() {
+        int count = 0;
+        for (String[] record : records) {
+            for (String cell : record) {
+                if (IRIValidator.isValidAbsoluteIRI(cell)) count++;
+            }
+        }
+        return count;
+    }
+}
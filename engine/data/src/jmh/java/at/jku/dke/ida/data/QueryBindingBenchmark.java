@@ -0,0 +1,103 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbPoolConfig;
+import at.jku.dke.ida.data.query.QueryTemplate;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares executing repository queries by splicing the values into the query text with executing
+ * them with bound variables on prepared queries, using the drugs-schema in an in-memory store.
+ * <p>
+ * The path to the schema file is read from the system property {@code ida.benchmark.data}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBindingBenchmark {
+
+    private static final String CUBE = "http://www.example.org/drugs#DrugPrescriptionCube";
+    private static final String[] LANGUAGES = {"en", "de"};
+
+    @Param({"repo_aggmeasure/getLabelsByLangAndCube", "repo_levelmem/getLabelsByLangAndCube"})
+    private String query;
+
+    private Repository repository;
+    private GraphDbConnectionPool pool;
+    private QueryTemplate splicedTemplate;
+    private QueryTemplate boundTemplate;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.add(new File(System.getProperty("ida.benchmark.data", "graphdb/data/drugs.ttl")), "", RDFFormat.TURTLE);
+        }
+
+        pool = new GraphDbConnectionPool("benchmark", repository, new GraphDbPoolConfig());
+        splicedTemplate = load("/spliced/" + query.replace('/', '_') + ".sparql");
+        boundTemplate = load('/' + query + ".sparql");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+        repository.shutDown();
+    }
+
+    private static QueryTemplate load(String resource) throws IOException {
+        try (InputStream is = Objects.requireNonNull(QueryBindingBenchmark.class.getResourceAsStream(resource), resource)) {
+            return new QueryTemplate(resource, new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private String nextLanguage() {
+        return LANGUAGES[invocation++ % LANGUAGES.length];
+    }
+
+    @Benchmark
+    public void spliced(Blackhole bh) {
+        String text = splicedTemplate.render(Map.of("CUBE", CUBE, "LANG", nextLanguage(), "NOTIN", ""));
+        try (RepositoryConnection conn = pool.borrow()) {
+            TupleQuery q = conn.prepareTupleQuery(text);
+            try (var result = q.evaluate()) {
+                while (result.hasNext()) bh.consume(result.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public void bound(Blackhole bh) {
+        ValueFactory vf = SimpleValueFactory.getInstance();
+        String text = boundTemplate.render(Map.of("NOTIN", ""));
+        try (RepositoryConnection conn = pool.borrow()) {
+            TupleQuery q = conn.prepareTupleQuery(text);
+            q.setBinding("cube", vf.createIRI(CUBE));
+            q.setBinding("lang", vf.createLiteral(nextLanguage()));
+            try (var result = q.evaluate()) {
+                while (result.hasNext()) bh.consume(result.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package at.jku.dke.ida.data;
+
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.AbstractTupleQueryResultHandler;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of parsing 10,000 rows of a label query result (element, cube, label, score)
+ * in the tuple query result formats the remote repository can be asked for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultFormatBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final List<String> BINDING_NAMES = List.of("element", "cube", "label", "score");
+
+    @Param({"binary", "json", "xml", "tsv"})
+    private String format;
+
+    private TupleQueryResultFormat resultFormat;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        resultFormat = GraphDbConnection.selectResultFormat(List.of(format));
+        ValueFactory vf = SimpleValueFactory.getInstance();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TupleQueryResultWriter writer = QueryResultIO.createTupleWriter(resultFormat, out);
+        writer.startQueryResult(BINDING_NAMES);
+        for (int i = 0; i < ROWS; i++) {
+            QueryBindingSet row = new QueryBindingSet();
+            row.addBinding("element", vf.createIRI("http://www.example.org/drugs#Member" + i));
+            row.addBinding("cube", vf.createIRI("http://www.example.org/drugs#DrugPrescriptionCube"));
+            row.addBinding("label", vf.createLiteral("Level member number " + i, "en"));
+            row.addBinding("score", vf.createLiteral(1.0 / (i + 1)));
+            writer.handleSolution(row);
+        }
+        writer.endQueryResult();
+        data = out.toByteArray();
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) throws IOException {
+        QueryResultIO.parseTuple(new ByteArrayInputStream(data), resultFormat, new AbstractTupleQueryResultHandler() {
+            @Override
+            public void handleSolution(BindingSet bindingSet) {
+                bh.consume(bindingSet);
+            }
+        }, SimpleValueFactory.getInstance());
+    }
+}
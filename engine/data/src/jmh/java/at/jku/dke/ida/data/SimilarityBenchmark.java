@@ -0,0 +1,75 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.query.QueryTemplateRegistry;
+import at.jku.dke.ida.data.repositories.SimilarityRepository;
+import at.jku.dke.ida.data.similarity.SimilarityIndexService;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.http.HTTPRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares computing term similarities with the GraphDB similarity plugin ({@code plugin}), with the plugin
+ * and the in-memory mapping index ({@code index}) and with the in-memory term vector and mapping indexes ({@code local}).
+ * <p>
+ * The benchmark needs a GraphDB repository with loaded wordnet, similarity index and materialized
+ * mappings; its URL and ID are read from the system properties {@code ida.benchmark.server-url}
+ * (default: {@code http://localhost:7200}) and {@code ida.benchmark.repository-id} (default: {@code ida}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarityBenchmark {
+
+    private static final String[] TERMS = {"quantity", "costs", "drug", "time", "patient", "prescription"};
+
+    @Param({"plugin", "index", "local"})
+    private String mode;
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private SimilarityRepository similarityRepository;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws QueryException {
+        repository = new HTTPRepository(
+                System.getProperty("ida.benchmark.server-url", "http://localhost:7200"),
+                System.getProperty("ida.benchmark.repository-id", "ida"));
+        repository.initialize();
+
+        GraphDbConfig config = new GraphDbConfig();
+        config.getSimilarity().setMappingIndex(mode.equals("index"));
+        config.getSimilarity().setLocal(mode.equals("local"));
+        connection = new GraphDbConnection(config, new QueryTemplateRegistry(), repository);
+        SimilarityIndexService index = new SimilarityIndexService(connection, config);
+        if (index.isEnabled()) index.refresh();
+        similarityRepository = new SimilarityRepository(connection, config, index);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    private String nextTerm() {
+        return TERMS[invocation++ % TERMS.length];
+    }
+
+    @Benchmark
+    public void termSimilarity(Blackhole bh) throws QueryException {
+        bh.consume(similarityRepository.getTermSimilarity("en", nextTerm()));
+    }
+
+    @Benchmark
+    public void wordSimilarity(Blackhole bh) throws QueryException {
+        bh.consume(similarityRepository.getWordSimilarity("en", nextTerm() + ' ' + nextTerm()));
+    }
+}
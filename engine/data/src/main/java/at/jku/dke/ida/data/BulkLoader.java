@@ -0,0 +1,264 @@
+package at.jku.dke.ida.data;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.RDF4JException;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads RDF files into a repository in batches.
+ * <p>
+ * Every batch is added in its own transaction by one of the loader threads, so the parser never
+ * waits for the repository. N-Triples files are line-based and are therefore split into chunks of
+ * lines which are parsed in parallel as well (blank node identifiers are preserved to keep them
+ * consistent across chunks); all other formats are parsed by the calling thread.
+ */
+class BulkLoader implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(BulkLoader.class);
+    private static final long PROGRESS_INTERVAL = 500_000;
+    private static final String BASE_URI = "urn:base";
+
+    private final Repository repository;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    /**
+     * Instantiates a new instance of class {@linkplain BulkLoader}.
+     *
+     * @param repository  The repository to load the files into.
+     * @param batchSize   The number of statements added in one transaction.
+     * @param parallelism The number of threads parsing and adding statements.
+     * @throws IllegalArgumentException If {@code repository} is {@code null} or {@code batchSize} or {@code parallelism} is less than 1.
+     */
+    BulkLoader(Repository repository, int batchSize, int parallelism) {
+        if (repository == null) throw new IllegalArgumentException("repository must not be null");
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be greater than 0");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be greater than 0");
+
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "graphdb-loader-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Loads the file into the given graph and returns after all statements have been added.
+     *
+     * @param file    The file to load.
+     * @param format  The format of the file.
+     * @param context The graph to add the statements to; if {@code null} the statements are added to the graph specified in the file (or the default graph).
+     * @return The number of added statements.
+     * @throws IOException If the file could not be read or parsed or a batch could not be added.
+     */
+    long load(Path file, RDFFormat format, Resource context) throws IOException {
+        LOGGER.info("Loading {} into graph {}.", file, context);
+        long start = System.currentTimeMillis();
+
+        Batches batches = new Batches(file, context);
+        try {
+            if (format == RDFFormat.NTRIPLES)
+                loadChunked(file, batches);
+            else
+                loadParsed(file, format, batches);
+        } catch (RDF4JException ex) {
+            batches.fail(ex);
+        } finally {
+            batches.await();
+        }
+
+        if (batches.error.get() != null)
+            throw new IOException("Could not load file " + file + '.', batches.error.get());
+        LOGGER.info("Loaded {} statements from {} in {} ms.", batches.statements.get(), file, System.currentTimeMillis() - start);
+        return batches.statements.get();
+    }
+
+    private void loadChunked(Path file, Batches batches) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            StringBuilder chunk = new StringBuilder();
+            int lines = 0;
+            String line;
+            while ((line = reader.readLine()) != null && !batches.failed()) {
+                chunk.append(line).append('\n');
+                if (++lines == batchSize) {
+                    batches.submitChunk(chunk.toString());
+                    chunk.setLength(0);
+                    lines = 0;
+                }
+            }
+            if (lines > 0)
+                batches.submitChunk(chunk.toString());
+        }
+    }
+
+    private void loadParsed(Path file, RDFFormat format, Batches batches) throws IOException {
+        try (CountingInputStream in = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            RDFParser parser = Rio.createParser(format);
+            parser.setRDFHandler(new AbstractRDFHandler() {
+                private List<Statement> batch = new ArrayList<>(batchSize);
+                private long bytes = 0;
+
+                @Override
+                public void handleStatement(Statement st) {
+                    batch.add(st);
+                    if (batch.size() == batchSize) flush();
+                }
+
+                @Override
+                public void endRDF() {
+                    if (!batch.isEmpty()) flush();
+                }
+
+                private void flush() {
+                    long read = in.getByteCount();
+                    batches.submit(batch, read - bytes);
+                    batch = new ArrayList<>(batchSize);
+                    bytes = read;
+                }
+            });
+            parser.parse(in, BASE_URI);
+        }
+    }
+
+    private void write(List<Statement> statements, Resource context) {
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.begin();
+            try {
+                if (context == null)
+                    connection.add(statements);
+                else
+                    connection.add(statements, context);
+                connection.commit();
+            } catch (RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hands the batches of one file to the loader threads and keeps track of the progress.
+     * At most two batches per thread are pending at any time, which bounds the memory used while
+     * loading large files.
+     */
+    private final class Batches {
+        private final Path file;
+        private final Resource context;
+        private final long size;
+        private final Semaphore pending;
+        private final AtomicLong statements;
+        private final AtomicLong bytes;
+        private final AtomicLong nextReport;
+        private final AtomicReference<Exception> error;
+
+        Batches(Path file, Resource context) throws IOException {
+            this.file = file;
+            this.context = context;
+            this.size = Math.max(1, Files.size(file));
+            this.pending = new Semaphore(parallelism * 2);
+            this.statements = new AtomicLong();
+            this.bytes = new AtomicLong();
+            this.nextReport = new AtomicLong(PROGRESS_INTERVAL);
+            this.error = new AtomicReference<>();
+        }
+
+        void submitChunk(String chunk) {
+            execute(() -> {
+                RDFParser parser = Rio.createParser(RDFFormat.NTRIPLES);
+                parser.setPreserveBNodeIDs(true);
+                List<Statement> batch = new ArrayList<>(batchSize);
+                parser.setRDFHandler(new StatementCollector(batch));
+                parser.parse(new StringReader(chunk), BASE_URI);
+                write(batch, context);
+                report(batch.size(), chunk.length());
+            });
+        }
+
+        void submit(List<Statement> batch, long read) {
+            execute(() -> {
+                write(batch, context);
+                report(batch.size(), read);
+            });
+        }
+
+        private void execute(LoadTask task) {
+            if (failed()) return;
+            pending.acquireUninterruptibly();
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (Exception ex) {
+                        fail(ex);
+                    } finally {
+                        pending.release();
+                    }
+                });
+            } catch (RuntimeException ex) {
+                pending.release();
+                fail(ex);
+            }
+        }
+
+        private void report(int count, long read) {
+            long total = statements.addAndGet(count);
+            long position = bytes.addAndGet(read);
+            long next = nextReport.get();
+            if (total >= next && nextReport.compareAndSet(next, next + PROGRESS_INTERVAL))
+                LOGGER.info("Loaded {} statements from {} ({} %).", total, file, Math.min(100, position * 100 / size));
+        }
+
+        void fail(Exception ex) {
+            if (!error.compareAndSet(null, ex))
+                error.get().addSuppressed(ex);
+        }
+
+        boolean failed() {
+            return error.get() != null;
+        }
+
+        void await() {
+            pending.acquireUninterruptibly(parallelism * 2);
+            pending.release(parallelism * 2);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LoadTask {
+        void run() throws Exception;
+    }
+}
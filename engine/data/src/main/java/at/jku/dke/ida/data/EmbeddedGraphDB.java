@@ -1,15 +1,12 @@
 package at.jku.dke.ida.data;
 
 import at.jku.dke.ida.data.configuration.GraphDbEmbeddedConfig;
-import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.impl.TreeModel;
 import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
-import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
@@ -23,15 +20,13 @@ import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.stream.Collectors;
 
 /**
  * Creates an embedded GraphDB database.
  * <p>
+ * On every start the data, wordnet, index and materialization files which changed since the last
+ * start are (re-)loaded, see {@link RepositoryLoader}.
+ * <p>
  * Based on http://graphdb.ontotext.com/free/devhub/embeddedgraphdb.html
  */
 class EmbeddedGraphDB implements Closeable {
@@ -42,7 +37,6 @@ class EmbeddedGraphDB implements Closeable {
     private final GraphDbEmbeddedConfig config;
     private final LocalRepositoryManager repositoryManager;
     private final Repository repository;
-    private boolean createdNow;
 
     /**
      * Instantiates a new instance of class {@linkplain EmbeddedGraphDB}.
@@ -52,14 +46,12 @@ class EmbeddedGraphDB implements Closeable {
      */
     public EmbeddedGraphDB(GraphDbEmbeddedConfig config) {
         this.config = config;
-        this.createdNow = false;
 
         this.repositoryManager = new LocalRepositoryManager(new File(config.getDirectory()));
         this.repositoryManager.initialize();
 
         this.repository = createRepository();
-        if (this.createdNow)
-            loadData();
+        loadData();
     }
 
     private Repository createRepository() {
@@ -87,8 +79,6 @@ class EmbeddedGraphDB implements Closeable {
             // Create a repository configuration object and add it to the repositoryManager
             RepositoryConfig repositoryConfig = RepositoryConfig.create(graph, repositoryNode);
             repositoryManager.addRepositoryConfig(repositoryConfig);
-
-            createdNow = true;
         }
 
         // Get the repository from repository manager, note the repository id set in configuration .ttl file
@@ -97,69 +87,10 @@ class EmbeddedGraphDB implements Closeable {
 
     // region --- LOAD ---
     private void loadData() {
-        try (RepositoryConnection connection = getConnection()) {
-            // Data and wordnet
-            try {
-                connection.begin();
-                loadDataFiles(connection);
-                connection.commit();
-
-                connection.begin();
-                loadWordNet(connection);
-                connection.commit();
-            } catch (IOException ex) {
-                connection.rollback();
-                LOGGER.error("An error occurred while loading data and wordnet.", ex);
-            }
-
-            // Materialization and Indizes
-            try {
-                loadIndizes(connection);
-                loadMaterialization(connection);
-            } catch (IOException ex) {
-                LOGGER.error("An error occurred while loading materialization and indizes.", ex);
-            }
-        }
-    }
-
-    private void loadDataFiles(RepositoryConnection connection) throws IOException {
-        LOGGER.info("Loading data files");
-        for (Path path : Files.walk(Paths.get(config.getDataDirectory())).collect(Collectors.toList())) {
-            File file = path.toFile();
-            if (file.isFile())
-                connection.add(path.toFile(), "urn:base", RDFFormat.TURTLE);
-        }
-    }
-
-    private void loadWordNet(RepositoryConnection connection) throws IOException {
-        LOGGER.info("Loading wordnet files");
-        Resource graph = SimpleValueFactory.getInstance().createIRI("http://dke.jku.at/ida/similarity#wordnet");
-        for (String file : config.getWordnetFiles()) {
-            connection.add(new File(file), "urn:base", RDFFormat.NTRIPLES, graph);
-        }
-    }
-
-    private void loadMaterialization(RepositoryConnection connection) throws IOException {
-        LOGGER.info("Loading materialization files");
-        for (Path path : Files.walk(Paths.get(config.getMaterializationDirectory())).collect(Collectors.toList())) {
-            File file = path.toFile();
-            if (file.isFile()) {
-                String queryString = IOUtils.toString(path.toUri(), StandardCharsets.UTF_8);
-                Update query = connection.prepareUpdate(queryString);
-                query.execute();
-            }
-        }
-    }
-
-    private void loadIndizes(RepositoryConnection connection) throws IOException {
-        LOGGER.info("Loading index files");
-        for (Path path : Files.walk(Paths.get(config.getIndexDirectory())).collect(Collectors.toList())) {
-            File file = path.toFile();
-            if (file.isFile()) {
-                String queryString = IOUtils.toString(path.toUri(), StandardCharsets.UTF_8);
-                Update query = connection.prepareUpdate(queryString);
-                query.execute();
-            }
+        try {
+            new RepositoryLoader(repository, config).load();
+        } catch (IOException ex) {
+            LOGGER.error("An error occurred while loading data, wordnet, indizes and materialization.", ex);
         }
     }
     // endregion
@@ -176,6 +107,15 @@ class EmbeddedGraphDB implements Closeable {
         return repository.getConnection();
     }
 
+    /**
+     * Returns the embedded repository.
+     *
+     * @return The initialized embedded repository.
+     */
+    Repository getRepository() {
+        return repository;
+    }
+
     @Override
     public void close() throws IOException {
         repository.shutDown();
@@ -1,87 +1,427 @@
 package at.jku.dke.ida.data;
 
 import at.jku.dke.ida.data.configuration.GraphDbConfig;
-import org.apache.commons.io.IOUtils;
+import at.jku.dke.ida.data.configuration.GraphDbEndpointConfig;
+import at.jku.dke.ida.data.configuration.GraphDbRemoteConfig;
+import at.jku.dke.ida.data.query.QueryTemplate;
+import at.jku.dke.ida.data.query.QueryTemplateRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryInterruptedException;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.TupleQueryResultHandler;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParserRegistry;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.config.RepositoryConfigException;
 import org.eclipse.rdf4j.repository.http.HTTPRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A service class that provides GraphDB connections.
+ * <p>
+ * The following metrics are recorded per query file (tag {@code file}):
+ * <ul>
+ * <li><b>graphdb.query</b>: Execution time of the queries including reading the result (tag {@code outcome})</li>
+ * <li><b>graphdb.query.rows</b>: Number of result rows read</li>
+ * <li><b>graphdb.query.errors</b>: Number of failed queries (tag {@code type}: {@code timeout}, {@code cancelled} or {@code error})</li>
+ * <li><b>graphdb.query.coalesced</b>: Number of queries which joined the evaluation of an identical concurrent query</li>
+ * <li><b>graphdb.connection.acquire</b>: Time to borrow a connection from the pool (without file tag)</li>
+ * </ul>
+ * Read queries are routed by a {@link GraphDbRouter} to the remote repository and its read replicas
+ * ({@code graphdb.remote.replicas}), which records the latency and health of each endpoint. A query which could not
+ * reach an endpoint (connection error before the result is returned) is retried on another endpoint.
+ * Writes and connections returned by {@link #createConnection()} always use the primary repository.
+ * Queries taking longer than {@code graphdb.query.slow-query-threshold} are logged with their text and bindings
+ * to the logger {@code at.jku.dke.ida.data.GraphDbConnection.SlowQuery}.
+ * <p>
+ * If {@code graphdb.query.coalesce} is set, concurrent executions of the same rendered query with the same
+ * bindings share one evaluation (single-flight): the first caller evaluates the query; callers arriving until the
+ * GraphDB returned the result wait for it. The first caller streams the result rows to its mapper as usual and only
+ * keeps them in a buffer if callers are waiting, which then map the same (unmodifiable) rows. Callers arriving
+ * later evaluate the query themselves. If the first caller fails or is cancelled, the waiting callers evaluate the
+ * query themselves.
  */
 @Service
 @Scope(value = ConfigurableBeanFactory.SCOPE_SINGLETON)
 public final class GraphDbConnection {
 
     private static final Logger LOGGER = LogManager.getLogger(GraphDbConnection.class);
+    private static final Logger SLOW_QUERY_LOGGER = LogManager.getLogger(GraphDbConnection.class.getName() + ".SlowQuery");
+    private static final Map<String, TupleQueryResultFormat> RESULT_FORMATS = Map.of(
+            "binary", TupleQueryResultFormat.BINARY,
+            "json", TupleQueryResultFormat.JSON,
+            "xml", TupleQueryResultFormat.SPARQL,
+            "csv", TupleQueryResultFormat.CSV,
+            "tsv", TupleQueryResultFormat.TSV);
     private final GraphDbConfig config;
+    private final QueryTemplateRegistry templates;
+    private final MeterRegistry meterRegistry;
+    private final Timer acquireTimer;
+    private final List<Repository> remotes = new ArrayList<>();
     private EmbeddedGraphDB embedded;
+    private volatile GraphDbRouter router;
+    private volatile ExecutorService executor;
+    private final ConcurrentMap<FlightKey, Flight> flights = new ConcurrentHashMap<>();
 
     /**
      * Instantiates a new instance of class {@linkplain GraphDbConnection}.
+     * If no meter registry is available, the metrics are recorded in the global registry.
      *
-     * @param config The GraphDB connection configuration.
+     * @param config        The GraphDB connection configuration.
+     * @param templates     The registry with the precompiled query templates.
+     * @param meterRegistry The registry for the query metrics.
      */
     @Autowired
-    public GraphDbConnection(GraphDbConfig config) {
+    public GraphDbConnection(GraphDbConfig config, QueryTemplateRegistry templates, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(config, templates, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbConnection}.
+     *
+     * @param config        The GraphDB connection configuration.
+     * @param templates     The registry with the precompiled query templates.
+     * @param meterRegistry The registry for the query metrics.
+     */
+    public GraphDbConnection(GraphDbConfig config, QueryTemplateRegistry templates, MeterRegistry meterRegistry) {
         this.config = config;
+        this.templates = templates;
+        this.meterRegistry = meterRegistry;
+        this.acquireTimer = Timer.builder("graphdb.connection.acquire")
+                .description("Time to borrow a GraphDB connection from the pool")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbConnection} for an already initialized repository.
+     * The repository is not shut down on {@link #close()}.
+     *
+     * The metrics are recorded in a new in-memory registry.
+     *
+     * @param config     The GraphDB connection configuration (only the pool, query and async settings are used).
+     * @param templates  The registry with the precompiled query templates.
+     * @param repository The initialized repository.
+     */
+    GraphDbConnection(GraphDbConfig config, QueryTemplateRegistry templates, Repository repository) {
+        this(config, templates, repository, Collections.emptyList());
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbConnection} for already initialized repositories.
+     * The repositories are not shut down on {@link #close()}.
+     *
+     * The metrics are recorded in a new in-memory registry.
+     *
+     * @param config     The GraphDB connection configuration (only the pool, query, async and routing settings are used).
+     * @param templates  The registry with the precompiled query templates.
+     * @param repository The initialized primary repository.
+     * @param replicas   The initialized read replicas.
+     */
+    GraphDbConnection(GraphDbConfig config, QueryTemplateRegistry templates, Repository repository, List<Repository> replicas) {
+        this(config, templates, new SimpleMeterRegistry());
+        List<GraphDbRouter.Endpoint> endpoints = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++)
+            endpoints.add(createEndpoint("replica-" + i, replicas.get(i)));
+        this.router = createRouter(createEndpoint("custom", repository), endpoints);
     }
 
     // region --- CONNECTION ---
 
     /**
-     * Creates a new connection to the GraphDB repository.
-     * Created connections need to be closed to make sure that any resources they keep hold of are
-     * released. The best way to do this is to use a try-finally-block.
+     * Returns a connection to the primary GraphDB repository from the connection pool.
+     * Returned connections need to be closed to give them back to the pool. The best way to do this is to
+     * use a try-with-resources-block.
+     * <p>
+     * The repository itself (HTTP client or embedded store) is created only once and shared by all connections.
      *
-     * @return A new GraphDB connection.
+     * @return A pooled GraphDB connection.
+     * @throws RepositoryConfigException If the connection configuration is invalid.
+     * @throws RepositoryException       If no connection is available or could be opened.
      */
     public RepositoryConnection createConnection() {
-        LOGGER.debug("Creating a new GraphDB-connection.");
-        if (config.getEmbedded() == null && config.getRemote() == null)
-            throw new RepositoryConfigException("GraphDB connection configuration is invalid.");
+        LOGGER.debug("Borrowing a GraphDB-connection.");
+        GraphDbRouter.Endpoint primary = getRouter().getPrimary();
+        return acquireTimer.record(primary::borrow);
+    }
+
+    /**
+     * Returns a fingerprint of the data files loaded into the repository, which changes whenever a data file
+     * is added, changed or removed (see the load manifest of the embedded database).
+     *
+     * @return The fingerprint or an empty string if the repository contains no load manifest.
+     * @throws RepositoryException If the repository is not available.
+     */
+    public String getDataFingerprint() {
+        try (RepositoryConnection connection = createConnection()) {
+            return RepositoryLoader.fingerprint(connection);
+        }
+    }
+
+    /**
+     * Initializes the repositories (HTTP clients or embedded store) and the connection pools if this has not
+     * happened yet. Concurrent callers wait for the first one; the repository is created only once.
+     *
+     * @throws RepositoryConfigException If the connection configuration is invalid.
+     * @throws RepositoryException       If the repository could not be initialized.
+     */
+    public void initialize() {
+        getRouter();
+    }
+
+    /**
+     * Returns the registry the query metrics are recorded in.
+     *
+     * @return The meter registry.
+     */
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    private GraphDbRouter getRouter() {
+        GraphDbRouter r = router;
+        if (r == null) {
+            synchronized (this) {
+                r = router;
+                if (r == null) {
+                    if (config.getEmbedded() == null && config.getRemote() == null)
+                        throw new RepositoryConfigException("GraphDB connection configuration is invalid.");
+
+                    if (config.getEmbedded() == null) {
+                        List<GraphDbRouter.Endpoint> replicas = new ArrayList<>();
+                        for (int i = 0; i < config.getRemote().getReplicas().size(); i++) {
+                            GraphDbEndpointConfig replica = config.getRemote().getReplicas().get(i);
+                            replicas.add(createEndpoint("replica-" + i, getRemoteRepository(replica.getServerUrl(), replica.getRepositoryId())));
+                        }
+                        r = createRouter(createEndpoint("remote", getRemoteRepository(config.getRemote().getServerUrl(), config.getRemote().getRepositoryId())), replicas);
+                    } else {
+                        r = createRouter(createEndpoint("embedded", getEmbeddedRepository()), Collections.emptyList());
+                    }
+                    router = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    private GraphDbRouter createRouter(GraphDbRouter.Endpoint primary, List<GraphDbRouter.Endpoint> replicas) {
+        return new GraphDbRouter(primary, replicas, config.getRemote() == null || config.getRemote().isReadFromPrimary());
+    }
 
-        return config.getEmbedded() == null ?
-                getRemoteConnection() :
-                getEmbeddedConnection();
+    /**
+     * Returns the first of the tuple query result formats a parser is available for.
+     * The other formats with available parsers are accepted with a lower preference by the HTTP client,
+     * so the server falls back to them if it does not support the selected one.
+     *
+     * @param preference The names ({@code binary}, {@code json}, {@code xml}, {@code csv}, {@code tsv}) or MIME types of the formats in order of preference.
+     * @return The preferred format or {@code null} if no parser is available for any of the formats.
+     * @throws RepositoryConfigException If a format is unknown.
+     */
+    static TupleQueryResultFormat selectResultFormat(List<String> preference) {
+        for (String name : preference) {
+            TupleQueryResultFormat format = RESULT_FORMATS.get(name.trim().toLowerCase());
+            if (format == null)
+                format = TupleQueryResultParserRegistry.getInstance().getFileFormatForMIMEType(name.trim())
+                        .map(TupleQueryResultFormat.class::cast)
+                        .orElseThrow(() -> new RepositoryConfigException("Unknown tuple query result format " + name + '.'));
+            if (TupleQueryResultParserRegistry.getInstance().has(format)) return format;
+            LOGGER.debug("No parser available for tuple query result format {}.", format.getName());
+        }
+        return null;
     }
 
-    private RepositoryConnection getRemoteConnection() {
-        if (config.getRemote() == null)
-            throw new IllegalArgumentException("GraphDB connection configuration does not contain remote connection settings.");
-        LOGGER.debug("Creating a new HTTP-connection to repository {} at {}.", config.getRemote().getRepositoryId(), config.getRemote().getServerUrl());
+    private GraphDbRouter.Endpoint createEndpoint(String name, Repository repository) {
+        GraphDbRemoteConfig remote = config.getRemote() == null ? new GraphDbRemoteConfig() : config.getRemote();
+        return new GraphDbRouter.Endpoint(name, repository, config.getPool(), remote.getFailureThreshold(), remote.getEjectionTime(), meterRegistry);
+    }
 
-        Repository repo = new HTTPRepository(config.getRemote().getServerUrl(), config.getRemote().getRepositoryId());
-        repo.initialize();
-        return repo.getConnection();
+    private Repository getRemoteRepository(String serverUrl, String repositoryId) {
+        LOGGER.info("Initializing HTTP-repository {} at {}.", repositoryId, serverUrl);
+
+        HTTPRepository remote = new HTTPRepository(serverUrl, repositoryId);
+        TupleQueryResultFormat format = selectResultFormat(config.getRemote().getResultFormats());
+        if (format != null) {
+            LOGGER.info("Requesting tuple query results of HTTP-repository {} as {}.", repositoryId, format.getName());
+            remote.setPreferredTupleQueryResultFormat(format);
+        }
+        remote.initialize();
+        remotes.add(remote);
+        return remote;
     }
 
-    private RepositoryConnection getEmbeddedConnection() {
+    private Repository getEmbeddedRepository() {
         if (config.getEmbedded() == null)
             throw new IllegalArgumentException("GraphDB connection configuration does not contain embedded connection settings.");
-        LOGGER.debug("Creating a new embedded connection to repository at path {}.", config.getEmbedded().getDirectory());
-        if (embedded == null)
-            embedded = new EmbeddedGraphDB(config.getEmbedded());
-        return embedded.getConnection();
+        LOGGER.info("Initializing embedded repository at path {}.", config.getEmbedded().getDirectory());
+
+        embedded = new EmbeddedGraphDB(config.getEmbedded());
+        return embedded.getRepository();
+    }
+
+    /**
+     * Closes the connection pools, stops the executor for asynchronous queries and shuts down the repositories.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (router != null) {
+            router.close();
+            router = null;
+        }
+        if (!remotes.isEmpty()) {
+            LOGGER.info("Shutting down HTTP-repositories.");
+            remotes.forEach(Repository::shutDown);
+            remotes.clear();
+        }
+        if (embedded != null) {
+            LOGGER.info("Shutting down embedded repository.");
+            try {
+                embedded.close();
+            } catch (IOException ex) {
+                LOGGER.error("Could not shut down embedded repository.", ex);
+            }
+            embedded = null;
+        }
+    }
+    // endregion
+
+    // region --- ASYNC ---
+
+    /**
+     * Executes the supplier asynchronously on the bounded query executor.
+     * <p>
+     * If all threads are busy and the queue is full, the supplier is executed by the calling thread.
+     * The queries of the supplier belong to the {@link QueryScope} of the calling thread.
+     * A {@link QueryException} thrown by the supplier completes the future exceptionally;
+     * use {@link QueryFutures#join(CompletableFuture)} to get the result with the original exception.
+     *
+     * @param supplier The supplier executing the queries.
+     * @param <T>      The type of the result.
+     * @return The future completed with the result of the supplier.
+     * @throws IllegalArgumentException If {@code supplier} is {@code null}.
+     */
+    public <T> CompletableFuture<T> supplyAsync(QuerySupplier<T> supplier) {
+        if (supplier == null) throw new IllegalArgumentException("supplier must not be null");
+        final QueryScope scope = QueryScope.current();
+        return CompletableFuture.supplyAsync(() -> {
+            QueryScope previous = QueryScope.attach(scope);
+            try {
+                return supplier.get();
+            } catch (QueryException ex) {
+                throw new CompletionException(ex);
+            } finally {
+                QueryScope.attach(previous);
+            }
+        }, getExecutor());
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService e = executor;
+        if (e == null) {
+            synchronized (this) {
+                e = executor;
+                if (e == null) {
+                    final AtomicInteger counter = new AtomicInteger();
+                    ThreadPoolExecutor tpe = new ThreadPoolExecutor(
+                            config.getAsync().getThreads(), config.getAsync().getThreads(),
+                            60, TimeUnit.SECONDS,
+                            config.getAsync().getQueueCapacity() > 0 ?
+                                    new ArrayBlockingQueue<>(config.getAsync().getQueueCapacity()) :
+                                    new SynchronousQueue<>(),
+                            r -> {
+                                Thread t = new Thread(r, "graphdb-query-" + counter.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            },
+                            new ThreadPoolExecutor.CallerRunsPolicy());
+                    tpe.allowCoreThreadTimeOut(true);
+                    e = tpe;
+                    executor = e;
+                }
+            }
+        }
+        return e;
     }
     // endregion
 
+    // region --- QUERY ---
+
+    /**
+     * Returns the precompiled template of the query file.
+     *
+     * @param queryFile The path and name of the query file.
+     * @return The query template.
+     * @throws QueryException If the query file does not exist or could not be loaded.
+     */
+    public QueryTemplate getTemplate(String queryFile) throws QueryException {
+        return templates.get(queryFile);
+    }
+
+    /**
+     * Executes the query and returns the result.
+     *
+     * @param queryFile  the query file
+     * @param parameters the values for the placeholders of the query file
+     * @return the query result
+     * @throws QueryException If an error occurred while reading the query file or executing the query.
+     */
+    public List<BindingSet> getQueryResult(String queryFile, Map<String, String> parameters) throws QueryException {
+        return getQueryResult(queryFile, parameters, Collections.emptyMap());
+    }
+
+    /**
+     * Executes the query and returns the result.
+     * <p>
+     * Single values (IRIs, language tags, ...) should be passed as bindings instead of placeholders,
+     * as the query text then stays the same for all values and the prepared query can be reused.
+     *
+     * @param queryFile  the query file
+     * @param parameters the values for the placeholders of the query file
+     * @param bindings   the values for the variables of the query (variable name without {@code ?})
+     * @return the query result
+     * @throws QueryException If an error occurred while reading the query file or executing the query.
+     */
+    public List<BindingSet> getQueryResult(String queryFile, Map<String, String> parameters, Map<String, Value> bindings) throws QueryException {
+        return query(queryFile, parameters, bindings, stream -> stream.collect(Collectors.toList()));
+    }
 
     /**
      * Executes the query and returns the result.
@@ -92,26 +432,354 @@ public final class GraphDbConnection {
      * @throws QueryException If an error occurred while reading the query file or executing the query.
      */
     public List<BindingSet> getQueryResult(String queryFile, Function<String, String> queryStringManipulator) throws QueryException {
-        LOGGER.debug("Executing query file {}.", queryFile);
-        try (var conn = createConnection()) {
-            String queryString = IOUtils.toString(GraphDbConnection.class.getResourceAsStream(queryFile), StandardCharsets.UTF_8);
-            queryString = queryStringManipulator.apply(queryString);
-            TupleQuery query = conn.prepareTupleQuery(queryString);
-            try (var result = query.evaluate()) {
-                List<BindingSet> list = new ArrayList<>();
-
-                while (result.hasNext()) {
-                    list.add(result.next());
+        return execute(queryFile, queryStringManipulator.apply(getTemplate(queryFile).getText()), Collections.emptyMap(), true,
+                (names, stream) -> stream.collect(Collectors.toList()));
+    }
+
+    /**
+     * Executes the query and passes the result rows to the mapper while they are read.
+     * <p>
+     * The stream is only valid inside of the mapper; the query result and the connection are closed
+     * as soon as the mapper returns. Hence, the mapper must not return the stream itself or any lazy view of it.
+     * <p>
+     * The query is aborted after the configured timeout of the query file and the stream contains at most the
+     * configured maximum number of result rows.
+     *
+     * @param queryFile  the query file
+     * @param parameters the values for the placeholders of the query file
+     * @param bindings   the values for the variables of the query (variable name without {@code ?})
+     * @param mapper     the function converting the result rows
+     * @param <T>        the type of the mapped result
+     * @return the result of the mapper
+     * @throws QueryTimeoutException   If the query exceeded its maximum execution time.
+     * @throws QueryCancelledException If the {@link QueryScope} of the current thread was cancelled.
+     * @throws QueryException          If an error occurred while reading the query file or executing the query.
+     */
+    public <T> T query(String queryFile, Map<String, String> parameters, Map<String, Value> bindings, Function<Stream<BindingSet>, T> mapper) throws QueryException {
+        return execute(queryFile, render(queryFile, parameters), bindings, true, (names, stream) -> mapper.apply(stream));
+    }
+
+    /**
+     * Executes the query without the configured timeout and maximum number of result rows and passes the
+     * result rows to the mapper while they are read.
+     * <p>
+     * The limits are meant for interactive queries; bulk queries reading a complete data set (e.g. to build
+     * an index or to export the schema) must use this method, as a truncated result would be kept as if it
+     * were complete. The same query file may be executed with limits by other callers.
+     *
+     * @param queryFile  the query file
+     * @param parameters the values for the placeholders of the query file
+     * @param bindings   the values for the variables of the query (variable name without {@code ?})
+     * @param mapper     the function converting the result rows
+     * @param <T>        the type of the mapped result
+     * @return the result of the mapper
+     * @throws QueryCancelledException If the {@link QueryScope} of the current thread was cancelled.
+     * @throws QueryException          If an error occurred while reading the query file or executing the query.
+     * @see #query(String, Map, Map, Function)
+     */
+    public <T> T queryUnbounded(String queryFile, Map<String, String> parameters, Map<String, Value> bindings, Function<Stream<BindingSet>, T> mapper) throws QueryException {
+        return execute(queryFile, render(queryFile, parameters), bindings, false, (names, stream) -> mapper.apply(stream));
+    }
+
+    /**
+     * Executes the query and reports the result rows to the handler while they are read.
+     *
+     * @param queryFile  the query file
+     * @param parameters the values for the placeholders of the query file
+     * @param bindings   the values for the variables of the query (variable name without {@code ?})
+     * @param handler    the handler receiving the result rows
+     * @throws QueryTimeoutException   If the query exceeded its maximum execution time.
+     * @throws QueryCancelledException If the {@link QueryScope} of the current thread was cancelled.
+     * @throws QueryException          If an error occurred while reading the query file, executing the query or handling the result.
+     */
+    public void query(String queryFile, Map<String, String> parameters, Map<String, Value> bindings, TupleQueryResultHandler handler) throws QueryException {
+        execute(queryFile, render(queryFile, parameters), bindings, true, (names, stream) -> {
+            handler.startQueryResult(names);
+            stream.forEachOrdered(handler::handleSolution);
+            handler.endQueryResult();
+            return null;
+        });
+    }
+
+    private String render(String queryFile, Map<String, String> parameters) throws QueryException {
+        final QueryTemplate template = getTemplate(queryFile);
+        try {
+            return template.render(parameters);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.error("Could not render the query " + queryFile, ex);
+            throw new QueryException("Could not render the query " + queryFile, ex);
+        }
+    }
+
+    private <T> T execute(String queryFile, String queryString, Map<String, Value> bindings, boolean bounded,
+                          BiFunction<List<String>, Stream<BindingSet>, T> reader) throws QueryException {
+        LOGGER.debug("Executing query file {} with bindings {}.", queryFile, bindings);
+        final QueryScope scope = QueryScope.current();
+        if (scope != null && scope.isCancelled())
+            throw new QueryCancelledException("The query " + queryFile + " was cancelled.");
+        if (!config.getQuery().isCoalesce())
+            return evaluate(queryFile, queryString, bindings, bounded, scope, null, reader);
+
+        final FlightKey key = new FlightKey(queryString, bindings, bounded);
+        while (true) {
+            final Flight flight = new Flight(key);
+            final Flight existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                try {
+                    return evaluate(queryFile, queryString, bindings, bounded, scope, flight, reader);
+                } finally {
+                    close(flight);
+                    flight.result.complete(null);
                 }
+            }
+            if (!existing.join()) continue; // the result is already being read and the flight was removed
+            Counter.builder("graphdb.query.coalesced")
+                    .description("Number of GraphDB queries which joined the evaluation of an identical concurrent query")
+                    .tag("file", queryFile)
+                    .register(meterRegistry)
+                    .increment();
+
+            SharedResult shared = await(queryFile, existing, scope);
+            if (shared == null) continue; // the evaluating caller failed or was cancelled; evaluate again
+            try {
+                return reader.apply(shared.bindingNames, shared.rows.stream());
+            } catch (QueryEvaluationException | QueryResultHandlerException ex) {
+                LOGGER.error("An error occurred while executing the query " + queryFile, ex);
+                throw new QueryException("An error occurred while executing the query " + queryFile, ex);
+            }
+        }
+    }
+
+    private SharedResult await(String queryFile, Flight flight, QueryScope scope) throws QueryException {
+        while (true) {
+            if (scope != null && scope.isCancelled())
+                throw new QueryCancelledException("The query " + queryFile + " was cancelled.");
+            try {
+                return flight.result.get(50, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                // check the scope again
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new QueryCancelledException("The query " + queryFile + " was interrupted.", ex);
+            } catch (ExecutionException ex) {
+                return null;
+            }
+        }
+    }
+
+    private <T> T evaluate(String queryFile, String queryString, Map<String, Value> bindings, boolean bounded, QueryScope scope, Flight flight,
+                           BiFunction<List<String>, Stream<BindingSet>, T> reader) throws QueryException {
+        final int maxResults = bounded ? config.getQuery().getMaxResultsOf(queryFile) : 0;
+        final long start = System.nanoTime();
+        final AtomicLong rows = new AtomicLong();
+        final GraphDbRouter r = getRouter();
+        final Set<GraphDbRouter.Endpoint> failed = new HashSet<>();
+        String outcome = "error";
+        try {
+            while (true) {
+                final GraphDbRouter.Endpoint endpoint = r.select(failed);
+                final long endpointStart = System.nanoTime();
+                String endpointOutcome = "error";
+                boolean evaluated = false;
+                endpoint.begin();
+                try (var conn = acquireTimer.record(endpoint::borrow)) {
+                    TupleQuery query = conn.prepareTupleQuery(queryString);
+                    bindings.forEach(query::setBinding);
+                    query.setMaxExecutionTime(bounded ? config.getQuery().getTimeoutOf(queryFile) : 0);
+
+                    try (TupleQueryResult result = query.evaluate()) {
+                        evaluated = true;
+                        if (scope != null) scope.register(result);
+                        try {
+                            // Only callers which joined until now share the result, so rows are only buffered for them
+                            final List<BindingSet> buffer = flight != null && close(flight) ? new ArrayList<>() : null;
+                            Stream<BindingSet> stream = stream(queryFile, result, maxResults).peek(x -> rows.incrementAndGet());
+                            if (buffer != null) stream = stream.peek(buffer::add);
 
-                return list;
+                            T value = reader.apply(result.getBindingNames(), stream);
+                            if (scope != null && scope.isCancelled())
+                                throw new QueryCancelledException("The query " + queryFile + " was cancelled.");
+                            if (buffer != null) {
+                                // Callers are waiting for the result: read the rows the mapper did not consume
+                                while ((maxResults <= 0 || buffer.size() < maxResults) && result.hasNext()) {
+                                    buffer.add(result.next());
+                                    rows.incrementAndGet();
+                                }
+                                flight.result.complete(new SharedResult(result.getBindingNames(), buffer));
+                            }
+                            outcome = endpointOutcome = "success";
+                            return value;
+                        } catch (RuntimeException ex) {
+                            if (scope != null && scope.isCancelled())
+                                throw new QueryCancelledException("The query " + queryFile + " was cancelled.", ex);
+                            throw ex;
+                        } finally {
+                            if (scope != null) scope.unregister(result);
+                        }
+                    }
+                } catch (QueryCancelledException ex) {
+                    endpointOutcome = "cancelled";
+                    throw ex;
+                } catch (QueryInterruptedException ex) {
+                    endpointOutcome = "timeout";
+                    throw ex;
+                } catch (RepositoryException | QueryEvaluationException ex) {
+                    if (evaluated || !GraphDbRouter.isConnectionError(ex)) throw ex;
+
+                    // The endpoint could not be reached: no row was read yet, so try another one
+                    endpointOutcome = "unavailable";
+                    failed.add(endpoint);
+                    if (!r.hasAlternative(failed)) throw ex;
+                    LOGGER.warn("GraphDB endpoint {} is not available for query {}; trying another endpoint.", endpoint.getName(), queryFile);
+                } finally {
+                    endpoint.end(endpointOutcome, System.nanoTime() - endpointStart);
+                }
             }
-        } catch (IOException ex) {
-            LOGGER.error("Could not load the query file " + queryFile, ex);
-            throw new QueryException("Could not load query file " + queryFile, ex);
-        } catch (QueryEvaluationException ex) {
+        } catch (QueryCancelledException ex) {
+            outcome = "cancelled";
+            throw ex;
+        } catch (QueryInterruptedException ex) {
+            outcome = "timeout";
+            LOGGER.warn("The query {} exceeded its maximum execution time.", queryFile);
+            throw new QueryTimeoutException("The query " + queryFile + " exceeded its maximum execution time.", ex);
+        } catch (QueryEvaluationException | QueryResultHandlerException ex) {
             LOGGER.error("An error occurred while executing the query " + queryFile, ex);
             throw new QueryException("An error occurred while executing the query " + queryFile, ex);
+        } finally {
+            record(queryFile, queryString, bindings, outcome, System.nanoTime() - start, rows.get());
+        }
+    }
+
+    private Stream<BindingSet> stream(String queryFile, TupleQueryResult result, int maxResults) {
+        if (maxResults <= 0)
+            return QueryResults.stream(result);
+
+        // Read one more row to detect whether the result was truncated
+        final AtomicInteger count = new AtomicInteger();
+        return QueryResults.stream(result)
+                .limit(maxResults + 1L)
+                .filter(x -> {
+                    if (count.incrementAndGet() <= maxResults) return true;
+                    LOGGER.warn("The result of query {} was truncated to {} rows.", queryFile, maxResults);
+                    return false;
+                });
+    }
+
+    private void record(String queryFile, String queryString, Map<String, Value> bindings, String outcome, long nanos, long rows) {
+        Timer.builder("graphdb.query")
+                .description("Execution time of the GraphDB queries including reading the result")
+                .tag("file", queryFile)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("graphdb.query.rows")
+                .description("Number of result rows read from the GraphDB queries")
+                .tag("file", queryFile)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1L)
+                .maximumExpectedValue(100_000L)
+                .register(meterRegistry)
+                .record(rows);
+        if (!outcome.equals("success")) {
+            Counter.builder("graphdb.query.errors")
+                    .description("Number of failed GraphDB queries")
+                    .tag("file", queryFile)
+                    .tag("type", outcome)
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        long threshold = config.getQuery().getSlowQueryThreshold();
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (threshold > 0 && millis >= threshold && SLOW_QUERY_LOGGER.isWarnEnabled()) {
+            SLOW_QUERY_LOGGER.warn("Query {} called by {} took {} ms and returned {} rows ({}).\nBindings: {}\n{}",
+                    queryFile, findCaller(), millis, rows, outcome, bindings, queryString);
+        }
+    }
+
+    private static String findCaller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !f.getClassName().startsWith(GraphDbConnection.class.getName()))
+                .filter(f -> !f.getClassName().startsWith("java."))
+                .map(f -> f.getClassName() + '#' + f.getMethodName())
+                .findFirst()
+                .orElse("unknown"));
+    }
+    // endregion
+
+    // region --- COALESCING ---
+
+    /**
+     * Removes the flight, so that later callers evaluate the query themselves, and closes it.
+     *
+     * @return {@code true} if callers joined the flight
+     */
+    private boolean close(Flight flight) {
+        flights.remove(flight.key, flight);
+        return flight.close();
+    }
+
+    private static final class FlightKey {
+        private final String queryString;
+        private final Map<String, Value> bindings;
+        private final boolean bounded;
+        private final int hash;
+
+        FlightKey(String queryString, Map<String, Value> bindings, boolean bounded) {
+            this.queryString = queryString;
+            this.bindings = Map.copyOf(bindings);
+            this.bounded = bounded;
+            this.hash = 31 * (31 * queryString.hashCode() + this.bindings.hashCode()) + Boolean.hashCode(bounded);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FlightKey key = (FlightKey) o;
+            return hash == key.hash && bounded == key.bounded && queryString.equals(key.queryString) && bindings.equals(key.bindings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
     }
+
+    /**
+     * An evaluation in progress. Callers can join until the GraphDB returned the result.
+     */
+    private static final class Flight {
+        private final FlightKey key;
+        private final CompletableFuture<SharedResult> result = new CompletableFuture<>();
+        private int followers;
+        private boolean closed;
+
+        Flight(FlightKey key) {
+            this.key = key;
+        }
+
+        synchronized boolean join() {
+            if (closed) return false;
+            followers++;
+            return true;
+        }
+
+        synchronized boolean close() {
+            closed = true;
+            return followers > 0;
+        }
+    }
+
+    private static final class SharedResult {
+        private final List<String> bindingNames;
+        private final List<BindingSet> rows;
+
+        SharedResult(List<String> bindingNames, List<BindingSet> rows) {
+            this.bindingNames = List.copyOf(bindingNames);
+            this.rows = Collections.unmodifiableList(rows);
+        }
+    }
+    // endregion
 }
@@ -0,0 +1,307 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbPoolConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of connections to a single, long-lived GraphDB repository.
+ * <p>
+ * Connections handed out by {@link #borrow()} return to the pool when they are closed. Idle connections are
+ * evicted after the configured idle timeout and (if enabled) validated with a cheap query in the background.
+ * <p>
+ * Every pooled connection keeps the tuple queries prepared on it for reuse, so that executing the same query text
+ * again (with different bindings) skips preparing it anew.
+ */
+class GraphDbConnectionPool implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(GraphDbConnectionPool.class);
+    private static final String VALIDATION_QUERY = "ASK {}";
+
+    private final String name;
+    private final Repository repository;
+    private final GraphDbPoolConfig config;
+    private final Semaphore permits;
+    private final Deque<PoolEntry> idle;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbConnectionPool}.
+     *
+     * @param name       The name of the pool used in log-messages and for the evictor thread.
+     * @param repository The initialized repository to create the connections for.
+     * @param config     The pool configuration.
+     */
+    GraphDbConnectionPool(String name, Repository repository, GraphDbPoolConfig config) {
+        this.name = name;
+        this.repository = repository;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.idle = new LinkedList<>();
+        this.closed = false;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "graphdb-pool-evictor-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evict, config.getEvictionInterval(), config.getEvictionInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a connection from the pool. If there is no idle connection, a new one will be opened as long
+     * as the maximum pool size is not reached; otherwise the method waits for a connection to be returned.
+     * The returned connection has to be closed to return it to the pool.
+     *
+     * @return A pooled connection.
+     * @throws RepositoryException If the pool is closed, no connection became available in time or the connection could not be created.
+     */
+    RepositoryConnection borrow() {
+        if (closed) throw new RepositoryException("GraphDB connection pool " + name + " is closed.");
+
+        try {
+            if (!permits.tryAcquire(config.getMaxWait(), TimeUnit.MILLISECONDS))
+                throw new RepositoryException("Timeout while waiting for a GraphDB connection of pool " + name + '.');
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting for a GraphDB connection of pool " + name + '.', ex);
+        }
+
+        try {
+            PoolEntry entry = pollIdle();
+            if (entry == null) {
+                LOGGER.debug("Opening a new connection in pool {}.", name);
+                entry = new PoolEntry(repository.getConnection(), config.getPreparedQueryCacheSize());
+            }
+            return new PooledConnection(entry);
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private PoolEntry pollIdle() {
+        synchronized (idle) {
+            while (!idle.isEmpty()) {
+                PoolEntry entry = idle.pollFirst();
+                if (isUsable(entry.connection)) return entry;
+                closeQuietly(entry.connection);
+            }
+        }
+        return null;
+    }
+
+    private void release(PoolEntry entry, boolean broken) {
+        try {
+            if (!closed && !broken && isUsable(entry.connection)) {
+                entry.since = System.currentTimeMillis();
+                synchronized (idle) {
+                    idle.addFirst(entry);
+                }
+            } else {
+                closeQuietly(entry.connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // region --- MAINTENANCE ---
+
+    /**
+     * Closes connections which were idle longer than the idle timeout and validates the remaining ones.
+     */
+    void evict() {
+        if (closed) return;
+
+        final long now = System.currentTimeMillis();
+        final List<RepositoryConnection> toClose = new ArrayList<>();
+        final List<PoolEntry> toValidate = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PoolEntry> it = idle.iterator();
+            while (it.hasNext()) {
+                PoolEntry entry = it.next();
+                if (now - entry.since >= config.getIdleTimeout() || !isUsable(entry.connection)) {
+                    toClose.add(entry.connection);
+                    it.remove();
+                } else if (config.isValidateIdle()) {
+                    toValidate.add(entry);
+                    it.remove();
+                }
+            }
+        }
+
+        if (!toClose.isEmpty())
+            LOGGER.debug("Evicting {} idle connection(s) from pool {}.", toClose.size(), name);
+        toClose.forEach(GraphDbConnectionPool::closeQuietly);
+
+        for (PoolEntry entry : toValidate) {
+            if (isHealthy(entry.connection)) {
+                synchronized (idle) {
+                    idle.addLast(entry);
+                }
+            } else {
+                LOGGER.warn("Removing unhealthy connection from pool {}.", name);
+                closeQuietly(entry.connection);
+            }
+        }
+    }
+
+    private static boolean isUsable(RepositoryConnection connection) {
+        try {
+            return connection.isOpen() && !connection.isActive();
+        } catch (RepositoryException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isHealthy(RepositoryConnection connection) {
+        try {
+            connection.prepareBooleanQuery(VALIDATION_QUERY).evaluate();
+            return true;
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Health check of GraphDB connection failed.", ex);
+            return false;
+        }
+    }
+
+    private static void closeQuietly(RepositoryConnection connection) {
+        try {
+            connection.close();
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Could not close GraphDB connection.", ex);
+        }
+    }
+
+    /**
+     * Returns the number of idle connections.
+     *
+     * @return The number of idle connections.
+     */
+    int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Returns the number of borrowed connections.
+     *
+     * @return The number of borrowed connections.
+     */
+    int getActiveCount() {
+        return config.getMaxSize() - permits.availablePermits();
+    }
+    // endregion
+
+    /**
+     * Closes all idle connections and stops the evictor. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LOGGER.info("Closing GraphDB connection pool {}.", name);
+
+        evictor.shutdownNow();
+        synchronized (idle) {
+            idle.forEach(entry -> closeQuietly(entry.connection));
+            idle.clear();
+        }
+    }
+
+    // region --- HELPER CLASSES ---
+    private static final class PoolEntry {
+        private final RepositoryConnection connection;
+        private final Map<String, TupleQuery> preparedQueries;
+        private long since;
+
+        private PoolEntry(RepositoryConnection connection, int preparedQueryCacheSize) {
+            this.connection = connection;
+            this.preparedQueries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TupleQuery> eldest) {
+                    return size() > preparedQueryCacheSize;
+                }
+            };
+            this.since = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * A connection wrapper which returns the underlying connection to the pool on {@link #close()}
+     * and reuses SPARQL tuple queries prepared earlier on the same underlying connection.
+     */
+    private final class PooledConnection extends RepositoryConnectionWrapper {
+        private final PoolEntry entry;
+        private boolean returned;
+
+        private PooledConnection(PoolEntry entry) {
+            super(repository, entry.connection);
+            this.entry = entry;
+            this.returned = false;
+        }
+
+        @Override
+        public TupleQuery prepareTupleQuery(QueryLanguage ql, String query, String baseURI) throws MalformedQueryException, RepositoryException {
+            if (ql != QueryLanguage.SPARQL || baseURI != null || config.getPreparedQueryCacheSize() == 0)
+                return super.prepareTupleQuery(ql, query, baseURI);
+
+            TupleQuery prepared = entry.preparedQueries.get(query);
+            if (prepared == null) {
+                prepared = super.prepareTupleQuery(ql, query, baseURI);
+                entry.preparedQueries.put(query, prepared);
+            } else {
+                prepared.clearBindings();
+                prepared.setDataset(null);
+                prepared.setIncludeInferred(true);
+                prepared.setMaxExecutionTime(0);
+            }
+            return prepared;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !returned && super.isOpen();
+        }
+
+        @Override
+        public void close() {
+            if (returned) return;
+            returned = true;
+
+            boolean broken = false;
+            try {
+                if (getDelegate().isActive()) {
+                    LOGGER.warn("Rolling back unfinished transaction of pooled connection.");
+                    getDelegate().rollback();
+                }
+            } catch (RepositoryException ex) {
+                broken = true;
+            }
+            release(entry, broken);
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,282 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbPoolConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.query.QueryInterruptedException;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read queries to a set of GraphDB endpoints serving the same data, each with its own connection pool.
+ * <p>
+ * A query is routed to the healthy endpoint with the least outstanding queries; ties are broken round-robin.
+ * An endpoint failing {@code failureThreshold} times in a row because of connection errors is ejected for
+ * {@code ejectionTime} ms; afterwards it receives queries again and is ejected immediately on the next failure,
+ * until a query succeeds. If all endpoints are ejected, the one whose ejection ends first is used.
+ * <p>
+ * Connections for writes and other non-query operations are always taken from the primary endpoint.
+ */
+class GraphDbRouter implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(GraphDbRouter.class);
+
+    private final Endpoint primary;
+    private final List<Endpoint> endpoints;
+    private final List<Endpoint> readers;
+    private final AtomicInteger next;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbRouter}.
+     *
+     * @param primary         The endpoint for writes (and reads if {@code readFromPrimary} is set).
+     * @param replicas        The read-only endpoints.
+     * @param readFromPrimary Whether read queries are routed to the primary endpoint; ignored if there are no replicas.
+     * @throws IllegalArgumentException If {@code primary} or {@code replicas} is {@code null}.
+     */
+    GraphDbRouter(Endpoint primary, List<Endpoint> replicas, boolean readFromPrimary) {
+        if (primary == null) throw new IllegalArgumentException("primary must not be null");
+        if (replicas == null) throw new IllegalArgumentException("replicas must not be null");
+
+        this.primary = primary;
+        List<Endpoint> all = new ArrayList<>(replicas.size() + 1);
+        all.add(primary);
+        all.addAll(replicas);
+        this.endpoints = Collections.unmodifiableList(all);
+        this.readers = readFromPrimary || replicas.isEmpty() ? endpoints : List.copyOf(replicas);
+        this.next = new AtomicInteger();
+    }
+
+    /**
+     * Returns the endpoint for writes and other non-query operations.
+     *
+     * @return The primary endpoint.
+     */
+    Endpoint getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Returns the endpoints which receive read queries.
+     *
+     * @return An unmodifiable list of endpoints.
+     */
+    List<Endpoint> getReaders() {
+        return readers;
+    }
+
+    /**
+     * Selects the endpoint for the next read query.
+     *
+     * @param excluded The endpoints which must not be selected (e.g. because the query already failed on them).
+     * @return The healthy endpoint with the least outstanding queries, the ejected endpoint whose ejection ends first
+     * if there is no healthy one, or {@code null} if all endpoints are excluded.
+     */
+    Endpoint select(Collection<Endpoint> excluded) {
+        final long now = System.currentTimeMillis();
+        final int size = readers.size();
+        final int offset = size == 1 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+
+        Endpoint best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        Endpoint ejected = null;
+        for (int i = 0; i < size; i++) {
+            Endpoint endpoint = readers.get((offset + i) % size);
+            if (excluded.contains(endpoint)) continue;
+            if (endpoint.ejectedUntil > now) {
+                if (ejected == null || endpoint.ejectedUntil < ejected.ejectedUntil) ejected = endpoint;
+                continue;
+            }
+            int outstanding = endpoint.outstanding.get();
+            if (outstanding < bestOutstanding) {
+                best = endpoint;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best != null ? best : ejected;
+    }
+
+    /**
+     * Returns whether a read query may be routed to another endpoint.
+     *
+     * @param excluded The endpoints the query already failed on.
+     * @return {@code true} if at least one read endpoint is not excluded.
+     */
+    boolean hasAlternative(Collection<Endpoint> excluded) {
+        for (Endpoint endpoint : readers)
+            if (!excluded.contains(endpoint)) return true;
+        return false;
+    }
+
+    /**
+     * Returns whether the exception was caused by a failed connection to the endpoint (so that the query
+     * can be retried on another endpoint), i.e. whether it contains an {@link IOException} in its causes.
+     * Exceeded execution times are no connection errors.
+     *
+     * @param ex The exception thrown while evaluating a query.
+     * @return {@code true} if the endpoint could not be reached.
+     */
+    static boolean isConnectionError(Throwable ex) {
+        if (ex instanceof QueryInterruptedException) return false;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) return true;
+            if (cause.getCause() == cause) break;
+        }
+        return false;
+    }
+
+    /**
+     * Closes the connection pools of all endpoints.
+     */
+    @Override
+    public void close() {
+        endpoints.forEach(Endpoint::close);
+    }
+
+    /**
+     * A GraphDB endpoint with its connection pool, health state and metrics.
+     * <p>
+     * The following metrics are recorded per endpoint (tag {@code endpoint}):
+     * <ul>
+     * <li><b>graphdb.endpoint</b>: Execution time of the queries routed to the endpoint (tag {@code outcome})</li>
+     * <li><b>graphdb.endpoint.outstanding</b>: Number of queries currently routed to the endpoint</li>
+     * <li><b>graphdb.endpoint.healthy</b>: 1 if the endpoint receives queries, 0 if it is ejected</li>
+     * </ul>
+     */
+    static final class Endpoint implements Closeable {
+        private final String name;
+        private final GraphDbConnectionPool pool;
+        private final int failureThreshold;
+        private final long ejectionTime;
+        private final MeterRegistry meterRegistry;
+        private final AtomicInteger outstanding;
+        private final AtomicInteger failures;
+        private volatile long ejectedUntil;
+
+        /**
+         * Instantiates a new instance of class {@linkplain Endpoint}.
+         *
+         * @param name             The name of the endpoint used in log-messages and as metric tag.
+         * @param repository       The initialized repository of the endpoint.
+         * @param config           The pool configuration.
+         * @param failureThreshold The number of consecutive connection errors after which the endpoint is ejected.
+         * @param ejectionTime     The time in milliseconds the ejected endpoint does not receive queries.
+         * @param meterRegistry    The registry for the endpoint metrics.
+         * @throws IllegalArgumentException If {@code failureThreshold} is less than 1.
+         */
+        Endpoint(String name, Repository repository, GraphDbPoolConfig config, int failureThreshold, long ejectionTime, MeterRegistry meterRegistry) {
+            if (failureThreshold < 1) throw new IllegalArgumentException("failureThreshold must be at least 1");
+            this.name = name;
+            this.pool = new GraphDbConnectionPool(name, repository, config);
+            this.failureThreshold = failureThreshold;
+            this.ejectionTime = ejectionTime;
+            this.meterRegistry = meterRegistry;
+            this.outstanding = new AtomicInteger();
+            this.failures = new AtomicInteger();
+
+            Gauge.builder("graphdb.endpoint.outstanding", outstanding, AtomicInteger::get)
+                    .description("Number of GraphDB queries currently routed to the endpoint")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            Gauge.builder("graphdb.endpoint.healthy", this, x -> x.isHealthy() ? 1 : 0)
+                    .description("Whether the GraphDB endpoint receives queries")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Returns the name of the endpoint.
+         *
+         * @return The name.
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Returns a connection from the pool of the endpoint.
+         *
+         * @return A pooled connection.
+         * @throws org.eclipse.rdf4j.repository.RepositoryException If no connection is available or could be opened.
+         */
+        RepositoryConnection borrow() {
+            return pool.borrow();
+        }
+
+        /**
+         * Returns whether the endpoint currently receives queries.
+         *
+         * @return {@code false} if the endpoint is ejected.
+         */
+        boolean isHealthy() {
+            return ejectedUntil <= System.currentTimeMillis();
+        }
+
+        /**
+         * Returns the number of queries currently routed to the endpoint.
+         *
+         * @return The number of outstanding queries.
+         */
+        int getOutstanding() {
+            return outstanding.get();
+        }
+
+        /**
+         * Marks the start of a query routed to the endpoint.
+         */
+        void begin() {
+            outstanding.incrementAndGet();
+        }
+
+        /**
+         * Marks the end of a query routed to the endpoint and updates its health.
+         * A successful query resets the failure count, a query which could not reach the endpoint
+         * ({@code outcome} {@code unavailable}) increases it and ejects the endpoint when the threshold is reached.
+         *
+         * @param outcome The outcome of the query ({@code success}, {@code unavailable}, {@code timeout}, {@code cancelled} or {@code error}).
+         * @param nanos   The execution time of the query.
+         */
+        void end(String outcome, long nanos) {
+            outstanding.decrementAndGet();
+            Timer.builder("graphdb.endpoint")
+                    .description("Execution time of the GraphDB queries routed to the endpoint")
+                    .tag("endpoint", name)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+
+            if (outcome.equals("success")) {
+                failures.set(0);
+            } else if (outcome.equals("unavailable") && failures.incrementAndGet() >= failureThreshold) {
+                ejectedUntil = System.currentTimeMillis() + ejectionTime;
+                LOGGER.warn("GraphDB endpoint {} failed {} times in a row and is ejected for {} ms.", name, failures.get(), ejectionTime);
+            }
+        }
+
+        /**
+         * Closes the connection pool of the endpoint.
+         */
+        @Override
+        public void close() {
+            pool.close();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.configuration.GraphDbWarmUpConfig;
+import at.jku.dke.ida.data.models.DimensionLabel;
+import at.jku.dke.ida.data.models.Label;
+import at.jku.dke.ida.data.repositories.CubeRepository;
+import at.jku.dke.ida.data.repositories.LevelRepository;
+import at.jku.dke.ida.data.repositories.SimilarityRepository;
+import at.jku.dke.ida.shared.models.DimensionQualification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.RDF4JException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Initializes the GraphDB repository eagerly at application startup and executes representative queries
+ * (cube labels, cube contexts, level relationships and similarities) to fill the caches of the
+ * repository and the application.
+ * <p>
+ * The warm-up runs when the application context has been refreshed, which is before the embedded
+ * web server starts accepting (websocket) connections.
+ */
+@Service
+public class GraphDbWarmUp {
+
+    private static final Logger LOGGER = LogManager.getLogger(GraphDbWarmUp.class);
+    private static final String SIMILARITY_LANG = "en";
+
+    private final GraphDbConnection connection;
+    private final GraphDbWarmUpConfig config;
+    private final CubeRepository cubeRepository;
+    private final LevelRepository levelRepository;
+    private final SimilarityRepository similarityRepository;
+    private final AtomicBoolean started;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbWarmUp}.
+     *
+     * @param connection           The GraphDB connection service class.
+     * @param config               The GraphDB configuration.
+     * @param cubeRepository       The cube repository.
+     * @param levelRepository      The level repository.
+     * @param similarityRepository The similarity repository.
+     */
+    @Autowired
+    public GraphDbWarmUp(GraphDbConnection connection, GraphDbConfig config, CubeRepository cubeRepository,
+                         LevelRepository levelRepository, SimilarityRepository similarityRepository) {
+        this.connection = connection;
+        this.config = config.getWarmUp();
+        this.cubeRepository = cubeRepository;
+        this.levelRepository = levelRepository;
+        this.similarityRepository = similarityRepository;
+        this.started = new AtomicBoolean(false);
+    }
+
+    /**
+     * Initializes the repository and runs the warm-up once after the application context has been refreshed.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        if (!started.compareAndSet(false, true)) return;
+
+        long start = System.currentTimeMillis();
+        try {
+            connection.initialize();
+        } catch (RDF4JException ex) {
+            LOGGER.error("Could not initialize the GraphDB repository at startup; it will be initialized on first access.", ex);
+            return;
+        }
+        LOGGER.info("Initialized GraphDB repository in {} ms.", System.currentTimeMillis() - start);
+
+        if (config.isEnabled())
+            warmUp();
+    }
+
+    /**
+     * Executes the warm-up queries.
+     * Failing queries are logged and do not stop the warm-up.
+     *
+     * @return The number of successfully executed queries.
+     */
+    public int warmUp() {
+        long start = System.currentTimeMillis();
+        int queries = 0;
+        Set<String> terms = new LinkedHashSet<>(Arrays.asList(config.getTerms()));
+
+        for (String lang : config.getLanguages()) {
+            List<Label> cubes;
+            try {
+                cubes = cubeRepository.getLabelsByLang(lang);
+                queries++;
+            } catch (QueryException | RuntimeException ex) {
+                LOGGER.warn("Warm-up query for cube labels in language " + lang + " failed.", ex);
+                continue;
+            }
+
+            for (Label cube : cubes) {
+                if (SIMILARITY_LANG.equals(lang)) terms.add(cube.getLabel());
+                queries += warmUpCube(lang, cube.getUri());
+            }
+        }
+
+        for (String term : terms) {
+            try {
+                similarityRepository.getTermSimilarity(SIMILARITY_LANG, term);
+                queries++;
+            } catch (QueryException | RuntimeException ex) {
+                LOGGER.warn("Warm-up query for similarities of term '" + term + "' failed.", ex);
+            }
+        }
+
+        LOGGER.info("Executed {} warm-up queries in {} ms.", queries, System.currentTimeMillis() - start);
+        return queries;
+    }
+
+    private int warmUpCube(String lang, String cubeIri) {
+        int queries = 0;
+        try {
+            cubeRepository.getContextByCube(cubeIri, Collections.emptyList());
+            queries++;
+
+            for (DimensionLabel level : levelRepository.getBaseLevelLabelsByLangAndCube(lang, cubeIri)) {
+                DimensionQualification dimension = new DimensionQualification(level.getDimensionUri());
+                dimension.setGranularityLevel(level.getUri());
+                levelRepository.getParentLevelLabelsByLangAndDimension(lang, dimension);
+                queries++;
+            }
+            queries++;
+        } catch (QueryException | RuntimeException ex) {
+            LOGGER.warn("Warm-up queries for cube " + cubeIri + " in language " + lang + " failed.", ex);
+        }
+        return queries;
+    }
+}
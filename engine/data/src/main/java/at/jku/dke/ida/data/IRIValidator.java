@@ -1,11 +1,22 @@
 package at.jku.dke.ida.data;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.eclipse.rdf4j.common.net.ParsedIRI;
 
 /**
  * A helper class to validate IRIs.
+ * <p>
+ * Strings which do not start with a scheme (e.g. numbers or labels) are rejected without parsing them
+ * and the last 10,000 valid IRIs are remembered, as most validated IRIs are the same schema IRIs.
  */
 public final class IRIValidator {
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final Cache<String, Boolean> VALID = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
     /**
      * Prevents creation of instances of this class.
      */
@@ -19,13 +30,36 @@ public final class IRIValidator {
      * @return {@code true} if the IRI is valid and absolute; {@code false} otherwise.
      */
     public static boolean isValidAbsoluteIRI(String iriString) {
-        if (iriString == null) return false;
+        if (iriString == null || !startsWithScheme(iriString)) return false;
+        if (VALID.getIfPresent(iriString) != null) return true;
         try {
             var parsed = ParsedIRI.create(iriString);
-            if (parsed == null) return false;
-            return parsed.isAbsolute();
+            if (parsed == null || !parsed.isAbsolute()) return false;
+            VALID.put(iriString, Boolean.TRUE);
+            return true;
         } catch (IllegalArgumentException ex) {
             return false;
         }
     }
+
+    /**
+     * Returns whether the string starts with a scheme followed by a colon
+     * ({@code ALPHA *( ALPHA / DIGIT / "+" / "-" / "." ) ":"}), which every absolute IRI does.
+     *
+     * @param str The string to check.
+     * @return {@code true} if the string may be an absolute IRI.
+     */
+    static boolean startsWithScheme(String str) {
+        if (str.isEmpty() || !isAlpha(str.charAt(0))) return false;
+        for (int i = 1; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == ':') return true;
+            if (!isAlpha(c) && !(c >= '0' && c <= '9') && c != '+' && c != '-' && c != '.') return false;
+        }
+        return false;
+    }
+
+    private static boolean isAlpha(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
 }
@@ -0,0 +1,29 @@
+package at.jku.dke.ida.data;
+
+/**
+ * This exception will be thrown when a query was cancelled, because its {@link QueryScope} was cancelled.
+ */
+public class QueryCancelledException extends QueryException {
+
+    /**
+     * Constructs a new exception with the specified detail message. The cause is not initialized, and may subsequently
+     * be initialized by a call to {@link #initCause}.
+     *
+     * @param message the detail message. The detail message is saved for later retrieval by
+     *                the {@link #getMessage()} method.
+     */
+    public QueryCancelledException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new exception with the specified detail message and cause.
+     *
+     * @param message the detail message (which is saved for later retrieval by the {@link #getMessage()} method).
+     * @param cause   the cause (which is saved for later retrieval by the {@link #getCause()} method).
+     *                (A {@code null} value is permitted, and indicates that the cause is nonexistent or unknown.)
+     */
+    public QueryCancelledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
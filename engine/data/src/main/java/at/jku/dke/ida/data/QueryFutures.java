@@ -0,0 +1,63 @@
+package at.jku.dke.ida.data;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * This class contains helper methods for futures returned by the asynchronous repository methods.
+ */
+public final class QueryFutures {
+    /**
+     * Prevents creation of instances of this class.
+     */
+    private QueryFutures() {
+    }
+
+    /**
+     * Waits for the future to complete and returns its result.
+     * <p>
+     * A {@link QueryException} or {@link RuntimeException} thrown by the query is rethrown unwrapped.
+     *
+     * @param future The future to wait for.
+     * @param <T>    The type of the result.
+     * @return The result of the future.
+     * @throws IllegalArgumentException If {@code future} is {@code null}.
+     * @throws QueryException           If an exception occurred while executing the query or the future was cancelled.
+     */
+    public static <T> T join(CompletableFuture<T> future) throws QueryException {
+        if (future == null) throw new IllegalArgumentException("future must not be null");
+        try {
+            return future.join();
+        } catch (CancellationException ex) {
+            throw new QueryException("The query has been cancelled.", ex);
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof QueryException) throw (QueryException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new QueryException("An error occurred while executing the query.", cause);
+        }
+    }
+
+    /**
+     * Waits for all futures to complete.
+     * <p>
+     * If multiple futures failed, the exception of the first failed future in argument order is thrown.
+     *
+     * @param futures The futures to wait for.
+     * @throws IllegalArgumentException If {@code futures} is {@code null}.
+     * @throws QueryException           If an exception occurred while executing a query or a future was cancelled.
+     */
+    public static void joinAll(CompletableFuture<?>... futures) throws QueryException {
+        if (futures == null) throw new IllegalArgumentException("futures must not be null");
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CancellationException | CompletionException ex) {
+            for (CompletableFuture<?> future : futures) {
+                if (future.isCompletedExceptionally()) join(future);
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package at.jku.dke.ida.data;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the queries executed by the current thread to an owner (e.g. a dialogue session),
+ * so that they can be cancelled if the owner is gone.
+ * <p>
+ * A scope is opened with {@link #open(String)} and has to be closed by the same thread,
+ * best with a try-with-resources-block. Queries executed asynchronously with
+ * {@link GraphDbConnection#supplyAsync(QuerySupplier)} belong to the scope of the calling thread.
+ * <p>
+ * {@link #cancel(String)} closes the running queries of all open scopes of the owner; these and all further queries
+ * in these scopes throw a {@link QueryCancelledException}.
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(QueryScope.class);
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+    private static final Map<String, Set<QueryScope>> OPEN = new ConcurrentHashMap<>();
+
+    private final String owner;
+    private final QueryScope previous;
+    private final Set<TupleQueryResult> running;
+    private volatile boolean cancelled;
+
+    /**
+     * Instantiates a new instance of class {@linkplain QueryScope}.
+     *
+     * @param owner    The owner of the scope.
+     * @param previous The scope which was active before.
+     */
+    private QueryScope(String owner, QueryScope previous) {
+        this.owner = owner;
+        this.previous = previous;
+        this.running = ConcurrentHashMap.newKeySet();
+    }
+
+    // region --- STATIC ---
+
+    /**
+     * Opens a new scope for the current thread.
+     *
+     * @param owner The owner of the queries (e.g. the session id).
+     * @return The opened scope.
+     * @throws IllegalArgumentException If {@code owner} is {@code null} or blank.
+     */
+    public static QueryScope open(String owner) {
+        if (StringUtils.isBlank(owner)) throw new IllegalArgumentException("owner must not be null or empty");
+
+        QueryScope scope = new QueryScope(owner, CURRENT.get());
+        OPEN.compute(owner, (k, scopes) -> {
+            Set<QueryScope> result = scopes == null ? ConcurrentHashMap.newKeySet() : scopes;
+            result.add(scope);
+            return result;
+        });
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Cancels the running queries of all open scopes of the owner.
+     * If the owner has no open scope, nothing will happen.
+     *
+     * @param owner The owner of the queries.
+     * @throws IllegalArgumentException If {@code owner} is {@code null} or blank.
+     */
+    public static void cancel(String owner) {
+        if (StringUtils.isBlank(owner)) throw new IllegalArgumentException("owner must not be null or empty");
+
+        Set<QueryScope> scopes = OPEN.get(owner);
+        if (scopes == null) return;
+        LOGGER.info("Cancelling queries of {}.", owner);
+        scopes.forEach(QueryScope::cancel);
+    }
+
+    /**
+     * Returns the scope of the current thread.
+     *
+     * @return The current scope or {@code null} if no scope is open.
+     */
+    static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Sets the scope of the current thread (used to pass the scope to asynchronous queries).
+     *
+     * @param scope The scope (may be {@code null}).
+     * @return The scope which was active before.
+     */
+    static QueryScope attach(QueryScope scope) {
+        QueryScope previous = CURRENT.get();
+        if (scope == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(scope);
+        return previous;
+    }
+    // endregion
+
+    /**
+     * Returns the owner of this scope.
+     *
+     * @return The owner.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns whether this scope was cancelled.
+     *
+     * @return {@code true} if the scope was cancelled, otherwise {@code false}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a running query result, so that it is closed on cancellation.
+     *
+     * @param result The query result.
+     * @throws QueryCancelledException If the scope is already cancelled.
+     */
+    void register(TupleQueryResult result) throws QueryCancelledException {
+        running.add(result);
+        if (cancelled) {
+            running.remove(result);
+            throw new QueryCancelledException("The queries of " + owner + " were cancelled.");
+        }
+    }
+
+    /**
+     * Unregisters a query result after it has been read.
+     *
+     * @param result The query result.
+     */
+    void unregister(TupleQueryResult result) {
+        running.remove(result);
+    }
+
+    private void cancel() {
+        cancelled = true;
+        for (TupleQueryResult result : running) {
+            try {
+                result.close();
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Could not close the running query of " + owner, ex);
+            }
+        }
+    }
+
+    /**
+     * Closes this scope and restores the scope which was active before.
+     */
+    @Override
+    public void close() {
+        OPEN.computeIfPresent(owner, (k, scopes) -> {
+            scopes.remove(this);
+            return scopes.isEmpty() ? null : scopes;
+        });
+        attach(previous);
+    }
+}
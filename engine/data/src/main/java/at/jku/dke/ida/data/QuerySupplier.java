@@ -0,0 +1,18 @@
+package at.jku.dke.ida.data;
+
+/**
+ * Supplies the result of one or more queries.
+ *
+ * @param <T> The type of the result.
+ */
+@FunctionalInterface
+public interface QuerySupplier<T> {
+
+    /**
+     * Executes the queries and returns the result.
+     *
+     * @return The result.
+     * @throws QueryException If an exception occurred while executing a query.
+     */
+    T get() throws QueryException;
+}
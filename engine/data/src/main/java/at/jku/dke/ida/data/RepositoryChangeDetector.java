@@ -0,0 +1,152 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbChangeDetectionConfig;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the GraphDB repository for changes and publishes a {@link RepositoryChangedEvent} if its data changed,
+ * so that data cached in memory (schema snapshots, labels, similarities) can be kept for hours.
+ * <p>
+ * The change signal is cheap to read: either the statements of a version graph
+ * ({@code graphdb.change-detection.version-graph}), which has to be updated with every change of the data,
+ * or the number of statements and the list of named graphs of the repository.
+ * The event is published synchronously, so all listeners have invalidated their caches when a check returns.
+ */
+@Service
+public class RepositoryChangeDetector {
+
+    private static final Logger LOGGER = LogManager.getLogger(RepositoryChangeDetector.class);
+
+    private final GraphDbConnection connection;
+    private final GraphDbChangeDetectionConfig config;
+    private final ApplicationEventPublisher publisher;
+    private ScheduledExecutorService scheduler;
+    private String signal;
+    private long generation;
+
+    /**
+     * Instantiates a new instance of class {@linkplain RepositoryChangeDetector}.
+     *
+     * @param connection The GraphDB connection service class.
+     * @param config     The GraphDB configuration.
+     * @param publisher  The publisher of the change events.
+     */
+    @Autowired
+    public RepositoryChangeDetector(GraphDbConnection connection, GraphDbConfig config, ApplicationEventPublisher publisher) {
+        this.connection = connection;
+        this.config = config.getChangeDetection();
+        this.publisher = publisher;
+    }
+
+    /**
+     * Reads the initial change signal and starts polling if the change detection is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!config.isEnabled() || scheduler != null) return;
+
+        check();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "graphdb-change-detector");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, config.getInterval(), config.getInterval(), TimeUnit.MILLISECONDS);
+        LOGGER.info("Polling the GraphDB repository for changes every {} ms.", config.getInterval());
+    }
+
+    /**
+     * Stops polling.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Reads the change signal and publishes a {@link RepositoryChangedEvent} if it differs from the last one read.
+     * The first check only remembers the signal. If the repository is not available, the check is skipped.
+     *
+     * @return {@code true} if a change was detected
+     */
+    public synchronized boolean check() {
+        final String current;
+        try {
+            current = readSignal();
+        } catch (RepositoryException ex) {
+            LOGGER.warn("Could not check the GraphDB repository for changes.", ex);
+            return false;
+        }
+
+        final String previous = signal;
+        signal = current;
+        if (previous == null || previous.equals(current)) return false;
+
+        generation++;
+        LOGGER.info("Detected change {} of the GraphDB repository (signal {} -> {}); invalidating cached data.", generation, previous, current);
+        publisher.publishEvent(new RepositoryChangedEvent(this, generation, previous, current));
+        return true;
+    }
+
+    /**
+     * Returns the number of changes detected so far.
+     *
+     * @return The generation of the repository data.
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Runs a scheduled check. A failed check must not end the polling, as the executor does not run
+     * a task again after it threw an exception.
+     */
+    private void poll() {
+        try {
+            check();
+        } catch (RuntimeException ex) {
+            LOGGER.error("Could not check the GraphDB repository for changes or handle a detected change.", ex);
+        }
+    }
+
+    private String readSignal() {
+        try (RepositoryConnection conn = connection.createConnection()) {
+            if (StringUtils.isNotBlank(config.getVersionGraph())) {
+                IRI graph = SimpleValueFactory.getInstance().createIRI(config.getVersionGraph());
+                return Iterations.stream(conn.getStatements(null, null, null, false, graph))
+                        .map(x -> x.getSubject().stringValue() + ' ' + x.getPredicate().stringValue() + ' ' + x.getObject().stringValue())
+                        .sorted()
+                        .collect(Collectors.joining("\n"));
+            }
+
+            String contexts = Iterations.stream(conn.getContextIDs())
+                    .map(Resource::stringValue)
+                    .sorted()
+                    .collect(Collectors.joining("\n"));
+            return conn.size() + "/" + Integer.toHexString(contexts.hashCode());
+        }
+    }
+}
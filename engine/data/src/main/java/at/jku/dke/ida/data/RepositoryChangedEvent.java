@@ -0,0 +1,65 @@
+package at.jku.dke.ida.data;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published by the {@link RepositoryChangeDetector} if the data of the GraphDB repository changed.
+ * All data read from the repository and cached in memory is outdated when this event is published.
+ */
+public class RepositoryChangedEvent extends ApplicationEvent {
+
+    private final long generation;
+    private final String previousSignal;
+    private final String currentSignal;
+
+    /**
+     * Instantiates a new instance of class {@linkplain RepositoryChangedEvent}.
+     *
+     * @param source         The detector which detected the change.
+     * @param generation     The number of changes detected so far, including this one.
+     * @param previousSignal The change signal read before the change.
+     * @param currentSignal  The change signal read after the change.
+     */
+    public RepositoryChangedEvent(Object source, long generation, String previousSignal, String currentSignal) {
+        super(source);
+        this.generation = generation;
+        this.previousSignal = previousSignal;
+        this.currentSignal = currentSignal;
+    }
+
+    /**
+     * Returns the number of changes detected so far, including this one.
+     *
+     * @return The generation of the repository data.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the change signal read before the change.
+     *
+     * @return The previous signal.
+     */
+    public String getPreviousSignal() {
+        return previousSignal;
+    }
+
+    /**
+     * Returns the change signal read after the change.
+     *
+     * @return The current signal.
+     */
+    public String getCurrentSignal() {
+        return currentSignal;
+    }
+
+    @Override
+    public String toString() {
+        return "RepositoryChangedEvent{" +
+                "generation=" + generation +
+                ", previousSignal='" + previousSignal + '\'' +
+                ", currentSignal='" + currentSignal + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,305 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbEmbeddedConfig;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.RDF4JException;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads the data, wordnet, index and materialization files of the embedded database and reloads
+ * only the files which changed since the last start.
+ * <p>
+ * The SHA-256 hashes of the loaded files are stored in the graph {@code http://dke.jku.at/ida/load#manifest}.
+ * On every start the hashes are compared with the files on disk:
+ * <ul>
+ * <li>Every data file is loaded into its own graph, which is replaced if the file changed and removed if the file was deleted.</li>
+ * <li>The wordnet graph is replaced if one of the wordnet files changed.</li>
+ * <li>Index files are executed again if they or the wordnet files changed.</li>
+ * <li>Materialization files are executed again if anything changed; the graphs created by the previous run are removed first.</li>
+ * </ul>
+ * The hash of a file is stored only after it was loaded successfully, so files which failed to
+ * load are retried on the next start.
+ */
+class RepositoryLoader {
+
+    static final String NAMESPACE = "http://dke.jku.at/ida/load#";
+
+    private static final Logger LOGGER = LogManager.getLogger(RepositoryLoader.class);
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+    private static final IRI MANIFEST = VF.createIRI(NAMESPACE, "manifest");
+    private static final IRI SHA256 = VF.createIRI(NAMESPACE, "sha256");
+    private static final IRI MATERIALIZED_GRAPH = VF.createIRI(NAMESPACE, "materializedGraph");
+    private static final IRI WORDNET_GRAPH = VF.createIRI("http://dke.jku.at/ida/similarity#wordnet");
+    private static final String DATA = "data/";
+    private static final String WORDNET = "wordnet/";
+    private static final String INDEX = "index/";
+    private static final String MATERIALIZATION = "materialization/";
+
+    private final Repository repository;
+    private final GraphDbEmbeddedConfig config;
+
+    /**
+     * Instantiates a new instance of class {@linkplain RepositoryLoader}.
+     *
+     * @param repository The repository to load the files into.
+     * @param config     The embedded GraphDB configuration.
+     * @throws IllegalArgumentException If {@code repository} or {@code config} is {@code null}.
+     */
+    RepositoryLoader(Repository repository, GraphDbEmbeddedConfig config) {
+        if (repository == null) throw new IllegalArgumentException("repository must not be null");
+        if (config == null) throw new IllegalArgumentException("config must not be null");
+        this.repository = repository;
+        this.config = config;
+    }
+
+    /**
+     * Loads all files which changed since the last start.
+     *
+     * @return {@code true} if anything was loaded, otherwise {@code false}.
+     * @throws IOException If a file could not be read or loaded.
+     */
+    boolean load() throws IOException {
+        long start = System.currentTimeMillis();
+        Map<IRI, Path> dataFiles = listFiles(DATA, config.getDataDirectory());
+        Map<IRI, Path> wordnetFiles = listWordNetFiles();
+        Map<IRI, Path> indexFiles = listFiles(INDEX, config.getIndexDirectory());
+        Map<IRI, Path> materializationFiles = listFiles(MATERIALIZATION, config.getMaterializationDirectory());
+
+        try (RepositoryConnection connection = repository.getConnection();
+             BulkLoader loader = new BulkLoader(repository, config.getLoadBatchSize(), config.getLoadParallelism())) {
+            Map<IRI, String> stored = readManifest(connection);
+            if (stored.isEmpty() && !connection.isEmpty()) {
+                LOGGER.warn("The repository contains no load manifest; all files will be reloaded.");
+                connection.clear();
+            }
+
+            boolean dataChanged = loadDataFiles(connection, loader, dataFiles, stored);
+            boolean wordnetChanged = loadWordNet(connection, loader, wordnetFiles, stored);
+            boolean indexChanged = executeUpdates(connection, INDEX, indexFiles, stored, wordnetChanged);
+            boolean materializationChanged = executeMaterialization(connection, materializationFiles, stored,
+                    dataChanged || wordnetChanged || indexChanged);
+
+            boolean changed = dataChanged || wordnetChanged || indexChanged || materializationChanged;
+            if (changed)
+                LOGGER.info("Loaded changed files in {} ms (data: {}, wordnet: {}, indizes: {}, materialization: {}).",
+                        System.currentTimeMillis() - start, dataChanged, wordnetChanged, indexChanged, materializationChanged);
+            else
+                LOGGER.info("All files are up to date, nothing to load (checked in {} ms).", System.currentTimeMillis() - start);
+            return changed;
+        }
+    }
+
+    // region --- LOAD ---
+    private boolean loadDataFiles(RepositoryConnection connection, BulkLoader loader, Map<IRI, Path> files, Map<IRI, String> stored) throws IOException {
+        boolean changed = false;
+        for (Map.Entry<IRI, Path> file : files.entrySet()) {
+            String hash = hash(file.getValue());
+            if (hash.equals(stored.get(file.getKey()))) continue;
+
+            LOGGER.info("Data file {} changed.", file.getValue());
+            connection.clear(file.getKey());
+            loader.load(file.getValue(), Rio.getParserFormatForFileName(file.getValue().toString()).orElse(RDFFormat.TURTLE), file.getKey());
+            storeHash(connection, file.getKey(), hash);
+            changed = true;
+        }
+        for (IRI removed : removedFiles(DATA, files, stored)) {
+            LOGGER.info("Data file {} was removed.", removed.getLocalName());
+            connection.clear(removed);
+            removeHash(connection, removed);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private boolean loadWordNet(RepositoryConnection connection, BulkLoader loader, Map<IRI, Path> files, Map<IRI, String> stored) throws IOException {
+        Map<IRI, String> hashes = new LinkedHashMap<>();
+        for (Map.Entry<IRI, Path> file : files.entrySet())
+            hashes.put(file.getKey(), hash(file.getValue()));
+        Set<IRI> removed = removedFiles(WORDNET, files, stored);
+        if (removed.isEmpty() && hashes.entrySet().stream().allMatch(e -> e.getValue().equals(stored.get(e.getKey()))))
+            return false;
+
+        LOGGER.info("Wordnet files changed.");
+        for (IRI file : hashes.keySet())
+            removeHash(connection, file);
+        for (IRI file : removed)
+            removeHash(connection, file);
+        connection.clear(WORDNET_GRAPH);
+        for (Map.Entry<IRI, Path> file : files.entrySet())
+            loader.load(file.getValue(), RDFFormat.NTRIPLES, WORDNET_GRAPH);
+        for (Map.Entry<IRI, String> hash : hashes.entrySet())
+            storeHash(connection, hash.getKey(), hash.getValue());
+        return true;
+    }
+
+    private boolean executeMaterialization(RepositoryConnection connection, Map<IRI, Path> files, Map<IRI, String> stored, boolean dependenciesChanged) throws IOException {
+        boolean filesChanged = !removedFiles(MATERIALIZATION, files, stored).isEmpty();
+        for (Map.Entry<IRI, Path> file : files.entrySet())
+            filesChanged |= !hash(file.getValue()).equals(stored.get(file.getKey()));
+        if (!dependenciesChanged && !filesChanged)
+            return false;
+
+        LOGGER.info("Replacing materialized graphs.");
+        for (Statement st : Iterations.asList(connection.getStatements(MANIFEST, MATERIALIZED_GRAPH, null, MANIFEST))) {
+            if (st.getObject() instanceof Resource)
+                connection.clear((Resource) st.getObject());
+        }
+        connection.remove(MANIFEST, MATERIALIZED_GRAPH, null, MANIFEST);
+
+        Set<Resource> before = Iterations.asSet(connection.getContextIDs());
+        executeUpdates(connection, MATERIALIZATION, files, stored, true);
+        for (Resource graph : Iterations.asSet(connection.getContextIDs())) {
+            if (!before.contains(graph))
+                connection.add(MANIFEST, MATERIALIZED_GRAPH, graph, MANIFEST);
+        }
+        return true;
+    }
+
+    private boolean executeUpdates(RepositoryConnection connection, String category, Map<IRI, Path> files, Map<IRI, String> stored, boolean all) throws IOException {
+        LOGGER.info("Checking {} files.", category.substring(0, category.length() - 1));
+        boolean changed = false;
+        for (Map.Entry<IRI, Path> file : files.entrySet()) {
+            String hash = hash(file.getValue());
+            if (!all && hash.equals(stored.get(file.getKey()))) continue;
+
+            LOGGER.info("Executing {}.", file.getValue());
+            removeHash(connection, file.getKey());
+            try {
+                connection.prepareUpdate(IOUtils.toString(file.getValue().toUri(), StandardCharsets.UTF_8)).execute();
+                storeHash(connection, file.getKey(), hash);
+                changed = true;
+            } catch (RDF4JException ex) {
+                LOGGER.error("Could not execute " + file.getValue() + "; it will be executed again on the next start.", ex);
+            }
+        }
+        for (IRI removed : removedFiles(category, files, stored)) {
+            removeHash(connection, removed);
+            changed = true;
+        }
+        return changed;
+    }
+    // endregion
+
+    // region --- MANIFEST ---
+    private static Map<IRI, String> readManifest(RepositoryConnection connection) {
+        Map<IRI, String> hashes = new HashMap<>();
+        for (Statement st : Iterations.asList(connection.getStatements(null, SHA256, null, MANIFEST))) {
+            if (st.getSubject() instanceof IRI)
+                hashes.put((IRI) st.getSubject(), st.getObject().stringValue());
+        }
+        return hashes;
+    }
+
+    /**
+     * Returns a fingerprint of the loaded files, which changes whenever a file is loaded or removed.
+     *
+     * @param connection The repository connection.
+     * @return The SHA-256 hash of the sorted file IRIs and hashes in the manifest or an empty string if the manifest is empty.
+     */
+    static String fingerprint(RepositoryConnection connection) {
+        Map<IRI, String> manifest = readManifest(connection);
+        if (manifest.isEmpty()) return "";
+
+        MessageDigest digest = sha256();
+        manifest.entrySet().stream()
+                .map(e -> e.getKey().stringValue() + '=' + e.getValue() + '\n')
+                .sorted()
+                .forEach(x -> digest.update(x.getBytes(StandardCharsets.UTF_8)));
+        return hex(digest.digest());
+    }
+
+    private static void storeHash(RepositoryConnection connection, IRI file, String hash) {
+        connection.remove(file, SHA256, null, MANIFEST);
+        connection.add(file, SHA256, VF.createLiteral(hash), MANIFEST);
+    }
+
+    private static void removeHash(RepositoryConnection connection, IRI file) {
+        connection.remove(file, SHA256, null, MANIFEST);
+    }
+
+    private static Set<IRI> removedFiles(String category, Map<IRI, Path> files, Map<IRI, String> stored) {
+        return stored.keySet().stream()
+                .filter(iri -> iri.getLocalName().startsWith(category))
+                .filter(iri -> !files.containsKey(iri))
+                .collect(Collectors.toSet());
+    }
+    // endregion
+
+    // region --- FILES ---
+    private static Map<IRI, Path> listFiles(String category, String directory) throws IOException {
+        if (directory == null) return Collections.emptyMap();
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) return Collections.emptyMap();
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            Map<IRI, Path> files = new LinkedHashMap<>();
+            paths.filter(Files::isRegularFile)
+                    .sorted()
+                    .forEach(path -> files.put(fileIri(category, root.relativize(path).toString()), path));
+            return files;
+        }
+    }
+
+    private Map<IRI, Path> listWordNetFiles() {
+        if (config.getWordnetFiles() == null) return Collections.emptyMap();
+        Map<IRI, Path> files = new LinkedHashMap<>();
+        for (String file : config.getWordnetFiles())
+            files.put(fileIri(WORDNET, file), Paths.get(file));
+        return files;
+    }
+
+    private static IRI fileIri(String category, String path) {
+        String name = URLEncoder.encode(path.replace('\\', '/'), StandardCharsets.UTF_8).replace("%2F", "/");
+        return VF.createIRI(NAMESPACE, category + name);
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported.", ex);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes)
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+    // endregion
+}
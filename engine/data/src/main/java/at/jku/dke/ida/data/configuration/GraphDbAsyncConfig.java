@@ -0,0 +1,62 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Contains the configuration for the executor running asynchronous queries.
+ */
+public class GraphDbAsyncConfig {
+
+    private int threads;
+    private int queueCapacity;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbAsyncConfig}.
+     */
+    public GraphDbAsyncConfig() {
+        this.threads = 4;
+        this.queueCapacity = 64;
+    }
+
+    /**
+     * Gets the maximum number of threads executing queries asynchronously.
+     * It should not exceed the maximum size of the connection pool.
+     *
+     * @return the number of threads
+     */
+    @Min(1)
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the maximum number of threads executing queries asynchronously.
+     * It should not exceed the maximum size of the connection pool.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the maximum number of queries waiting for a free thread.
+     * If the queue is full, the query is executed by the calling thread.
+     *
+     * @return the queue capacity
+     */
+    @Min(0)
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of queries waiting for a free thread.
+     * If the queue is full, the query is executed by the calling thread.
+     *
+     * @param queueCapacity the queue capacity
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,79 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Contains the configuration of the detection of repository changes, which invalidates the cached data.
+ */
+public class GraphDbChangeDetectionConfig {
+
+    private boolean enabled;
+    private long interval;
+    private String versionGraph;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbChangeDetectionConfig}.
+     */
+    public GraphDbChangeDetectionConfig() {
+        this.enabled = false;
+        this.interval = 60_000;
+        this.versionGraph = null;
+    }
+
+    /**
+     * Gets whether the repository is polled for changes.
+     *
+     * @return {@code true} if the change detection is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the repository is polled for changes.
+     *
+     * @param enabled {@code true} if the change detection is enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the time in milliseconds between two checks.
+     *
+     * @return the polling interval
+     */
+    @Min(1)
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Sets the time in milliseconds between two checks.
+     *
+     * @param interval the polling interval
+     */
+    public void setInterval(long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Gets the IRI of the named graph whose statements identify the version of the data.
+     * If {@code null}, the number of statements and the named graphs of the repository are compared.
+     *
+     * @return the IRI of the version graph
+     */
+    public String getVersionGraph() {
+        return versionGraph;
+    }
+
+    /**
+     * Sets the IRI of the named graph whose statements identify the version of the data.
+     * If {@code null}, the number of statements and the named graphs of the repository are compared.
+     *
+     * @param versionGraph the IRI of the version graph
+     */
+    public void setVersionGraph(String versionGraph) {
+        this.versionGraph = versionGraph;
+    }
+}
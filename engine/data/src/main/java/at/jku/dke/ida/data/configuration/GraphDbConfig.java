@@ -14,11 +14,29 @@ public class GraphDbConfig {
 
     private GraphDbEmbeddedConfig embedded;
     private GraphDbRemoteConfig remote;
+    private GraphDbPoolConfig pool;
+    private GraphDbSchemaConfig schema;
+    private GraphDbLabelCacheConfig labelCache;
+    private GraphDbAsyncConfig async;
+    private GraphDbQueryConfig query;
+    private GraphDbWarmUpConfig warmUp;
+    private GraphDbSimilarityConfig similarity;
+    private GraphDbSimilarityCacheConfig similarityCache;
+    private GraphDbChangeDetectionConfig changeDetection;
 
     /**
      * Instantiates a new instance of class {@linkplain GraphDbConfig}.
      */
     public GraphDbConfig() {
+        this.pool = new GraphDbPoolConfig();
+        this.schema = new GraphDbSchemaConfig();
+        this.labelCache = new GraphDbLabelCacheConfig();
+        this.async = new GraphDbAsyncConfig();
+        this.query = new GraphDbQueryConfig();
+        this.warmUp = new GraphDbWarmUpConfig();
+        this.similarity = new GraphDbSimilarityConfig();
+        this.similarityCache = new GraphDbSimilarityCacheConfig();
+        this.changeDetection = new GraphDbChangeDetectionConfig();
     }
 
     /**
@@ -56,4 +74,166 @@ public class GraphDbConfig {
     public void setRemote(GraphDbRemoteConfig remote) {
         this.remote = remote;
     }
+
+    /**
+     * Gets the connection pool configuration.
+     *
+     * @return the pool configuration
+     */
+    public GraphDbPoolConfig getPool() {
+        return pool;
+    }
+
+    /**
+     * Sets the connection pool configuration.
+     *
+     * @param pool the pool configuration
+     */
+    public void setPool(GraphDbPoolConfig pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the cube schema snapshot configuration.
+     *
+     * @return the schema configuration
+     */
+    public GraphDbSchemaConfig getSchema() {
+        return schema;
+    }
+
+    /**
+     * Sets the cube schema snapshot configuration.
+     *
+     * @param schema the schema configuration
+     */
+    public void setSchema(GraphDbSchemaConfig schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Gets the label cache configuration.
+     *
+     * @return the label cache configuration
+     */
+    public GraphDbLabelCacheConfig getLabelCache() {
+        return labelCache;
+    }
+
+    /**
+     * Sets the label cache configuration.
+     *
+     * @param labelCache the label cache configuration
+     */
+    public void setLabelCache(GraphDbLabelCacheConfig labelCache) {
+        this.labelCache = labelCache;
+    }
+
+    /**
+     * Gets the configuration of the executor running asynchronous queries.
+     *
+     * @return the async configuration
+     */
+    public GraphDbAsyncConfig getAsync() {
+        return async;
+    }
+
+    /**
+     * Sets the configuration of the executor running asynchronous queries.
+     *
+     * @param async the async configuration
+     */
+    public void setAsync(GraphDbAsyncConfig async) {
+        this.async = async;
+    }
+
+    /**
+     * Gets the execution limits of the queries.
+     *
+     * @return the query configuration
+     */
+    public GraphDbQueryConfig getQuery() {
+        return query;
+    }
+
+    /**
+     * Sets the execution limits of the queries.
+     *
+     * @param query the query configuration
+     */
+    public void setQuery(GraphDbQueryConfig query) {
+        this.query = query;
+    }
+
+    /**
+     * Gets the configuration of the warm-up queries.
+     *
+     * @return the warm-up configuration
+     */
+    public GraphDbWarmUpConfig getWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Sets the configuration of the warm-up queries.
+     *
+     * @param warmUp the warm-up configuration
+     */
+    public void setWarmUp(GraphDbWarmUpConfig warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Gets the configuration of the similarity search.
+     *
+     * @return the similarity configuration
+     */
+    public GraphDbSimilarityConfig getSimilarity() {
+        return similarity;
+    }
+
+    /**
+     * Sets the configuration of the similarity search.
+     *
+     * @param similarity the similarity configuration
+     */
+    public void setSimilarity(GraphDbSimilarityConfig similarity) {
+        this.similarity = similarity;
+    }
+
+    /**
+     * Gets the similarity cache configuration.
+     *
+     * @return the similarity cache configuration
+     */
+    public GraphDbSimilarityCacheConfig getSimilarityCache() {
+        return similarityCache;
+    }
+
+    /**
+     * Sets the similarity cache configuration.
+     *
+     * @param similarityCache the similarity cache configuration
+     */
+    public void setSimilarityCache(GraphDbSimilarityCacheConfig similarityCache) {
+        this.similarityCache = similarityCache;
+    }
+
+    /**
+     * Gets the change detection configuration.
+     *
+     * @return the change detection configuration
+     */
+    public GraphDbChangeDetectionConfig getChangeDetection() {
+        return changeDetection;
+    }
+
+    /**
+     * Sets the change detection configuration.
+     *
+     * @param changeDetection the change detection configuration
+     */
+    public void setChangeDetection(GraphDbChangeDetectionConfig changeDetection) {
+        this.changeDetection = changeDetection;
+    }
 }
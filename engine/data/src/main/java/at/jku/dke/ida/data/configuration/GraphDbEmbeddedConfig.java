@@ -1,5 +1,6 @@
 package at.jku.dke.ida.data.configuration;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -14,11 +15,15 @@ public class GraphDbEmbeddedConfig {
     private String indexDirectory;
     private String materializationDirectory;
     private String[] wordnetFiles;
+    private int loadBatchSize;
+    private int loadParallelism;
 
     /**
      * Instantiates a new instance of class {@linkplain GraphDbEmbeddedConfig}.
      */
     public GraphDbEmbeddedConfig() {
+        this.loadBatchSize = 10_000;
+        this.loadParallelism = Runtime.getRuntime().availableProcessors();
     }
 
     /**
@@ -116,4 +121,42 @@ public class GraphDbEmbeddedConfig {
     public void setWordnetFiles(String[] wordnetFiles) {
         this.wordnetFiles = wordnetFiles;
     }
+
+    /**
+     * Gets the number of statements added to the repository in one transaction while loading files.
+     *
+     * @return the batch size
+     */
+    @Min(1)
+    public int getLoadBatchSize() {
+        return loadBatchSize;
+    }
+
+    /**
+     * Sets the number of statements added to the repository in one transaction while loading files.
+     *
+     * @param loadBatchSize the batch size
+     */
+    public void setLoadBatchSize(int loadBatchSize) {
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    /**
+     * Gets the number of threads parsing and adding statements while loading files.
+     *
+     * @return the number of threads
+     */
+    @Min(1)
+    public int getLoadParallelism() {
+        return loadParallelism;
+    }
+
+    /**
+     * Sets the number of threads parsing and adding statements while loading files.
+     *
+     * @param loadParallelism the number of threads
+     */
+    public void setLoadParallelism(int loadParallelism) {
+        this.loadParallelism = loadParallelism;
+    }
 }
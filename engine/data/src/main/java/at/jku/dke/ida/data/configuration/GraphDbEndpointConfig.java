@@ -0,0 +1,67 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Contains the connection configuration of a read-only GraphDB replica.
+ */
+public class GraphDbEndpointConfig {
+
+    private String serverUrl;
+    private String repositoryId;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbEndpointConfig}.
+     */
+    public GraphDbEndpointConfig() {
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbEndpointConfig}.
+     *
+     * @param serverUrl    the server url
+     * @param repositoryId the repository id
+     */
+    public GraphDbEndpointConfig(String serverUrl, String repositoryId) {
+        this.serverUrl = serverUrl;
+        this.repositoryId = repositoryId;
+    }
+
+    /**
+     * Gets the server url.
+     *
+     * @return the server url
+     */
+    @NotBlank
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    /**
+     * Sets the server url.
+     *
+     * @param serverUrl the server url
+     */
+    public void setServerUrl(String serverUrl) {
+        this.serverUrl = serverUrl;
+    }
+
+    /**
+     * Gets the repository id.
+     *
+     * @return the repository id
+     */
+    @NotBlank
+    public String getRepositoryId() {
+        return repositoryId;
+    }
+
+    /**
+     * Sets the repository id.
+     *
+     * @param repositoryId the repository id
+     */
+    public void setRepositoryId(String repositoryId) {
+        this.repositoryId = repositoryId;
+    }
+}
@@ -0,0 +1,141 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Contains the configuration for the pool of GraphDB connections.
+ */
+public class GraphDbPoolConfig {
+
+    private int maxSize;
+    private long maxWait;
+    private long idleTimeout;
+    private long evictionInterval;
+    private boolean validateIdle;
+    private int preparedQueryCacheSize;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbPoolConfig}.
+     */
+    public GraphDbPoolConfig() {
+        this.maxSize = 8;
+        this.maxWait = 10_000;
+        this.idleTimeout = 300_000;
+        this.evictionInterval = 60_000;
+        this.validateIdle = true;
+        this.preparedQueryCacheSize = 64;
+    }
+
+    /**
+     * Gets the maximum number of connections (borrowed and idle) the pool holds.
+     *
+     * @return the maximum pool size
+     */
+    @Min(1)
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of connections (borrowed and idle) the pool holds.
+     *
+     * @param maxSize the maximum pool size
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the maximum time in milliseconds to wait for a free connection.
+     *
+     * @return the maximum wait time
+     */
+    @Min(0)
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Sets the maximum time in milliseconds to wait for a free connection.
+     *
+     * @param maxWait the maximum wait time
+     */
+    public void setMaxWait(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Gets the time in milliseconds after which an unused connection is closed.
+     *
+     * @return the idle timeout
+     */
+    @Min(0)
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds after which an unused connection is closed.
+     *
+     * @param idleTimeout the idle timeout
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Gets the interval in milliseconds in which idle connections are evicted and validated.
+     *
+     * @return the eviction interval
+     */
+    @Min(1)
+    public long getEvictionInterval() {
+        return evictionInterval;
+    }
+
+    /**
+     * Sets the interval in milliseconds in which idle connections are evicted and validated.
+     *
+     * @param evictionInterval the eviction interval
+     */
+    public void setEvictionInterval(long evictionInterval) {
+        this.evictionInterval = evictionInterval;
+    }
+
+    /**
+     * Gets whether idle connections are health-checked with a query during eviction runs.
+     *
+     * @return {@code true} if idle connections are validated
+     */
+    public boolean isValidateIdle() {
+        return validateIdle;
+    }
+
+    /**
+     * Sets whether idle connections are health-checked with a query during eviction runs.
+     *
+     * @param validateIdle {@code true} if idle connections should be validated
+     */
+    public void setValidateIdle(boolean validateIdle) {
+        this.validateIdle = validateIdle;
+    }
+
+    /**
+     * Gets the maximum number of prepared queries each connection keeps for reuse.
+     *
+     * @return the prepared query cache size ({@code 0} disables the cache)
+     */
+    @Min(0)
+    public int getPreparedQueryCacheSize() {
+        return preparedQueryCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of prepared queries each connection keeps for reuse.
+     *
+     * @param preparedQueryCacheSize the prepared query cache size ({@code 0} disables the cache)
+     */
+    public void setPreparedQueryCacheSize(int preparedQueryCacheSize) {
+        this.preparedQueryCacheSize = preparedQueryCacheSize;
+    }
+}
@@ -0,0 +1,172 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.Min;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contains the execution limits of the queries.
+ * <p>
+ * The limits of single query files (e.g. {@code /repo_similarity/getCubeSimilarity.sparql}) can be
+ * overridden with the maps {@code file-timeouts} and {@code file-max-results}.
+ * The limits do not apply to bulk queries which read a complete data set
+ * (see {@link at.jku.dke.ida.data.GraphDbConnection#queryUnbounded}).
+ */
+public class GraphDbQueryConfig {
+
+    private int timeout;
+    private int maxResults;
+    private long slowQueryThreshold;
+    private boolean coalesce;
+    private Map<String, Integer> fileTimeouts;
+    private Map<String, Integer> fileMaxResults;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbQueryConfig}.
+     */
+    public GraphDbQueryConfig() {
+        this.timeout = 30;
+        this.maxResults = 0;
+        this.slowQueryThreshold = 1000;
+        this.coalesce = true;
+        this.fileTimeouts = new HashMap<>();
+        this.fileMaxResults = new HashMap<>();
+    }
+
+    /**
+     * Gets the maximum execution time of a query in seconds.
+     * A value of 0 means no limit.
+     *
+     * @return the timeout in seconds
+     */
+    @Min(0)
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the maximum execution time of a query in seconds.
+     * A value of 0 means no limit.
+     *
+     * @param timeout the timeout in seconds
+     */
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the maximum number of result rows read from a query.
+     * A value of 0 means no limit.
+     *
+     * @return the maximum number of rows
+     */
+    @Min(0)
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Sets the maximum number of result rows read from a query.
+     * A value of 0 means no limit.
+     *
+     * @param maxResults the maximum number of rows
+     */
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Gets the execution time in ms from which on queries are logged as slow queries.
+     * A value of 0 disables the slow query log.
+     *
+     * @return the threshold in ms
+     */
+    @Min(0)
+    public long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    /**
+     * Sets the execution time in ms from which on queries are logged as slow queries.
+     * A value of 0 disables the slow query log.
+     *
+     * @param slowQueryThreshold the threshold in ms
+     */
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    /**
+     * Gets whether concurrent executions of the same query with the same bindings share one evaluation.
+     *
+     * @return {@code true} if identical concurrent queries are coalesced
+     */
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    /**
+     * Sets whether concurrent executions of the same query with the same bindings share one evaluation.
+     *
+     * @param coalesce {@code true} if identical concurrent queries should be coalesced
+     */
+    public void setCoalesce(boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    /**
+     * Gets the timeouts in seconds of single query files.
+     *
+     * @return the timeouts by query file
+     */
+    public Map<String, Integer> getFileTimeouts() {
+        return fileTimeouts;
+    }
+
+    /**
+     * Sets the timeouts in seconds of single query files.
+     *
+     * @param fileTimeouts the timeouts by query file
+     */
+    public void setFileTimeouts(Map<String, Integer> fileTimeouts) {
+        this.fileTimeouts = fileTimeouts;
+    }
+
+    /**
+     * Gets the maximum number of result rows of single query files.
+     *
+     * @return the maximum number of rows by query file
+     */
+    public Map<String, Integer> getFileMaxResults() {
+        return fileMaxResults;
+    }
+
+    /**
+     * Sets the maximum number of result rows of single query files.
+     *
+     * @param fileMaxResults the maximum number of rows by query file
+     */
+    public void setFileMaxResults(Map<String, Integer> fileMaxResults) {
+        this.fileMaxResults = fileMaxResults;
+    }
+
+    /**
+     * Returns the maximum execution time of the query file.
+     *
+     * @param queryFile The path and name of the query file.
+     * @return the timeout in seconds (0 means no limit)
+     */
+    public int getTimeoutOf(String queryFile) {
+        return fileTimeouts == null ? timeout : fileTimeouts.getOrDefault(queryFile, timeout);
+    }
+
+    /**
+     * Returns the maximum number of result rows of the query file.
+     *
+     * @param queryFile The path and name of the query file.
+     * @return the maximum number of rows (0 means no limit)
+     */
+    public int getMaxResultsOf(String queryFile) {
+        return fileMaxResults == null ? maxResults : fileMaxResults.getOrDefault(queryFile, maxResults);
+    }
+}
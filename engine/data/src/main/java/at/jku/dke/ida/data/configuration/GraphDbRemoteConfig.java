@@ -1,19 +1,40 @@
 package at.jku.dke.ida.data.configuration;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Contains the connection configuration for remote GraphDB.
+ * <p>
+ * Read queries can be spread across the repository ({@code server-url}, {@code repository-id}) and
+ * a list of read-only {@code replicas}. Endpoints failing {@code failure-threshold} times in a row because of
+ * connection errors are ejected from the routing for {@code ejection-time} ms.
+ * <p>
+ * The tuple query results are requested in the first of the {@code result-formats} a parser is available for.
  */
 public class GraphDbRemoteConfig {
 
     private String serverUrl;
     private String repositoryId;
+    private List<GraphDbEndpointConfig> replicas;
+    private boolean readFromPrimary;
+    private int failureThreshold;
+    private long ejectionTime;
+    private List<String> resultFormats;
 
     /**
      * Instantiates a new instance of class {@linkplain GraphDbRemoteConfig}.
      */
     public GraphDbRemoteConfig() {
+        this.replicas = new ArrayList<>();
+        this.readFromPrimary = true;
+        this.failureThreshold = 3;
+        this.ejectionTime = 30_000;
+        this.resultFormats = new ArrayList<>(List.of("binary", "json", "xml"));
     }
 
     /**
@@ -53,4 +74,101 @@ public class GraphDbRemoteConfig {
     public void setRepositoryId(String repositoryId) {
         this.repositoryId = repositoryId;
     }
+
+    /**
+     * Gets the read-only replicas of the repository.
+     *
+     * @return the replicas
+     */
+    @NotNull
+    @Valid
+    public List<GraphDbEndpointConfig> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Sets the read-only replicas of the repository.
+     *
+     * @param replicas the replicas
+     */
+    public void setReplicas(List<GraphDbEndpointConfig> replicas) {
+        this.replicas = replicas;
+    }
+
+    /**
+     * Gets whether read queries are routed to the repository as well as to the replicas.
+     *
+     * @return {@code true} if the repository answers read queries
+     */
+    public boolean isReadFromPrimary() {
+        return readFromPrimary;
+    }
+
+    /**
+     * Sets whether read queries are routed to the repository as well as to the replicas.
+     *
+     * @param readFromPrimary {@code true} if the repository should answer read queries
+     */
+    public void setReadFromPrimary(boolean readFromPrimary) {
+        this.readFromPrimary = readFromPrimary;
+    }
+
+    /**
+     * Gets the number of consecutive connection errors after which an endpoint is ejected.
+     *
+     * @return the failure threshold
+     */
+    @Min(1)
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive connection errors after which an endpoint is ejected.
+     *
+     * @param failureThreshold the failure threshold
+     */
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * Gets the time in milliseconds an ejected endpoint does not receive queries.
+     *
+     * @return the ejection time
+     */
+    @Min(0)
+    public long getEjectionTime() {
+        return ejectionTime;
+    }
+
+    /**
+     * Sets the time in milliseconds an ejected endpoint does not receive queries.
+     *
+     * @param ejectionTime the ejection time
+     */
+    public void setEjectionTime(long ejectionTime) {
+        this.ejectionTime = ejectionTime;
+    }
+
+    /**
+     * Gets the tuple query result formats in order of preference.
+     * A format is either a name ({@code binary}, {@code json}, {@code xml}, {@code csv} or {@code tsv}) or a MIME type.
+     *
+     * @return the result formats
+     */
+    @NotNull
+    public List<String> getResultFormats() {
+        return resultFormats;
+    }
+
+    /**
+     * Sets the tuple query result formats in order of preference.
+     * A format is either a name ({@code binary}, {@code json}, {@code xml}, {@code csv} or {@code tsv}) or a MIME type.
+     *
+     * @param resultFormats the result formats
+     */
+    public void setResultFormats(List<String> resultFormats) {
+        this.resultFormats = resultFormats;
+    }
 }
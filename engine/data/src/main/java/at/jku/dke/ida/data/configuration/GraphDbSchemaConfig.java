@@ -0,0 +1,123 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contains the configuration for the in-memory cube schema snapshots.
+ */
+public class GraphDbSchemaConfig {
+
+    private boolean enabled;
+    private boolean preload;
+    private String file;
+    @NotNull
+    private List<String> languages;
+    private boolean export;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbSchemaConfig}.
+     */
+    public GraphDbSchemaConfig() {
+        this.enabled = true;
+        this.preload = false;
+        this.file = null;
+        this.languages = new ArrayList<>(List.of("en", "de"));
+        this.export = true;
+    }
+
+    /**
+     * Gets whether cube schema lookups are answered from in-memory snapshots.
+     *
+     * @return {@code true} if snapshots are used
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether cube schema lookups are answered from in-memory snapshots.
+     *
+     * @param enabled {@code true} if snapshots should be used
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets whether the snapshots of all cubes are loaded at application startup instead of on first access.
+     *
+     * @return {@code true} if the snapshots are loaded at startup
+     */
+    public boolean isPreload() {
+        return preload;
+    }
+
+    /**
+     * Sets whether the snapshots of all cubes are loaded at application startup instead of on first access.
+     *
+     * @param preload {@code true} if the snapshots should be loaded at startup
+     */
+    public void setPreload(boolean preload) {
+        this.preload = preload;
+    }
+
+    /**
+     * Gets the path to the binary schema file the snapshots are read from if the cube is part of it.
+     *
+     * @return the path to the schema file or {@code null} if no file is used
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Sets the path to the binary schema file the snapshots are read from if the cube is part of it.
+     *
+     * @param file the path to the schema file or {@code null} if no file should be used
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the languages of the labels written to the schema file.
+     *
+     * @return the languages
+     */
+    public List<String> getLanguages() {
+        return languages;
+    }
+
+    /**
+     * Sets the languages of the labels written to the schema file.
+     *
+     * @param languages the languages
+     */
+    public void setLanguages(List<String> languages) {
+        this.languages = languages;
+    }
+
+    /**
+     * Gets whether the schema file is written at startup if it is missing or was exported from other data
+     * and after each change of the repository data.
+     * Otherwise a file outdated by a change is only read while the GraphDB is not available.
+     *
+     * @return {@code true} if the file is exported at startup
+     */
+    public boolean isExport() {
+        return export;
+    }
+
+    /**
+     * Sets whether the schema file is written at startup if it is missing or was exported from other data
+     * and after each change of the repository data.
+     * Otherwise a file outdated by a change is only read while the GraphDB is not available.
+     *
+     * @param export {@code true} if the file should be exported at startup
+     */
+    public void setExport(boolean export) {
+        this.export = export;
+    }
+}
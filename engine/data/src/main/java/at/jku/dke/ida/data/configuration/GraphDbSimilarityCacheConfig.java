@@ -0,0 +1,60 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Contains the configuration for the cache of term similarities.
+ */
+public class GraphDbSimilarityCacheConfig {
+
+    private long maxWeight;
+    private long expireAfterWrite;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbSimilarityCacheConfig}.
+     */
+    public GraphDbSimilarityCacheConfig() {
+        this.maxWeight = 200_000;
+        this.expireAfterWrite = 3_600_000;
+    }
+
+    /**
+     * Gets the maximum weight of the cached similarities, measured in number of similarities.
+     * A value of 0 disables the cache.
+     *
+     * @return the maximum weight
+     */
+    @Min(0)
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Sets the maximum weight of the cached similarities, measured in number of similarities.
+     * A value of 0 disables the cache.
+     *
+     * @param maxWeight the maximum weight
+     */
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Gets the time in milliseconds after which a cached result expires.
+     *
+     * @return the expiration time
+     */
+    @Min(1)
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a cached result expires.
+     *
+     * @param expireAfterWrite the expiration time
+     */
+    public void setExpireAfterWrite(long expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
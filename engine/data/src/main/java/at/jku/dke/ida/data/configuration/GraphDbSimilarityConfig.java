@@ -0,0 +1,214 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Contains the configuration of the similarity search.
+ * <p>
+ * By default similarities are computed by the GraphDB similarity plugin and joined with the mappings in SPARQL.
+ * If {@code mapping-index} is set, only the most similar wordnet documents are looked up with the plugin and
+ * the mappings are joined in-memory. If {@code local} is set, the most similar wordnet documents are looked up
+ * in an in-memory term vector index built from the wordnet documents as well.
+ * <p>
+ * If {@code decompose-words} is set, the similarities of multi-word terms are computed by executing the
+ * single-word query for each word concurrently and combining the results in-memory.
+ */
+public class GraphDbSimilarityConfig {
+
+    private boolean mappingIndex;
+    private boolean local;
+    private int dimension;
+    private int seeds;
+    private int clusters;
+    private int probes;
+    private int maxResults;
+    private boolean decomposeWords;
+    private int wordLimit;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbSimilarityConfig}.
+     */
+    public GraphDbSimilarityConfig() {
+        this.mappingIndex = false;
+        this.local = false;
+        this.dimension = 256;
+        this.seeds = 8;
+        this.clusters = 0;
+        this.probes = 16;
+        this.maxResults = 20;
+        this.decomposeWords = false;
+        this.wordLimit = 0;
+    }
+
+    /**
+     * Gets whether the mappings between elements and wordnet documents are joined in-memory.
+     *
+     * @return {@code true} if the in-memory mapping index is used
+     */
+    public boolean isMappingIndex() {
+        return mappingIndex;
+    }
+
+    /**
+     * Sets whether the mappings between elements and wordnet documents are joined in-memory.
+     *
+     * @param mappingIndex {@code true} if the in-memory mapping index should be used
+     */
+    public void setMappingIndex(boolean mappingIndex) {
+        this.mappingIndex = mappingIndex;
+    }
+
+    /**
+     * Gets whether similarities are computed by the in-memory term vector index.
+     *
+     * @return {@code true} if the local index is used, {@code false} if the GraphDB plugin is used
+     */
+    public boolean isLocal() {
+        return local;
+    }
+
+    /**
+     * Sets whether similarities are computed by the in-memory term vector index.
+     *
+     * @param local {@code true} if the local index should be used
+     */
+    public void setLocal(boolean local) {
+        this.local = local;
+    }
+
+    /**
+     * Gets the dimension of the term and document vectors.
+     *
+     * @return the dimension
+     */
+    @Min(8)
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Sets the dimension of the term and document vectors.
+     *
+     * @param dimension the dimension
+     */
+    public void setDimension(int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * Gets the number of non-zero entries of the random index vector of a term.
+     *
+     * @return the number of seeds
+     */
+    @Min(1)
+    public int getSeeds() {
+        return seeds;
+    }
+
+    /**
+     * Sets the number of non-zero entries of the random index vector of a term.
+     *
+     * @param seeds the number of seeds
+     */
+    public void setSeeds(int seeds) {
+        this.seeds = seeds;
+    }
+
+    /**
+     * Gets the number of clusters the document vectors are partitioned into.
+     * A value of 0 means the square root of the number of documents.
+     *
+     * @return the number of clusters
+     */
+    @Min(0)
+    public int getClusters() {
+        return clusters;
+    }
+
+    /**
+     * Sets the number of clusters the document vectors are partitioned into.
+     * A value of 0 means the square root of the number of documents.
+     *
+     * @param clusters the number of clusters
+     */
+    public void setClusters(int clusters) {
+        this.clusters = clusters;
+    }
+
+    /**
+     * Gets the number of nearest clusters scanned by a search.
+     *
+     * @return the number of probed clusters
+     */
+    @Min(1)
+    public int getProbes() {
+        return probes;
+    }
+
+    /**
+     * Sets the number of nearest clusters scanned by a search.
+     *
+     * @param probes the number of probed clusters
+     */
+    public void setProbes(int probes) {
+        this.probes = probes;
+    }
+
+    /**
+     * Gets the number of most similar wordnet documents returned by a search.
+     *
+     * @return the number of results
+     */
+    @Min(1)
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Sets the number of most similar wordnet documents returned by a search.
+     *
+     * @param maxResults the number of results
+     */
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Gets whether the words of multi-word terms are queried separately and combined in-memory.
+     *
+     * @return {@code true} if multi-word queries are decomposed
+     */
+    public boolean isDecomposeWords() {
+        return decomposeWords;
+    }
+
+    /**
+     * Sets whether the words of multi-word terms are queried separately and combined in-memory.
+     *
+     * @param decomposeWords {@code true} if multi-word queries should be decomposed
+     */
+    public void setDecomposeWords(boolean decomposeWords) {
+        this.decomposeWords = decomposeWords;
+    }
+
+    /**
+     * Gets the maximum number of results of a decomposed multi-word query.
+     * A value of 0 means no limit.
+     *
+     * @return the maximum number of results
+     */
+    @Min(0)
+    public int getWordLimit() {
+        return wordLimit;
+    }
+
+    /**
+     * Sets the maximum number of results of a decomposed multi-word query.
+     * A value of 0 means no limit.
+     *
+     * @param wordLimit the maximum number of results
+     */
+    public void setWordLimit(int wordLimit) {
+        this.wordLimit = wordLimit;
+    }
+}
@@ -0,0 +1,78 @@
+package at.jku.dke.ida.data.configuration;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Contains the configuration of the warm-up queries executed at application startup.
+ */
+public class GraphDbWarmUpConfig {
+
+    private boolean enabled;
+    private String[] languages;
+    private String[] terms;
+
+    /**
+     * Instantiates a new instance of class {@linkplain GraphDbWarmUpConfig}.
+     */
+    public GraphDbWarmUpConfig() {
+        this.enabled = true;
+        this.languages = new String[]{"en", "de"};
+        this.terms = new String[0];
+    }
+
+    /**
+     * Gets whether warm-up queries are executed at application startup.
+     *
+     * @return {@code true} if the warm-up is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether warm-up queries are executed at application startup.
+     *
+     * @param enabled {@code true} if the warm-up is enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the languages the label queries are executed for.
+     *
+     * @return the languages
+     */
+    @NotNull
+    public String[] getLanguages() {
+        return languages;
+    }
+
+    /**
+     * Sets the languages the label queries are executed for.
+     *
+     * @param languages the languages
+     */
+    public void setLanguages(String[] languages) {
+        this.languages = languages;
+    }
+
+    /**
+     * Gets the terms the similarity queries are executed for in addition to the cube labels.
+     *
+     * @return the terms
+     */
+    @NotNull
+    public String[] getTerms() {
+        return terms;
+    }
+
+    /**
+     * Sets the terms the similarity queries are executed for in addition to the cube labels.
+     *
+     * @param terms the terms
+     */
+    public void setTerms(String[] terms) {
+        this.terms = terms;
+    }
+}
@@ -0,0 +1,267 @@
+package at.jku.dke.ida.data.models;
+
+import at.jku.dke.ida.shared.IRIDictionary;
+import at.jku.dke.ida.shared.IRISet;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Contains the schema elements of a cube which are needed to determine the possible operations.
+ * <p>
+ * All sets are unmodifiable. The relationships are triples where the first entry is the dimension, the
+ * second one the child and the third one the parent (may be {@code null}).
+ */
+public class CubeContext {
+
+    private final String cubeIri;
+    private final Set<String> aggregateMeasures;
+    private final Set<String> aggregateMeasurePredicates;
+    private final Set<String> baseMeasurePredicates;
+    private final Set<String> comparativeMeasures;
+    private final Set<String> comparativeMeasurePredicates;
+    private final Set<String> joinConditionPredicates;
+    private final Set<Pair<String, String>> levels;
+    private final Set<Pair<String, String>> levelPredicates;
+    private final Set<Triple<String, String, String>> levelMembers;
+    private final Set<Triple<String, String, String>> levelRelationships;
+    private final Set<Triple<String, String, String>> levelPredicateRelationships;
+    private Hierarchies hierarchies;
+
+    /**
+     * Instantiates a new instance of class {@linkplain CubeContext}.
+     *
+     * @param cubeIri                      The absolute IRI of the cube.
+     * @param aggregateMeasures            The aggregate measures.
+     * @param aggregateMeasurePredicates   The aggregate measure predicates.
+     * @param baseMeasurePredicates        The base measure predicates.
+     * @param comparativeMeasures          The comparative measures.
+     * @param comparativeMeasurePredicates The comparative measure predicates.
+     * @param joinConditionPredicates      The join condition predicates.
+     * @param levels                       The granularity levels (dimension, level).
+     * @param levelPredicates              The level predicates (dimension, predicate).
+     * @param levelMembers                 The level members (dimension, level, member).
+     * @param levelRelationships           The granularity level relationships.
+     * @param levelPredicateRelationships  The level predicate relationships.
+     */
+    public CubeContext(String cubeIri,
+                       Set<String> aggregateMeasures,
+                       Set<String> aggregateMeasurePredicates,
+                       Set<String> baseMeasurePredicates,
+                       Set<String> comparativeMeasures,
+                       Set<String> comparativeMeasurePredicates,
+                       Set<String> joinConditionPredicates,
+                       Set<Pair<String, String>> levels,
+                       Set<Pair<String, String>> levelPredicates,
+                       Set<Triple<String, String, String>> levelMembers,
+                       Set<Triple<String, String, String>> levelRelationships,
+                       Set<Triple<String, String, String>> levelPredicateRelationships) {
+        this.cubeIri = cubeIri;
+        this.aggregateMeasures = Collections.unmodifiableSet(aggregateMeasures);
+        this.aggregateMeasurePredicates = Collections.unmodifiableSet(aggregateMeasurePredicates);
+        this.baseMeasurePredicates = Collections.unmodifiableSet(baseMeasurePredicates);
+        this.comparativeMeasures = Collections.unmodifiableSet(comparativeMeasures);
+        this.comparativeMeasurePredicates = Collections.unmodifiableSet(comparativeMeasurePredicates);
+        this.joinConditionPredicates = Collections.unmodifiableSet(joinConditionPredicates);
+        this.levels = Collections.unmodifiableSet(levels);
+        this.levelPredicates = Collections.unmodifiableSet(levelPredicates);
+        this.levelMembers = Collections.unmodifiableSet(levelMembers);
+        this.levelRelationships = Collections.unmodifiableSet(levelRelationships);
+        this.levelPredicateRelationships = Collections.unmodifiableSet(levelPredicateRelationships);
+        this.hierarchies = new Hierarchies();
+    }
+
+    /**
+     * Returns a copy of this context without the elements with the specified IRIs.
+     * The relationships are not filtered, so the copy shares the hierarchy indexes with this context.
+     *
+     * @param exclusion The collection with IRIs to exclude.
+     * @return Context without the specified elements
+     */
+    public CubeContext without(Collection<String> exclusion) {
+        if (exclusion == null || exclusion.isEmpty()) return this;
+
+        // IRIs of the context are interned, so IRIs unknown to the dictionary cannot match
+        final Set<String> excluded = new IRISet();
+        for (String iri : exclusion)
+            if (IRIDictionary.lookup(iri) >= 0) excluded.add(iri);
+        CubeContext copy = new CubeContext(cubeIri,
+                filter(aggregateMeasures, Function.identity(), excluded),
+                filter(aggregateMeasurePredicates, Function.identity(), excluded),
+                filter(baseMeasurePredicates, Function.identity(), excluded),
+                filter(comparativeMeasures, Function.identity(), excluded),
+                filter(comparativeMeasurePredicates, Function.identity(), excluded),
+                filter(joinConditionPredicates, Function.identity(), excluded),
+                filter(levels, Pair::getRight, excluded),
+                filter(levelPredicates, Pair::getRight, excluded),
+                filter(levelMembers, Triple::getRight, excluded),
+                levelRelationships,
+                levelPredicateRelationships);
+        copy.hierarchies = hierarchies;
+        return copy;
+    }
+
+    private static <T> Set<T> filter(Set<T> elements, Function<T, String> iri, Set<String> excluded) {
+        return elements.stream()
+                .filter(x -> !excluded.contains(iri.apply(x)))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Gets the cube IRI.
+     *
+     * @return the cube IRI
+     */
+    public String getCubeIri() {
+        return cubeIri;
+    }
+
+    /**
+     * Gets the aggregate measures.
+     *
+     * @return the aggregate measures
+     */
+    public Set<String> getAggregateMeasures() {
+        return aggregateMeasures;
+    }
+
+    /**
+     * Gets the aggregate measure predicates.
+     *
+     * @return the aggregate measure predicates
+     */
+    public Set<String> getAggregateMeasurePredicates() {
+        return aggregateMeasurePredicates;
+    }
+
+    /**
+     * Gets the base measure predicates.
+     *
+     * @return the base measure predicates
+     */
+    public Set<String> getBaseMeasurePredicates() {
+        return baseMeasurePredicates;
+    }
+
+    /**
+     * Gets the comparative measures.
+     *
+     * @return the comparative measures
+     */
+    public Set<String> getComparativeMeasures() {
+        return comparativeMeasures;
+    }
+
+    /**
+     * Gets the comparative measure predicates.
+     *
+     * @return the comparative measure predicates
+     */
+    public Set<String> getComparativeMeasurePredicates() {
+        return comparativeMeasurePredicates;
+    }
+
+    /**
+     * Gets the join condition predicates.
+     *
+     * @return the join condition predicates
+     */
+    public Set<String> getJoinConditionPredicates() {
+        return joinConditionPredicates;
+    }
+
+    /**
+     * Gets the granularity levels. The key of the pair represents the dimension, the value is the level.
+     *
+     * @return the granularity levels
+     */
+    public Set<Pair<String, String>> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Gets the level predicates. The key of the pair represents the dimension, the value is the predicate.
+     *
+     * @return the level predicates
+     */
+    public Set<Pair<String, String>> getLevelPredicates() {
+        return levelPredicates;
+    }
+
+    /**
+     * Gets the level members. The triple contains the dimension, the level and the member.
+     *
+     * @return the level members
+     */
+    public Set<Triple<String, String, String>> getLevelMembers() {
+        return levelMembers;
+    }
+
+    /**
+     * Gets the granularity level relationships (dimension, child, parent).
+     *
+     * @return the granularity level relationships
+     */
+    public Set<Triple<String, String, String>> getLevelRelationships() {
+        return levelRelationships;
+    }
+
+    /**
+     * Gets the level predicate relationships (dimension, child, parent).
+     *
+     * @return the level predicate relationships
+     */
+    public Set<Triple<String, String, String>> getLevelPredicateRelationships() {
+        return levelPredicateRelationships;
+    }
+
+    /**
+     * Gets the index of the granularity level hierarchy. The index is built on first access.
+     *
+     * @return the granularity level hierarchy
+     */
+    public HierarchyIndex getLevelHierarchy() {
+        HierarchyIndex index = hierarchies.levels;
+        if (index == null) hierarchies.levels = index = HierarchyIndex.of(levelRelationships);
+        return index;
+    }
+
+    /**
+     * Gets the index of the level predicate (slice condition) hierarchy. The index is built on first access.
+     *
+     * @return the level predicate hierarchy
+     */
+    public HierarchyIndex getLevelPredicateHierarchy() {
+        HierarchyIndex index = hierarchies.levelPredicates;
+        if (index == null) hierarchies.levelPredicates = index = HierarchyIndex.of(levelPredicateRelationships);
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CubeContext.class.getSimpleName() + "[", "]")
+                .add("cubeIri='" + cubeIri + "'")
+                .add("aggregateMeasures=" + aggregateMeasures.size())
+                .add("aggregateMeasurePredicates=" + aggregateMeasurePredicates.size())
+                .add("baseMeasurePredicates=" + baseMeasurePredicates.size())
+                .add("comparativeMeasures=" + comparativeMeasures.size())
+                .add("comparativeMeasurePredicates=" + comparativeMeasurePredicates.size())
+                .add("joinConditionPredicates=" + joinConditionPredicates.size())
+                .add("levels=" + levels.size())
+                .add("levelPredicates=" + levelPredicates.size())
+                .add("levelMembers=" + levelMembers.size())
+                .toString();
+    }
+
+    /**
+     * The lazily built hierarchy indexes shared by a context and its copies.
+     * Concurrent first accesses may build an index more than once, which is harmless as it is immutable.
+     */
+    private static final class Hierarchies {
+        private volatile HierarchyIndex levels;
+        private volatile HierarchyIndex levelPredicates;
+    }
+}
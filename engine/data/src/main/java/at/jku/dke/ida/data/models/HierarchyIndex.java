@@ -0,0 +1,153 @@
+package at.jku.dke.ida.data.models;
+
+import at.jku.dke.ida.shared.IRIConstants;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.ImmutableGraph;
+import com.google.common.graph.MutableGraph;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.util.*;
+
+/**
+ * An immutable index of a hierarchy of granularity levels or level predicates of a cube.
+ * <p>
+ * The index contains the dependency graph, in which every child points to its parents and the top level
+ * ({@link IRIConstants#RESOURCE_TOP_LEVEL}) points to all nodes without children, and which nodes have parents or
+ * children as bit sets, so that the roll-up and drill-down checks do not have to walk the graph.
+ * Unknown nodes have neither parents nor children.
+ */
+public final class HierarchyIndex {
+
+    private static final HierarchyIndex EMPTY = new HierarchyIndex(GraphBuilder.directed().build());
+
+    private final ImmutableGraph<String> graph;
+    private final Map<String, Integer> ids;
+    private final String[] nodes;
+    private final BitSet withParents;
+    private final BitSet withChildren;
+
+    /**
+     * Instantiates a new instance of class {@linkplain HierarchyIndex}.
+     *
+     * @param graph The dependency graph.
+     */
+    private HierarchyIndex(MutableGraph<String> graph) {
+        this.graph = ImmutableGraph.copyOf(graph);
+        this.nodes = this.graph.nodes().toArray(new String[0]);
+        this.ids = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++)
+            ids.put(nodes[i], i);
+
+        this.withParents = new BitSet(nodes.length);
+        this.withChildren = new BitSet(nodes.length);
+        for (int i = 0; i < nodes.length; i++) {
+            if (!this.graph.successors(nodes[i]).isEmpty()) withParents.set(i);
+            for (String child : this.graph.predecessors(nodes[i])) {
+                if (!child.equals(IRIConstants.RESOURCE_TOP_LEVEL)) {
+                    withChildren.set(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an index without any nodes.
+     *
+     * @return The empty index.
+     */
+    public static HierarchyIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the index of the specified relationships.
+     * <p>
+     * The first entry of the triple is the dimension, the second one the child and the third one the parent (may be {@code null}).
+     *
+     * @param relationships The relationships of the hierarchy.
+     * @return The index, which contains the top level even if there are no relationships.
+     * @throws IllegalArgumentException If {@code relationships} is {@code null}.
+     */
+    public static HierarchyIndex of(Collection<Triple<String, String, String>> relationships) {
+        if (relationships == null) throw new IllegalArgumentException("relationships must not be null");
+
+        MutableGraph<String> graph = GraphBuilder.directed().build();
+        for (Triple<String, String, String> pair : relationships) {
+            graph.addNode(pair.getMiddle());
+            if (pair.getRight() != null) {
+                graph.addNode(pair.getRight());
+                graph.putEdge(pair.getMiddle(), pair.getRight());
+            }
+        }
+
+        // Add top level
+        graph.addNode(IRIConstants.RESOURCE_TOP_LEVEL);
+        Set<String> nodes = new HashSet<>(graph.nodes());
+        for (String node : nodes) {
+            if (!node.equals(IRIConstants.RESOURCE_TOP_LEVEL) && graph.inDegree(node) == 0) {
+                graph.putEdge(IRIConstants.RESOURCE_TOP_LEVEL, node);
+            }
+        }
+
+        return new HierarchyIndex(graph);
+    }
+
+    /**
+     * Returns the dependency graph (every child points to its parents).
+     *
+     * @return The immutable graph.
+     */
+    public ImmutableGraph<String> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns whether the index does not contain any nodes.
+     *
+     * @return {@code true} if the index is empty.
+     */
+    public boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    /**
+     * Returns whether the node is part of the hierarchy.
+     *
+     * @param node The absolute IRI of the node.
+     * @return {@code true} if the node is part of the hierarchy.
+     */
+    public boolean contains(String node) {
+        return ids.containsKey(node);
+    }
+
+    /**
+     * Returns whether the node has at least one parent (e.g. a level to roll up to).
+     *
+     * @param node The absolute IRI of the node.
+     * @return {@code true} if the node has a parent.
+     */
+    public boolean hasParents(String node) {
+        Integer id = ids.get(node);
+        return id != null && withParents.get(id);
+    }
+
+    /**
+     * Returns whether the node has at least one child other than the top level (e.g. a level to drill down to).
+     *
+     * @param node The absolute IRI of the node.
+     * @return {@code true} if the node has a child.
+     */
+    public boolean hasChildren(String node) {
+        Integer id = ids.get(node);
+        return id != null && withChildren.get(id);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", HierarchyIndex.class.getSimpleName() + "[", "]")
+                .add("nodes=" + nodes.length)
+                .add("edges=" + graph.edges().size())
+                .toString();
+    }
+}
@@ -0,0 +1,77 @@
+package at.jku.dke.ida.data.models;
+
+import java.util.*;
+
+/**
+ * Represents one page of a keyset-paginated result.
+ * <p>
+ * The page token is opaque for the caller; it has to be passed unchanged to the repository
+ * method which returned this page to get the next page.
+ *
+ * @param <T> The type of the items.
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final String nextPageToken;
+
+    /**
+     * Instantiates a new instance of class {@linkplain Page}.
+     *
+     * @param items         The items of this page.
+     * @param nextPageToken The token for the next page ({@code null} if this is the last page).
+     */
+    public Page(List<T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(Objects.requireNonNullElseGet(items, ArrayList::new));
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Returns the items of this page.
+     *
+     * @return Unmodifiable list with the items.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the token for the next page.
+     *
+     * @return The token for the next page or {@code null} if this is the last page.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Returns whether there is a page after this one.
+     *
+     * @return {@code true} if there are more items available, otherwise {@code false}.
+     */
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", Page.class.getSimpleName() + "[", "]")
+                .add("items=" + items)
+                .add("nextPageToken='" + nextPageToken + "'")
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Page<?> page = (Page<?>) o;
+        return items.equals(page.items) &&
+                Objects.equals(nextPageToken, page.nextPageToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, nextPageToken);
+    }
+}
@@ -17,5 +17,56 @@
  * </ul>
  * <p>
  * Either remote or embedded as to be null; the otherone must not be null.
+ * <p>
+ * Following properties are optional:
+ * <ul>
+ * <li><b>graphdb.remote.replicas[i].server-url</b>, <b>graphdb.remote.replicas[i].repository-id</b>: Read-only replicas read queries are spread across (default: none)</li>
+ * <li><b>graphdb.remote.read-from-primary</b>: Whether read queries are routed to the repository as well as to the replicas (default: true)</li>
+ * <li><b>graphdb.remote.failure-threshold</b>: Number of consecutive connection errors after which an endpoint is ejected (default: 3)</li>
+ * <li><b>graphdb.remote.ejection-time</b>: Time in ms an ejected endpoint does not receive queries (default: 30000)</li>
+ * <li><b>graphdb.remote.result-formats</b>: Tuple query result formats (name or MIME type) in order of preference; the first one with an available parser is requested (default: binary,json,xml)</li>
+ * <li><b>graphdb.embedded.load-batch-size</b>: Number of statements added in one transaction while loading files (default: 10000)</li>
+ * <li><b>graphdb.embedded.load-parallelism</b>: Number of threads parsing and adding statements while loading files (default: number of processors)</li>
+ * <li><b>graphdb.pool.max-size</b>: Maximum number of pooled connections (default: 8)</li>
+ * <li><b>graphdb.pool.max-wait</b>: Maximum time in ms to wait for a free connection (default: 10000)</li>
+ * <li><b>graphdb.pool.idle-timeout</b>: Time in ms after which idle connections are closed (default: 300000)</li>
+ * <li><b>graphdb.pool.eviction-interval</b>: Interval in ms of the idle connection eviction (default: 60000)</li>
+ * <li><b>graphdb.pool.validate-idle</b>: Whether idle connections are health-checked (default: true)</li>
+ * <li><b>graphdb.pool.prepared-query-cache-size</b>: Number of prepared queries kept per connection (default: 64)</li>
+ * <li><b>graphdb.schema.enabled</b>: Whether cube schema lookups are answered from in-memory snapshots (default: true)</li>
+ * <li><b>graphdb.schema.preload</b>: Whether the snapshots of all cubes are loaded at startup (default: false)</li>
+ * <li><b>graphdb.schema.file</b>: Path to the binary schema file snapshots and similarity mappings are read from, so that the repositories work while the GraphDB is unavailable (default: none)</li>
+ * <li><b>graphdb.schema.languages</b>: Languages of the labels written to the schema file (default: en, de)</li>
+ * <li><b>graphdb.schema.export</b>: Whether the schema file is written at startup if it is missing or was exported from other data and after each change of the repository data; otherwise a file outdated by a change is only read while the GraphDB is unavailable (default: true)</li>
+ * <li><b>graphdb.label-cache.max-weight</b>: Maximum number of characters of cached labels; 0 disables the cache (default: 4000000)</li>
+ * <li><b>graphdb.label-cache.expire-after-write</b>: Time in ms after which cached labels expire (default: 3600000)</li>
+ * <li><b>graphdb.async.threads</b>: Maximum number of threads executing asynchronous queries (default: 4)</li>
+ * <li><b>graphdb.async.queue-capacity</b>: Maximum number of waiting asynchronous queries; further queries run on the calling thread (default: 64)</li>
+ * <li><b>graphdb.query.timeout</b>: Maximum execution time of a query in seconds; 0 means no limit (default: 30)</li>
+ * <li><b>graphdb.query.max-results</b>: Maximum number of result rows read from a query; 0 means no limit (default: 0)</li>
+ * <li><b>graphdb.query.slow-query-threshold</b>: Execution time in ms from which on queries are logged with text and bindings; 0 disables the log (default: 1000)</li>
+ * <li><b>graphdb.query.coalesce</b>: Whether identical queries executed concurrently share one evaluation and its result (default: true)</li>
+ * <li><b>graphdb.query.file-timeouts[/folder/file.sparql]</b>: Maximum execution time of a single query file in seconds</li>
+ * <li><b>graphdb.query.file-max-results[/folder/file.sparql]</b>: Maximum number of result rows of a single query file</li>
+ * <li><b>graphdb.warm-up.enabled</b>: Whether label, level and similarity queries are executed at startup to warm up caches (default: true)</li>
+ * <li><b>graphdb.warm-up.languages</b>: Languages the warm-up label queries are executed for (default: en, de)</li>
+ * <li><b>graphdb.warm-up.terms</b>: Terms the warm-up similarity queries are executed for in addition to the cube labels (default: none)</li>
+ * <li><b>graphdb.similarity.mapping-index</b>: Whether the wordnet mappings are joined in-memory instead of in SPARQL (default: false)</li>
+ * <li><b>graphdb.similarity.local</b>: Whether similarities are computed by an in-memory term vector index instead of the GraphDB similarity plugin; implies mapping-index (default: false)</li>
+ * <li><b>graphdb.similarity.dimension</b>: Dimension of the term and document vectors of the local index (default: 256)</li>
+ * <li><b>graphdb.similarity.seeds</b>: Number of non-zero entries of the random index vector of a term (default: 8)</li>
+ * <li><b>graphdb.similarity.clusters</b>: Number of clusters of the document vectors; 0 means the square root of the number of documents (default: 0)</li>
+ * <li><b>graphdb.similarity.probes</b>: Number of nearest clusters scanned by a search (default: 16)</li>
+ * <li><b>graphdb.similarity.max-results</b>: Number of most similar wordnet documents returned by a search (default: 20)</li>
+ * <li><b>graphdb.similarity.decompose-words</b>: Whether the words of multi-word terms are queried concurrently and combined in-memory instead of in one query (default: false)</li>
+ * <li><b>graphdb.similarity.word-limit</b>: Maximum number of results of a decomposed multi-word query; 0 means no limit (default: 0)</li>
+ * <li><b>graphdb.similarity-cache.max-weight</b>: Maximum number of cached similarities; 0 disables the cache (default: 200000)</li>
+ * <li><b>graphdb.similarity-cache.expire-after-write</b>: Time in ms after which cached similarities expire (default: 3600000)</li>
+ * <li><b>graphdb.change-detection.enabled</b>: Whether the repository is polled for changes, which invalidate all cached data (default: false)</li>
+ * <li><b>graphdb.change-detection.interval</b>: Time in ms between two checks for changes (default: 60000)</li>
+ * <li><b>graphdb.change-detection.version-graph</b>: IRI of a named graph whose statements identify the data version; if not set, the number of statements and the named graphs are compared (default: none)</li>
+ * </ul>
+ * <p>
+ * The repository is initialized eagerly and warmed up before the web server accepts connections.
  */
 package at.jku.dke.ida.data;
\ No newline at end of file
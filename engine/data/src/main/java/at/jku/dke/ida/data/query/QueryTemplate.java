@@ -0,0 +1,122 @@
+package at.jku.dke.ida.data.query;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed SPARQL query template.
+ * <p>
+ * A template contains placeholders of the form {@code ###NAME###}. The positions of the placeholders are
+ * determined once when the template is created, so rendering only copies the static parts and the parameter
+ * values into a buffer in a single pass.
+ */
+public final class QueryTemplate {
+
+    /**
+     * The pattern of a placeholder in a query template.
+     */
+    static final Pattern PLACEHOLDER = Pattern.compile("###([A-Z_]+)###");
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    private final String name;
+    private final String text;
+    private final String[] parts;
+    private final String[] placeholders;
+    private final Set<String> placeholderNames;
+
+    /**
+     * Instantiates a new instance of class {@linkplain QueryTemplate}.
+     *
+     * @param name The name of the template (usually the path of the query file).
+     * @param text The text of the template.
+     * @throws IllegalArgumentException If {@code name} is {@code null} or blank or {@code text} is {@code null}.
+     */
+    public QueryTemplate(String name, String text) {
+        if (StringUtils.isBlank(name)) throw new IllegalArgumentException("name must not be null or empty");
+        if (text == null) throw new IllegalArgumentException("text must not be null");
+        this.name = name;
+        this.text = text;
+
+        List<String> partList = new ArrayList<>();
+        List<String> placeholderList = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            partList.add(text.substring(last, matcher.start()));
+            placeholderList.add(matcher.group(1));
+            last = matcher.end();
+        }
+        partList.add(text.substring(last));
+
+        this.parts = partList.toArray(new String[0]);
+        this.placeholders = placeholderList.toArray(new String[0]);
+        this.placeholderNames = Collections.unmodifiableSet(new LinkedHashSet<>(placeholderList));
+    }
+
+    /**
+     * Returns the name of the template.
+     *
+     * @return The name of the template.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the unrendered text of the template.
+     *
+     * @return The text of the template.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the names of the placeholders used in the template (without the surrounding {@code ###}).
+     *
+     * @return The distinct placeholder names in order of their first occurrence.
+     */
+    public Set<String> getPlaceholders() {
+        return placeholderNames;
+    }
+
+    /**
+     * Renders the template by replacing every placeholder with the value of the corresponding parameter.
+     * The values are inserted literally.
+     *
+     * @param parameters The parameter values; the key is the placeholder name (without the surrounding {@code ###}).
+     * @return The rendered query text.
+     * @throws IllegalArgumentException If {@code parameters} is {@code null} or a value for a placeholder is missing.
+     */
+    public String render(Map<String, String> parameters) {
+        if (parameters == null) throw new IllegalArgumentException("parameters must not be null");
+        if (placeholders.length == 0) return text;
+
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        sb.append(parts[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = parameters.get(placeholders[i]);
+            if (value == null)
+                throw new IllegalArgumentException("Missing value for placeholder " + placeholders[i] + " of query " + name);
+            sb.append(value).append(parts[i + 1]);
+        }
+
+        String result = sb.toString();
+        if (sb.capacity() > MAX_RETAINED_BUFFER)
+            BUFFER.remove();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", QueryTemplate.class.getSimpleName() + "[", "]")
+                .add("name='" + name + "'")
+                .add("placeholders=" + placeholderNames)
+                .toString();
+    }
+}
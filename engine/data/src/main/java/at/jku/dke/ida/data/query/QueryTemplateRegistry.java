@@ -0,0 +1,118 @@
+package at.jku.dke.ida.data.query;
+
+import at.jku.dke.ida.data.QueryException;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A registry which loads and parses all repository query files ({@code repo_*}/*.sparql) once at startup.
+ * <p>
+ * Placeholders which are not known to the repositories and known placeholders which are not used by any
+ * query file are reported when the registry is created.
+ */
+@Service
+public class QueryTemplateRegistry {
+
+    private static final Logger LOGGER = LogManager.getLogger(QueryTemplateRegistry.class);
+    private static final String LOCATION_PATTERN = "classpath*:repo_*/*.sparql";
+
+    /**
+     * The placeholders that are filled by the repositories.
+     */
+    static final Set<String> KNOWN_PLACEHOLDERS = Set.of(
+            "CUBE", "LEVELS", "IN", "NOTIN", "LIMIT",
+            "TERM", "NO", "WORDNETS", "SCORE_SIM_MULT", "SCORE_MAP_MULT", "PARTS_SIM", "PARTS_MAPPING"
+    );
+
+    private final Map<String, QueryTemplate> templates;
+
+    /**
+     * Instantiates a new instance of class {@linkplain QueryTemplateRegistry} and loads all query files.
+     *
+     * @throws IllegalStateException If the query files could not be loaded.
+     */
+    public QueryTemplateRegistry() {
+        this.templates = new ConcurrentHashMap<>();
+        loadAll(new PathMatchingResourcePatternResolver(QueryTemplateRegistry.class.getClassLoader()));
+        validate();
+    }
+
+    private void loadAll(ResourcePatternResolver resolver) {
+        try {
+            for (Resource resource : resolver.getResources(LOCATION_PATTERN)) {
+                String path = resource.getURL().getPath();
+                String name = path.substring(path.lastIndexOf('/', path.lastIndexOf('/') - 1));
+                try (InputStream is = resource.getInputStream()) {
+                    templates.putIfAbsent(name, new QueryTemplate(name, IOUtils.toString(is, StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.fatal("Could not load the query files.", ex);
+            throw new IllegalStateException("Could not load the query files.", ex);
+        }
+        LOGGER.info("Loaded {} query templates.", templates.size());
+    }
+
+    private void validate() {
+        Set<String> used = new HashSet<>();
+        for (QueryTemplate template : templates.values()) {
+            for (String placeholder : template.getPlaceholders()) {
+                used.add(placeholder);
+                if (!KNOWN_PLACEHOLDERS.contains(placeholder))
+                    LOGGER.error("Query file {} contains unknown placeholder ###{}###.", template.getName(), placeholder);
+            }
+        }
+
+        Set<String> unused = KNOWN_PLACEHOLDERS.stream()
+                .filter(x -> !used.contains(x))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!unused.isEmpty())
+            LOGGER.warn("Placeholders {} are not used by any query file.", unused);
+    }
+
+    /**
+     * Returns the template of the specified query file.
+     * <p>
+     * Query files outside of the {@code repo_*} folders are loaded on first access and cached afterwards.
+     *
+     * @param queryFile The path and name of the query file (e.g. {@code /repo_cube/getLabelsByLang.sparql}).
+     * @return The parsed query template.
+     * @throws QueryException If the query file does not exist or could not be loaded.
+     */
+    public QueryTemplate get(String queryFile) throws QueryException {
+        QueryTemplate template = templates.get(queryFile);
+        if (template != null) return template;
+
+        try (InputStream is = QueryTemplateRegistry.class.getResourceAsStream(queryFile)) {
+            if (is == null) throw new QueryException("Query file " + queryFile + " does not exist.");
+            template = new QueryTemplate(queryFile, IOUtils.toString(is, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            LOGGER.error("Could not load the query file " + queryFile, ex);
+            throw new QueryException("Could not load query file " + queryFile, ex);
+        }
+
+        QueryTemplate existing = templates.putIfAbsent(queryFile, template);
+        return existing == null ? template : existing;
+    }
+
+    /**
+     * Returns the names of all loaded query templates.
+     *
+     * @return The names of the templates.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(templates.keySet());
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the precompiled SPARQL query templates used by the repositories.
+ */
+package at.jku.dke.ida.data.query;
@@ -2,6 +2,7 @@ package at.jku.dke.ida.data.repositories;
 
 import at.jku.dke.ida.data.GraphDbConnection;
 import at.jku.dke.ida.data.repositories.base.SimpleCubeElementRepository;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -14,11 +15,12 @@ public class BaseMeasurePredicateRepository extends SimpleCubeElementRepository
     /**
      * Instantiates a new instance of class {@linkplain BaseMeasurePredicateRepository}.
      *
-     * @param connection The GraphDB connection service class.
+     * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      */
     @Autowired
-    public BaseMeasurePredicateRepository(GraphDbConnection connection) {
-        super(connection, "repo_basemeasurepred", "base measure predicates");
+    public BaseMeasurePredicateRepository(GraphDbConnection connection, CubeSchemaService schemaService) {
+        super(connection, schemaService, "repo_basemeasurepred", "base measure predicates");
     }
 
 }
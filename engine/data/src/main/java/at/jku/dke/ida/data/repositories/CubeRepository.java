@@ -1,15 +1,19 @@
 package at.jku.dke.ida.data.repositories;
 
+import at.jku.dke.ida.data.IRIValidator;
 import at.jku.dke.ida.data.QueryException;
 import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.models.CubeContext;
 import at.jku.dke.ida.data.models.Label;
 import at.jku.dke.ida.data.repositories.base.BaseRepository;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
 import at.jku.dke.ida.shared.IRIConstants;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Repository for querying cubes.
@@ -17,14 +21,18 @@ import java.util.Set;
 @Service
 public class CubeRepository extends BaseRepository {
 
+    private final CubeSchemaService schemaService;
+
     /**
      * Instantiates a new instance of class {@linkplain CubeRepository}.
      *
-     * @param connection The GraphDB connection service class.
+     * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      */
     @Autowired
-    public CubeRepository(GraphDbConnection connection) {
+    public CubeRepository(GraphDbConnection connection, CubeSchemaService schemaService) {
         super(connection);
+        this.schemaService = schemaService;
     }
 
     /**
@@ -51,4 +59,50 @@ public class CubeRepository extends BaseRepository {
         return getLabelsByLang("/repo_cube/getLabelsByLang.sparql", lang);
     }
 
+    /**
+     * Returns all schema elements of the specified cube needed to determine the possible operations,
+     * except those specified in the exclusions collection.
+     * <p>
+     * If cube schema snapshots are enabled, the context is read from the snapshot of the cube;
+     * otherwise all elements are queried with a single query.
+     *
+     * @param cubeIri   The absolute IRI of the cube.
+     * @param exclusion The collection with IRIs to exclude from the result (relationships are not filtered).
+     * @return The context of the cube.
+     * @throws IllegalArgumentException If {@code cubeIri} is {@code null}, blank or an invalid IRI or if the exclusions contain an invalid IRI.
+     * @throws QueryException           If an exception occurred while executing the query.
+     */
+    public CubeContext getContextByCube(String cubeIri, Collection<String> exclusion) throws QueryException {
+        if (StringUtils.isBlank(cubeIri)) throw new IllegalArgumentException("cubeIri must not be null nor empty");
+        if (!IRIValidator.isValidAbsoluteIRI(cubeIri))
+            throw new IllegalArgumentException("cubeIri must be an absolute IRI");
+        final Collection<String> exclusions = Objects.requireNonNullElseGet(exclusion, Collections::emptyList);
+        if (exclusions.stream().map(IRIValidator::isValidAbsoluteIRI).anyMatch(x -> !x))
+            throw new IllegalArgumentException("exclusion contains at least one invalid IRI");
+
+        if (schemaService.isEnabled()) {
+            logger.debug("Reading context of cube {} with exclusions {} from schema snapshot.", cubeIri, exclusions);
+            return schemaService.getSnapshot(cubeIri).getContext().without(exclusions);
+        }
+
+        logger.debug("Querying context of cube {} with exclusions {}.", cubeIri, exclusions);
+        return connection.query(
+                "/repo_cube/getContextByCube.sparql",
+                Map.of("NOTIN", convertToFullIriString(exclusions)),
+                Map.of("cube", toIri(cubeIri)),
+                stream -> RepositoryHelpers.convertToCubeContext(cubeIri, stream));
+    }
+
+    /**
+     * Asynchronously returns all schema elements of the specified cube needed to determine the possible operations,
+     * except those specified in the exclusions collection.
+     *
+     * @param cubeIri   The absolute IRI of the cube.
+     * @param exclusion The collection with IRIs to exclude from the result.
+     * @return Future completed with the result of {@link #getContextByCube(String, Collection)}.
+     */
+    public CompletableFuture<CubeContext> getContextByCubeAsync(String cubeIri, Collection<String> exclusion) {
+        final Collection<String> exclusions = exclusion == null ? null : new ArrayList<>(exclusion);
+        return connection.supplyAsync(() -> getContextByCube(cubeIri, exclusions));
+    }
 }
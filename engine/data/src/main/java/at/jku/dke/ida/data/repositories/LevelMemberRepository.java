@@ -4,17 +4,30 @@ import at.jku.dke.ida.data.IRIValidator;
 import at.jku.dke.ida.data.QueryException;
 import at.jku.dke.ida.data.GraphDbConnection;
 import at.jku.dke.ida.data.models.DimensionLevelLabel;
+import at.jku.dke.ida.data.models.Page;
 import at.jku.dke.ida.data.repositories.base.CubeElementRepository;
+import at.jku.dke.ida.data.schema.CubeSchemaLabels;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import at.jku.dke.ida.data.schema.CubeSchemaSnapshot;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutableTriple;
 import org.apache.commons.lang3.tuple.Triple;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -24,23 +37,31 @@ import java.util.stream.Stream;
 @Service
 public class LevelMemberRepository extends CubeElementRepository<Triple<String, String, String>, DimensionLevelLabel> {
 
+    /**
+     * The default number of level members per page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 10;
+
+    private static final char TOKEN_SEPARATOR = '\u0000';
+
     /**
      * Instantiates a new instance of class {@linkplain LevelMemberRepository}.
      *
-     * @param connection The GraphDB connection service class.
+     * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      */
     @Autowired
-    public LevelMemberRepository(GraphDbConnection connection) {
-        super(connection, "repo_levelmem", "level members");
+    public LevelMemberRepository(GraphDbConnection connection, CubeSchemaService schemaService) {
+        super(connection, schemaService, "repo_levelmem", "level members");
     }
 
     @Override
     protected Set<Triple<String, String, String>> mapResultToType(Stream<BindingSet> stream) {
         return stream
                 .map(x -> new ImmutableTriple<>(
-                        x.getValue("dimension").stringValue(),
-                        x.getValue("level").stringValue(),
-                        x.getValue("element").stringValue()
+                        RepositoryHelpers.getIri(x, "dimension"),
+                        RepositoryHelpers.getIri(x, "level"),
+                        RepositoryHelpers.getIri(x, "element")
                 )).collect(Collectors.toSet());
     }
 
@@ -51,6 +72,21 @@ public class LevelMemberRepository extends CubeElementRepository<Triple<String,
                 .collect(Collectors.toList());
     }
 
+    @Override
+    protected Set<Triple<String, String, String>> getAllFromSnapshot(CubeSchemaSnapshot snapshot) {
+        return snapshot.getLevelMembers();
+    }
+
+    @Override
+    protected List<DimensionLevelLabel> getLabelsFromSnapshot(CubeSchemaLabels labels) {
+        return labels.getLevelMemberLabels();
+    }
+
+    @Override
+    protected String getElementIri(Triple<String, String, String> element) {
+        return element.getRight();
+    }
+
     /**
      * Returns all level members for the specified cube.
      *
@@ -68,10 +104,16 @@ public class LevelMemberRepository extends CubeElementRepository<Triple<String,
         if (!IRIValidator.isValidAbsoluteIRI(dimensionIri))
             throw new IllegalArgumentException("dimensionIri must be an absolute IRI");
 
+        if (schemaService.isEnabled()) {
+            logger.debug("Reading all level members of cube {} in dimension {} from schema snapshot.", cubeIri, dimensionIri);
+            return new HashSet<>(schemaService.getSnapshot(cubeIri).getLevelMembersByDimension(dimensionIri));
+        }
+
         logger.debug("Querying all level members of cube {} in dimension {}.", cubeIri, dimensionIri);
-        return mapResultToType(connection.getQueryResult("/" + queryFolder + "/getAllByCubeAndDimension.sparql", s -> s.replaceAll("###CUBE###", cubeIri)
-                .replaceAll("###DIMENSION###", dimensionIri))
-                .stream());
+        return connection.query("/" + queryFolder + "/getAllByCubeAndDimension.sparql",
+                Collections.emptyMap(),
+                Map.of("cube", toIri(cubeIri), "dimension", toIri(dimensionIri)),
+                this::mapResultToType);
     }
 
     /**
@@ -91,10 +133,38 @@ public class LevelMemberRepository extends CubeElementRepository<Triple<String,
         if (!IRIValidator.isValidAbsoluteIRI(levelIri))
             throw new IllegalArgumentException("levelIri must be an absolute IRI");
 
+        if (schemaService.isEnabled()) {
+            logger.debug("Reading all level members of cube {} in level {} from schema snapshot.", cubeIri, levelIri);
+            return new HashSet<>(schemaService.getSnapshot(cubeIri).getLevelMembersByLevel(levelIri));
+        }
+
         logger.debug("Querying all level members of cube {} in level {}.", cubeIri, levelIri);
-        return mapResultToType(connection.getQueryResult("/" + queryFolder + "/getAllByCubeAndLevel.sparql", s -> s.replaceAll("###CUBE###", cubeIri)
-                .replaceAll("###LEVEL###", levelIri))
-                .stream());
+        return connection.query("/" + queryFolder + "/getAllByCubeAndLevel.sparql",
+                Collections.emptyMap(),
+                Map.of("cube", toIri(cubeIri), "level", toIri(levelIri)),
+                this::mapResultToType);
+    }
+
+    /**
+     * Asynchronously returns all level members for the specified cube in the specified dimension.
+     *
+     * @param cubeIri      The absolute IRI of the cube.
+     * @param dimensionIri The absolute IRI of the dimension.
+     * @return Future completed with the result of {@link #getAllByCubeAndDimension(String, String)}.
+     */
+    public CompletableFuture<Set<Triple<String, String, String>>> getAllByCubeAndDimensionAsync(String cubeIri, String dimensionIri) {
+        return connection.supplyAsync(() -> getAllByCubeAndDimension(cubeIri, dimensionIri));
+    }
+
+    /**
+     * Asynchronously returns all level members for the specified cube in the specified granularity level.
+     *
+     * @param cubeIri  The absolute IRI of the cube.
+     * @param levelIri The absolute IRI of the granularity level.
+     * @return Future completed with the result of {@link #getAllByCubeAndLevel(String, String)}.
+     */
+    public CompletableFuture<Set<Triple<String, String, String>>> getAllByCubeAndLevelAsync(String cubeIri, String levelIri) {
+        return connection.supplyAsync(() -> getAllByCubeAndLevel(cubeIri, levelIri));
     }
 
     /**
@@ -118,12 +188,112 @@ public class LevelMemberRepository extends CubeElementRepository<Triple<String,
 
         logger.debug("Querying labels of level members of level {} in language {} with exclusions {}.", levelIri, lang, levelMemberIris);
 
-        return mapResultToLabel(lang, connection.getQueryResult(
+        return connection.query(
                 "/" + queryFolder + "/getLabelsByLangAndLevel.sparql",
-                s -> s.replaceAll("###LANG###", lang)
-                        .replaceAll("###LEVEL###", levelIri)
-                        .replace("###NOTIN###", convertToFullIriString(levelMemberIris))
-        ).stream());
+                Map.of("NOTIN", convertToFullIriString(levelMemberIris)),
+                Map.of("lang", toLiteral(lang), "level", toIri(levelIri)),
+                stream -> mapResultToLabel(lang, stream));
     }
 
+    // region --- Paging ---
+
+    /**
+     * Returns one page of the labels of the level members of the specified level (without the specified level members).
+     * <p>
+     * The level members are ordered by label and IRI. The page starts after the level member encoded in {@code pageToken}.
+     *
+     * @param lang            The requested language.
+     * @param levelIri        The absolute IRI of the level.
+     * @param levelMemberIris The IRIs of the level members to exclude from the result.
+     * @param pageToken       The token returned with the previous page ({@code null} for the first page).
+     * @param pageSize        The maximum number of level members on the page.
+     * @return Page with level member labels of the level in the requested language
+     * @throws IllegalArgumentException If {@code lang} or {@code levelIri} is {@code null} or blank, if {@code pageToken} is invalid or if {@code pageSize} is less than 1.
+     * @throws QueryException           If an exception occurred while executing the query.
+     */
+    public Page<DimensionLevelLabel> getLabelsByLangAndLevel(String lang, String levelIri, Collection<String> levelMemberIris,
+                                                             String pageToken, int pageSize) throws QueryException {
+        if (levelMemberIris != null && levelMemberIris.stream().map(IRIValidator::isValidAbsoluteIRI).anyMatch(x -> !x))
+            throw new IllegalArgumentException("levelmemberIris contains at least one invalid IRI");
+
+        logger.debug("Querying page {} of labels of level members of level {} in language {} with exclusions {}.", pageToken, levelIri, lang, levelMemberIris);
+        return queryLabelPage(lang, levelIri, levelMemberIris, Collections.emptyMap(), pageToken, pageSize);
+    }
+
+    /**
+     * Returns one page of the labels of the level members of the specified level whose label contains the specified text.
+     * <p>
+     * The comparison is case-insensitive. The level members are ordered by label and IRI.
+     *
+     * @param lang       The requested language.
+     * @param levelIri   The absolute IRI of the level.
+     * @param text       The text to search for.
+     * @param prefixOnly If {@code true}, only level members whose label starts with {@code text} are returned.
+     * @param pageToken  The token returned with the previous page ({@code null} for the first page).
+     * @param pageSize   The maximum number of level members on the page.
+     * @return Page with matching level member labels of the level in the requested language
+     * @throws IllegalArgumentException If {@code lang}, {@code levelIri} or {@code text} is {@code null} or blank, if {@code pageToken} is invalid or if {@code pageSize} is less than 1.
+     * @throws QueryException           If an exception occurred while executing the query.
+     */
+    public Page<DimensionLevelLabel> searchLabelsByLangAndLevel(String lang, String levelIri, String text, boolean prefixOnly,
+                                                                String pageToken, int pageSize) throws QueryException {
+        if (StringUtils.isBlank(text)) throw new IllegalArgumentException("text must not be null or empty");
+
+        logger.debug("Searching page {} of labels of level members of level {} in language {} for '{}'.", pageToken, levelIri, lang, text);
+        return queryLabelPage(lang, levelIri, Collections.emptySet(),
+                Map.of(prefixOnly ? "prefix" : "contains", toLiteral(text.trim().toLowerCase(Locale.ROOT))),
+                pageToken, pageSize);
+    }
+
+    private Page<DimensionLevelLabel> queryLabelPage(String lang, String levelIri, Collection<String> levelMemberIris, Map<String, Value> filter,
+                                                     String pageToken, int pageSize) throws QueryException {
+        if (StringUtils.isBlank(lang)) throw new IllegalArgumentException("lang must not be null or empty");
+        if (StringUtils.isBlank(levelIri))
+            throw new IllegalArgumentException("levelIri must not be null or empty");
+        if (!IRIValidator.isValidAbsoluteIRI(levelIri))
+            throw new IllegalArgumentException("levelIri must be an absolute IRI");
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+
+        Map<String, Value> bindings = new HashMap<>(filter);
+        bindings.put("lang", toLiteral(lang));
+        bindings.put("level", toIri(levelIri));
+        if (pageToken != null) {
+            String[] key = decodePageToken(pageToken);
+            bindings.put("afterLabel", toLiteral(key[0]));
+            bindings.put("afterElement", toLiteral(key[1]));
+        }
+
+        // Query one more than requested to find out whether there is a next page
+        List<DimensionLevelLabel> labels = connection.query(
+                "/" + queryFolder + "/getLabelsByLangAndLevelPaged.sparql",
+                Map.of("NOTIN", convertToFullIriString(levelMemberIris), "LIMIT", String.valueOf(pageSize + 1)),
+                bindings,
+                stream -> mapResultToLabel(lang, stream));
+        if (labels.size() <= pageSize)
+            return new Page<>(labels, null);
+
+        List<DimensionLevelLabel> items = labels.subList(0, pageSize);
+        DimensionLevelLabel last = items.get(pageSize - 1);
+        return new Page<>(items, encodePageToken(last.getLabel(), last.getUri()));
+    }
+
+    private static String encodePageToken(String label, String iri) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((label + TOKEN_SEPARATOR + iri).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodePageToken(String pageToken) {
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("pageToken is invalid", ex);
+        }
+
+        int idx = key.lastIndexOf(TOKEN_SEPARATOR);
+        if (idx < 0 || !IRIValidator.isValidAbsoluteIRI(key.substring(idx + 1)))
+            throw new IllegalArgumentException("pageToken is invalid");
+        return new String[]{key.substring(0, idx), key.substring(idx + 1)};
+    }
+    // endregion
 }
@@ -2,21 +2,26 @@ package at.jku.dke.ida.data.repositories;
 
 import at.jku.dke.ida.data.IRIValidator;
 import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
 import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.models.HierarchyIndex;
 import at.jku.dke.ida.data.repositories.base.DimensionCubeElementRepository;
-import at.jku.dke.ida.shared.IRIConstants;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
 import com.google.common.graph.Graph;
-import com.google.common.graph.GraphBuilder;
-import com.google.common.graph.ImmutableGraph;
-import com.google.common.graph.MutableGraph;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutableTriple;
 import org.apache.commons.lang3.tuple.Triple;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -25,14 +30,18 @@ import java.util.stream.Collectors;
 @Service
 public class LevelPredicateRepository extends DimensionCubeElementRepository {
 
+    private final ConcurrentMap<String, HierarchyIndex> hierarchies;
+
     /**
      * Instantiates a new instance of class {@linkplain LevelPredicateRepository}.
      *
-     * @param connection The GraphDB connection service class.
+     * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      */
     @Autowired
-    public LevelPredicateRepository(GraphDbConnection connection) {
-        super(connection, "repo_levelpred", "level predicates");
+    public LevelPredicateRepository(GraphDbConnection connection, CubeSchemaService schemaService) {
+        super(connection, schemaService, "repo_levelpred", "level predicates");
+        this.hierarchies = new ConcurrentHashMap<>();
     }
 
     /**
@@ -50,46 +59,92 @@ public class LevelPredicateRepository extends DimensionCubeElementRepository {
         if (!IRIValidator.isValidAbsoluteIRI(cubeIri))
             throw new IllegalArgumentException("cubeIri must be an absolute IRI");
 
+        if (schemaService.isEnabled()) {
+            Set<Triple<String, String, String>> relationships = schemaService.getSnapshot(cubeIri).getRelationships(queryFolder);
+            if (relationships != null) {
+                logger.debug("Reading all level predicate relationships of cube {} from schema snapshot.", cubeIri);
+                return new HashSet<>(relationships);
+            }
+        }
+
         logger.debug("Querying all level predicate relationships of cube {}.", cubeIri);
-        return connection.getQueryResult("/" + queryFolder + "/getAllRelationshipsByCube.sparql", s -> s.replaceAll("###CUBE###", cubeIri))
-                .stream()
-                .map(x -> new ImmutableTriple<>(
-                        x.getValue("dimension").stringValue(),
-                        x.getValue("child").stringValue(),
-                        x.hasBinding("parent") ? x.getValue("parent").stringValue() : null
-                )).collect(Collectors.toSet());
+        return connection.query("/" + queryFolder + "/getAllRelationshipsByCube.sparql", Collections.emptyMap(), Map.of("cube", toIri(cubeIri)),
+                stream -> stream
+                        .map(x -> new ImmutableTriple<>(
+                                RepositoryHelpers.getIri(x, "dimension"),
+                                RepositoryHelpers.getIri(x, "child"),
+                                x.hasBinding("parent") ? RepositoryHelpers.getIri(x, "parent") : null
+                        )).collect(Collectors.toSet()));
     }
 
     /**
-     * Gets the dependency graph of level predicates for the specified cube.
+     * Asynchronously returns all level predicate relationships for the specified cube.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return Future completed with the result of {@link #getAllRelationshipsByCube(String)}.
+     */
+    public CompletableFuture<Set<Triple<String, String, String>>> getAllRelationshipsByCubeAsync(String cubeIri) {
+        return connection.supplyAsync(() -> getAllRelationshipsByCube(cubeIri));
+    }
+
+    /**
+     * Returns the hierarchy index of the level predicate relationships of the specified cube.
+     * <p>
+     * If the schema snapshots are enabled, the index of the snapshot is returned, which is built only once per cube.
+     * Otherwise the index is built once per cube from the queried relationships and kept until the repository changes.
      *
      * @param cubeIri The absolute IRI of the cube.
-     * @return The dependency graph.
+     * @return The hierarchy index.
      * @throws IllegalArgumentException If {@code cubeIri} is {@code null}, blank or an invalid IRI.
      * @throws QueryException           If an exception occurred while executing the query.
      */
-    public Graph<String> getDependencyGraph(String cubeIri) throws QueryException {
-        var deps = getAllRelationshipsByCube(cubeIri);
-
-        MutableGraph<String> graph = GraphBuilder.directed().build();
+    public HierarchyIndex getHierarchyIndex(String cubeIri) throws QueryException {
+        if (StringUtils.isBlank(cubeIri)) throw new IllegalArgumentException("cubeIri must not be null nor empty");
+        if (!IRIValidator.isValidAbsoluteIRI(cubeIri))
+            throw new IllegalArgumentException("cubeIri must be an absolute IRI");
 
-        for (Triple<String, String, String> pair : deps) {
-            graph.addNode(pair.getMiddle());
-            if (pair.getRight() != null) {
-                graph.addNode(pair.getRight());
-                graph.putEdge(pair.getMiddle(), pair.getRight());
-            }
+        if (schemaService.isEnabled()) {
+            HierarchyIndex index = schemaService.getSnapshot(cubeIri).getHierarchy(queryFolder);
+            if (index != null) return index;
         }
 
-        // Add top level
-        graph.addNode(IRIConstants.RESOURCE_TOP_LEVEL);
-        Set<String> nodes = new HashSet<>(graph.nodes());
-        for (String node : nodes) {
-            if (!node.equals(IRIConstants.RESOURCE_TOP_LEVEL) && graph.inDegree(node) == 0) {
-                graph.putEdge(IRIConstants.RESOURCE_TOP_LEVEL, node);
-            }
+        HierarchyIndex index = hierarchies.get(cubeIri);
+        if (index == null) {
+            index = HierarchyIndex.of(getAllRelationshipsByCube(cubeIri));
+            hierarchies.put(cubeIri, index);
         }
+        return index;
+    }
 
-        return ImmutableGraph.copyOf(graph);
+    /**
+     * Removes the cached hierarchy indexes as the repository data changed.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        hierarchies.clear();
+    }
+
+    /**
+     * Asynchronously gets the dependency graph of level predicates for the specified cube.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return Future completed with the result of {@link #getDependencyGraph(String)}.
+     */
+    public CompletableFuture<Graph<String>> getDependencyGraphAsync(String cubeIri) {
+        return connection.supplyAsync(() -> getDependencyGraph(cubeIri));
+    }
+
+    /**
+     * Gets the dependency graph of level predicates for the specified cube.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return The dependency graph (every child points to its parents, the top level to all predicates without children).
+     * @throws IllegalArgumentException If {@code cubeIri} is {@code null}, blank or an invalid IRI.
+     * @throws QueryException           If an exception occurred while executing the query.
+     */
+    public Graph<String> getDependencyGraph(String cubeIri) throws QueryException {
+        return getHierarchyIndex(cubeIri).getGraph();
     }
 }
@@ -2,18 +2,25 @@ package at.jku.dke.ida.data.repositories;
 
 import at.jku.dke.ida.data.IRIValidator;
 import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
 import at.jku.dke.ida.data.GraphDbConnection;
 import at.jku.dke.ida.data.models.DimensionLabel;
+import at.jku.dke.ida.data.models.HierarchyIndex;
 import at.jku.dke.ida.data.models.Label;
 import at.jku.dke.ida.data.repositories.base.DimensionCubeElementRepository;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
 import at.jku.dke.ida.shared.models.DimensionQualification;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutableTriple;
 import org.apache.commons.lang3.tuple.Triple;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -22,14 +29,18 @@ import java.util.stream.Collectors;
 @Service
 public class LevelRepository extends DimensionCubeElementRepository {
 
+    private final ConcurrentMap<String, HierarchyIndex> hierarchies;
+
     /**
      * Instantiates a new instance of class {@linkplain LevelRepository}.
      *
-     * @param connection The GraphDB connection service class.
+     * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      */
     @Autowired
-    public LevelRepository(GraphDbConnection connection) {
-        super(connection, "repo_level", "granularity levels");
+    public LevelRepository(GraphDbConnection connection, CubeSchemaService schemaService) {
+        super(connection, schemaService, "repo_level", "granularity levels");
+        this.hierarchies = new ConcurrentHashMap<>();
     }
 
     /**
@@ -47,14 +58,71 @@ public class LevelRepository extends DimensionCubeElementRepository {
         if (!IRIValidator.isValidAbsoluteIRI(cubeIri))
             throw new IllegalArgumentException("cubeIri must be an absolute IRI");
 
+        if (schemaService.isEnabled()) {
+            Set<Triple<String, String, String>> relationships = schemaService.getSnapshot(cubeIri).getRelationships(queryFolder);
+            if (relationships != null) {
+                logger.debug("Reading all granularity level relationships of cube {} from schema snapshot.", cubeIri);
+                return new HashSet<>(relationships);
+            }
+        }
+
         logger.debug("Querying all granularity level relationships of cube {}.", cubeIri);
-        return connection.getQueryResult("/" + queryFolder + "/getAllRelationshipsByCube.sparql", s -> s.replaceAll("###CUBE###", cubeIri))
-                .stream()
-                .map(x -> new ImmutableTriple<>(
-                        x.getValue("dimension").stringValue(),
-                        x.getValue("child").stringValue(),
-                        x.hasBinding("parent") ? x.getValue("parent").stringValue() : null
-                )).collect(Collectors.toSet());
+        return connection.query("/" + queryFolder + "/getAllRelationshipsByCube.sparql", Collections.emptyMap(), Map.of("cube", toIri(cubeIri)),
+                stream -> stream
+                        .map(x -> new ImmutableTriple<>(
+                                RepositoryHelpers.getIri(x, "dimension"),
+                                RepositoryHelpers.getIri(x, "child"),
+                                x.hasBinding("parent") ? RepositoryHelpers.getIri(x, "parent") : null
+                        )).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Asynchronously returns all granularity level relationships for the specified cube.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return Future completed with the result of {@link #getAllRelationshipsByCube(String)}.
+     */
+    public CompletableFuture<Set<Triple<String, String, String>>> getAllRelationshipsByCubeAsync(String cubeIri) {
+        return connection.supplyAsync(() -> getAllRelationshipsByCube(cubeIri));
+    }
+
+    /**
+     * Returns the hierarchy index of the granularity level relationships of the specified cube.
+     * <p>
+     * If the schema snapshots are enabled, the index of the snapshot is returned, which is built only once per cube.
+     * Otherwise the index is built once per cube from the queried relationships and kept until the repository changes.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return The hierarchy index.
+     * @throws IllegalArgumentException If {@code cubeIri} is {@code null}, blank or an invalid IRI.
+     * @throws QueryException           If an exception occurred while executing the query.
+     */
+    public HierarchyIndex getHierarchyIndex(String cubeIri) throws QueryException {
+        if (StringUtils.isBlank(cubeIri)) throw new IllegalArgumentException("cubeIri must not be null nor empty");
+        if (!IRIValidator.isValidAbsoluteIRI(cubeIri))
+            throw new IllegalArgumentException("cubeIri must be an absolute IRI");
+
+        if (schemaService.isEnabled()) {
+            HierarchyIndex index = schemaService.getSnapshot(cubeIri).getHierarchy(queryFolder);
+            if (index != null) return index;
+        }
+
+        HierarchyIndex index = hierarchies.get(cubeIri);
+        if (index == null) {
+            index = HierarchyIndex.of(getAllRelationshipsByCube(cubeIri));
+            hierarchies.put(cubeIri, index);
+        }
+        return index;
+    }
+
+    /**
+     * Removes the cached hierarchy indexes as the repository data changed.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        hierarchies.clear();
     }
 
     /**
@@ -74,10 +142,11 @@ public class LevelRepository extends DimensionCubeElementRepository {
 
         logger.debug("Querying labels of base granularity levels of cube {} in language {}.", cubeIri, lang);
 
-        return mapResultToLabel(lang, connection.getQueryResult(
+        return connection.query(
                 "/repo_level/getBaseLabelsByLangAndCube.sparql",
-                s -> s.replaceAll("###LANG###", lang).replaceAll("###CUBE###", cubeIri)
-        ).stream());
+                Collections.emptyMap(),
+                Map.of("lang", toLiteral(lang), "cube", toIri(cubeIri)),
+                stream -> mapResultToLabel(lang, stream));
     }
 
     /**
@@ -99,12 +168,11 @@ public class LevelRepository extends DimensionCubeElementRepository {
         if (!IRIValidator.isValidAbsoluteIRI(dimension.getGranularityLevel())) return Collections.emptyList();
         if (!IRIValidator.isValidAbsoluteIRI(dimension.getDimension())) return Collections.emptyList();
 
-        return mapResultToLabel(lang, connection.getQueryResult(
+        return connection.query(
                 "/" + queryFolder + "/getParentLevelLabelsByLangAndDimension.sparql",
-                s -> s.replaceAll("###LANG###", lang)
-                        .replaceAll("###DIMENSION###", dimension.getDimension())
-                        .replaceAll("###LEVEL###", dimension.getGranularityLevel())
-        ).stream());
+                Collections.emptyMap(),
+                Map.of("lang", toLiteral(lang), "dimension", toIri(dimension.getDimension()), "level", toIri(dimension.getGranularityLevel())),
+                stream -> mapResultToLabel(lang, stream));
     }
 
     /**
@@ -126,12 +194,11 @@ public class LevelRepository extends DimensionCubeElementRepository {
         if (!IRIValidator.isValidAbsoluteIRI(dimension.getGranularityLevel())) return Collections.emptyList();
         if (!IRIValidator.isValidAbsoluteIRI(dimension.getDimension())) return Collections.emptyList();
 
-        return mapResultToLabel(lang, connection.getQueryResult(
+        return connection.query(
                 "/" + queryFolder + "/getChildLevelLabelsByLangAndDimension.sparql",
-                s -> s.replaceAll("###LANG###", lang)
-                        .replaceAll("###DIMENSION###", dimension.getDimension())
-                        .replaceAll("###LEVEL###", dimension.getGranularityLevel())
-        ).stream());
+                Collections.emptyMap(),
+                Map.of("lang", toLiteral(lang), "dimension", toIri(dimension.getDimension()), "level", toIri(dimension.getGranularityLevel())),
+                stream -> mapResultToLabel(lang, stream));
     }
 
     /**
@@ -155,14 +222,23 @@ public class LevelRepository extends DimensionCubeElementRepository {
             throw new IllegalArgumentException("dimensionQualifications must not be null");
 
         logger.debug("Querying labels of dimension of cube {} in language {} for dimensions {} where rollup is possible.", cubeIri, lang, dimensionQualifications);
+        Collection<DimensionQualification> candidates = dimensionQualifications;
+        if (schemaService.isEnabled()) {
+            // Only levels with a parent level in the hierarchy of the snapshot can match
+            HierarchyIndex hierarchy = getHierarchyIndex(cubeIri);
+            candidates = dimensionQualifications.stream()
+                    .filter(x -> hierarchy.hasParents(x.getGranularityLevel()))
+                    .collect(Collectors.toList());
+            if (candidates.isEmpty()) return new ArrayList<>();
+        }
+
         return getLabelsByLang(
                 "/" + queryFolder + "/getDimensionsWhereRollUpPossible.sparql",
                 lang,
-                s -> s.replaceAll("###CUBE###", cubeIri)
-                        .replace("###LEVELS###", dimensionQualifications.stream()
-                                .map(x -> '(' + convertToFullIriString(x.getGranularityLevel()) + ')')
-                                .collect(Collectors.joining(" "))
-                        ));
+                Map.of("LEVELS", candidates.stream()
+                        .map(x -> '(' + convertToFullIriString(x.getGranularityLevel()) + ')')
+                        .collect(Collectors.joining(" "))),
+                Map.of("cube", toIri(cubeIri)));
     }
 
     /**
@@ -186,13 +262,22 @@ public class LevelRepository extends DimensionCubeElementRepository {
             throw new IllegalArgumentException("dimensionQualifications must not be null");
 
         logger.debug("Querying labels of dimension of cube {} in language {} for dimensions {} where drill-down is possible.", cubeIri, lang, dimensionQualifications);
+        Collection<DimensionQualification> candidates = dimensionQualifications;
+        if (schemaService.isEnabled()) {
+            // Only levels with a child level in the hierarchy of the snapshot can match
+            HierarchyIndex hierarchy = getHierarchyIndex(cubeIri);
+            candidates = dimensionQualifications.stream()
+                    .filter(x -> hierarchy.hasChildren(x.getGranularityLevel()))
+                    .collect(Collectors.toList());
+            if (candidates.isEmpty()) return new ArrayList<>();
+        }
+
         return getLabelsByLang(
                 "/" + queryFolder + "/getDimensionsWhereDrillDownPossible.sparql",
                 lang,
-                s -> s.replaceAll("###CUBE###", cubeIri)
-                        .replace("###LEVELS###", dimensionQualifications.stream()
-                                .map(x -> '(' + convertToFullIriString(x.getGranularityLevel()) + ')')
-                                .collect(Collectors.joining(" "))
-                        ));
+                Map.of("LEVELS", candidates.stream()
+                        .map(x -> '(' + convertToFullIriString(x.getGranularityLevel()) + ')')
+                        .collect(Collectors.joining(" "))),
+                Map.of("cube", toIri(cubeIri)));
     }
 }
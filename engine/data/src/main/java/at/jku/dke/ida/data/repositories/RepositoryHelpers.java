@@ -1,9 +1,18 @@
 package at.jku.dke.ida.data.repositories;
 
 import at.jku.dke.ida.data.models.*;
+import at.jku.dke.ida.shared.IRIDictionary;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.ImmutableTriple;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.query.BindingSet;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
 /**
  * This class contains some helper methods.
  */
@@ -14,6 +23,19 @@ public final class RepositoryHelpers {
     private RepositoryHelpers() {
     }
 
+    /**
+     * Returns the value of the binding as interned IRI (see {@link IRIDictionary#intern(String)}),
+     * so that results of all queries and sessions share the same string instances.
+     * Must only be used for bindings with IRIs of schema elements.
+     *
+     * @param bindingSet The binding set.
+     * @param name       The name of the binding.
+     * @return The canonical IRI string
+     */
+    public static String getIri(BindingSet bindingSet, String name) {
+        return IRIDictionary.intern(bindingSet.getValue(name).stringValue());
+    }
+
     /**
      * Converts a binding set to a dimension label.
      * The binding set must contain: element, label and description.
@@ -24,7 +46,7 @@ public final class RepositoryHelpers {
      */
     public static Label convert(String lang, BindingSet bindingSet) {
         return new Label(
-                bindingSet.getValue("element").stringValue(),
+                getIri(bindingSet, "element"),
                 lang,
                 bindingSet.getValue("label").stringValue(),
                 bindingSet.hasBinding("description") ? bindingSet.getValue("description").stringValue() : null
@@ -42,9 +64,9 @@ public final class RepositoryHelpers {
     public static DimensionLabel convertToDimensionLabel(String lang, BindingSet bindingSet) {
         return new DimensionLabel(
                 lang,
-                bindingSet.getValue("dimension").stringValue(),
+                getIri(bindingSet, "dimension"),
                 bindingSet.getValue("dimensionLabel").stringValue(),
-                bindingSet.getValue("element").stringValue(),
+                getIri(bindingSet, "element"),
                 bindingSet.getValue("label").stringValue(),
                 bindingSet.hasBinding("description") ? bindingSet.getValue("description").stringValue() : null
         );
@@ -61,11 +83,11 @@ public final class RepositoryHelpers {
     public static DimensionLevelLabel convertToLevelLabel(String lang, BindingSet bindingSet) {
         return new DimensionLevelLabel(
                 lang,
-                bindingSet.getValue("dimension").stringValue(),
+                getIri(bindingSet, "dimension"),
                 bindingSet.getValue("dimensionLabel").stringValue(),
-                bindingSet.getValue("level").stringValue(),
+                getIri(bindingSet, "level"),
                 bindingSet.getValue("levelLabel").stringValue(),
-                bindingSet.getValue("element").stringValue(),
+                getIri(bindingSet, "element"),
                 bindingSet.getValue("label").stringValue(),
                 bindingSet.hasBinding("description") ? bindingSet.getValue("description").stringValue() : null
         );
@@ -82,9 +104,9 @@ public final class RepositoryHelpers {
     public static CubeSimilarity convertToSimilarity(String term, BindingSet bindingSet) {
         return new CubeSimilarity(
                 term,
-                bindingSet.getValue("cube").stringValue(),
-                bindingSet.getValue("element").stringValue(),
-                bindingSet.getValue("type").stringValue(),
+                getIri(bindingSet, "cube"),
+                getIri(bindingSet, "element"),
+                getIri(bindingSet, "type"),
                 ((Literal) bindingSet.getValue("score")).doubleValue()
         );
     }
@@ -100,11 +122,97 @@ public final class RepositoryHelpers {
     public static DimensionSimilarity convertToDimSimilarity(String term, BindingSet bindingSet) {
         return new DimensionSimilarity(
                 term,
-                bindingSet.getValue("cube").stringValue(),
-                bindingSet.getValue("element").stringValue(),
-                bindingSet.getValue("type").stringValue(),
+                getIri(bindingSet, "cube"),
+                getIri(bindingSet, "element"),
+                getIri(bindingSet, "type"),
                 ((Literal) bindingSet.getValue("score")).doubleValue(),
-                bindingSet.getValue("dimension").stringValue()
+                getIri(bindingSet, "dimension")
         );
     }
+
+    /**
+     * Demultiplexes the result rows of the query {@code /repo_cube/getContextByCube.sparql} into a cube context.
+     * The binding sets must contain: kind and depending on the kind element, dimension, level, child and parent.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @param stream  The stream with the bindings from the query result.
+     * @return Converted Cube Context
+     * @throws IllegalArgumentException If a binding set has an unknown kind.
+     */
+    public static CubeContext convertToCubeContext(String cubeIri, Stream<BindingSet> stream) {
+        final Set<String> aggregateMeasures = new HashSet<>();
+        final Set<String> aggregateMeasurePredicates = new HashSet<>();
+        final Set<String> baseMeasurePredicates = new HashSet<>();
+        final Set<String> comparativeMeasures = new HashSet<>();
+        final Set<String> comparativeMeasurePredicates = new HashSet<>();
+        final Set<String> joinConditionPredicates = new HashSet<>();
+        final Set<Pair<String, String>> levels = new HashSet<>();
+        final Set<Pair<String, String>> levelPredicates = new HashSet<>();
+        final Set<Triple<String, String, String>> levelMembers = new HashSet<>();
+        final Set<Triple<String, String, String>> levelRelationships = new HashSet<>();
+        final Set<Triple<String, String, String>> levelPredicateRelationships = new HashSet<>();
+
+        stream.forEach(x -> {
+            final String kind = x.getValue("kind").stringValue();
+            switch (kind) {
+                case "repo_aggmeasure":
+                    aggregateMeasures.add(getIri(x, "element"));
+                    break;
+                case "repo_aggmeasurepred":
+                    aggregateMeasurePredicates.add(getIri(x, "element"));
+                    break;
+                case "repo_basemeasurepred":
+                    baseMeasurePredicates.add(getIri(x, "element"));
+                    break;
+                case "repo_compmeasure":
+                    comparativeMeasures.add(getIri(x, "element"));
+                    break;
+                case "repo_compmeasurepred":
+                    comparativeMeasurePredicates.add(getIri(x, "element"));
+                    break;
+                case "repo_joinpred":
+                    joinConditionPredicates.add(getIri(x, "element"));
+                    break;
+                case "repo_level":
+                    levels.add(convertToPair(x));
+                    break;
+                case "repo_levelpred":
+                    levelPredicates.add(convertToPair(x));
+                    break;
+                case "repo_levelmem":
+                    levelMembers.add(new ImmutableTriple<>(
+                            getIri(x, "dimension"),
+                            getIri(x, "level"),
+                            getIri(x, "element")));
+                    break;
+                case "repo_level/relationship":
+                    levelRelationships.add(convertToRelationship(x));
+                    break;
+                case "repo_levelpred/relationship":
+                    levelPredicateRelationships.add(convertToRelationship(x));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown kind of cube context row: " + kind);
+            }
+        });
+
+        return new CubeContext(cubeIri,
+                aggregateMeasures, aggregateMeasurePredicates, baseMeasurePredicates,
+                comparativeMeasures, comparativeMeasurePredicates, joinConditionPredicates,
+                levels, levelPredicates, levelMembers,
+                levelRelationships, levelPredicateRelationships);
+    }
+
+    private static Pair<String, String> convertToPair(BindingSet bindingSet) {
+        return new ImmutablePair<>(
+                getIri(bindingSet, "dimension"),
+                getIri(bindingSet, "element"));
+    }
+
+    private static Triple<String, String, String> convertToRelationship(BindingSet bindingSet) {
+        return new ImmutableTriple<>(
+                getIri(bindingSet, "dimension"),
+                getIri(bindingSet, "child"),
+                bindingSet.hasBinding("parent") ? getIri(bindingSet, "parent") : null);
+    }
 }
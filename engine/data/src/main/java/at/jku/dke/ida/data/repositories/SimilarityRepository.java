@@ -3,31 +3,104 @@ package at.jku.dke.ida.data.repositories;
 import at.jku.dke.ida.data.IRIValidator;
 import at.jku.dke.ida.data.QueryException;
 import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryFutures;
+import at.jku.dke.ida.data.QuerySupplier;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.configuration.GraphDbSimilarityCacheConfig;
+import at.jku.dke.ida.data.configuration.GraphDbSimilarityConfig;
 import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.models.DimensionSimilarity;
+import at.jku.dke.ida.data.query.QueryTemplate;
 import at.jku.dke.ida.data.repositories.base.BaseRepository;
-import org.apache.commons.io.IOUtils;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import at.jku.dke.ida.data.similarity.SimilarityIndexService;
+import at.jku.dke.ida.data.similarity.WordSimilarities;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Repository for querying similarities.
+ * <p>
+ * The similarities are computed by the GraphDB similarity plugin or, if {@code graphdb.similarity.mapping-index}
+ * or {@code graphdb.similarity.local} is set, by the {@link SimilarityIndexService}.
+ * If {@code graphdb.similarity.decompose-words} is set, the words of multi-word terms are queried concurrently
+ * and combined with {@link WordSimilarities}.
+ * <p>
+ * Results are cached per language, normalized term (trimmed, lower case, single spaces) and cube.
+ * The cached results of a cube are invalidated when its schema is refreshed or invalidated in the {@link CubeSchemaService}
+ * and all results are invalidated when the repository data changes (see {@link RepositoryChangedEvent}).
  */
 @Service
 public class SimilarityRepository extends BaseRepository {
 
+    private final GraphDbSimilarityConfig config;
+    private final SimilarityIndexService similarityIndex;
+    private final Cache<CacheKey, CubeSimilarity[]> similarityCache;
+    private final AtomicLong cacheGeneration;
+
     /**
-     * Instantiates a new instance of class {@linkplain SimilarityRepository}.
+     * Instantiates a new instance of class {@linkplain SimilarityRepository} which always uses the GraphDB similarity plugin
+     * with the default configuration.
      *
      * @param connection The GraphDB connection service class.
      */
     public SimilarityRepository(GraphDbConnection connection) {
+        this(connection, new GraphDbConfig(), null, null);
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain SimilarityRepository} whose cache is not invalidated on schema changes.
+     *
+     * @param connection      The GraphDB connection service class.
+     * @param config          The GraphDB configuration.
+     * @param similarityIndex The in-memory similarity index (may be {@code null}).
+     */
+    public SimilarityRepository(GraphDbConnection connection, GraphDbConfig config, SimilarityIndexService similarityIndex) {
+        this(connection, config, similarityIndex, null);
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain SimilarityRepository}.
+     *
+     * @param connection      The GraphDB connection service class.
+     * @param config          The GraphDB configuration.
+     * @param similarityIndex The in-memory similarity index (may be {@code null}).
+     * @param schemaService   The cube schema service whose changes invalidate the cache (may be {@code null}).
+     */
+    @Autowired
+    public SimilarityRepository(GraphDbConnection connection, GraphDbConfig config, SimilarityIndexService similarityIndex,
+                                CubeSchemaService schemaService) {
         super(connection);
+        this.config = config.getSimilarity();
+        this.similarityIndex = similarityIndex;
+
+        GraphDbSimilarityCacheConfig cacheConfig = config.getSimilarityCache();
+        this.similarityCache = CacheBuilder.newBuilder()
+                .maximumWeight(cacheConfig.getMaxWeight())
+                .weigher((CacheKey key, CubeSimilarity[] value) -> value.length + 1)
+                .expireAfterWrite(cacheConfig.getExpireAfterWrite(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(connection.getMeterRegistry(), similarityCache, "graphdb.similarities");
+        this.cacheGeneration = new AtomicLong();
+        if (schemaService != null)
+            schemaService.addInvalidationListener(this::invalidateSimilarityCache);
     }
 
     // region --- getTermSimilarity ---
@@ -80,19 +153,19 @@ public class SimilarityRepository extends BaseRepository {
         if (cubeIri != null && !IRIValidator.isValidAbsoluteIRI(cubeIri))
             throw new IllegalArgumentException("cubeIri must be an absolute IRI");
 
-        return connection.getQueryResult(queryFile, s -> {
-            s = s.replaceAll("###TERM###", term);
-            if (cubeIri != null) {
-                s = s.replaceAll("###CUBE###", cubeIri);
-            }
-            return s;
-        })
-                .stream()
-                .filter(x -> x.hasBinding("cube") && x.hasBinding("element") && x.hasBinding("score"))
-                .map(x -> x.hasBinding("dimension") ?
-                        RepositoryHelpers.convertToDimSimilarity(term, x) :
-                        RepositoryHelpers.convertToSimilarity(term, x))
-                .collect(Collectors.toList());
+        final String normalized = normalize(term);
+        return cached(new CacheKey(false, lang, normalized, cubeIri), term, () -> useIndex(lang) ?
+                similarityIndex.getTermSimilarity(normalized, cubeIri) :
+                querySimilarities(queryFile, normalized, cubeIri));
+    }
+
+    private List<CubeSimilarity> querySimilarities(String queryFile, String term, String cubeIri) throws QueryException {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("TERM", term);
+        if (cubeIri != null)
+            parameters.put("CUBE", cubeIri);
+
+        return connection.query(queryFile, parameters, Collections.emptyMap(), stream -> mapToSimilarities(term, stream));
     }
     // endregion
 
@@ -135,24 +208,62 @@ public class SimilarityRepository extends BaseRepository {
         if (cubeIri != null && !IRIValidator.isValidAbsoluteIRI(cubeIri))
             throw new IllegalArgumentException("cubeIri must be an absolute IRI");
 
+        final String normalized = normalize(term);
+        return cached(new CacheKey(true, lang, normalized, cubeIri), term, () -> loadWordSimilarity(lang, normalized, cubeIri));
+    }
+
+    private List<CubeSimilarity> loadWordSimilarity(String lang, String term, String cubeIri) throws QueryException {
+        if (useIndex(lang))
+            return similarityIndex.getWordSimilarity(term, cubeIri);
+
+        final String[] splitted = term.split(" ");
+        if (config.isDecomposeWords() && splitted.length > 1)
+            return getWordSimilarityDecomposed(lang, term, splitted, cubeIri);
+
         final String queryFile = "/repo_nlp/similarity_multiple_" + lang + ".sparql";
 
         // Prepare query parts
-        final String[] splitted = term.split(" ");
         String simParts = String.join(" ", getSimilarityParts(lang, splitted));
         String mappingParts = String.join(" ", getMappingParts(splitted, cubeIri));
         String wordnetSelect = IntStream.range(0, splitted.length).mapToObj(x -> "?w" + x).collect(Collectors.joining(" "));
         String wordnetScoreSelect = IntStream.range(0, splitted.length).mapToObj(x -> "?score" + x).collect(Collectors.joining(" * "));
         String mappingScoreSelect = IntStream.range(0, splitted.length).mapToObj(x -> "?scoreM" + x).collect(Collectors.joining(" * "));
 
-        return connection.getQueryResult(queryFile, s -> s
-                .replaceAll("###WORDNETS###", wordnetSelect)
-                .replaceAll("###SCORE_SIM_MULT###", wordnetScoreSelect)
-                .replaceAll("###SCORE_MAP_MULT###", mappingScoreSelect)
-                .replaceAll("###PARTS_SIM###", simParts)
-                .replaceAll("###PARTS_MAPPING###", mappingParts)
-        )
-                .stream()
+        return connection.query(queryFile, Map.of(
+                "WORDNETS", wordnetSelect,
+                "SCORE_SIM_MULT", wordnetScoreSelect,
+                "SCORE_MAP_MULT", mappingScoreSelect,
+                "PARTS_SIM", simParts,
+                "PARTS_MAPPING", mappingParts
+        ), Collections.emptyMap(), stream -> mapToSimilarities(term, stream));
+    }
+
+    private List<CubeSimilarity> getWordSimilarityDecomposed(String lang, String term, String[] splitted, String cubeIri) throws QueryException {
+        final String queryFile = cubeIri == null ?
+                "/repo_nlp/similarity_single_" + lang + ".sparql" :
+                "/repo_nlp/cube_similarity_single_" + lang + ".sparql";
+
+        // Query the words concurrently; the first word is queried by the calling thread
+        List<CompletableFuture<List<CubeSimilarity>>> futures = new ArrayList<>(splitted.length - 1);
+        for (int i = 1; i < splitted.length; i++) {
+            final String word = splitted[i];
+            futures.add(connection.supplyAsync(() -> querySimilarities(queryFile, word, cubeIri)));
+        }
+        List<List<CubeSimilarity>> words = new ArrayList<>(splitted.length);
+        words.add(querySimilarities(queryFile, splitted[0], cubeIri));
+        QueryFutures.joinAll(futures.toArray(new CompletableFuture<?>[0]));
+        for (CompletableFuture<List<CubeSimilarity>> future : futures)
+            words.add(QueryFutures.join(future));
+
+        return WordSimilarities.combine(term, words, config.getWordLimit());
+    }
+
+    private boolean useIndex(String lang) {
+        return similarityIndex != null && similarityIndex.isEnabled() && lang.equals("en");
+    }
+
+    private static List<CubeSimilarity> mapToSimilarities(String term, Stream<BindingSet> stream) {
+        return stream
                 .filter(x -> x.hasBinding("cube") && x.hasBinding("element") && x.hasBinding("score"))
                 .map(x -> x.hasBinding("dimension") ?
                         RepositoryHelpers.convertToDimSimilarity(term, x) :
@@ -161,42 +272,134 @@ public class SimilarityRepository extends BaseRepository {
     }
 
     private String[] getSimilarityParts(String lang, String[] splitted) throws QueryException {
-        String queryFile = "/repo_nlp/similarity_multiple_" + lang + "_part_sim.sparql";
-        try {
-            final String queryText = IOUtils.toString(GraphDbConnection.class.getResourceAsStream(queryFile), StandardCharsets.UTF_8);
-
-            String[] queryParts = new String[splitted.length];
-            for (int i = 0; i < splitted.length; i++) {
-                queryParts[i] = queryText
-                        .replaceAll("###NO###", Integer.toString(i))
-                        .replaceAll("###TERM###", splitted[i]);
-            }
-
-            return queryParts;
-        } catch (IOException ex) {
-            logger.error("Could not load the query file " + queryFile, ex);
-            throw new QueryException("Could not load query file " + queryFile, ex);
+        final QueryTemplate template = connection.getTemplate("/repo_nlp/similarity_multiple_" + lang + "_part_sim.sparql");
+
+        String[] queryParts = new String[splitted.length];
+        for (int i = 0; i < splitted.length; i++) {
+            queryParts[i] = template.render(Map.of("NO", Integer.toString(i), "TERM", splitted[i]));
         }
+        return queryParts;
     }
 
     private String[] getMappingParts(String[] splitted, String cube) throws QueryException {
-        String queryFile = cube == null ?
+        final QueryTemplate template = connection.getTemplate(cube == null ?
                 "/repo_nlp/similarity_multiple_part_mapping.sparql" :
-                "/repo_nlp/similarity_multiple_part_mapping_with_filter.sparql";
-        try {
-            final String queryText = IOUtils.toString(GraphDbConnection.class.getResourceAsStream(queryFile), StandardCharsets.UTF_8);
-
-            String[] queryParts = new String[splitted.length];
-            for (int i = 0; i < splitted.length; i++) {
-                queryParts[i] = queryText.replaceAll("###NO###", Integer.toString(i));
-                if (cube != null)
-                    queryParts[i] = queryParts[i].replaceAll("###CUBE###", cube);
-            }
-
-            return queryParts;
-        } catch (IOException ex) {
-            logger.error("Could not load the query file " + queryFile, ex);
-            throw new QueryException("Could not load query file " + queryFile, ex);
+                "/repo_nlp/similarity_multiple_part_mapping_with_filter.sparql");
+
+        String[] queryParts = new String[splitted.length];
+        for (int i = 0; i < splitted.length; i++) {
+            queryParts[i] = cube == null ?
+                    template.render(Map.of("NO", Integer.toString(i))) :
+                    template.render(Map.of("NO", Integer.toString(i), "CUBE", cube));
+        }
+        return queryParts;
+    }
+    // endregion
+
+    // region --- SIMILARITY CACHE ---
+
+    /**
+     * Returns the statistics (hits, misses, evictions) of the similarity cache.
+     *
+     * @return The similarity cache statistics.
+     */
+    public CacheStats getSimilarityCacheStats() {
+        return similarityCache.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached results.
+     *
+     * @return The number of cache entries.
+     */
+    public long getSimilarityCacheSize() {
+        return similarityCache.size();
+    }
+
+    /**
+     * Removes all results from the similarity cache. Results of queries running concurrently are not cached.
+     */
+    public void invalidateSimilarityCache() {
+        cacheGeneration.incrementAndGet();
+        similarityCache.invalidateAll();
+        logger.info("Invalidated similarity cache.");
+    }
+
+    /**
+     * Removes all results from the similarity cache as the repository data changed.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        invalidateSimilarityCache();
+    }
+
+    /**
+     * Removes the results of the specified cube and the results of queries over all cubes from the similarity cache.
+     *
+     * @param cubeIri The absolute IRI of the cube or {@code null} to remove all results.
+     */
+    public void invalidateSimilarityCache(String cubeIri) {
+        if (cubeIri == null) {
+            invalidateSimilarityCache();
+            return;
+        }
+        cacheGeneration.incrementAndGet();
+        similarityCache.asMap().keySet().removeIf(key -> key.cube == null || key.cube.equals(cubeIri));
+        logger.debug("Invalidated similarity cache of cube {}.", cubeIri);
+    }
+
+    // Terms differing only in case and whitespace share one cache entry, so they are queried the same way
+    private static String normalize(String term) {
+        return StringUtils.normalizeSpace(term).toLowerCase(Locale.ROOT);
+    }
+
+    private List<CubeSimilarity> cached(CacheKey key, String term, QuerySupplier<List<CubeSimilarity>> loader) throws QueryException {
+        CubeSimilarity[] cached = similarityCache.getIfPresent(key);
+        if (cached != null) return copy(cached, term);
+
+        final long generation = cacheGeneration.get();
+        CubeSimilarity[] loaded = loader.get().toArray(new CubeSimilarity[0]);
+        if (generation == cacheGeneration.get())
+            similarityCache.put(key, loaded);
+        return copy(loaded, term);
+    }
+
+    private static List<CubeSimilarity> copy(CubeSimilarity[] similarities, String term) {
+        List<CubeSimilarity> result = new ArrayList<>(similarities.length);
+        for (CubeSimilarity x : similarities) {
+            result.add(x instanceof DimensionSimilarity ?
+                    new DimensionSimilarity(term, x.getCube(), x.getElement(), x.getType(), x.getScore(), ((DimensionSimilarity) x).getDimension()) :
+                    new CubeSimilarity(term, x.getCube(), x.getElement(), x.getType(), x.getScore()));
+        }
+        return result;
+    }
+
+    private static final class CacheKey {
+        private final boolean words;
+        private final String lang;
+        private final String term;
+        private final String cube;
+
+        CacheKey(boolean words, String lang, String term, String cube) {
+            this.words = words;
+            this.lang = lang;
+            this.term = term;
+            this.cube = cube;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey key = (CacheKey) o;
+            return words == key.words && lang.equals(key.lang) && term.equals(key.term) && Objects.equals(cube, key.cube);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(words, lang, term, cube);
         }
     }
     // endregion
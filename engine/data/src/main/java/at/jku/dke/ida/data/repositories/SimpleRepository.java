@@ -3,31 +3,67 @@ package at.jku.dke.ida.data.repositories;
 import at.jku.dke.ida.data.IRIValidator;
 import at.jku.dke.ida.data.QueryException;
 import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.configuration.GraphDbLabelCacheConfig;
 import at.jku.dke.ida.data.models.Label;
 import at.jku.dke.ida.data.repositories.base.BaseRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Repository which provides methods for queries independent of type.
+ * <p>
+ * Labels requested by IRI are cached per language and IRI; IRIs without a label in the requested language
+ * are cached as well, so that they are not queried again. The cache is invalidated if the repository data changes
+ * (see {@link RepositoryChangedEvent}).
  */
 @Service
 public class SimpleRepository extends BaseRepository {
 
+    private final Cache<Pair<String, String>, Optional<Label>> labelCache;
+    private final AtomicLong cacheGeneration;
+
     /**
      * Instantiates a new instance of class {@linkplain SimpleRepository}.
      *
      * @param connection The GraphDB connection service class.
+     * @param config     The GraphDB configuration.
      */
     @Autowired
-    public SimpleRepository(GraphDbConnection connection) {
+    public SimpleRepository(GraphDbConnection connection, GraphDbConfig config) {
         super(connection);
+
+        GraphDbLabelCacheConfig cacheConfig = config.getLabelCache();
+        this.labelCache = CacheBuilder.newBuilder()
+                .maximumWeight(cacheConfig.getMaxWeight())
+                .weigher(SimpleRepository::weigh)
+                .expireAfterWrite(cacheConfig.getExpireAfterWrite(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(connection.getMeterRegistry(), labelCache, "graphdb.labels");
+        this.cacheGeneration = new AtomicLong();
+    }
+
+    private static int weigh(Pair<String, String> key, Optional<Label> label) {
+        return key.getLeft().length() + key.getRight().length() + label
+                .map(x -> StringUtils.length(x.getLabel()) + StringUtils.length(x.getDescription()))
+                .orElse(0);
     }
 
     /**
@@ -40,17 +76,29 @@ public class SimpleRepository extends BaseRepository {
      * @throws QueryException           If an exception occurred while executing the query.
      */
     public Label getLabelByLangAndIri(String lang, String iri) throws QueryException {
+        if (StringUtils.isBlank(lang)) throw new IllegalArgumentException("lang must not be null or empty");
         if (!IRIValidator.isValidAbsoluteIRI(iri)) throw new IllegalArgumentException("iri must be a valid IRI");
+
+        Pair<String, String> key = new ImmutablePair<>(lang, iri);
+        Optional<Label> cached = labelCache.getIfPresent(key);
+        if (cached != null) return cached.orElse(null);
+        final long generation = cacheGeneration.get();
+
         var list = getLabelsByLang(
                 "/repo_simple/getLabelByLangAndIri.sparql",
                 lang,
-                s -> s.replaceAll("###URI###", iri));
-        if (list == null || list.isEmpty()) return null;
-        return list.get(0);
+                Collections.emptyMap(),
+                Map.of("element", toIri(iri)));
+        Label label = list == null || list.isEmpty() ? null : list.get(0);
+        if (generation == cacheGeneration.get())
+            labelCache.put(key, Optional.ofNullable(label));
+        return label;
     }
 
     /**
      * Returns the labels for the uris in the specified language.
+     * <p>
+     * Labels which are not cached yet are fetched with a single query. Invalid IRIs are skipped.
      *
      * @param lang The requested language.
      * @param iris Collection with the IRIs of which the labels are requested.
@@ -59,13 +107,51 @@ public class SimpleRepository extends BaseRepository {
      * @throws QueryException           If an exception occurred while executing the query (e.g. query file not found).
      */
     public Map<String, Label> getLabelsByLangAndIris(String lang, Collection<String> iris) throws QueryException {
+        if (StringUtils.isBlank(lang)) throw new IllegalArgumentException("lang must not be null or empty");
         if (iris == null) throw new IllegalArgumentException("iris must not be null");
-        return getLabelsByLang("/repo_simple/getLabelsByLangAndIris.sparql",
+
+        final Set<Pair<String, String>> keys = iris.stream()
+                .filter(IRIValidator::isValidAbsoluteIRI)
+                .map(x -> new ImmutablePair<>(lang, x))
+                .collect(Collectors.toSet());
+        final Map<Pair<String, String>, Optional<Label>> cached = labelCache.getAllPresent(keys);
+        final Map<String, Label> result = new HashMap<>();
+        cached.values().forEach(x -> x.ifPresent(label -> result.put(label.getUri(), label)));
+        if (cached.size() == keys.size()) return result;
+
+        final long generation = cacheGeneration.get();
+        final Set<String> misses = keys.stream()
+                .filter(x -> !cached.containsKey(x))
+                .map(Pair::getRight)
+                .collect(Collectors.toSet());
+        logger.debug("Label cache misses for {} of {} IRIs in language {}.", misses.size(), keys.size(), lang);
+        final Map<String, Label> loaded = getLabelsByLang("/repo_simple/getLabelsByLangAndIris.sparql",
                 lang,
-                s -> s.replaceAll("###IN###", convertToFullIriString(iris)))
+                Map.of("IN", convertToFullIriString(misses)),
+                Collections.emptyMap())
                 .stream()
                 .distinct()
                 .collect(Collectors.toMap(Label::getUri, Function.identity()));
+
+        if (generation == cacheGeneration.get()) {
+            for (String iri : misses) {
+                labelCache.put(new ImmutablePair<>(lang, iri), Optional.ofNullable(loaded.get(iri)));
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    /**
+     * Asynchronously returns the labels for the uris in the specified language.
+     *
+     * @param lang The requested language.
+     * @param iris Collection with the IRIs of which the labels are requested.
+     * @return Future completed with the result of {@link #getLabelsByLangAndIris(String, Collection)}.
+     */
+    public CompletableFuture<Map<String, Label>> getLabelsByLangAndIrisAsync(String lang, Collection<String> iris) {
+        final Collection<String> copy = iris == null ? null : new ArrayList<>(iris);
+        return connection.supplyAsync(() -> getLabelsByLangAndIris(lang, copy));
     }
 
     /**
@@ -79,4 +165,44 @@ public class SimpleRepository extends BaseRepository {
     public List<Label> getLabelsByLang(String lang) throws QueryException {
         return getLabelsByLang("/repo_simple/getLabelsByLang.sparql", lang);
     }
+
+    // region --- LABEL CACHE ---
+
+    /**
+     * Returns the statistics (hits, misses, evictions) of the label cache.
+     *
+     * @return The label cache statistics.
+     */
+    public CacheStats getLabelCacheStats() {
+        return labelCache.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached labels (including IRIs without label).
+     *
+     * @return The number of cache entries.
+     */
+    public long getLabelCacheSize() {
+        return labelCache.size();
+    }
+
+    /**
+     * Removes all labels from the label cache. Labels of queries running concurrently are not cached.
+     */
+    public void invalidateLabelCache() {
+        cacheGeneration.incrementAndGet();
+        labelCache.invalidateAll();
+        logger.info("Invalidated label cache.");
+    }
+
+    /**
+     * Removes all labels from the label cache as the repository data changed.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        invalidateLabelCache();
+    }
+    // endregion
 }
@@ -8,12 +8,13 @@ import at.jku.dke.ida.data.repositories.RepositoryHelpers;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.function.Function;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +22,8 @@ import java.util.stream.Collectors;
  */
 public abstract class BaseRepository {
 
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+
     /**
      * The graph db connection.
      */
@@ -42,19 +45,19 @@ public abstract class BaseRepository {
     }
 
     /**
-     * Converts the collection of strings to a comma-separated IRI-string.
+     * Converts the collection of strings to a whitespace-separated IRI-string to be used in {@code VALUES} blocks.
      * <p>
      * Invalid IRIs are skipped.
      *
      * @param iris The collection with IRIs.
-     * @return The result has the format {@code (<http://a.com/>, <http://b.com/>)}. If {@code iris} is {@code null}, an empty String will be returned.
+     * @return The result has the format {@code <http://a.com/> <http://b.com/>}. If {@code iris} is {@code null}, an empty String will be returned.
      */
     protected String convertToFullIriString(Collection<String> iris) {
         if (iris == null) return "";
         return iris.stream()
                 .filter(IRIValidator::isValidAbsoluteIRI)
                 .map(this::convertToFullIriString)
-                .collect(Collectors.joining(", "));
+                .collect(Collectors.joining(" "));
     }
 
     /**
@@ -69,6 +72,27 @@ public abstract class BaseRepository {
         return '<' + iri + '>';
     }
 
+    /**
+     * Converts the IRI to a value to be bound to a query variable.
+     *
+     * @param iri The absolute IRI to convert.
+     * @return The IRI value.
+     * @throws IllegalArgumentException If {@code iri} is not a valid IRI.
+     */
+    protected IRI toIri(String iri) {
+        return VALUE_FACTORY.createIRI(iri);
+    }
+
+    /**
+     * Converts the string to a literal value to be bound to a query variable (e.g. a language tag).
+     *
+     * @param value The string to convert.
+     * @return The literal value.
+     */
+    protected Literal toLiteral(String value) {
+        return VALUE_FACTORY.createLiteral(value);
+    }
+
     // region --- getLabelsByLang ---
 
     /**
@@ -88,7 +112,7 @@ public abstract class BaseRepository {
      * @throws QueryException           If an exception occurred while executing the query (e.g. query file not found).
      */
     protected List<Label> getLabelsByLang(String queryFile, String lang) throws QueryException {
-        return getLabelsByLang(queryFile, lang, Function.identity());
+        return getLabelsByLang(queryFile, lang, Collections.emptyMap(), Collections.emptyMap());
     }
 
     /**
@@ -101,28 +125,29 @@ public abstract class BaseRepository {
      * <li>description (optional)</li>
      * </ul>
      *
-     * @param queryFile                        The path and name to the query file.
-     * @param lang                             The requested language.
-     * @param additionalQueryStringManipulator Additional query string manipulator to manipulate the query
-     *                                         text before executing (may be {@code null}).
+     * <p>
+     * The language is bound to the variable <b>?lang</b>.
+     *
+     * @param queryFile          The path and name to the query file.
+     * @param lang               The requested language.
+     * @param parameters         The values for the placeholders of the query (may be {@code null}).
+     * @param additionalBindings Additional values for the variables of the query (may be {@code null}).
      * @return List with found labels in the requested language
      * @throws IllegalArgumentException If {@code queryFile} or {@code lang} is {@code null} or blank.
      * @throws QueryException           If an exception occurred while executing the query (e.g. query file not found).
      */
-    protected List<Label> getLabelsByLang(String queryFile, String lang, Function<String, String> additionalQueryStringManipulator) throws QueryException {
+    protected List<Label> getLabelsByLang(String queryFile, String lang, Map<String, String> parameters, Map<String, Value> additionalBindings) throws QueryException {
         if (StringUtils.isBlank(queryFile)) throw new IllegalArgumentException("queryFile must not be null or empty");
         if (StringUtils.isBlank(lang)) throw new IllegalArgumentException("lang must not be null or empty");
 
         logger.debug("Querying labels of language {} using query file {}.", lang, queryFile);
-        final Function<String, String> manipulator = Objects.requireNonNullElse(additionalQueryStringManipulator, Function.identity());
+        final Map<String, Value> bindings = new HashMap<>(Objects.requireNonNullElse(additionalBindings, Collections.emptyMap()));
+        bindings.put("lang", toLiteral(lang));
 
-        return connection.getQueryResult(
-                queryFile,
-                s -> manipulator.apply(s.replaceAll("###LANG###", lang))
-        )
-                .stream()
-                .map(x -> RepositoryHelpers.convert(lang, x))
-                .collect(Collectors.toList());
+        return connection.query(queryFile, Objects.requireNonNullElse(parameters, Collections.emptyMap()), bindings,
+                stream -> stream
+                        .map(x -> RepositoryHelpers.convert(lang, x))
+                        .collect(Collectors.toList()));
     }
     // endregion
 
@@ -137,7 +162,7 @@ public abstract class BaseRepository {
      * </ul>
      *
      * <p>
-     * The query should have placeholder <b>###TYPE###</b> for the specified type.
+     * The specified type is bound to the variable <b>?type</b>.
      *
      * @param queryFile The path and name to the query file.
      * @param type      The absolute IRI of the requested type.
@@ -150,7 +175,7 @@ public abstract class BaseRepository {
         if (!IRIValidator.isValidAbsoluteIRI(type)) throw new IllegalArgumentException("type must be an absolute IRI");
 
         logger.debug("Querying all resources of type {} using query file {}.", type, queryFile);
-        return getAll(queryFile, s -> s.replaceAll("###TYPE###", type));
+        return getAll(queryFile, Map.of("type", toIri(type)));
     }
 
     /**
@@ -161,25 +186,24 @@ public abstract class BaseRepository {
      * <li>element</li>
      * </ul>
      *
-     * @param queryFile                        The path and name to the query file.
-     * @param additionalQueryStringManipulator Additional query string manipulator to manipulate the query
-     *                                         text before executing (may be {@code null}).
+     * @param queryFile The path and name to the query file.
+     * @param bindings  The values for the variables of the query (may be {@code null}).
      * @return Set with all resource IRIs returned by the query
      * @throws IllegalArgumentException If {@code queryFile} is {@code null} or blank.
      * @throws QueryException           If an exception occurred while executing the query (e.g. query file not found).
      */
-    protected Set<String> getAll(String queryFile, Function<String, String> additionalQueryStringManipulator) throws QueryException {
+    protected Set<String> getAll(String queryFile, Map<String, Value> bindings) throws QueryException {
         if (StringUtils.isBlank(queryFile)) throw new IllegalArgumentException("queryFile must not be null or empty");
 
         logger.debug("Querying all resources using query file {}.", queryFile);
 
-        return connection.getQueryResult(
+        return connection.query(
                 queryFile,
-                Objects.requireNonNullElse(additionalQueryStringManipulator, Function.identity())
-        )
-                .stream()
-                .map(x -> x.getValue("element").stringValue())
-                .collect(Collectors.toSet());
+                Collections.emptyMap(),
+                Objects.requireNonNullElse(bindings, Collections.emptyMap()),
+                stream -> stream
+                        .map(x -> RepositoryHelpers.getIri(x, "element"))
+                        .collect(Collectors.toSet()));
     }
     // endregion
 }
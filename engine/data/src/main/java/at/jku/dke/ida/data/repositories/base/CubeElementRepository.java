@@ -4,14 +4,22 @@ import at.jku.dke.ida.data.IRIValidator;
 import at.jku.dke.ida.data.QueryException;
 import at.jku.dke.ida.data.GraphDbConnection;
 import at.jku.dke.ida.data.models.Label;
+import at.jku.dke.ida.data.schema.CubeSchemaLabels;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import at.jku.dke.ida.data.schema.CubeSchemaSnapshot;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.rdf4j.query.BindingSet;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Base repository for all repositories querying cube elements.
+ * <p>
+ * If cube schema snapshots are enabled, the lookups by cube are answered from the snapshot of the cube
+ * (see {@link CubeSchemaService}) instead of querying the GraphDB.
  *
  * @param <TReturn> The type of the return type for the getAll methods.
  * @param <TLabel>  The type of the label returned by the query methods.
@@ -28,21 +36,28 @@ public abstract class CubeElementRepository<TReturn, TLabel extends Label> exten
      */
     protected final String pluralLogName;
 
+    /**
+     * The service providing the cube schema snapshots.
+     */
+    protected final CubeSchemaService schemaService;
+
     /**
      * Instantiates a new instance of class {@linkplain CubeElementRepository}.
      *
      * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      * @param queryFolder   The folder-name for the folder containing the query files of this repository.
      * @param pluralLogName The plural name of the type used for log-messages.
      * @throws IllegalArgumentException If {@code queryFolder} is {@code null} or empty.
      */
-    protected CubeElementRepository(GraphDbConnection connection, String queryFolder, String pluralLogName) {
+    protected CubeElementRepository(GraphDbConnection connection, CubeSchemaService schemaService, String queryFolder, String pluralLogName) {
         super(connection);
         if (StringUtils.isBlank(queryFolder))
             throw new IllegalArgumentException("queryFolder must not be null or empty");
 
         this.queryFolder = queryFolder;
         this.pluralLogName = pluralLogName;
+        this.schemaService = schemaService;
     }
 
 
@@ -78,11 +93,20 @@ public abstract class CubeElementRepository<TReturn, TLabel extends Label> exten
         if (exclusions != null && exclusions.stream().map(IRIValidator::isValidAbsoluteIRI).anyMatch(x -> !x))
             throw new IllegalArgumentException("exclusion contains at least one invalid IRI");
 
+        if (schemaService.isEnabled()) {
+            Set<TReturn> elements = getAllFromSnapshot(schemaService.getSnapshot(cubeIri));
+            if (elements != null) {
+                logger.debug("Reading all {} of cube {} with exclusions {} from schema snapshot.", pluralLogName, cubeIri, exclusion);
+                return excludeElements(elements, exclusions);
+            }
+        }
+
         logger.debug("Querying all {} of cube {} with exclusions {}.", pluralLogName, cubeIri, exclusion);
-        return mapResultToType(connection.getQueryResult(
+        return connection.query(
                 "/" + queryFolder + "/getAllByCube.sparql",
-                s -> s.replaceAll("###CUBE###", cubeIri)
-                        .replaceAll("###NOTIN###", convertToFullIriString(exclusions))).stream());
+                Map.of("NOTIN", convertToFullIriString(exclusions)),
+                Map.of("cube", toIri(cubeIri)),
+                this::mapResultToType);
     }
     // endregion
 
@@ -104,10 +128,11 @@ public abstract class CubeElementRepository<TReturn, TLabel extends Label> exten
             throw new IllegalArgumentException("elementIris contains at least one invalid IRI");
 
         logger.debug("Querying labels of {} {} in language {}.", pluralLogName, elementIris, lang);
-        return mapResultToLabel(lang, connection.getQueryResult(
+        return connection.query(
                 "/" + queryFolder + "/getLabelsByLangAndIris.sparql",
-                s -> s.replaceAll("###IN###", convertToFullIriString(elementIris))
-                        .replaceAll("###LANG###", lang)).stream());
+                Map.of("IN", convertToFullIriString(elementIris)),
+                Map.of("lang", toLiteral(lang)),
+                stream -> mapResultToLabel(lang, stream));
     }
     // endregion
 
@@ -146,12 +171,122 @@ public abstract class CubeElementRepository<TReturn, TLabel extends Label> exten
         if (exclusion.stream().map(IRIValidator::isValidAbsoluteIRI).anyMatch(x -> !x))
             throw new IllegalArgumentException("exclusion contains at least one invalid IRI");
 
+        if (schemaService.isEnabled()) {
+            List<TLabel> labels = getLabelsFromSnapshot(schemaService.getLabels(cubeIri, lang));
+            if (labels != null) {
+                logger.debug("Reading labels of {} of cube {} in language {} with exclusions {} from schema snapshot.", pluralLogName, cubeIri, lang, exclusion);
+                return excludeLabels(labels, exclusion);
+            }
+        }
+
         logger.debug("Querying labels of {} of cube {} in language {} with exclusions {}.", pluralLogName, cubeIri, lang, exclusion);
-        return mapResultToLabel(lang, connection.getQueryResult(
+        return connection.query(
                 "/" + queryFolder + "/getLabelsByLangAndCube.sparql",
-                s -> s.replaceAll("###NOTIN###", convertToFullIriString(exclusion))
-                        .replaceAll("###CUBE###", cubeIri)
-                        .replaceAll("###LANG###", lang)).stream());
+                Map.of("NOTIN", convertToFullIriString(exclusion)),
+                Map.of("cube", toIri(cubeIri), "lang", toLiteral(lang)),
+                stream -> mapResultToLabel(lang, stream));
+    }
+    // endregion
+
+    // region --- ASYNC ---
+
+    /**
+     * Asynchronously returns all elements of the type of this repository for the specified cube,
+     * except those specified in the exclusions collection.
+     *
+     * @param cubeIri   The absolute IRI of the cube.
+     * @param exclusion The collection with IRIs to exclude from the result.
+     * @return Future completed with the result of {@link #getAllByCube(String, Collection)}.
+     */
+    public CompletableFuture<Set<TReturn>> getAllByCubeAsync(String cubeIri, Collection<String> exclusion) {
+        final Collection<String> exclusions = exclusion == null ? null : new ArrayList<>(exclusion);
+        return connection.supplyAsync(() -> getAllByCube(cubeIri, exclusions));
+    }
+
+    /**
+     * Asynchronously returns the labels of the specified elements the type of this repository.
+     *
+     * @param lang        The requested language.
+     * @param elementIris Collection with element IRIs
+     * @return Future completed with the result of {@link #getLabelsByLangAndIris(String, Collection)}.
+     */
+    public CompletableFuture<List<TLabel>> getLabelsByLangAndIrisAsync(String lang, Collection<String> elementIris) {
+        final Collection<String> iris = elementIris == null ? null : new ArrayList<>(elementIris);
+        return connection.supplyAsync(() -> getLabelsByLangAndIris(lang, iris));
+    }
+
+    /**
+     * Asynchronously returns the labels of all elements of the type of this repository of the specified cube,
+     * except those specified in the exclusions collection.
+     *
+     * @param lang      The requested language.
+     * @param cubeIri   The absolute IRI of the cube.
+     * @param exclusion The collection with IRIs to exclude from the result.
+     * @return Future completed with the result of {@link #getLabelsByLangAndCube(String, String, Collection)}.
+     */
+    public CompletableFuture<List<TLabel>> getLabelsByLangAndCubeAsync(String lang, String cubeIri, Collection<String> exclusion) {
+        final Collection<String> exclusions = exclusion == null ? null : new ArrayList<>(exclusion);
+        return connection.supplyAsync(() -> getLabelsByLangAndCube(lang, cubeIri, exclusions));
+    }
+    // endregion
+
+    // region --- SNAPSHOT ---
+
+    /**
+     * Returns all elements of the type of this repository from the cube schema snapshot.
+     *
+     * @param snapshot The snapshot of the cube.
+     * @return Set with all elements of the cube or {@code null} if the snapshot does not contain elements of this type.
+     */
+    protected abstract Set<TReturn> getAllFromSnapshot(CubeSchemaSnapshot snapshot);
+
+    /**
+     * Returns the labels of all elements of the type of this repository from the cube schema labels.
+     *
+     * @param labels The labels of the cube in the requested language.
+     * @return List with all element labels of the cube or {@code null} if the snapshot does not contain labels of this type.
+     */
+    protected abstract List<TLabel> getLabelsFromSnapshot(CubeSchemaLabels labels);
+
+    /**
+     * Returns the IRI of the cube element to which the exclusions are applied.
+     *
+     * @param element The element.
+     * @return The IRI of the element.
+     */
+    protected abstract String getElementIri(TReturn element);
+
+    /**
+     * Returns a new set with all elements whose IRI is not contained in the exclusions.
+     *
+     * @param elements   The elements of the snapshot.
+     * @param exclusions The collection with IRIs to exclude from the result (may be {@code null}).
+     * @return Set with all not excluded elements
+     */
+    protected Set<TReturn> excludeElements(Collection<TReturn> elements, Collection<String> exclusions) {
+        if (exclusions == null || exclusions.isEmpty()) return new HashSet<>(elements);
+
+        final Set<String> excluded = new HashSet<>(exclusions);
+        return elements.stream()
+                .filter(x -> !excluded.contains(getElementIri(x)))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns a new list with all labels whose IRI is not contained in the exclusions, retaining their order.
+     *
+     * @param labels     The labels of the snapshot.
+     * @param exclusions The collection with IRIs to exclude from the result (may be {@code null}).
+     * @param <T>        The type of the labels.
+     * @return List with all not excluded labels
+     */
+    protected <T extends Label> List<T> excludeLabels(Collection<T> labels, Collection<String> exclusions) {
+        if (exclusions == null || exclusions.isEmpty()) return new ArrayList<>(labels);
+
+        final Set<String> excluded = new HashSet<>(exclusions);
+        return labels.stream()
+                .filter(x -> !excluded.contains(x.getUri()))
+                .collect(Collectors.toList());
     }
     // endregion
 
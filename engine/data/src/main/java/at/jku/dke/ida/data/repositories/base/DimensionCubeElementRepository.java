@@ -5,13 +5,18 @@ import at.jku.dke.ida.data.QueryException;
 import at.jku.dke.ida.data.GraphDbConnection;
 import at.jku.dke.ida.data.models.DimensionLabel;
 import at.jku.dke.ida.data.repositories.RepositoryHelpers;
+import at.jku.dke.ida.data.schema.CubeSchemaLabels;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import at.jku.dke.ida.data.schema.CubeSchemaSnapshot;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.rdf4j.query.BindingSet;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -25,20 +30,21 @@ public abstract class DimensionCubeElementRepository extends CubeElementReposito
      * Instantiates a new instance of class {@linkplain DimensionCubeElementRepository}.
      *
      * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      * @param queryFolder   The folder-name for the folder containing the query files of this repository.
      * @param pluralLogName The plural name of the type used for log-messages.
      * @throws IllegalArgumentException If {@code queryFolder} is {@code null} or empty.
      */
-    protected DimensionCubeElementRepository(GraphDbConnection connection, String queryFolder, String pluralLogName) {
-        super(connection, queryFolder, pluralLogName);
+    protected DimensionCubeElementRepository(GraphDbConnection connection, CubeSchemaService schemaService, String queryFolder, String pluralLogName) {
+        super(connection, schemaService, queryFolder, pluralLogName);
     }
 
     @Override
     protected Set<Pair<String, String>> mapResultToType(Stream<BindingSet> stream) {
         return stream
                 .map(x -> new ImmutablePair<>(
-                        x.getValue("dimension").stringValue(),
-                        x.getValue("element").stringValue()
+                        RepositoryHelpers.getIri(x, "dimension"),
+                        RepositoryHelpers.getIri(x, "element")
                 ))
                 .collect(Collectors.toSet());
     }
@@ -50,6 +56,21 @@ public abstract class DimensionCubeElementRepository extends CubeElementReposito
                 .collect(Collectors.toList());
     }
 
+    @Override
+    protected Set<Pair<String, String>> getAllFromSnapshot(CubeSchemaSnapshot snapshot) {
+        return snapshot.getDimensionElements(queryFolder);
+    }
+
+    @Override
+    protected List<DimensionLabel> getLabelsFromSnapshot(CubeSchemaLabels labels) {
+        return labels.getDimensionLabels(queryFolder);
+    }
+
+    @Override
+    protected String getElementIri(Pair<String, String> element) {
+        return element.getValue();
+    }
+
     /**
      * Returns elements with the specified IRIs.
      *
@@ -64,11 +85,11 @@ public abstract class DimensionCubeElementRepository extends CubeElementReposito
             throw new IllegalArgumentException("iris contains at least one invalid IRI");
 
         logger.debug("Querying {}: {}.", pluralLogName, iris);
-        return mapResultToType(connection.getQueryResult(
-                "/" + queryFolder + "/getbyIris.sparql",
-                s -> s.replaceAll("###IN###", iris.stream()
-                        .map(x -> '(' + convertToFullIriString(x) + ')')
-                        .collect(Collectors.joining(" ")))).stream());
+        return connection.query(
+                "/" + queryFolder + "/getByIris.sparql",
+                Map.of("IN", convertToFullIriString(iris)),
+                Collections.emptyMap(),
+                this::mapResultToType);
     }
 
 
@@ -93,11 +114,10 @@ public abstract class DimensionCubeElementRepository extends CubeElementReposito
             throw new IllegalArgumentException("exclusion contains at least one invalid IRI");
 
         logger.debug("Querying labels of {} of dimension {} in language {} with exclusions {}.", pluralLogName, dimensionIri, lang, exclusion);
-        return mapResultToLabel(lang, connection.getQueryResult(
+        return connection.query(
                 "/" + queryFolder + "/getLabelsByLangAndDimension.sparql",
-                s -> s.replaceAll("###LANG###", lang)
-                        .replaceAll("###DIMENSION###", dimensionIri)
-                        .replaceAll("###NOTIN###", convertToFullIriString(exclusion))
-        ).stream());
+                Map.of("NOTIN", convertToFullIriString(exclusion)),
+                Map.of("lang", toLiteral(lang), "dimension", toIri(dimensionIri)),
+                stream -> mapResultToLabel(lang, stream));
     }
 }
@@ -3,6 +3,9 @@ package at.jku.dke.ida.data.repositories.base;
 import at.jku.dke.ida.data.GraphDbConnection;
 import at.jku.dke.ida.data.models.Label;
 import at.jku.dke.ida.data.repositories.RepositoryHelpers;
+import at.jku.dke.ida.data.schema.CubeSchemaLabels;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import at.jku.dke.ida.data.schema.CubeSchemaSnapshot;
 import org.eclipse.rdf4j.query.BindingSet;
 
 import java.util.List;
@@ -19,18 +22,19 @@ public abstract class SimpleCubeElementRepository extends CubeElementRepository<
      * Instantiates a new instance of class {@linkplain SimpleCubeElementRepository}.
      *
      * @param connection    The GraphDB connection service class.
+     * @param schemaService The service providing the cube schema snapshots.
      * @param queryFolder   The folder-name for the folder containing the query files of this repository.
      * @param pluralLogName The plural name of the type used for log-messages.
      * @throws IllegalArgumentException If {@code queryFolder} is {@code null} or empty.
      */
-    protected SimpleCubeElementRepository(GraphDbConnection connection, String queryFolder, String pluralLogName) {
-        super(connection, queryFolder, pluralLogName);
+    protected SimpleCubeElementRepository(GraphDbConnection connection, CubeSchemaService schemaService, String queryFolder, String pluralLogName) {
+        super(connection, schemaService, queryFolder, pluralLogName);
     }
 
     @Override
     protected Set<String> mapResultToType(Stream<BindingSet> stream) {
         return stream
-                .map(x -> x.getValue("element").stringValue())
+                .map(x -> RepositoryHelpers.getIri(x, "element"))
                 .collect(Collectors.toSet());
     }
 
@@ -41,4 +45,19 @@ public abstract class SimpleCubeElementRepository extends CubeElementRepository<
                 .collect(Collectors.toList());
     }
 
+    @Override
+    protected Set<String> getAllFromSnapshot(CubeSchemaSnapshot snapshot) {
+        return snapshot.getElements(queryFolder);
+    }
+
+    @Override
+    protected List<Label> getLabelsFromSnapshot(CubeSchemaLabels labels) {
+        return labels.getLabels(queryFolder);
+    }
+
+    @Override
+    protected String getElementIri(String element) {
+        return element;
+    }
+
 }
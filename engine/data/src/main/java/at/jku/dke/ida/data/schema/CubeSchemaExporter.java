@@ -0,0 +1,138 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.configuration.GraphDbSchemaConfig;
+import at.jku.dke.ida.data.similarity.MappingIndex;
+import at.jku.dke.ida.data.similarity.SimilarityIndexService;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service exporting the schema snapshots of all cubes (and the mapping index) to a {@link CubeSchemaFile}.
+ * <p>
+ * At application startup the configured schema file ({@code graphdb.schema.file}) is exported again if it is
+ * missing or was created from other data files than the ones loaded into the GraphDB
+ * (see {@link GraphDbConnection#getDataFingerprint()}) and {@code graphdb.schema.export} is set.
+ * If the GraphDB is not available, the existing file is kept.
+ * The file is exported again whenever the repository data changes (see {@link RepositoryChangedEvent}).
+ */
+@Service
+public class CubeSchemaExporter {
+
+    private static final Logger LOGGER = LogManager.getLogger(CubeSchemaExporter.class);
+
+    private final GraphDbConnection connection;
+    private final GraphDbSchemaConfig config;
+    private final CubeSchemaService schemaService;
+    private final SimilarityIndexService similarityIndex;
+    private final CubeSchemaLoader loader;
+
+    /**
+     * Instantiates a new instance of class {@linkplain CubeSchemaExporter}.
+     *
+     * @param connection      The GraphDB connection service class.
+     * @param config          The GraphDB configuration.
+     * @param schemaService   The cube schema service which imports the exported file.
+     * @param similarityIndex The in-memory similarity index whose mappings are exported (may be {@code null}).
+     */
+    @Autowired
+    public CubeSchemaExporter(GraphDbConnection connection, GraphDbConfig config, CubeSchemaService schemaService,
+                              SimilarityIndexService similarityIndex) {
+        this.connection = connection;
+        this.config = config.getSchema();
+        this.schemaService = schemaService;
+        this.similarityIndex = similarityIndex;
+        this.loader = new CubeSchemaLoader(connection);
+    }
+
+    /**
+     * Exports and imports the configured schema file if it is missing or outdated.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void exportIfOutdated() {
+        if (!schemaService.isEnabled() || !config.isExport() || StringUtils.isBlank(config.getFile())) return;
+
+        final Path path = Paths.get(config.getFile());
+        final CubeSchemaFile current = schemaService.getFile();
+        try {
+            String source = connection.getDataFingerprint();
+            if (current != null && !source.isEmpty() && source.equals(current.getSource())) {
+                LOGGER.info("Cube schema file {} is up to date.", path);
+                return;
+            }
+
+            export(path, source);
+            schemaService.importFile(path);
+        } catch (QueryException | IOException | RuntimeException ex) {
+            LOGGER.warn("Could not export cube schema file " + path + "; " +
+                    (current == null ? "snapshots are loaded from the GraphDB." : "the existing file is used."), ex);
+        }
+    }
+
+    /**
+     * Exports and imports the configured schema file as the repository data changed.
+     * The data fingerprint is not compared, as it does not reflect updates of remote repositories.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        if (!schemaService.isEnabled() || !config.isExport() || StringUtils.isBlank(config.getFile())) return;
+
+        final Path path = Paths.get(config.getFile());
+        try {
+            export(path);
+            schemaService.importFile(path);
+        } catch (QueryException | IOException | RuntimeException ex) {
+            LOGGER.warn("Could not export cube schema file " + path + " after change " + event.getGeneration() +
+                    " of the repository; snapshots are loaded from the GraphDB.", ex);
+        }
+    }
+
+    /**
+     * Exports the schema snapshots of all cubes with the labels of the configured languages
+     * ({@code graphdb.schema.languages}) and the mapping index (if the similarity index is enabled)
+     * to the specified file. The snapshots are queried from the GraphDB; the existing file is not read.
+     *
+     * @param path The path to the schema file; an existing file is replaced.
+     * @throws IllegalArgumentException If {@code path} is {@code null}.
+     * @throws QueryException           If the schema could not be queried.
+     * @throws IOException              If the file could not be written.
+     */
+    public void export(Path path) throws QueryException, IOException {
+        if (path == null) throw new IllegalArgumentException("path must not be null");
+        export(path, connection.getDataFingerprint());
+    }
+
+    private void export(Path path, String source) throws QueryException, IOException {
+        long start = System.currentTimeMillis();
+
+        Set<String> cubes = loader.loadCubes();
+        List<CubeSchemaSnapshot> snapshots = new ArrayList<>(cubes.size());
+        for (String cube : cubes) {
+            CubeSchemaSnapshot snapshot = loader.loadSnapshot(cube, 0);
+            for (String lang : config.getLanguages())
+                snapshot.addLabels(loader.loadLabels(cube, lang));
+            snapshots.add(snapshot);
+        }
+        MappingIndex mappings = similarityIndex != null && similarityIndex.isEnabled() ? similarityIndex.queryMappings() : null;
+
+        CubeSchemaFile.write(path, source, snapshots, mappings);
+        LOGGER.info("Exported cube schema file {} with {} cubes in {} ms.", path, snapshots.size(), System.currentTimeMillis() - start);
+    }
+}
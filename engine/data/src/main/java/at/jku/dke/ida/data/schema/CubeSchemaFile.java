@@ -0,0 +1,426 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.models.CubeContext;
+import at.jku.dke.ida.data.models.DimensionLabel;
+import at.jku.dke.ida.data.models.DimensionLevelLabel;
+import at.jku.dke.ida.data.models.Label;
+import at.jku.dke.ida.data.similarity.MappingIndex;
+import at.jku.dke.ida.shared.IRIDictionary;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.ImmutableTriple;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * A persistent, versioned binary copy of the schema snapshots of all cubes (elements, relationships, level members
+ * and labels) and of the similarity mappings, which allows serving the repository layer without the GraphDB.
+ * <p>
+ * The file is memory-mapped when it is opened; the header, the string table and the directory are read at once,
+ * the sections of the cubes and the mappings are decoded on access into the same structures the queries return.
+ * The file stores a fingerprint of the RDF data it was exported from (see {@link #getSource()}), so that
+ * outdated files can be detected; the RDF data stays the source of truth.
+ * <p>
+ * Layout (big-endian): magic {@code IDAS}, format version, creation time, string table, source, directory with
+ * the offset of every cube section, offset of the mappings section (or -1), cube sections, mappings section.
+ * Strings are stored once in the string table and referenced by their index (-1 represents {@code null}).
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class CubeSchemaFile {
+
+    /**
+     * The version of the file format. Files with another version are rejected.
+     */
+    public static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x49444153; // IDAS
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final Instant createdAt;
+    private final String source;
+    private final String[] strings;
+    private final Map<String, Integer> cubes;
+    private final int mappingsOffset;
+
+    private CubeSchemaFile(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("File " + path + " is no cube schema file.");
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION)
+                throw new IOException("Cube schema file " + path + " has format version " + version + "; expected " + FORMAT_VERSION + '.');
+            this.createdAt = Instant.ofEpochMilli(buffer.getLong());
+
+            this.strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            this.source = string(buffer);
+
+            int count = buffer.getInt();
+            Map<String, Integer> directory = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++)
+                directory.put(IRIDictionary.intern(string(buffer)), buffer.getInt());
+            this.cubes = Collections.unmodifiableMap(directory);
+            this.mappingsOffset = buffer.getInt();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IOException("Cube schema file " + path + " is truncated or corrupt.", ex);
+        }
+    }
+
+    // region --- READ ---
+
+    /**
+     * Memory-maps the specified file and reads its header.
+     *
+     * @param path The path to the file.
+     * @return The opened file.
+     * @throws IllegalArgumentException If {@code path} is {@code null}.
+     * @throws IOException              If the file could not be read, is no cube schema file or has another format version.
+     */
+    public static CubeSchemaFile open(Path path) throws IOException {
+        if (path == null) throw new IllegalArgumentException("path must not be null");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CubeSchemaFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Gets the path to the file.
+     *
+     * @return the path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the time the file was written.
+     *
+     * @return the creation time
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the fingerprint of the RDF data the file was exported from.
+     *
+     * @return the source fingerprint (may be empty if it is unknown)
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the IRIs of all cubes in the file.
+     *
+     * @return Unmodifiable set with cube IRIs
+     */
+    public Set<String> getCubes() {
+        return cubes.keySet();
+    }
+
+    /**
+     * Returns whether the file contains the schema of the specified cube.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return {@code true} if the cube is part of the file
+     */
+    public boolean contains(String cubeIri) {
+        return cubeIri != null && cubes.containsKey(cubeIri);
+    }
+
+    /**
+     * Returns whether the file contains the similarity mappings.
+     *
+     * @return {@code true} if the mappings are part of the file
+     */
+    public boolean hasMappings() {
+        return mappingsOffset >= 0;
+    }
+
+    /**
+     * Decodes the snapshot of the specified cube including the labels of all exported languages.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @param version The version of the new snapshot.
+     * @return The snapshot or {@code null} if the cube is not part of the file.
+     * @throws UncheckedIOException If the section of the cube is corrupt.
+     */
+    public CubeSchemaSnapshot readSnapshot(String cubeIri, long version) {
+        if (!contains(cubeIri)) return null;
+        ByteBuffer in = section(cubes.get(cubeIri));
+        try {
+            CubeSchemaSnapshot snapshot = new CubeSchemaSnapshot(version, new CubeContext(cubeIri,
+                    readIris(in), readIris(in), readIris(in), readIris(in), readIris(in), readIris(in),
+                    readPairs(in), readPairs(in), readTriples(in), readTriples(in), readTriples(in)));
+
+            int languages = in.getInt();
+            for (int l = 0; l < languages; l++) {
+                final String lang = string(in);
+                Map<String, List<Label>> labels = new HashMap<>();
+                for (int f = in.getInt(); f > 0; f--) {
+                    String folder = string(in);
+                    List<Label> list = new ArrayList<>();
+                    for (int i = in.getInt(); i > 0; i--)
+                        list.add(new Label(iri(in), lang, string(in), string(in)));
+                    labels.put(folder, Collections.unmodifiableList(list));
+                }
+                Map<String, List<DimensionLabel>> dimensionLabels = new HashMap<>();
+                for (int f = in.getInt(); f > 0; f--) {
+                    String folder = string(in);
+                    List<DimensionLabel> list = new ArrayList<>();
+                    for (int i = in.getInt(); i > 0; i--)
+                        list.add(new DimensionLabel(lang, iri(in), string(in), iri(in), string(in), string(in)));
+                    dimensionLabels.put(folder, Collections.unmodifiableList(list));
+                }
+                List<DimensionLevelLabel> levelMemberLabels = new ArrayList<>();
+                for (int i = in.getInt(); i > 0; i--)
+                    levelMemberLabels.add(new DimensionLevelLabel(lang, iri(in), string(in), iri(in), string(in), iri(in), string(in), string(in)));
+                snapshot.addLabels(new CubeSchemaLabels(lang, labels, dimensionLabels, levelMemberLabels));
+            }
+            return snapshot;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new UncheckedIOException(new IOException("Section of cube " + cubeIri + " in " + path + " is corrupt.", ex));
+        }
+    }
+
+    /**
+     * Decodes the similarity mappings.
+     *
+     * @return The mapping index or {@code null} if the mappings are not part of the file.
+     * @throws UncheckedIOException If the section of the mappings is corrupt.
+     */
+    public MappingIndex readMappings() {
+        if (!hasMappings()) return null;
+        ByteBuffer in = section(mappingsOffset);
+        try {
+            MappingIndex.Builder builder = new MappingIndex.Builder();
+            for (int i = in.getInt(); i > 0; i--)
+                builder.add(string(in), iri(in), iri(in), iri(in), iri(in), in.getFloat());
+            return builder.build();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new UncheckedIOException(new IOException("Mappings section in " + path + " is corrupt.", ex));
+        }
+    }
+
+    private ByteBuffer section(int offset) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset);
+        return in;
+    }
+
+    private String string(ByteBuffer in) {
+        int id = in.getInt();
+        return id < 0 ? null : strings[id];
+    }
+
+    private String iri(ByteBuffer in) {
+        return IRIDictionary.intern(string(in));
+    }
+
+    private Set<String> readIris(ByteBuffer in) {
+        int count = in.getInt();
+        Set<String> result = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++)
+            result.add(iri(in));
+        return result;
+    }
+
+    private Set<Pair<String, String>> readPairs(ByteBuffer in) {
+        int count = in.getInt();
+        Set<Pair<String, String>> result = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++)
+            result.add(new ImmutablePair<>(iri(in), iri(in)));
+        return result;
+    }
+
+    private Set<Triple<String, String, String>> readTriples(ByteBuffer in) {
+        int count = in.getInt();
+        Set<Triple<String, String, String>> result = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++)
+            result.add(new ImmutableTriple<>(iri(in), iri(in), iri(in)));
+        return result;
+    }
+    // endregion
+
+    // region --- WRITE ---
+
+    /**
+     * Writes the snapshots with all their loaded labels and the mappings to the specified file.
+     * <p>
+     * The file is written to a temporary file first and moved to the target afterwards,
+     * so that servers mapping the previous file are not affected.
+     *
+     * @param path      The path to the file.
+     * @param source    The fingerprint of the RDF data the snapshots were loaded from (may be {@code null}).
+     * @param snapshots The snapshots to write.
+     * @param mappings  The similarity mappings (may be {@code null}).
+     * @throws IllegalArgumentException If {@code path} or {@code snapshots} is {@code null}.
+     * @throws IOException              If the file could not be written.
+     */
+    public static void write(Path path, String source, Collection<CubeSchemaSnapshot> snapshots, MappingIndex mappings) throws IOException {
+        if (path == null) throw new IllegalArgumentException("path must not be null");
+        if (snapshots == null) throw new IllegalArgumentException("snapshots must not be null");
+
+        // Encode sections first, as the string table has to be written before them
+        final Writer writer = new Writer();
+        final Map<String, byte[]> sections = new LinkedHashMap<>();
+        for (CubeSchemaSnapshot snapshot : snapshots)
+            sections.put(snapshot.getCubeIri(), writer.encode(snapshot));
+        final byte[] mappingSection = mappings == null ? null : writer.encode(mappings);
+        final int sourceId = writer.id(Objects.requireNonNullElse(source, ""));
+        for (String cube : sections.keySet())
+            writer.id(cube);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(header);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(writer.strings.size());
+        for (String str : writer.strings) {
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(sourceId);
+        out.writeInt(sections.size());
+        int offset = header.size() + sections.size() * 8 + 4;
+        for (Map.Entry<String, byte[]> section : sections.entrySet()) {
+            out.writeInt(writer.id(section.getKey()));
+            out.writeInt(offset);
+            offset += section.getValue().length;
+        }
+        out.writeInt(mappingSection == null ? -1 : offset);
+        out.flush();
+
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                header.writeTo(file);
+                for (byte[] section : sections.values())
+                    file.write(section);
+                if (mappingSection != null) file.write(mappingSection);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Encodes sections and collects the string table.
+     */
+    private static final class Writer {
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        int id(String str) {
+            if (str == null) return -1;
+            return ids.computeIfAbsent(str, x -> {
+                strings.add(x);
+                return strings.size() - 1;
+            });
+        }
+
+        byte[] encode(CubeSchemaSnapshot snapshot) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            CubeContext context = snapshot.getContext();
+            for (Set<String> set : List.of(context.getAggregateMeasures(), context.getAggregateMeasurePredicates(),
+                    context.getBaseMeasurePredicates(), context.getComparativeMeasures(),
+                    context.getComparativeMeasurePredicates(), context.getJoinConditionPredicates())) {
+                out.writeInt(set.size());
+                for (String iri : set) out.writeInt(id(iri));
+            }
+            for (Set<Pair<String, String>> set : List.of(context.getLevels(), context.getLevelPredicates())) {
+                out.writeInt(set.size());
+                for (Pair<String, String> pair : set) strings(out, pair.getLeft(), pair.getRight());
+            }
+            for (Set<Triple<String, String, String>> set : List.of(context.getLevelMembers(),
+                    context.getLevelRelationships(), context.getLevelPredicateRelationships())) {
+                out.writeInt(set.size());
+                for (Triple<String, String, String> triple : set)
+                    strings(out, triple.getLeft(), triple.getMiddle(), triple.getRight());
+            }
+
+            Collection<CubeSchemaLabels> languages = snapshot.getLoadedLabels();
+            out.writeInt(languages.size());
+            for (CubeSchemaLabels labels : languages) {
+                out.writeInt(id(labels.getLang()));
+                out.writeInt(CubeSchemaLoader.SIMPLE_FOLDERS.size());
+                for (String folder : CubeSchemaLoader.SIMPLE_FOLDERS) {
+                    List<Label> list = labels.getLabels(folder);
+                    out.writeInt(id(folder));
+                    out.writeInt(list.size());
+                    for (Label label : list)
+                        strings(out, label.getUri(), label.getLabel(), label.getDescription());
+                }
+                List<DimensionLabel> levelPredicates = labels.getDimensionLabels("repo_levelpred");
+                out.writeInt(1);
+                out.writeInt(id("repo_levelpred"));
+                out.writeInt(levelPredicates.size());
+                for (DimensionLabel label : levelPredicates)
+                    strings(out, label.getDimensionUri(), label.getDimensionLabel(), label.getUri(), label.getLabel(), label.getDescription());
+                out.writeInt(labels.getLevelMemberLabels().size());
+                for (DimensionLevelLabel label : labels.getLevelMemberLabels())
+                    strings(out, label.getDimensionUri(), label.getDimensionLabel(), label.getLevelUri(), label.getLevelLabel(),
+                            label.getUri(), label.getLabel(), label.getDescription());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        byte[] encode(MappingIndex mappings) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(mappings.getMappingCount());
+            IOException[] error = new IOException[1];
+            mappings.forEach((documentId, cube, dimension, element, type, score) -> {
+                try {
+                    strings(out, documentId, cube, dimension, element, type);
+                    out.writeFloat((float) score);
+                } catch (IOException ex) {
+                    error[0] = ex;
+                }
+            });
+            if (error[0] != null) throw error[0];
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private void strings(DataOutputStream out, String... values) throws IOException {
+            for (String value : values) out.writeInt(id(value));
+        }
+    }
+    // endregion
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CubeSchemaFile.class.getSimpleName() + "[", "]")
+                .add("path=" + path)
+                .add("createdAt=" + createdAt)
+                .add("cubes=" + cubes.size())
+                .add("mappings=" + hasMappings())
+                .toString();
+    }
+}
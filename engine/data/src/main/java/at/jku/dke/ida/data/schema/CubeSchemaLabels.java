@@ -0,0 +1,86 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.models.DimensionLabel;
+import at.jku.dke.ida.data.models.DimensionLevelLabel;
+import at.jku.dke.ida.data.models.Label;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The labels of all schema elements of a cube in one language.
+ * <p>
+ * The lists are ordered as returned by the label queries of the repositories and must not be modified.
+ */
+public final class CubeSchemaLabels {
+
+    private final String lang;
+    private final Map<String, List<Label>> labels;
+    private final Map<String, List<DimensionLabel>> dimensionLabels;
+    private final List<DimensionLevelLabel> levelMemberLabels;
+
+    /**
+     * Instantiates a new instance of class {@linkplain CubeSchemaLabels}.
+     *
+     * @param lang              The language of the labels.
+     * @param labels            The labels of the simple cube elements by query folder.
+     * @param dimensionLabels   The labels of the cube elements in dimensions by query folder.
+     * @param levelMemberLabels The labels of the level members.
+     */
+    CubeSchemaLabels(String lang, Map<String, List<Label>> labels, Map<String, List<DimensionLabel>> dimensionLabels, List<DimensionLevelLabel> levelMemberLabels) {
+        this.lang = lang;
+        this.labels = Collections.unmodifiableMap(labels);
+        this.dimensionLabels = Collections.unmodifiableMap(dimensionLabels);
+        this.levelMemberLabels = Collections.unmodifiableList(levelMemberLabels);
+    }
+
+    /**
+     * Gets the language of the labels.
+     *
+     * @return the language
+     */
+    public String getLang() {
+        return lang;
+    }
+
+    /**
+     * Returns the labels of the simple cube elements of the repository with the specified query folder.
+     *
+     * @param queryFolder The query folder of the repository.
+     * @return Unmodifiable list with the labels or {@code null} if the labels of this type are not part of the snapshot.
+     */
+    public List<Label> getLabels(String queryFolder) {
+        return labels.get(queryFolder);
+    }
+
+    /**
+     * Returns the labels of the cube elements in dimensions of the repository with the specified query folder.
+     *
+     * @param queryFolder The query folder of the repository.
+     * @return Unmodifiable list with the labels or {@code null} if the labels of this type are not part of the snapshot.
+     */
+    public List<DimensionLabel> getDimensionLabels(String queryFolder) {
+        return dimensionLabels.get(queryFolder);
+    }
+
+    /**
+     * Returns the labels of the level members.
+     *
+     * @return Unmodifiable list with the labels
+     */
+    public List<DimensionLevelLabel> getLevelMemberLabels() {
+        return levelMemberLabels;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CubeSchemaLabels.class.getSimpleName() + "[", "]")
+                .add("lang='" + lang + "'")
+                .add("labels=" + labels.keySet())
+                .add("dimensionLabels=" + dimensionLabels.keySet())
+                .add("levelMemberLabels=" + levelMemberLabels.size())
+                .toString();
+    }
+}
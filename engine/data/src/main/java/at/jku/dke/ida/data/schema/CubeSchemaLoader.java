@@ -0,0 +1,117 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.models.DimensionLabel;
+import at.jku.dke.ida.data.models.Label;
+import at.jku.dke.ida.data.repositories.RepositoryHelpers;
+import at.jku.dke.ida.shared.IRIConstants;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Loads cube schema snapshots using the query files of the repositories.
+ * <p>
+ * The snapshots replace the query results of the repositories and are exported to schema files, so a truncated
+ * result would be kept as complete: the queries are executed without the configured timeout and maximum number
+ * of result rows (see {@link GraphDbConnection#queryUnbounded}).
+ */
+class CubeSchemaLoader {
+
+    /**
+     * The query folders of the repositories querying simple cube elements.
+     */
+    static final List<String> SIMPLE_FOLDERS = List.of(
+            "repo_aggmeasure", "repo_aggmeasurepred", "repo_basemeasurepred",
+            "repo_compmeasure", "repo_compmeasurepred", "repo_joinpred");
+
+    /**
+     * The query folder of the level member repository.
+     */
+    static final String LEVEL_MEMBER_FOLDER = "repo_levelmem";
+
+    private static final String GET_LABELS_BY_LANG_AND_CUBE = "/getLabelsByLangAndCube.sparql";
+    private static final Map<String, String> NO_EXCLUSIONS = Map.of("NOTIN", "");
+
+    private final GraphDbConnection connection;
+    private final ValueFactory valueFactory;
+
+    /**
+     * Instantiates a new instance of class {@linkplain CubeSchemaLoader}.
+     *
+     * @param connection The GraphDB connection service class.
+     */
+    CubeSchemaLoader(GraphDbConnection connection) {
+        this.connection = connection;
+        this.valueFactory = SimpleValueFactory.getInstance();
+    }
+
+    /**
+     * Loads the IRIs of all cubes.
+     *
+     * @return Set with cube IRIs
+     * @throws QueryException If an exception occurred while executing the query.
+     */
+    Set<String> loadCubes() throws QueryException {
+        return connection.queryUnbounded("/repo_base/getAll.sparql",
+                Collections.emptyMap(),
+                Map.of("type", valueFactory.createIRI(IRIConstants.TYPE_CUBE)),
+                stream -> stream.map(x -> RepositoryHelpers.getIri(x, "element")).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Loads the structural data of the specified cube with a single query.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @param version The version of the new snapshot.
+     * @return The loaded snapshot.
+     * @throws QueryException If an exception occurred while executing the queries.
+     */
+    CubeSchemaSnapshot loadSnapshot(String cubeIri, long version) throws QueryException {
+        return new CubeSchemaSnapshot(version, connection.queryUnbounded(
+                "/repo_cube/getContextByCube.sparql",
+                NO_EXCLUSIONS,
+                Map.of("cube", valueFactory.createIRI(cubeIri)),
+                stream -> RepositoryHelpers.convertToCubeContext(cubeIri, stream)));
+    }
+
+    /**
+     * Loads the labels of the specified cube in the specified language.
+     * <p>
+     * The labels of the granularity levels are not loaded, as the level repository does not provide a label query by cube.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @param lang    The requested language.
+     * @return The loaded labels.
+     * @throws QueryException If an exception occurred while executing the queries.
+     */
+    CubeSchemaLabels loadLabels(String cubeIri, String lang) throws QueryException {
+        final Map<String, Value> bindings = Map.of(
+                "cube", valueFactory.createIRI(cubeIri),
+                "lang", valueFactory.createLiteral(lang));
+
+        Map<String, List<Label>> labels = new HashMap<>();
+        for (String folder : SIMPLE_FOLDERS) {
+            labels.put(folder, connection.queryUnbounded('/' + folder + GET_LABELS_BY_LANG_AND_CUBE, NO_EXCLUSIONS, bindings,
+                    stream -> stream
+                            .map(x -> RepositoryHelpers.convert(lang, x))
+                            .collect(Collectors.toUnmodifiableList())));
+        }
+
+        Map<String, List<DimensionLabel>> dimensionLabels = new HashMap<>();
+        dimensionLabels.put("repo_levelpred", connection.queryUnbounded("/repo_levelpred" + GET_LABELS_BY_LANG_AND_CUBE, NO_EXCLUSIONS, bindings,
+                stream -> stream
+                        .map(x -> RepositoryHelpers.convertToDimensionLabel(lang, x))
+                        .collect(Collectors.toUnmodifiableList())));
+
+        return new CubeSchemaLabels(lang, labels, dimensionLabels,
+                connection.queryUnbounded('/' + LEVEL_MEMBER_FOLDER + GET_LABELS_BY_LANG_AND_CUBE, NO_EXCLUSIONS, bindings,
+                        stream -> stream
+                                .map(x -> RepositoryHelpers.convertToLevelLabel(lang, x))
+                                .collect(Collectors.toUnmodifiableList())));
+    }
+}
@@ -0,0 +1,361 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.IRIValidator;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Service managing the in-memory schema snapshots of the cubes.
+ * <p>
+ * Snapshots are loaded on first access of a cube (or at application startup if
+ * {@code graphdb.schema.preload} is set) and kept until they are refreshed.
+ * If a schema file is configured ({@code graphdb.schema.file}, see {@link CubeSchemaFile}), the snapshots of the
+ * cubes it contains are read from the file instead of the GraphDB; refreshing a snapshot always queries the GraphDB.
+ * <p>
+ * All snapshots are invalidated if the repository data changes (see {@link RepositoryChangedEvent}).
+ * The schema file is outdated then: snapshots are loaded from the GraphDB and only read from the outdated file
+ * if the GraphDB is not available, until a new schema file is imported (see {@link CubeSchemaExporter}).
+ */
+@Service
+public class CubeSchemaService {
+
+    private static final Logger LOGGER = LogManager.getLogger(CubeSchemaService.class);
+
+    private final GraphDbConnection connection;
+    private final boolean enabled;
+    private final boolean preload;
+    private final CubeSchemaLoader loader;
+    private final ConcurrentMap<String, CubeSchemaSnapshot> snapshots;
+    private final AtomicLong versions;
+    private final List<Consumer<String>> invalidationListeners;
+    private volatile CubeSchemaFile file;
+    private volatile boolean fileOutdated;
+
+    /**
+     * Instantiates a new instance of class {@linkplain CubeSchemaService}.
+     *
+     * @param connection The GraphDB connection service class.
+     * @param config     The GraphDB configuration.
+     */
+    @Autowired
+    public CubeSchemaService(GraphDbConnection connection, GraphDbConfig config) {
+        this.connection = connection;
+        this.enabled = config.getSchema().isEnabled();
+        this.preload = config.getSchema().isPreload();
+        this.loader = new CubeSchemaLoader(connection);
+        this.snapshots = new ConcurrentHashMap<>();
+        this.versions = new AtomicLong();
+        this.invalidationListeners = new CopyOnWriteArrayList<>();
+        this.file = enabled ? openFile(config.getSchema().getFile()) : null;
+    }
+
+    private static CubeSchemaFile openFile(String path) {
+        if (StringUtils.isBlank(path)) return null;
+        if (!Files.exists(Paths.get(path))) {
+            LOGGER.info("Cube schema file {} does not exist; snapshots are loaded from the GraphDB.", path);
+            return null;
+        }
+        try {
+            CubeSchemaFile schemaFile = CubeSchemaFile.open(Paths.get(path));
+            LOGGER.info("Opened cube schema file {} with {} cubes created at {}.", path, schemaFile.getCubes().size(), schemaFile.getCreatedAt());
+            return schemaFile;
+        } catch (IOException ex) {
+            LOGGER.warn("Could not open cube schema file " + path + "; snapshots are loaded from the GraphDB.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether cube schema lookups should be answered from the snapshots.
+     *
+     * @return {@code true} if snapshots are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the snapshots of all cubes if preloading is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!enabled || !preload) return;
+
+        try {
+            final CubeSchemaFile schemaFile = file;
+            Set<String> cubes = schemaFile != null ? schemaFile.getCubes() : loader.loadCubes();
+            for (String cube : cubes) {
+                getSnapshot(cube);
+            }
+            LOGGER.info("Preloaded schema snapshots of {} cubes.", cubes.size());
+        } catch (QueryException ex) {
+            LOGGER.warn("Could not preload cube schema snapshots; they will be loaded on first access.", ex);
+        }
+    }
+
+    // region --- SNAPSHOTS ---
+
+    /**
+     * Returns the schema snapshot of the specified cube, loading it if it has not been loaded yet.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return The snapshot of the cube.
+     * @throws IllegalArgumentException If {@code cubeIri} is {@code null}, blank or an invalid IRI.
+     * @throws QueryException           If an exception occurred while loading the snapshot.
+     */
+    public CubeSchemaSnapshot getSnapshot(String cubeIri) throws QueryException {
+        validateCubeIri(cubeIri);
+
+        CubeSchemaSnapshot snapshot = snapshots.get(cubeIri);
+        if (snapshot != null) return snapshot;
+
+        synchronized (this) {
+            snapshot = snapshots.get(cubeIri);
+            if (snapshot == null) snapshot = load(cubeIri, true);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the labels of the schema elements of the specified cube in the specified language,
+     * loading them if they have not been loaded yet.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @param lang    The requested language.
+     * @return The labels of the cube in the requested language.
+     * @throws IllegalArgumentException If {@code lang} is {@code null} or blank or {@code cubeIri} is {@code null}, blank or an invalid IRI.
+     * @throws QueryException           If an exception occurred while loading the snapshot or the labels.
+     */
+    public CubeSchemaLabels getLabels(String cubeIri, String lang) throws QueryException {
+        if (StringUtils.isBlank(lang)) throw new IllegalArgumentException("lang must not be null or empty");
+        CubeSchemaSnapshot snapshot = getSnapshot(cubeIri);
+
+        CubeSchemaLabels labels = snapshot.findLabels(lang);
+        if (labels != null) return labels;
+
+        synchronized (snapshot) {
+            labels = snapshot.findLabels(lang);
+            if (labels == null) {
+                LOGGER.debug("Loading labels of schema snapshot {} of cube {} in language {}.", snapshot.getVersion(), cubeIri, lang);
+                labels = loader.loadLabels(cubeIri, lang);
+                snapshot.addLabels(labels);
+            }
+            return labels;
+        }
+    }
+
+    /**
+     * Returns the snapshot of the specified cube if it has already been loaded.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return The snapshot or {@code null} if it has not been loaded.
+     */
+    public CubeSchemaSnapshot findSnapshot(String cubeIri) {
+        if (cubeIri == null) return null;
+        return snapshots.get(cubeIri);
+    }
+
+    /**
+     * Returns the IRIs of all cubes with a loaded snapshot.
+     *
+     * @return Unmodifiable set with cube IRIs
+     */
+    public Set<String> getLoadedCubes() {
+        return Collections.unmodifiableSet(new HashSet<>(snapshots.keySet()));
+    }
+    // endregion
+
+    // region --- FILE ---
+
+    /**
+     * Returns the schema file snapshots are read from.
+     *
+     * @return The opened schema file or {@code null} if no file is used or the file is outdated.
+     */
+    public CubeSchemaFile getFile() {
+        return fileOutdated ? null : file;
+    }
+
+    /**
+     * Returns the schema file to read from if the GraphDB is not available.
+     * This is the file returned by {@link #getFile()} or the outdated file if the repository data changed
+     * since it was imported.
+     *
+     * @return The opened schema file or {@code null} if no file is used.
+     */
+    public CubeSchemaFile getFallbackFile() {
+        return file;
+    }
+
+    /**
+     * Opens the specified schema file and invalidates all snapshots, so that they are read from the new file on next access.
+     *
+     * @param path The path to the schema file.
+     * @throws IllegalArgumentException If {@code path} is {@code null}.
+     * @throws IOException              If the file could not be opened; the previous file is kept in this case.
+     */
+    public void importFile(Path path) throws IOException {
+        CubeSchemaFile schemaFile = CubeSchemaFile.open(path);
+        synchronized (this) {
+            file = schemaFile;
+            fileOutdated = false;
+            snapshots.clear();
+        }
+        LOGGER.info("Imported cube schema file {} with {} cubes created at {}.", path, schemaFile.getCubes().size(), schemaFile.getCreatedAt());
+        notifyInvalidation(null);
+    }
+    // endregion
+
+    // region --- REFRESH ---
+
+    /**
+     * Reloads the snapshot of the specified cube. The new snapshot has a higher version than the previous one.
+     * <p>
+     * Callers which still hold the previous snapshot keep reading the previous data.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     * @return The new snapshot of the cube.
+     * @throws IllegalArgumentException If {@code cubeIri} is {@code null}, blank or an invalid IRI.
+     * @throws QueryException           If an exception occurred while loading the snapshot; the previous snapshot is kept in this case.
+     */
+    public CubeSchemaSnapshot refresh(String cubeIri) throws QueryException {
+        validateCubeIri(cubeIri);
+        CubeSchemaSnapshot snapshot;
+        synchronized (this) {
+            snapshot = load(cubeIri, false);
+        }
+        notifyInvalidation(cubeIri);
+        return snapshot;
+    }
+
+    /**
+     * Reloads the snapshots of all loaded cubes.
+     *
+     * @throws QueryException If an exception occurred while loading a snapshot.
+     */
+    public void refreshAll() throws QueryException {
+        for (String cube : getLoadedCubes()) {
+            refresh(cube);
+        }
+    }
+
+    /**
+     * Removes the snapshot of the specified cube; it will be loaded again on next access.
+     *
+     * @param cubeIri The absolute IRI of the cube.
+     */
+    public void invalidate(String cubeIri) {
+        if (cubeIri == null) return;
+        if (snapshots.remove(cubeIri) != null)
+            LOGGER.info("Invalidated schema snapshot of cube {}.", cubeIri);
+        notifyInvalidation(cubeIri);
+    }
+
+    /**
+     * Removes the snapshots of all cubes; snapshots loaded concurrently are removed as well.
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            snapshots.clear();
+        }
+        LOGGER.info("Invalidated all schema snapshots.");
+        notifyInvalidation(null);
+    }
+
+    /**
+     * Removes the snapshots of all cubes and marks the schema file as outdated as the repository data changed;
+     * snapshots are loaded from the GraphDB until a new schema file is imported.
+     * The outdated file is kept to read from if the GraphDB is not available.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        synchronized (this) {
+            fileOutdated = file != null;
+            snapshots.clear();
+        }
+        LOGGER.info("Invalidated all schema snapshots after change {} of the repository.", event.getGeneration());
+        notifyInvalidation(null);
+    }
+
+    /**
+     * Registers a listener which is notified whenever the schema of a cube is refreshed or invalidated,
+     * so that data derived from the schema can be invalidated as well.
+     * <p>
+     * The listener receives the IRI of the cube or {@code null} if the schemas of all cubes were invalidated.
+     *
+     * @param listener The listener.
+     * @throws IllegalArgumentException If {@code listener} is {@code null}.
+     */
+    public void addInvalidationListener(Consumer<String> listener) {
+        if (listener == null) throw new IllegalArgumentException("listener must not be null");
+        invalidationListeners.add(listener);
+    }
+
+    private void notifyInvalidation(String cubeIri) {
+        for (Consumer<String> listener : invalidationListeners) {
+            try {
+                listener.accept(cubeIri);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Schema invalidation listener failed.", ex);
+            }
+        }
+    }
+    // endregion
+
+    private CubeSchemaSnapshot load(String cubeIri, boolean useFile) throws QueryException {
+        long version = versions.incrementAndGet();
+        final CubeSchemaFile schemaFile = file;
+        final boolean inFile = useFile && schemaFile != null && schemaFile.contains(cubeIri);
+        if (inFile && !fileOutdated) {
+            CubeSchemaSnapshot snapshot = schemaFile.readSnapshot(cubeIri, version);
+            snapshots.put(cubeIri, snapshot);
+            LOGGER.info("Read schema snapshot {} of cube {} from {}.", version, cubeIri, schemaFile.getPath());
+            return snapshot;
+        }
+
+        LOGGER.debug("Loading schema snapshot {} of cube {}.", version, cubeIri);
+        CubeSchemaSnapshot snapshot;
+        try {
+            snapshot = loader.loadSnapshot(cubeIri, version);
+            LOGGER.info("Loaded schema snapshot {} of cube {}.", version, cubeIri);
+        } catch (QueryException | RuntimeException ex) {
+            if (!inFile) throw ex;
+            LOGGER.warn("Could not load schema snapshot " + version + " of cube " + cubeIri +
+                    "; reading it from the outdated file " + schemaFile.getPath() + '.', ex);
+            snapshot = schemaFile.readSnapshot(cubeIri, version);
+        }
+        snapshots.put(cubeIri, snapshot);
+        return snapshot;
+    }
+
+    private static void validateCubeIri(String cubeIri) {
+        if (StringUtils.isBlank(cubeIri)) throw new IllegalArgumentException("cubeIri must not be null nor empty");
+        if (!IRIValidator.isValidAbsoluteIRI(cubeIri))
+            throw new IllegalArgumentException("cubeIri must be an absolute IRI");
+    }
+}
@@ -0,0 +1,226 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.models.CubeContext;
+import at.jku.dke.ida.data.models.HierarchyIndex;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable in-memory copy of the schema of a cube.
+ * <p>
+ * The structural data (elements, relationships with their hierarchy indexes and level members) is loaded at once, the labels are
+ * loaded per language on first access (see {@link CubeSchemaService#getLabels(String, String)}).
+ * Every snapshot gets a new version number, so callers can detect whether a snapshot has been refreshed.
+ * <p>
+ * The returned collections must not be modified.
+ */
+public final class CubeSchemaSnapshot {
+
+    private final String cubeIri;
+    private final long version;
+    private final Instant loadedAt;
+    private final CubeContext context;
+    private final Map<String, Set<String>> elements;
+    private final Map<String, Set<Pair<String, String>>> dimensionElements;
+    private final Map<String, Set<Triple<String, String, String>>> relationships;
+    private final Map<String, HierarchyIndex> hierarchies;
+    private final Set<Triple<String, String, String>> levelMembers;
+    private final Map<String, Set<Triple<String, String, String>>> levelMembersByDimension;
+    private final Map<String, Set<Triple<String, String, String>>> levelMembersByLevel;
+    private final ConcurrentMap<String, CubeSchemaLabels> labels;
+
+    /**
+     * Instantiates a new instance of class {@linkplain CubeSchemaSnapshot}.
+     *
+     * @param version The version of the snapshot.
+     * @param context The schema elements of the cube.
+     */
+    CubeSchemaSnapshot(long version, CubeContext context) {
+        this.cubeIri = context.getCubeIri();
+        this.version = version;
+        this.loadedAt = Instant.now();
+        this.context = context;
+        this.elements = Map.of(
+                "repo_aggmeasure", context.getAggregateMeasures(),
+                "repo_aggmeasurepred", context.getAggregateMeasurePredicates(),
+                "repo_basemeasurepred", context.getBaseMeasurePredicates(),
+                "repo_compmeasure", context.getComparativeMeasures(),
+                "repo_compmeasurepred", context.getComparativeMeasurePredicates(),
+                "repo_joinpred", context.getJoinConditionPredicates());
+        this.dimensionElements = Map.of(
+                "repo_level", context.getLevels(),
+                "repo_levelpred", context.getLevelPredicates());
+        this.relationships = Map.of(
+                "repo_level", context.getLevelRelationships(),
+                "repo_levelpred", context.getLevelPredicateRelationships());
+        this.hierarchies = Map.of(
+                "repo_level", context.getLevelHierarchy(),
+                "repo_levelpred", context.getLevelPredicateHierarchy());
+        this.levelMembers = context.getLevelMembers();
+        this.levelMembersByDimension = index(levelMembers, Triple::getLeft);
+        this.levelMembersByLevel = index(levelMembers, Triple::getMiddle);
+        this.labels = new ConcurrentHashMap<>();
+    }
+
+    private static Map<String, Set<Triple<String, String, String>>> index(Set<Triple<String, String, String>> members,
+                                                                         Function<Triple<String, String, String>, String> key) {
+        return members.stream().collect(Collectors.collectingAndThen(
+                Collectors.groupingBy(key, Collectors.collectingAndThen(Collectors.toSet(), Collections::unmodifiableSet)),
+                Collections::unmodifiableMap));
+    }
+
+    /**
+     * Gets the absolute IRI of the cube.
+     *
+     * @return the cube IRI
+     */
+    public String getCubeIri() {
+        return cubeIri;
+    }
+
+    /**
+     * Gets the version of the snapshot. A refreshed snapshot always has a higher version than its predecessor.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the time the snapshot was loaded.
+     *
+     * @return the load time
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Gets all schema elements of the cube.
+     *
+     * @return the cube context
+     */
+    public CubeContext getContext() {
+        return context;
+    }
+
+    /**
+     * Returns the simple cube elements of the repository with the specified query folder.
+     *
+     * @param queryFolder The query folder of the repository.
+     * @return Set with element IRIs or {@code null} if the elements of this type are not part of the snapshot.
+     */
+    public Set<String> getElements(String queryFolder) {
+        return elements.get(queryFolder);
+    }
+
+    /**
+     * Returns the cube elements in dimensions of the repository with the specified query folder.
+     *
+     * @param queryFolder The query folder of the repository.
+     * @return Set with element IRIs (the key of the pair represents the dimension, the value is the element)
+     * or {@code null} if the elements of this type are not part of the snapshot.
+     */
+    public Set<Pair<String, String>> getDimensionElements(String queryFolder) {
+        return dimensionElements.get(queryFolder);
+    }
+
+    /**
+     * Returns the relationships of the repository with the specified query folder.
+     * <p>
+     * The first entry of the triple is the dimension, the second one the child and the third one the parent.
+     *
+     * @param queryFolder The query folder of the repository.
+     * @return Set with the relationships or {@code null} if the relationships of this type are not part of the snapshot.
+     */
+    public Set<Triple<String, String, String>> getRelationships(String queryFolder) {
+        return relationships.get(queryFolder);
+    }
+
+    /**
+     * Returns the hierarchy index of the relationships of the repository with the specified query folder.
+     * The index is built once per snapshot and shared with its {@link #getContext() context}.
+     *
+     * @param queryFolder The query folder of the repository.
+     * @return The hierarchy index or {@code null} if the relationships of this type are not part of the snapshot.
+     */
+    public HierarchyIndex getHierarchy(String queryFolder) {
+        return hierarchies.get(queryFolder);
+    }
+
+    /**
+     * Returns all level members of the cube.
+     *
+     * @return Set with level members (dimension, level, element)
+     */
+    public Set<Triple<String, String, String>> getLevelMembers() {
+        return levelMembers;
+    }
+
+    /**
+     * Returns the level members of the cube in the specified dimension.
+     *
+     * @param dimensionIri The absolute IRI of the dimension.
+     * @return Set with level members (dimension, level, element)
+     */
+    public Set<Triple<String, String, String>> getLevelMembersByDimension(String dimensionIri) {
+        return levelMembersByDimension.getOrDefault(dimensionIri, Collections.emptySet());
+    }
+
+    /**
+     * Returns the level members of the cube in the specified granularity level.
+     *
+     * @param levelIri The absolute IRI of the granularity level.
+     * @return Set with level members (dimension, level, element)
+     */
+    public Set<Triple<String, String, String>> getLevelMembersByLevel(String levelIri) {
+        return levelMembersByLevel.getOrDefault(levelIri, Collections.emptySet());
+    }
+
+    /**
+     * Returns the labels of the specified language if they have already been loaded.
+     *
+     * @param lang The language.
+     * @return The labels or {@code null} if they have not been loaded yet.
+     */
+    CubeSchemaLabels findLabels(String lang) {
+        return labels.get(lang);
+    }
+
+    /**
+     * Returns the labels of all languages loaded so far.
+     *
+     * @return Unmodifiable collection with the labels
+     */
+    Collection<CubeSchemaLabels> getLoadedLabels() {
+        return Collections.unmodifiableCollection(labels.values());
+    }
+
+    /**
+     * Adds the labels of a language to the snapshot.
+     *
+     * @param cubeLabels The labels to add.
+     */
+    void addLabels(CubeSchemaLabels cubeLabels) {
+        labels.put(cubeLabels.getLang(), cubeLabels);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CubeSchemaSnapshot.class.getSimpleName() + "[", "]")
+                .add("cubeIri='" + cubeIri + "'")
+                .add("version=" + version)
+                .add("loadedAt=" + loadedAt)
+                .add("levelMembers=" + levelMembers.size())
+                .add("labels=" + labels.keySet())
+                .toString();
+    }
+}
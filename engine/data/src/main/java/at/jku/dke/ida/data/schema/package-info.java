@@ -0,0 +1,5 @@
+/**
+ * This package contains the in-memory cube schema snapshots used by the repositories to answer
+ * lookups of static cube schema data without querying the GraphDB.
+ */
+package at.jku.dke.ida.data.schema;
@@ -0,0 +1,340 @@
+package at.jku.dke.ida.data.similarity;
+
+import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.models.DimensionSimilarity;
+
+import java.util.*;
+
+/**
+ * In-memory inverted index over the mappings between schema elements and wordnet documents
+ * (graph {@code sim:wordnet-scores-en}).
+ * <p>
+ * The mappings are grouped by the values the similarity queries group their results by
+ * (cube, dimension, element and type). For every document the mapped groups and mapping scores are
+ * stored in packed primitive arrays; the strings of the groups are stored once in a string table.
+ * <p>
+ * Instances are immutable and thread-safe; use the {@link Builder} to create them and {@link #newScores(String)}
+ * to join the scores of wordnet documents with the mappings.
+ */
+public final class MappingIndex {
+
+    private static final double ABSENT = -1;
+
+    private final String[] strings;
+    private final int[] groupCube;
+    private final int[] groupDimension;
+    private final int[] groupElement;
+    private final int[] groupType;
+    private final Map<String, Integer> stringIds;
+    private final Map<String, Integer> documents;
+    private final int[] offsets;
+    private final int[] groups;
+    private final float[] scores;
+
+    private MappingIndex(Builder builder) {
+        this.strings = builder.strings.toArray(new String[0]);
+        this.stringIds = builder.stringIds;
+        this.groupCube = Arrays.copyOf(builder.groupCube, builder.groupCount);
+        this.groupDimension = Arrays.copyOf(builder.groupDimension, builder.groupCount);
+        this.groupElement = Arrays.copyOf(builder.groupElement, builder.groupCount);
+        this.groupType = Arrays.copyOf(builder.groupType, builder.groupCount);
+
+        // Compressed rows: mappings of document d are at [offsets[d], offsets[d + 1])
+        this.documents = new HashMap<>(builder.documents.size() * 4 / 3 + 1);
+        this.offsets = new int[builder.documents.size() + 1];
+        this.groups = new int[builder.mappingCount];
+        this.scores = new float[builder.mappingCount];
+        int d = 0;
+        int position = 0;
+        for (Map.Entry<String, Builder.Mappings> document : builder.documents.entrySet()) {
+            documents.put(document.getKey(), d);
+            Builder.Mappings mappings = document.getValue();
+            System.arraycopy(mappings.groups, 0, groups, position, mappings.size);
+            System.arraycopy(mappings.scores, 0, scores, position, mappings.size);
+            position += mappings.size;
+            offsets[++d] = position;
+        }
+    }
+
+    /**
+     * Returns the number of documents with at least one mapping.
+     *
+     * @return The number of documents.
+     */
+    public int getDocumentCount() {
+        return documents.size();
+    }
+
+    /**
+     * Returns the number of mappings.
+     *
+     * @return The number of mappings.
+     */
+    public int getMappingCount() {
+        return groups.length;
+    }
+
+    /**
+     * Passes every mapping to the specified visitor, grouped by document.
+     *
+     * @param visitor The visitor.
+     */
+    public void forEach(Visitor visitor) {
+        for (Map.Entry<String, Integer> document : documents.entrySet()) {
+            final int d = document.getValue();
+            for (int i = offsets[d]; i < offsets[d + 1]; i++) {
+                final int g = groups[i];
+                visitor.accept(document.getKey(), strings[groupCube[g]],
+                        groupDimension[g] < 0 ? null : strings[groupDimension[g]],
+                        strings[groupElement[g]], strings[groupType[g]], scores[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct (cube, dimension, element, type)-groups.
+     *
+     * @return The number of groups.
+     */
+    public int getGroupCount() {
+        return groupCube.length;
+    }
+
+    /**
+     * Returns a new empty accumulator for the scores of the groups.
+     *
+     * @param cubeIri The cube the groups have to belong to or {@code null} for all cubes.
+     * @return The new accumulator.
+     */
+    public Scores newScores(String cubeIri) {
+        int cube = cubeIri == null ? -1 : stringIds.getOrDefault(cubeIri, -2);
+        return new Scores(cube);
+    }
+
+    /**
+     * Accumulates the maximum score of each group over the added wordnet documents,
+     * like {@code MAX(?mappingScore * ?documentScore)} grouped by cube, dimension, element and type.
+     * <p>
+     * Instances are not thread-safe.
+     */
+    public final class Scores {
+        private final int cube;
+        private final double[] best;
+        private int[] touched;
+        private int size;
+
+        private Scores(int cube) {
+            this.cube = cube;
+            this.best = new double[groupCube.length];
+            Arrays.fill(best, ABSENT);
+            this.touched = new int[16];
+        }
+
+        /**
+         * Adds the score of a wordnet document to all groups mapped to the document.
+         *
+         * @param documentId The IRI of the wordnet document.
+         * @param score      The similarity score of the document.
+         * @return This accumulator.
+         */
+        public Scores add(String documentId, double score) {
+            Integer d = documents.get(documentId);
+            if (d == null || cube == -2) return this;
+
+            for (int i = offsets[d]; i < offsets[d + 1]; i++) {
+                int g = groups[i];
+                if (cube >= 0 && groupCube[g] != cube) continue;
+                double s = scores[i] * score;
+                if (best[g] == ABSENT) {
+                    if (size == touched.length) touched = Arrays.copyOf(touched, size * 2);
+                    touched[size++] = g;
+                    best[g] = s;
+                } else if (s > best[g]) {
+                    best[g] = s;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Returns whether no group has a score.
+         *
+         * @return {@code true} if no score was accumulated.
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Multiplies the score of each group with the maximum score of the same element in the other accumulator
+         * and removes the groups whose element has no score in the other accumulator.
+         *
+         * @param other The scores of another word.
+         * @return This accumulator.
+         * @throws IllegalArgumentException If {@code other} is {@code null}.
+         */
+        public Scores multiplyByElement(Scores other) {
+            if (other == null) throw new IllegalArgumentException("other must not be null");
+
+            double[] elementBest = new double[strings.length];
+            Arrays.fill(elementBest, ABSENT);
+            for (int i = 0; i < other.size; i++) {
+                int g = other.touched[i];
+                int e = groupElement[g];
+                elementBest[e] = Math.max(elementBest[e], other.best[g]);
+            }
+
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int g = touched[i];
+                double factor = elementBest[groupElement[g]];
+                if (factor == ABSENT) {
+                    best[g] = ABSENT;
+                } else {
+                    best[g] *= factor;
+                    touched[kept++] = g;
+                }
+            }
+            size = kept;
+            return this;
+        }
+
+        /**
+         * Converts the scores to similarities ordered by descending score.
+         * Groups with a dimension are converted to {@link DimensionSimilarity}.
+         *
+         * @param term The term the similarities were computed for.
+         * @return The similarities.
+         */
+        public List<CubeSimilarity> toSimilarities(String term) {
+            List<CubeSimilarity> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int g = touched[i];
+                result.add(groupDimension[g] < 0 ?
+                        new CubeSimilarity(term, strings[groupCube[g]], strings[groupElement[g]], strings[groupType[g]], best[g]) :
+                        new DimensionSimilarity(term, strings[groupCube[g]], strings[groupElement[g]], strings[groupType[g]], best[g], strings[groupDimension[g]]));
+            }
+            result.sort(Comparator.comparingDouble(CubeSimilarity::getScore).reversed());
+            return result;
+        }
+    }
+
+    /**
+     * Receives the mappings of an index (see {@link #forEach(Visitor)}).
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Receives a mapping.
+         *
+         * @param documentId The IRI of the wordnet document.
+         * @param cube       The IRI of the cube.
+         * @param dimension  The IRI of the dimension (may be {@code null}).
+         * @param element    The IRI of the element.
+         * @param type       The IRI of the type of the element.
+         * @param score      The mapping score.
+         */
+        void accept(String documentId, String cube, String dimension, String element, String type, double score);
+    }
+
+    /**
+     * Collects the mappings and builds a {@link MappingIndex}.
+     */
+    public static final class Builder {
+        private final List<String> strings;
+        private final Map<String, Integer> stringIds;
+        private final Map<List<Integer>, Integer> groupIds;
+        private final Map<String, Mappings> documents;
+        private int[] groupCube;
+        private int[] groupDimension;
+        private int[] groupElement;
+        private int[] groupType;
+        private int groupCount;
+        private int mappingCount;
+
+        /**
+         * Instantiates a new instance of class {@linkplain Builder}.
+         */
+        public Builder() {
+            this.strings = new ArrayList<>();
+            this.stringIds = new HashMap<>();
+            this.groupIds = new HashMap<>();
+            this.documents = new LinkedHashMap<>();
+            this.groupCube = new int[64];
+            this.groupDimension = new int[64];
+            this.groupElement = new int[64];
+            this.groupType = new int[64];
+        }
+
+        /**
+         * Adds a mapping.
+         *
+         * @param documentId The IRI of the wordnet document.
+         * @param cube       The IRI of the cube.
+         * @param dimension  The IRI of the dimension (may be {@code null}).
+         * @param element    The IRI of the element.
+         * @param type       The IRI of the type of the element.
+         * @param score      The mapping score.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code documentId}, {@code cube}, {@code element} or {@code type} is {@code null}.
+         */
+        public Builder add(String documentId, String cube, String dimension, String element, String type, double score) {
+            if (documentId == null) throw new IllegalArgumentException("documentId must not be null");
+            if (cube == null) throw new IllegalArgumentException("cube must not be null");
+            if (element == null) throw new IllegalArgumentException("element must not be null");
+            if (type == null) throw new IllegalArgumentException("type must not be null");
+
+            int group = group(id(cube), dimension == null ? -1 : id(dimension), id(element), id(type));
+            documents.computeIfAbsent(documentId, x -> new Mappings()).add(group, (float) score);
+            mappingCount++;
+            return this;
+        }
+
+        /**
+         * Builds the index.
+         *
+         * @return The new index.
+         */
+        public MappingIndex build() {
+            return new MappingIndex(this);
+        }
+
+        private int id(String value) {
+            return stringIds.computeIfAbsent(value, x -> {
+                strings.add(x);
+                return strings.size() - 1;
+            });
+        }
+
+        private int group(int cube, int dimension, int element, int type) {
+            return groupIds.computeIfAbsent(List.of(cube, dimension, element, type), x -> {
+                if (groupCount == groupCube.length) {
+                    groupCube = Arrays.copyOf(groupCube, groupCount * 2);
+                    groupDimension = Arrays.copyOf(groupDimension, groupCount * 2);
+                    groupElement = Arrays.copyOf(groupElement, groupCount * 2);
+                    groupType = Arrays.copyOf(groupType, groupCount * 2);
+                }
+                groupCube[groupCount] = cube;
+                groupDimension[groupCount] = dimension;
+                groupElement[groupCount] = element;
+                groupType[groupCount] = type;
+                return groupCount++;
+            });
+        }
+
+        private static final class Mappings {
+            private int[] groups = new int[4];
+            private float[] scores = new float[4];
+            private int size;
+
+            void add(int group, float score) {
+                if (size == groups.length) {
+                    groups = Arrays.copyOf(groups, size * 2);
+                    scores = Arrays.copyOf(scores, size * 2);
+                }
+                groups[size] = group;
+                scores[size++] = score;
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package at.jku.dke.ida.data.similarity;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.QueryFutures;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.configuration.GraphDbSimilarityConfig;
+import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.schema.CubeSchemaFile;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.Literal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Computes the similarities between terms and cube elements by joining the most similar wordnet documents
+ * with the in-memory {@link MappingIndex} instead of joining them with the graph {@code sim:wordnet-scores-en} in SPARQL.
+ * <p>
+ * The most similar wordnet documents are looked up with the GraphDB similarity plugin
+ * ({@code graphdb.similarity.mapping-index}) or, if {@code graphdb.similarity.local} is set, in the
+ * in-memory {@link TermVectorIndex} built from the same documents the plugin index is created from.
+ * The scores are combined the same way as the queries in {@code /repo_nlp/}: the score of an element is
+ * the maximum product of the mapping score and the score of the wordnet document.
+ * <p>
+ * The wordnet documents of the words of multi-word terms are searched concurrently if the plugin is used.
+ * <p>
+ * The indexes are built on first access and can be rebuilt with {@link #refresh()}. If the {@link CubeSchemaService}
+ * uses a schema file containing mappings, the mapping index is read from the file instead of the GraphDB.
+ * Both indexes are removed if the repository data changes (see {@link RepositoryChangedEvent}).
+ */
+@Service
+public class SimilarityIndexService {
+
+    private static final Logger LOGGER = LogManager.getLogger(SimilarityIndexService.class);
+    private static final String DOCUMENTS_QUERY = "/repo_nlp/getWordNetDocuments.sparql";
+    private static final String MAPPINGS_QUERY = "/repo_nlp/getMappings_en.sparql";
+    private static final String SEARCH_QUERY = "/repo_nlp/searchWordNet_en.sparql";
+
+    private final GraphDbConnection connection;
+    private final GraphDbSimilarityConfig config;
+    private final CubeSchemaService schemaService;
+    private volatile MappingIndex mappings;
+    private volatile TermVectorIndex documents;
+
+    /**
+     * Instantiates a new instance of class {@linkplain SimilarityIndexService} which always queries the mappings.
+     *
+     * @param connection The GraphDB connection service class.
+     * @param config     The GraphDB configuration.
+     */
+    public SimilarityIndexService(GraphDbConnection connection, GraphDbConfig config) {
+        this(connection, config, null);
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain SimilarityIndexService}.
+     *
+     * @param connection    The GraphDB connection service class.
+     * @param config        The GraphDB configuration.
+     * @param schemaService The cube schema service whose schema file provides the mappings (may be {@code null}).
+     */
+    @Autowired
+    public SimilarityIndexService(GraphDbConnection connection, GraphDbConfig config, CubeSchemaService schemaService) {
+        this.connection = connection;
+        this.config = config.getSimilarity();
+        this.schemaService = schemaService;
+
+        // A new schema file may contain other mappings
+        if (schemaService != null)
+            schemaService.addInvalidationListener(cubeIri -> {
+                if (cubeIri == null) invalidate(false);
+            });
+    }
+
+    /**
+     * Removes the indexes as the repository data changed; they are built again on next access.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onRepositoryChanged(RepositoryChangedEvent event) {
+        invalidate(true);
+    }
+
+    private synchronized void invalidate(boolean includeDocuments) {
+        mappings = null;
+        if (includeDocuments) documents = null;
+    }
+
+    /**
+     * Returns whether similarities should be computed by this service.
+     *
+     * @return {@code true} if {@code graphdb.similarity.mapping-index} or {@code graphdb.similarity.local} is set
+     */
+    public boolean isEnabled() {
+        return config.isMappingIndex() || config.isLocal();
+    }
+
+    /**
+     * Returns the cube elements whose labels are similar to the given term.
+     *
+     * @param term    The search term.
+     * @param cubeIri The full IRI of the cube or {@code null} for elements of all cubes.
+     * @return The list with similar elements ordered by descending score.
+     * @throws IllegalArgumentException If {@code term} is {@code null}.
+     * @throws QueryException           If the indexes could not be loaded or the wordnet documents could not be queried.
+     */
+    public List<CubeSimilarity> getTermSimilarity(String term, String cubeIri) throws QueryException {
+        if (term == null) throw new IllegalArgumentException("term must not be null");
+        return score(getMappings(), term, cubeIri).toSimilarities(term);
+    }
+
+    /**
+     * Returns the cube elements whose labels are similar to the given term by splitting the term into single words.
+     * <p>
+     * Every word has to be similar to the element; the score is the product of the scores of the words.
+     * The first word determines cube, dimension and type of the result.
+     *
+     * @param term    The search term.
+     * @param cubeIri The full IRI of the cube or {@code null} for elements of all cubes.
+     * @return The list with similar elements ordered by descending score.
+     * @throws IllegalArgumentException If {@code term} is {@code null}.
+     * @throws QueryException           If the indexes could not be loaded or the wordnet documents could not be queried.
+     */
+    public List<CubeSimilarity> getWordSimilarity(String term, String cubeIri) throws QueryException {
+        if (term == null) throw new IllegalArgumentException("term must not be null");
+        final MappingIndex index = getMappings();
+        final String[] words = term.split(" ");
+
+        if (config.isLocal() || words.length == 1) {
+            MappingIndex.Scores scores = score(index, words[0], cubeIri);
+            for (int i = 1; i < words.length && !scores.isEmpty(); i++)
+                scores.multiplyByElement(score(index, words[i], cubeIri));
+            return scores.toSimilarities(term);
+        }
+
+        // Search the wordnet documents of the words concurrently; the first word is searched by the calling thread
+        List<CompletableFuture<MappingIndex.Scores>> futures = new ArrayList<>(words.length - 1);
+        for (int i = 1; i < words.length; i++) {
+            final String word = words[i];
+            futures.add(connection.supplyAsync(() -> score(index, word, cubeIri)));
+        }
+        MappingIndex.Scores scores = score(index, words[0], cubeIri);
+        for (CompletableFuture<MappingIndex.Scores> future : futures)
+            scores.multiplyByElement(QueryFutures.join(future));
+        return scores.toSimilarities(term);
+    }
+
+    /**
+     * Rebuilds the indexes.
+     *
+     * @throws QueryException If the documents or mappings could not be queried.
+     */
+    public synchronized void refresh() throws QueryException {
+        mappings = queryMappings();
+        documents = config.isLocal() ? loadDocuments() : null;
+    }
+
+    // region --- SEARCH ---
+    private MappingIndex.Scores score(MappingIndex index, String text, String cubeIri) throws QueryException {
+        final MappingIndex.Scores scores = index.newScores(cubeIri);
+        if (config.isLocal()) {
+            for (TermVectorIndex.Hit hit : getDocuments().search(text, config.getMaxResults(), config.getProbes()))
+                scores.add(hit.getDocumentId(), hit.getScore());
+        } else {
+            connection.query(SEARCH_QUERY, Map.of("TERM", text), Collections.emptyMap(), stream -> {
+                stream.forEach(x -> scores.add(x.getValue("documentID").stringValue(), ((Literal) x.getValue("score")).doubleValue()));
+                return null;
+            });
+        }
+        return scores;
+    }
+    // endregion
+
+    // region --- LOAD ---
+    private MappingIndex getMappings() throws QueryException {
+        MappingIndex m = mappings;
+        if (m == null) {
+            synchronized (this) {
+                m = mappings;
+                if (m == null) {
+                    m = loadMappings();
+                    mappings = m;
+                }
+            }
+        }
+        return m;
+    }
+
+    private TermVectorIndex getDocuments() throws QueryException {
+        TermVectorIndex d = documents;
+        if (d == null) {
+            synchronized (this) {
+                d = documents;
+                if (d == null) {
+                    d = loadDocuments();
+                    documents = d;
+                }
+            }
+        }
+        return d;
+    }
+
+    private MappingIndex loadMappings() throws QueryException {
+        final CubeSchemaFile file = schemaService == null ? null : schemaService.getFile();
+        if (file != null && file.hasMappings())
+            return readMappings(file);
+
+        try {
+            return queryMappings();
+        } catch (QueryException | RuntimeException ex) {
+            final CubeSchemaFile fallback = schemaService == null ? null : schemaService.getFallbackFile();
+            if (fallback == null || !fallback.hasMappings()) throw ex;
+            LOGGER.warn("Could not query the mappings; reading them from the outdated file " + fallback.getPath() + '.', ex);
+            return readMappings(fallback);
+        }
+    }
+
+    private static MappingIndex readMappings(CubeSchemaFile file) {
+        long start = System.currentTimeMillis();
+        MappingIndex index = file.readMappings();
+        LOGGER.info("Read mapping index with {} mappings of {} documents to {} elements from {} in {} ms.",
+                index.getMappingCount(), index.getDocumentCount(), index.getGroupCount(), file.getPath(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    /**
+     * Builds the mapping index from the mappings stored in the GraphDB, ignoring the schema file.
+     *
+     * @return The mapping index.
+     * @throws QueryException If the mappings could not be queried.
+     */
+    public MappingIndex queryMappings() throws QueryException {
+        long start = System.currentTimeMillis();
+        MappingIndex index = connection.queryUnbounded(MAPPINGS_QUERY, Collections.emptyMap(), Collections.emptyMap(), stream -> {
+            MappingIndex.Builder builder = new MappingIndex.Builder();
+            stream.forEach(x -> builder.add(
+                    x.getValue("documentID").stringValue(),
+                    x.getValue("cube").stringValue(),
+                    x.hasBinding("dimension") ? x.getValue("dimension").stringValue() : null,
+                    x.getValue("element").stringValue(),
+                    x.getValue("type").stringValue(),
+                    ((Literal) x.getValue("score")).doubleValue()));
+            return builder.build();
+        });
+        LOGGER.info("Built mapping index with {} mappings of {} documents to {} elements in {} ms.",
+                index.getMappingCount(), index.getDocumentCount(), index.getGroupCount(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    private TermVectorIndex loadDocuments() throws QueryException {
+        long start = System.currentTimeMillis();
+        TermVectorIndex.Builder builder = new TermVectorIndex.Builder(config.getDimension(), config.getSeeds(), config.getClusters());
+        connection.queryUnbounded(DOCUMENTS_QUERY, Collections.emptyMap(), Collections.emptyMap(), stream -> {
+            stream.forEach(x -> builder.add(x.getValue("documentID").stringValue(), x.getValue("documentText").stringValue()));
+            return null;
+        });
+        TermVectorIndex index = builder.build();
+        LOGGER.info("Built similarity index with {} documents, {} terms and {} clusters in {} ms.",
+                index.size(), index.getTermCount(), index.getClusterCount(), System.currentTimeMillis() - start);
+        return index;
+    }
+    // endregion
+}
@@ -0,0 +1,447 @@
+package at.jku.dke.ida.data.similarity;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory random indexing vector space over text documents with approximate top-k nearest neighbour search.
+ * <p>
+ * Every term gets a sparse ternary random index vector. The vector of a document is the idf-weighted
+ * sum of the index vectors of its terms. The vector of a search text is the idf-weighted sum of the
+ * vectors of all documents containing its terms (reflective random indexing), so a term is also
+ * similar to documents which only contain terms co-occurring with it.
+ * <p>
+ * All document vectors are normalized and stored in one primitive {@code float} array, grouped by cluster.
+ * A search compares the search vector with the cluster centroids first and scans only the documents
+ * of the nearest clusters.
+ * <p>
+ * Instances are immutable and thread-safe; use the {@link Builder} to create them.
+ */
+public final class TermVectorIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with");
+
+    private final int dimension;
+    private final String[] documentIds;
+    private final float[] vectors;
+    private final float[] centroids;
+    private final int[] clusterStart;
+    private final Map<String, Term> terms;
+
+    private TermVectorIndex(int dimension, String[] documentIds, float[] vectors, float[] centroids, int[] clusterStart, Map<String, Term> terms) {
+        this.dimension = dimension;
+        this.documentIds = documentIds;
+        this.vectors = vectors;
+        this.centroids = centroids;
+        this.clusterStart = clusterStart;
+        this.terms = terms;
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return The number of documents.
+     */
+    public int size() {
+        return documentIds.length;
+    }
+
+    /**
+     * Returns the number of distinct indexed terms.
+     *
+     * @return The number of terms.
+     */
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    /**
+     * Returns the number of clusters the documents are partitioned into.
+     *
+     * @return The number of clusters.
+     */
+    public int getClusterCount() {
+        return clusterStart.length - 1;
+    }
+
+    /**
+     * Returns the documents most similar to the text.
+     *
+     * @param text   The search text.
+     * @param k      The maximum number of returned documents.
+     * @param probes The number of nearest clusters to scan; if it is greater or equal to the number of clusters, the search is exact.
+     * @return The documents with a score greater than 0 ordered by descending score; an empty list if the text contains no indexed term.
+     * @throws IllegalArgumentException If {@code text} is {@code null} or {@code k} or {@code probes} is less than 1.
+     */
+    public List<Hit> search(String text, int k, int probes) {
+        if (text == null) throw new IllegalArgumentException("text must not be null");
+        if (k < 1) throw new IllegalArgumentException("k must be greater than 0");
+        if (probes < 1) throw new IllegalArgumentException("probes must be greater than 0");
+
+        float[] query = queryVector(text);
+        if (query == null) return Collections.emptyList();
+
+        // Nearest clusters
+        int clusters = getClusterCount();
+        int[] probed;
+        if (probes >= clusters) {
+            probed = IntStream.range(0, clusters).toArray();
+        } else {
+            TopK nearest = new TopK(probes);
+            for (int c = 0; c < clusters; c++)
+                nearest.offer(c, dot(query, centroids, c * dimension));
+            probed = nearest.ids();
+        }
+
+        // Nearest documents
+        TopK top = new TopK(k);
+        for (int c : probed) {
+            for (int doc = clusterStart[c]; doc < clusterStart[c + 1]; doc++) {
+                float score = dot(query, vectors, doc * dimension);
+                if (score > 0) top.offer(doc, score);
+            }
+        }
+
+        int[] ids = top.ids();
+        float[] scores = top.scores();
+        List<Hit> hits = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++)
+            hits.add(new Hit(documentIds[ids[i]], scores[i]));
+        return hits;
+    }
+
+    private float[] queryVector(String text) {
+        float[] query = new float[dimension];
+        boolean found = false;
+        for (String token : tokenize(text)) {
+            Term term = terms.get(token);
+            if (term == null) continue;
+            found = true;
+            for (int doc : term.documents) {
+                int offset = doc * dimension;
+                for (int i = 0; i < dimension; i++)
+                    query[i] += term.idf * vectors[offset + i];
+            }
+        }
+        return found && normalize(query, 0, dimension) ? query : null;
+    }
+
+    // region --- VECTORS ---
+
+    /**
+     * Splits the text into lower-case terms without stop words and plural endings.
+     *
+     * @param text The text.
+     * @return The terms in the order of their occurrence.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ENGLISH))) {
+            if (token.length() < 2 || STOP_WORDS.contains(token)) continue;
+            tokens.add(stem(token));
+        }
+        return tokens;
+    }
+
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) return token.substring(0, token.length() - 3) + 'y';
+        if (token.length() > 4 && (token.endsWith("ches") || token.endsWith("shes") || token.endsWith("sses") || token.endsWith("xes")))
+            return token.substring(0, token.length() - 2);
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is"))
+            return token.substring(0, token.length() - 1);
+        return token;
+    }
+
+    private static float dot(float[] query, float[] vectors, int offset) {
+        float sum = 0;
+        for (int i = 0; i < query.length; i++)
+            sum += query[i] * vectors[offset + i];
+        return sum;
+    }
+
+    private static boolean normalize(float[] vectors, int offset, int dimension) {
+        double norm = 0;
+        for (int i = offset; i < offset + dimension; i++)
+            norm += vectors[i] * vectors[i];
+        if (norm == 0) return false;
+        float factor = (float) (1 / Math.sqrt(norm));
+        for (int i = offset; i < offset + dimension; i++)
+            vectors[i] *= factor;
+        return true;
+    }
+    // endregion
+
+    /**
+     * A document returned by a search.
+     */
+    public static final class Hit {
+        private final String documentId;
+        private final float score;
+
+        Hit(String documentId, float score) {
+            this.documentId = documentId;
+            this.score = score;
+        }
+
+        /**
+         * Returns the identifier of the document.
+         *
+         * @return The document identifier.
+         */
+        public String getDocumentId() {
+            return documentId;
+        }
+
+        /**
+         * Returns the cosine similarity between the search text and the document.
+         *
+         * @return The score between 0 and 1.
+         */
+        public float getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return documentId + '=' + score;
+        }
+    }
+
+    private static final class Term {
+        private final float idf;
+        private final int[] documents;
+
+        Term(float idf, int[] documents) {
+            this.idf = idf;
+            this.documents = documents;
+        }
+    }
+
+    /**
+     * Keeps the k entries with the highest scores in primitive arrays.
+     */
+    private static final class TopK {
+        private final int[] ids;
+        private final float[] scores;
+        private int size;
+
+        TopK(int k) {
+            this.ids = new int[k];
+            this.scores = new float[k];
+        }
+
+        void offer(int id, float score) {
+            if (size == ids.length && score <= scores[size - 1]) return;
+            int i = size == ids.length ? size - 1 : size++;
+            while (i > 0 && scores[i - 1] < score) {
+                ids[i] = ids[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            scores[i] = score;
+        }
+
+        int[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        float[] scores() {
+            return Arrays.copyOf(scores, size);
+        }
+    }
+
+    /**
+     * Collects the documents and builds a {@link TermVectorIndex}.
+     * The texts of documents added multiple times with the same identifier are concatenated.
+     */
+    public static final class Builder {
+        private final int dimension;
+        private final int seeds;
+        private final int clusters;
+        private final Map<String, StringBuilder> documents;
+
+        /**
+         * Instantiates a new instance of class {@linkplain Builder}.
+         *
+         * @param dimension The dimension of the vectors.
+         * @param seeds     The number of non-zero entries of the random index vector of a term.
+         * @param clusters  The number of clusters; 0 means the square root of the number of documents.
+         * @throws IllegalArgumentException If {@code dimension} or {@code seeds} is less than 1, {@code seeds} is greater than {@code dimension} or {@code clusters} is negative.
+         */
+        public Builder(int dimension, int seeds, int clusters) {
+            if (dimension < 1) throw new IllegalArgumentException("dimension must be greater than 0");
+            if (seeds < 1 || seeds > dimension)
+                throw new IllegalArgumentException("seeds must be between 1 and dimension");
+            if (clusters < 0) throw new IllegalArgumentException("clusters must not be negative");
+            this.dimension = dimension;
+            this.seeds = seeds;
+            this.clusters = clusters;
+            this.documents = new LinkedHashMap<>();
+        }
+
+        /**
+         * Adds the text to the document.
+         *
+         * @param documentId The identifier of the document.
+         * @param text       The text.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code documentId} or {@code text} is {@code null}.
+         */
+        public Builder add(String documentId, String text) {
+            if (documentId == null) throw new IllegalArgumentException("documentId must not be null");
+            if (text == null) throw new IllegalArgumentException("text must not be null");
+            documents.computeIfAbsent(documentId, x -> new StringBuilder()).append(' ').append(text);
+            return this;
+        }
+
+        /**
+         * Builds the index.
+         *
+         * @return The new index.
+         */
+        public TermVectorIndex build() {
+            int n = documents.size();
+            String[] ids = documents.keySet().toArray(new String[0]);
+
+            // Term frequencies
+            Map<String, Integer> termIds = new HashMap<>();
+            List<int[]> docTerms = new ArrayList<>(n);
+            List<int[]> docFreqs = new ArrayList<>(n);
+            List<Integer> df = new ArrayList<>();
+            for (StringBuilder text : documents.values()) {
+                Map<Integer, Integer> tf = new LinkedHashMap<>();
+                for (String token : tokenize(text.toString())) {
+                    int id = termIds.computeIfAbsent(token, x -> {
+                        df.add(0);
+                        return df.size() - 1;
+                    });
+                    tf.merge(id, 1, Integer::sum);
+                }
+                int[] t = new int[tf.size()];
+                int[] f = new int[tf.size()];
+                int i = 0;
+                for (Map.Entry<Integer, Integer> e : tf.entrySet()) {
+                    t[i] = e.getKey();
+                    f[i++] = e.getValue();
+                    df.set(e.getKey(), df.get(e.getKey()) + 1);
+                }
+                docTerms.add(t);
+                docFreqs.add(f);
+            }
+            documents.clear();
+
+            String[] termNames = new String[termIds.size()];
+            termIds.forEach((name, id) -> termNames[id] = name);
+            float[] idf = new float[termNames.length];
+            int[][] index = new int[termNames.length][];
+            for (int t = 0; t < termNames.length; t++) {
+                idf[t] = (float) (Math.log((double) n / (df.get(t) + 1)) + 1);
+                index[t] = indexVector(termNames[t]);
+            }
+
+            // Document vectors
+            float[] raw = new float[n * dimension];
+            IntStream.range(0, n).parallel().forEach(doc -> {
+                int offset = doc * dimension;
+                int[] t = docTerms.get(doc);
+                int[] f = docFreqs.get(doc);
+                for (int i = 0; i < t.length; i++) {
+                    float weight = f[i] * idf[t[i]];
+                    for (int entry : index[t[i]]) {
+                        if (entry > 0) raw[offset + entry - 1] += weight;
+                        else raw[offset - entry - 1] -= weight;
+                    }
+                }
+                normalize(raw, offset, dimension);
+            });
+
+            // Clusters
+            if (n == 0)
+                return new TermVectorIndex(dimension, ids, raw, new float[0], new int[1], Collections.emptyMap());
+            int k = Math.max(1, Math.min(n, clusters > 0 ? clusters : (int) Math.sqrt(n)));
+            float[] centroids = new float[k * dimension];
+            for (int c = 0; c < k; c++)
+                System.arraycopy(raw, (int) ((long) c * n / k) * dimension, centroids, c * dimension, dimension);
+            int[] assignment = assign(raw, n, centroids, k);
+            Arrays.fill(centroids, 0);
+            for (int doc = 0; doc < n; doc++)
+                for (int i = 0; i < dimension; i++)
+                    centroids[assignment[doc] * dimension + i] += raw[doc * dimension + i];
+            for (int c = 0; c < k; c++)
+                normalize(centroids, c * dimension, dimension);
+            assignment = assign(raw, n, centroids, k);
+
+            // Sort documents by cluster
+            int[] clusterStart = new int[k + 1];
+            for (int a : assignment) clusterStart[a + 1]++;
+            for (int c = 0; c < k; c++) clusterStart[c + 1] += clusterStart[c];
+            int[] next = Arrays.copyOf(clusterStart, k);
+            int[] position = new int[n];
+            String[] sortedIds = new String[n];
+            float[] vectors = new float[n * dimension];
+            for (int doc = 0; doc < n; doc++) {
+                int p = next[assignment[doc]]++;
+                position[doc] = p;
+                sortedIds[p] = ids[doc];
+                System.arraycopy(raw, doc * dimension, vectors, p * dimension, dimension);
+            }
+
+            // Postings
+            int[][] postings = new int[termNames.length][];
+            int[] fill = new int[termNames.length];
+            for (int t = 0; t < termNames.length; t++)
+                postings[t] = new int[df.get(t)];
+            for (int doc = 0; doc < n; doc++)
+                for (int t : docTerms.get(doc))
+                    postings[t][fill[t]++] = position[doc];
+            Map<String, Term> terms = new HashMap<>(termNames.length * 4 / 3 + 1);
+            for (int t = 0; t < termNames.length; t++)
+                terms.put(termNames[t], new Term(idf[t], postings[t]));
+
+            return new TermVectorIndex(dimension, sortedIds, vectors, centroids, clusterStart, terms);
+        }
+
+        private int[] assign(float[] vectors, int n, float[] centroids, int k) {
+            int[] assignment = new int[n];
+            IntStream.range(0, n).parallel().forEach(doc -> {
+                int offset = doc * dimension;
+                int best = 0;
+                float bestScore = Float.NEGATIVE_INFINITY;
+                for (int c = 0; c < k; c++) {
+                    float score = 0;
+                    for (int i = 0; i < dimension; i++)
+                        score += vectors[offset + i] * centroids[c * dimension + i];
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = c;
+                    }
+                }
+                assignment[doc] = best;
+            });
+            return assignment;
+        }
+
+        /**
+         * Returns the random index vector of the term as positions (1-based) with the sign as the sign of the entry.
+         */
+        private int[] indexVector(String term) {
+            SplittableRandom random = new SplittableRandom(term.hashCode() * 0x9E3779B97F4A7C15L);
+            int[] entries = new int[seeds];
+            Set<Integer> used = new HashSet<>();
+            for (int i = 0; i < seeds; i++) {
+                int position;
+                do {
+                    position = random.nextInt(dimension);
+                } while (!used.add(position));
+                entries[i] = random.nextBoolean() ? position + 1 : -(position + 1);
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package at.jku.dke.ida.data.similarity;
+
+import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.models.DimensionSimilarity;
+
+import java.util.*;
+
+/**
+ * This class contains helper methods to combine the similarities of the single words of a term.
+ * <p>
+ * The combination is equivalent to the multi-word similarity query ({@code /repo_nlp/similarity_multiple_en.sparql}):
+ * every word has to be mapped to the element, the score of an element is the product of the maximum scores of the
+ * words and cube, dimension and type of the result are determined by the first word.
+ */
+public final class WordSimilarities {
+
+    private static final Comparator<CubeSimilarity> BY_SCORE = Comparator.comparingDouble(CubeSimilarity::getScore);
+
+    /**
+     * Prevents creation of instances of this class.
+     */
+    private WordSimilarities() {
+    }
+
+    /**
+     * Combines the similarities of the single words of a term.
+     *
+     * @param term  The term the similarities are computed for.
+     * @param words The similarities of each word of the term in the order of the words, as returned by the single-word query.
+     * @param limit The maximum number of results; 0 means no limit.
+     * @return The similarities of the term ordered by descending score.
+     * @throws IllegalArgumentException If {@code term} or {@code words} is {@code null}, {@code words} is empty or {@code limit} is negative.
+     */
+    public static List<CubeSimilarity> combine(String term, List<List<CubeSimilarity>> words, int limit) {
+        if (term == null) throw new IllegalArgumentException("term must not be null");
+        if (words == null || words.isEmpty()) throw new IllegalArgumentException("words must not be null or empty");
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+
+        // Maximum score per element of the other words; an element missing in any word is not a result
+        List<Map<String, Double>> factors = new ArrayList<>(words.size() - 1);
+        for (int i = 1; i < words.size(); i++) {
+            Map<String, Double> best = new HashMap<>();
+            for (CubeSimilarity sim : words.get(i))
+                best.merge(sim.getElement(), sim.getScore(), Math::max);
+            if (best.isEmpty()) return new ArrayList<>();
+            factors.add(best);
+        }
+
+        // Keep the best results in a min-heap if limited
+        PriorityQueue<CubeSimilarity> top = new PriorityQueue<>(limit > 0 ? limit + 1 : 16, BY_SCORE);
+        for (CubeSimilarity first : words.get(0)) {
+            double score = first.getScore();
+            for (int i = 0; i < factors.size() && score >= 0; i++) {
+                Double factor = factors.get(i).get(first.getElement());
+                score = factor == null ? -1 : score * factor;
+            }
+            if (score < 0) continue;
+            if (limit > 0 && top.size() == limit && score <= top.peek().getScore()) continue;
+
+            top.add(first instanceof DimensionSimilarity ?
+                    new DimensionSimilarity(term, first.getCube(), first.getElement(), first.getType(), score, ((DimensionSimilarity) first).getDimension()) :
+                    new CubeSimilarity(term, first.getCube(), first.getElement(), first.getType(), score));
+            if (limit > 0 && top.size() > limit) top.poll();
+        }
+
+        List<CubeSimilarity> result = new ArrayList<>(top);
+        result.sort(BY_SCORE.reversed());
+        return result;
+    }
+}
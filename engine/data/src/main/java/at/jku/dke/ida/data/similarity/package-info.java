@@ -0,0 +1,5 @@
+/**
+ * This package contains the in-memory similarity search, which can be used instead of the GraphDB
+ * similarity plugin to find cube elements similar to terms of the user input.
+ */
+package at.jku.dke.ida.data.similarity;
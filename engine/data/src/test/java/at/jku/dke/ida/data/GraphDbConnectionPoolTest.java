@@ -0,0 +1,108 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbPoolConfig;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphDbConnectionPoolTest {
+
+    private Repository repository;
+    private GraphDbConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+
+        GraphDbPoolConfig config = new GraphDbPoolConfig();
+        config.setMaxSize(2);
+        config.setMaxWait(50);
+        config.setIdleTimeout(0);
+        config.setEvictionInterval(60_000);
+        pool = new GraphDbConnectionPool("test", repository, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testReturnOnClose() {
+        // Execute
+        var conn = pool.borrow();
+        assertEquals(1, pool.getActiveCount());
+        conn.close();
+
+        // Assert
+        assertFalse(conn.isOpen());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void testMaxSize() {
+        // Prepare
+        var conn1 = pool.borrow();
+        var conn2 = pool.borrow();
+
+        // Execute + Assert
+        assertThrows(RepositoryException.class, () -> pool.borrow());
+        conn1.close();
+        assertDoesNotThrow(() -> pool.borrow().close());
+        conn2.close();
+    }
+
+    @Test
+    void testEvictIdle() {
+        // Prepare
+        pool.borrow().close();
+        assertEquals(1, pool.getIdleCount());
+
+        // Execute
+        pool.evict();
+
+        // Assert
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void testBorrowAfterClose() {
+        // Execute
+        pool.close();
+
+        // Assert
+        assertThrows(RepositoryException.class, () -> pool.borrow());
+    }
+
+    @Test
+    void testReusePreparedQuery() {
+        // Prepare
+        final String queryString = "SELECT ?s WHERE { ?s ?p ?o }";
+        TupleQuery first;
+        try (var conn = pool.borrow()) {
+            first = conn.prepareTupleQuery(queryString);
+            first.setBinding("p", SimpleValueFactory.getInstance().createIRI("http://example.org/p"));
+        }
+
+        // Execute
+        TupleQuery second;
+        try (var conn = pool.borrow()) {
+            second = conn.prepareTupleQuery(queryString);
+        }
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(0, second.getBindings().size());
+    }
+}
@@ -0,0 +1,430 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.query.QueryTemplateRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.impl.TupleQueryResultBuilder;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+import org.eclipse.rdf4j.repository.base.RepositoryWrapper;
+import org.eclipse.rdf4j.repository.config.RepositoryConfigException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphDbConnectionTest {
+
+    private static final String DRUGS = "http://www.example.org/drugs#";
+
+    private static final String AGG_MEASURES = "/repo_aggmeasure/getAllByCube.sparql";
+
+    private Repository repository;
+    private GraphDbConfig config;
+    private GraphDbConnection connection;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        try (var conn = repository.getConnection()) {
+            conn.add(GraphDbTestUtils.DRUGS_FILE, "", RDFFormat.TURTLE);
+        }
+        config = new GraphDbConfig();
+        connection = new GraphDbConnection(config, new QueryTemplateRegistry(), repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testQueryStream() throws QueryException {
+        // Execute
+        Set<String> result = connection.query(
+                "/repo_aggmeasure/getAllByCube.sparql",
+                Map.of("NOTIN", '<' + DRUGS + "CostsPerUnitMeasure>"),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> stream.map(x -> x.getValue("element").stringValue()).collect(Collectors.toSet()));
+
+        // Assert
+        assertEquals(Set.of(DRUGS + "SumQuantityMeasure", DRUGS + "SumCostsMeasure"), result);
+    }
+
+    @Test
+    void testQueryHandler() throws QueryException {
+        // Prepare
+        TupleQueryResultBuilder builder = new TupleQueryResultBuilder();
+
+        // Execute
+        connection.query(
+                "/repo_cube/getLabelsByLang.sparql",
+                Collections.emptyMap(),
+                Map.of("lang", SimpleValueFactory.getInstance().createLiteral("de")),
+                builder);
+
+        // Assert
+        BindingSet row = builder.getQueryResult().next();
+        assertEquals(DRUGS + "DrugPrescriptionCube", row.getValue("element").stringValue());
+        assertEquals("Medikamentenrezept", row.getValue("label").stringValue());
+    }
+
+    @Test
+    void testQueryHandlerException() {
+        // Prepare
+        TupleQueryResultBuilder builder = new TupleQueryResultBuilder() {
+            @Override
+            public void handleSolution(BindingSet bindingSet) {
+                throw new TupleQueryResultHandlerException("stop");
+            }
+        };
+
+        // Execute + Assert
+        assertThrows(QueryException.class, () -> connection.query(
+                "/repo_cube/getLabelsByLang.sparql",
+                Collections.emptyMap(),
+                Map.of("lang", SimpleValueFactory.getInstance().createLiteral("en")),
+                builder));
+    }
+
+    @Test
+    void testQueryUnknownFile() {
+        // Execute + Assert
+        assertThrows(QueryException.class, () -> connection.query(
+                "/repo_cube/doesNotExist.sparql",
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                stream -> stream.count()));
+    }
+
+    @Test
+    void testSupplyAsync() throws QueryException {
+        // Execute
+        CompletableFuture<Long> count = connection.supplyAsync(() -> connection.query(
+                "/repo_cube/getLabelsByLang.sparql",
+                Collections.emptyMap(),
+                Map.of("lang", SimpleValueFactory.getInstance().createLiteral("en")),
+                stream -> stream.count()));
+        CompletableFuture<String> thread = connection.supplyAsync(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertEquals(1L, QueryFutures.join(count));
+        assertTrue(QueryFutures.join(thread).startsWith("graphdb-query-"));
+    }
+
+    @Test
+    void testSupplyAsyncException() {
+        // Prepare
+        CompletableFuture<Long> unknown = connection.supplyAsync(() -> connection.query(
+                "/repo_cube/doesNotExist.sparql",
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                stream -> stream.count()));
+        CompletableFuture<String> invalid = connection.supplyAsync(() -> {
+            throw new IllegalArgumentException("invalid");
+        });
+
+        // Execute + Assert
+        assertThrows(QueryException.class, () -> QueryFutures.join(unknown));
+        assertThrows(IllegalArgumentException.class, () -> QueryFutures.join(invalid));
+        assertThrows(QueryException.class, () -> QueryFutures.joinAll(unknown, invalid, CompletableFuture.completedFuture(1)));
+    }
+
+    @Test
+    void testQueryMetrics() throws QueryException {
+        // Execute
+        long count = connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> stream.count());
+        assertThrows(QueryException.class, () -> connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> {
+                    throw new QueryEvaluationException("failed");
+                }));
+
+        // Assert
+        MeterRegistry registry = connection.getMeterRegistry();
+        assertEquals(1, registry.get("graphdb.query").tags("file", AGG_MEASURES, "outcome", "success").timer().count());
+        assertEquals(1, registry.get("graphdb.query").tags("file", AGG_MEASURES, "outcome", "error").timer().count());
+        assertEquals(2, registry.get("graphdb.query.rows").tag("file", AGG_MEASURES).summary().count());
+        assertEquals(count, registry.get("graphdb.query.rows").tag("file", AGG_MEASURES).summary().max());
+        assertEquals(1.0, registry.get("graphdb.query.errors").tags("file", AGG_MEASURES, "type", "error").counter().count());
+        assertEquals(2, registry.get("graphdb.connection.acquire").timer().count());
+    }
+
+    @Test
+    void testQueryMaxResults() throws QueryException {
+        // Prepare
+        config.getQuery().getFileMaxResults().put(AGG_MEASURES, 2);
+
+        // Execute
+        long count = connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> stream.count());
+        TupleQueryResultBuilder builder = new TupleQueryResultBuilder();
+        connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                builder);
+
+        // Assert
+        assertEquals(2L, count);
+        assertEquals(2, QueryResults.asList(builder.getQueryResult()).size());
+    }
+
+    @Test
+    void testQueryUnboundedIgnoresLimits() throws QueryException {
+        // Prepare
+        config.getQuery().setMaxResults(1);
+        config.getQuery().getFileTimeouts().put(AGG_MEASURES, 1);
+
+        // Execute
+        long count = connection.queryUnbounded(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> stream.peek(x -> sleep(600)).count());
+        long bounded = connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> stream.count());
+
+        // Assert
+        assertEquals(2L, count);
+        assertEquals(1L, bounded);
+    }
+
+    @Test
+    void testQueryTimeout() {
+        // Prepare
+        config.getQuery().getFileTimeouts().put(AGG_MEASURES, 1);
+
+        // Execute + Assert
+        assertThrows(QueryTimeoutException.class, () -> connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> stream.peek(x -> sleep(1200)).count()));
+    }
+
+    @Test
+    void testQueryCancelled() throws InterruptedException {
+        // Prepare
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CompletableFuture<Long> future;
+        try (QueryScope scope = QueryScope.open("session")) {
+            future = connection.supplyAsync(() -> connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                    Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                    stream -> stream.peek(x -> {
+                        started.countDown();
+                        await(cancelled);
+                    }).count()));
+
+            // Execute
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            QueryScope.cancel("session");
+            cancelled.countDown();
+
+            // Assert
+            assertTrue(scope.isCancelled());
+            assertThrows(QueryCancelledException.class, () -> QueryFutures.join(future));
+            assertThrows(QueryCancelledException.class, () -> connection.query("/repo_cube/getLabelsByLang.sparql",
+                    Collections.emptyMap(),
+                    Map.of("lang", SimpleValueFactory.getInstance().createLiteral("en")),
+                    stream -> stream.count()));
+        }
+        assertNull(QueryScope.current());
+    }
+
+    @Test
+    void testQueryCoalesced() throws Exception {
+        // Prepare
+        CountDownLatch prepared = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GraphDbConnection blocking = new GraphDbConnection(config, new QueryTemplateRegistry(), blockingRepository(prepared, release));
+        try {
+            CompletableFuture<Set<String>> first = CompletableFuture.supplyAsync(() -> queryMeasures(blocking, stream -> stream.findFirst().stream()));
+            assertTrue(prepared.await(5, TimeUnit.SECONDS));
+
+            // Execute
+            CompletableFuture<Set<String>> second = CompletableFuture.supplyAsync(() -> queryMeasures(blocking, stream -> stream));
+            while (blocking.getMeterRegistry().find("graphdb.query.coalesced").counter() == null)
+                sleep(10);
+            release.countDown();
+
+            // Assert
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).size());
+            assertEquals(2, second.get(5, TimeUnit.SECONDS).size());
+            MeterRegistry registry = blocking.getMeterRegistry();
+            assertEquals(1, registry.get("graphdb.query").tags("file", AGG_MEASURES, "outcome", "success").timer().count());
+            assertEquals(1.0, registry.get("graphdb.query.coalesced").tag("file", AGG_MEASURES).counter().count());
+        } finally {
+            release.countDown();
+            blocking.close();
+        }
+    }
+
+    @Test
+    void testQueryCoalescedLeaderFails() throws Exception {
+        // Prepare
+        CountDownLatch prepared = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GraphDbConnection blocking = new GraphDbConnection(config, new QueryTemplateRegistry(), blockingRepository(prepared, release));
+        try {
+            CompletableFuture<Set<String>> first = CompletableFuture.supplyAsync(() -> queryMeasures(blocking, stream -> {
+                throw new QueryEvaluationException("failed");
+            }));
+            assertTrue(prepared.await(5, TimeUnit.SECONDS));
+
+            // Execute
+            CompletableFuture<Set<String>> second = CompletableFuture.supplyAsync(() -> queryMeasures(blocking, stream -> stream));
+            while (blocking.getMeterRegistry().find("graphdb.query.coalesced").counter() == null)
+                sleep(10);
+            release.countDown();
+
+            // Assert
+            assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertEquals(2, second.get(5, TimeUnit.SECONDS).size());
+        } finally {
+            release.countDown();
+            blocking.close();
+        }
+    }
+
+    @Test
+    void testQueryLateCallerNotBlocked() throws Exception {
+        // Prepare
+        CountDownLatch prepared = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch finishReading = new CountDownLatch(1);
+        GraphDbConnection blocking = new GraphDbConnection(config, new QueryTemplateRegistry(), blockingRepository(prepared, release));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            CompletableFuture<Set<String>> first = CompletableFuture.supplyAsync(() -> queryMeasures(blocking, stream -> stream.peek(x -> {
+                reading.countDown();
+                await(finishReading);
+            })), executor);
+            assertTrue(prepared.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Set<String>> second = CompletableFuture.supplyAsync(() -> queryMeasures(blocking, stream -> stream), executor);
+            while (blocking.getMeterRegistry().find("graphdb.query.coalesced").counter() == null)
+                sleep(10);
+            release.countDown();
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+            // Execute
+            CompletableFuture<Set<String>> late = CompletableFuture.supplyAsync(() -> queryMeasures(blocking, stream -> stream), executor);
+
+            // Assert
+            assertEquals(2, late.get(5, TimeUnit.SECONDS).size());
+            assertFalse(first.isDone());
+            assertFalse(second.isDone());
+            finishReading.countDown();
+            assertEquals(2, first.get(5, TimeUnit.SECONDS).size());
+            assertEquals(2, second.get(5, TimeUnit.SECONDS).size());
+            assertEquals(1, blocking.getMeterRegistry().find("graphdb.query.coalesced").counter().count());
+        } finally {
+            release.countDown();
+            finishReading.countDown();
+            executor.shutdown();
+            blocking.close();
+        }
+    }
+
+    @Test
+    void testQueryNotCoalesced() throws QueryException {
+        // Prepare
+        config.getQuery().setCoalesce(false);
+
+        // Execute
+        Set<String> result = queryMeasures(connection, stream -> stream);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertNull(connection.getMeterRegistry().find("graphdb.query.coalesced").counter());
+    }
+
+    @Test
+    void testSelectResultFormat() {
+        // Execute & Assert
+        assertEquals(TupleQueryResultFormat.BINARY, GraphDbConnection.selectResultFormat(List.of("binary", "json")));
+        assertEquals(TupleQueryResultFormat.JSON, GraphDbConnection.selectResultFormat(List.of(" JSON ")));
+        assertEquals(TupleQueryResultFormat.SPARQL, GraphDbConnection.selectResultFormat(List.of("application/sparql-results+xml")));
+        assertNull(GraphDbConnection.selectResultFormat(List.of()));
+        assertThrows(RepositoryConfigException.class, () -> GraphDbConnection.selectResultFormat(List.of("yaml")));
+    }
+
+    private static Set<String> queryMeasures(GraphDbConnection connection, Function<Stream<BindingSet>, Stream<BindingSet>> filter) {
+        try {
+            return connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                    Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                    stream -> filter.apply(stream).map(x -> x.getValue("element").stringValue()).collect(Collectors.toSet()));
+        } catch (QueryException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
+    /**
+     * Returns a repository whose first query preparation blocks until {@code release} is counted down.
+     */
+    private Repository blockingRepository(CountDownLatch prepared, CountDownLatch release) {
+        return new RepositoryWrapper(repository) {
+            @Override
+            public RepositoryConnection getConnection() throws RepositoryException {
+                return new RepositoryConnectionWrapper(this, super.getConnection()) {
+                    @Override
+                    public TupleQuery prepareTupleQuery(QueryLanguage ql, String query, String baseURI) throws MalformedQueryException, RepositoryException {
+                        if (prepared.getCount() > 0) {
+                            prepared.countDown();
+                            GraphDbConnectionTest.await(release);
+                        }
+                        return super.prepareTupleQuery(ql, query, baseURI);
+                    }
+                };
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.configuration.GraphDbPoolConfig;
+import at.jku.dke.ida.data.configuration.GraphDbRemoteConfig;
+import at.jku.dke.ida.data.query.QueryTemplateRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryInterruptedException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+import org.eclipse.rdf4j.repository.base.RepositoryWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphDbRouterTest {
+
+    private static final String AGG_MEASURES = "/repo_aggmeasure/getAllByCube.sparql";
+
+    private Repository repository;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutDown();
+    }
+
+    @Test
+    void testSelectLeastOutstanding() {
+        // Prepare
+        GraphDbRouter.Endpoint primary = endpoint("primary", 1);
+        GraphDbRouter.Endpoint replica = endpoint("replica", 1);
+        GraphDbRouter router = new GraphDbRouter(primary, List.of(replica), true);
+        primary.begin();
+
+        // Execute & Assert
+        for (int i = 0; i < 4; i++)
+            assertSame(replica, router.select(Set.of()));
+        replica.begin();
+        replica.begin();
+        assertSame(primary, router.select(Set.of()));
+        assertSame(primary, router.select(Set.of(replica)));
+        assertNull(router.select(Set.of(primary, replica)));
+        router.close();
+    }
+
+    @Test
+    void testSelectRoundRobin() {
+        // Prepare
+        GraphDbRouter.Endpoint primary = endpoint("primary", 1);
+        GraphDbRouter.Endpoint replica = endpoint("replica", 1);
+        GraphDbRouter router = new GraphDbRouter(primary, List.of(replica), true);
+
+        // Execute
+        GraphDbRouter.Endpoint first = router.select(Set.of());
+        GraphDbRouter.Endpoint second = router.select(Set.of());
+
+        // Assert
+        assertNotSame(first, second);
+        router.close();
+    }
+
+    @Test
+    void testSelectWithoutPrimary() {
+        // Prepare
+        GraphDbRouter.Endpoint primary = endpoint("primary", 1);
+        GraphDbRouter.Endpoint replica = endpoint("replica", 1);
+        GraphDbRouter router = new GraphDbRouter(primary, List.of(replica), false);
+
+        // Execute & Assert
+        assertEquals(List.of(replica), router.getReaders());
+        assertSame(replica, router.select(Set.of()));
+        assertSame(primary, router.getPrimary());
+        assertFalse(router.hasAlternative(Set.of(replica)));
+        router.close();
+    }
+
+    @Test
+    void testEjection() {
+        // Prepare
+        GraphDbRouter.Endpoint primary = endpoint("primary", 2);
+        GraphDbRouter.Endpoint replica = endpoint("replica", 2);
+        GraphDbRouter router = new GraphDbRouter(primary, List.of(replica), true);
+
+        // Execute
+        replica.begin();
+        replica.end("unavailable", 0);
+        boolean healthyAfterFirst = replica.isHealthy();
+        replica.begin();
+        replica.end("unavailable", 0);
+
+        // Assert
+        assertTrue(healthyAfterFirst);
+        assertFalse(replica.isHealthy());
+        for (int i = 0; i < 4; i++)
+            assertSame(primary, router.select(Set.of()));
+        assertSame(replica, router.select(Set.of(primary)));
+        assertEquals(0, meterRegistry.get("graphdb.endpoint.healthy").tag("endpoint", "replica").gauge().value());
+        assertEquals(2, meterRegistry.get("graphdb.endpoint").tags("endpoint", "replica", "outcome", "unavailable").timer().count());
+        router.close();
+    }
+
+    @Test
+    void testSuccessResetsFailures() {
+        // Prepare
+        GraphDbRouter.Endpoint replica = endpoint("replica", 2);
+
+        // Execute
+        replica.begin();
+        replica.end("unavailable", 0);
+        replica.begin();
+        replica.end("success", 0);
+        replica.begin();
+        replica.end("unavailable", 0);
+
+        // Assert
+        assertTrue(replica.isHealthy());
+        assertEquals(0, replica.getOutstanding());
+        replica.close();
+    }
+
+    @Test
+    void testIsConnectionError() {
+        // Execute & Assert
+        assertTrue(GraphDbRouter.isConnectionError(new RepositoryException(new ConnectException("refused"))));
+        assertTrue(GraphDbRouter.isConnectionError(new QueryEvaluationException(new RepositoryException(new IOException()))));
+        assertFalse(GraphDbRouter.isConnectionError(new QueryEvaluationException("syntax")));
+        assertFalse(GraphDbRouter.isConnectionError(new QueryInterruptedException(new IOException())));
+    }
+
+    @Test
+    void testFailover() throws QueryException {
+        // Prepare
+        AtomicInteger attempts = new AtomicInteger();
+        GraphDbConfig config = new GraphDbConfig();
+        config.setRemote(new GraphDbRemoteConfig());
+        config.getRemote().setReadFromPrimary(false);
+        GraphDbConnection connection = new GraphDbConnection(config, new QueryTemplateRegistry(), repository,
+                List.of(failingRepository(attempts, new RepositoryException(new ConnectException("refused"))), repository));
+
+        // Execute
+        for (int i = 0; i < 4; i++)
+            assertEquals(2, queryMeasures(connection));
+
+        // Assert
+        MeterRegistry registry = connection.getMeterRegistry();
+        assertTrue(attempts.get() >= 1);
+        assertEquals(attempts.get(), registry.get("graphdb.endpoint").tags("endpoint", "replica-0", "outcome", "unavailable").timer().count());
+        assertEquals(4, registry.get("graphdb.endpoint").tags("endpoint", "replica-1", "outcome", "success").timer().count());
+        assertEquals(4, registry.get("graphdb.query").tags("file", AGG_MEASURES, "outcome", "success").timer().count());
+        assertNull(registry.find("graphdb.endpoint").tags("endpoint", "custom").timer());
+        connection.close();
+    }
+
+    @Test
+    void testNoFailoverOnQueryError() {
+        // Prepare
+        AtomicInteger attempts = new AtomicInteger();
+        GraphDbConnection connection = new GraphDbConnection(new GraphDbConfig(), new QueryTemplateRegistry(),
+                failingRepository(attempts, new QueryEvaluationException("error")), List.of(failingRepository(attempts, new QueryEvaluationException("error"))));
+
+        // Execute
+        assertThrows(QueryException.class, () -> queryMeasures(connection));
+
+        // Assert
+        assertEquals(1, attempts.get());
+        connection.close();
+    }
+
+    @Test
+    void testAllEndpointsUnavailable() {
+        // Prepare
+        AtomicInteger attempts = new AtomicInteger();
+        GraphDbConnection connection = new GraphDbConnection(new GraphDbConfig(), new QueryTemplateRegistry(),
+                failingRepository(attempts, new RepositoryException(new ConnectException("refused"))),
+                List.of(failingRepository(attempts, new RepositoryException(new ConnectException("refused")))));
+
+        // Execute
+        assertThrows(RepositoryException.class, () -> queryMeasures(connection));
+
+        // Assert
+        assertEquals(2, attempts.get());
+        connection.close();
+    }
+
+    private GraphDbRouter.Endpoint endpoint(String name, int failureThreshold) {
+        return new GraphDbRouter.Endpoint(name, repository, new GraphDbPoolConfig(), failureThreshold, 60_000, meterRegistry);
+    }
+
+    private static int queryMeasures(GraphDbConnection connection) throws QueryException {
+        return connection.query(AGG_MEASURES, Map.of("NOTIN", ""),
+                Map.of("cube", SimpleValueFactory.getInstance().createIRI(DRUGS + "DrugPrescriptionCube")),
+                stream -> (int) stream.count());
+    }
+
+    private Repository failingRepository(AtomicInteger attempts, RuntimeException error) {
+        return new RepositoryWrapper(repository) {
+            @Override
+            public RepositoryConnection getConnection() throws RepositoryException {
+                return new RepositoryConnectionWrapper(this, super.getConnection()) {
+                    @Override
+                    public TupleQuery prepareTupleQuery(QueryLanguage ql, String query, String baseURI) throws MalformedQueryException, RepositoryException {
+                        attempts.incrementAndGet();
+                        throw error;
+                    }
+                };
+            }
+        };
+    }
+}
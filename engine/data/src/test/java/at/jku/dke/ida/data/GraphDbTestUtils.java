@@ -0,0 +1,30 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.query.QueryTemplateRegistry;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+
+import java.io.File;
+import java.io.IOException;
+
+public final class GraphDbTestUtils {
+
+    public static final String DRUGS = "http://www.example.org/drugs#";
+    public static final File DRUGS_FILE = new File(System.getProperty("ida.test.data", "../../graphdb/data/drugs.ttl"));
+
+    public static Repository createDrugsRepository() throws IOException {
+        Repository repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        try (var conn = repository.getConnection()) {
+            conn.add(DRUGS_FILE, "", RDFFormat.TURTLE);
+        }
+        return repository;
+    }
+
+    public static GraphDbConnection createConnection(GraphDbConfig config, Repository repository) {
+        return new GraphDbConnection(config, new QueryTemplateRegistry(), repository);
+    }
+}
@@ -0,0 +1,69 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.repositories.CubeRepository;
+import at.jku.dke.ida.data.repositories.LevelRepository;
+import at.jku.dke.ida.data.repositories.SimilarityRepository;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import org.eclipse.rdf4j.repository.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphDbWarmUpTest {
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private GraphDbWarmUp warmUp;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        GraphDbConfig config = new GraphDbConfig();
+        config.getSchema().setEnabled(false);
+        config.getWarmUp().setLanguages(new String[]{"de"});
+        connection = createConnection(config, repository);
+        CubeSchemaService schemaService = new CubeSchemaService(connection, config);
+        warmUp = new GraphDbWarmUp(connection, config,
+                new CubeRepository(connection, schemaService),
+                new LevelRepository(connection, schemaService),
+                new SimilarityRepository(connection));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testWarmUpRunsOnce() {
+        // Execute
+        warmUp.onContextRefreshed();
+        warmUp.onContextRefreshed();
+
+        // Assert
+        var registry = connection.getMeterRegistry();
+        assertEquals(1, registry.get("graphdb.query").tag("file", "/repo_cube/getLabelsByLang.sparql").timer().count());
+        assertTrue(registry.get("graphdb.query").tag("file", "/repo_level/getBaseLabelsByLangAndCube.sparql").timer().count() > 0);
+        assertTrue(registry.get("graphdb.query").tag("file", "/repo_level/getParentLevelLabelsByLangAndDimension.sparql").timer().count() > 0);
+    }
+
+    @Test
+    void testWarmUpContinuesAfterFailure() {
+        // Prepare
+        connection.close();
+
+        // Execute
+        int queries = warmUp.warmUp();
+
+        // Assert
+        assertEquals(0, queries);
+    }
+}
@@ -1,6 +1,7 @@
 package at.jku.dke.ida.data;
 
 import static org.junit.jupiter.api.Assertions.*;
+import org.eclipse.rdf4j.common.net.ParsedIRI;
 import org.junit.jupiter.api.Test;
 
 // https://www.ietf.org/rfc/rfc3987.txt
@@ -21,4 +22,34 @@ class IRIValidatorTest {
         assertFalse(IRIValidator.isValidAbsoluteIRI(""));
         assertFalse(IRIValidator.isValidAbsoluteIRI(null));
     }
+
+    @Test
+    void testStartsWithScheme() {
+        assertTrue(IRIValidator.startsWithScheme("http://www.jku.at/"));
+        assertTrue(IRIValidator.startsWithScheme("urn:isbn:0451450523"));
+        assertTrue(IRIValidator.startsWithScheme("a+b-c.d:x"));
+        assertFalse(IRIValidator.startsWithScheme("12.5"));
+        assertFalse(IRIValidator.startsWithScheme("-1:2"));
+        assertFalse(IRIValidator.startsWithScheme("Aspirin 500mg"));
+        assertFalse(IRIValidator.startsWithScheme("/relative:path"));
+        assertFalse(IRIValidator.startsWithScheme("all"));
+        assertFalse(IRIValidator.startsWithScheme(""));
+    }
+
+    @Test
+    void testSameResultAsParser() {
+        String[] values = {"http://www.example.org/drugs#DrugPrescriptionCube", "http://www.example.org/drugs#Drug Prescription",
+                "Note: no IRI", "1234.5", "urn:isbn:0451450523", "mailto:a@b.c", "ATC:N02BA01", "", "x:"};
+        for (int i = 0; i < 2; i++) {
+            for (String value : values) {
+                boolean expected;
+                try {
+                    expected = ParsedIRI.create(value).isAbsolute();
+                } catch (IllegalArgumentException ex) {
+                    expected = false;
+                }
+                assertEquals(expected, IRIValidator.isValidAbsoluteIRI(value), value);
+            }
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryChangeDetectorTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private Repository repository;
+    private GraphDbConfig config;
+    private GraphDbConnection connection;
+    private List<RepositoryChangedEvent> events;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        config = new GraphDbConfig();
+        connection = createConnection(config, repository);
+        events = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testCheckDetectsAddedStatement() {
+        // Prepare
+        RepositoryChangeDetector detector = new RepositoryChangeDetector(connection, config, x -> events.add((RepositoryChangedEvent) x));
+
+        // Execute
+        boolean first = detector.check();
+        boolean unchanged = detector.check();
+        add(DRUGS + "NewResource", DRUGS + "graph");
+        boolean changed = detector.check();
+
+        // Assert
+        assertFalse(first);
+        assertFalse(unchanged);
+        assertTrue(changed);
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getGeneration());
+        assertNotEquals(events.get(0).getPreviousSignal(), events.get(0).getCurrentSignal());
+        assertEquals(1, detector.getGeneration());
+    }
+
+    @Test
+    void testCheckUsesVersionGraph() {
+        // Prepare
+        config.getChangeDetection().setVersionGraph(DRUGS + "version");
+        RepositoryChangeDetector detector = new RepositoryChangeDetector(connection, config, x -> events.add((RepositoryChangedEvent) x));
+        detector.check();
+
+        // Execute
+        add(DRUGS + "NewResource", DRUGS + "graph");
+        boolean otherGraph = detector.check();
+        add(DRUGS + "Version2", DRUGS + "version");
+        boolean versionGraph = detector.check();
+
+        // Assert
+        assertFalse(otherGraph);
+        assertTrue(versionGraph);
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void testPollingContinuesAfterFailedListener() throws InterruptedException {
+        // Prepare
+        config.getChangeDetection().setEnabled(true);
+        config.getChangeDetection().setInterval(20);
+        RepositoryChangeDetector detector = new RepositoryChangeDetector(connection, config, x -> {
+            events.add((RepositoryChangedEvent) x);
+            if (events.size() == 1) throw new IllegalStateException("listener failed");
+        });
+        detector.start();
+
+        try {
+            // Execute
+            add(DRUGS + "NewResource", DRUGS + "graph");
+            awaitGeneration(detector, 1);
+            add(DRUGS + "OtherResource", DRUGS + "graph");
+            awaitGeneration(detector, 2);
+        } finally {
+            detector.stop();
+        }
+
+        // Assert
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void testChangeInvalidatesSchemaSnapshots() throws QueryException {
+        // Prepare
+        CubeSchemaService schemaService = new CubeSchemaService(connection, config);
+        RepositoryChangeDetector detector = new RepositoryChangeDetector(connection, config, x -> schemaService.onRepositoryChanged((RepositoryChangedEvent) x));
+        detector.check();
+        schemaService.getSnapshot(CUBE);
+        List<String> invalidated = new ArrayList<>();
+        schemaService.addInvalidationListener(invalidated::add);
+
+        // Execute
+        add(DRUGS + "NewResource", DRUGS + "graph");
+        detector.check();
+
+        // Assert
+        assertNull(schemaService.findSnapshot(CUBE));
+        assertEquals(1, invalidated.size());
+        assertNull(invalidated.get(0));
+    }
+
+    private static void awaitGeneration(RepositoryChangeDetector detector, long generation) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (detector.getGeneration() < generation && System.currentTimeMillis() < end)
+            Thread.sleep(10);
+        assertEquals(generation, detector.getGeneration());
+    }
+
+    private void add(String subject, String graph) {
+        IRI context = VF.createIRI(graph);
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.add(VF.createIRI(subject), RDFS.LABEL, VF.createLiteral("New"), context);
+        }
+    }
+}
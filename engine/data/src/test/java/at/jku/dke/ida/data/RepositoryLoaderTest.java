@@ -0,0 +1,141 @@
+package at.jku.dke.ida.data;
+
+import at.jku.dke.ida.data.configuration.GraphDbEmbeddedConfig;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryLoaderTest {
+
+    private static final String EX = "http://example.org/";
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+    private static final IRI WORDNET = VF.createIRI("http://dke.jku.at/ida/similarity#wordnet");
+
+    @TempDir
+    Path directory;
+
+    private Repository repository;
+    private GraphDbEmbeddedConfig config;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+
+        Path data = Files.createDirectory(directory.resolve("data"));
+        Path index = Files.createDirectory(directory.resolve("indizes"));
+        Path materialization = Files.createDirectory(directory.resolve("materialization"));
+        write(data.resolve("a.ttl"), "@prefix ex: <" + EX + "> . ex:a ex:label \"A\" .");
+        write(data.resolve("b.ttl"), "@prefix ex: <" + EX + "> . ex:b ex:label \"B\" .");
+        write(directory.resolve("wordnet.nt"), "<" + EX + "w1> <" + EX + "p> _:x .\n_:x <" + EX + "p> \"1\" .\n<" + EX + "w2> <" + EX + "p> _:x .\n");
+        write(index.resolve("index.sparql"), "INSERT DATA { GRAPH <" + EX + "index> { <" + EX + "i> <" + EX + "p> \"i\" } }");
+        write(materialization.resolve("labels.sparql"), "INSERT { GRAPH <" + EX + "labels> { ?s <" + EX + "copy> ?l } } WHERE { ?s <" + EX + "label> ?l }");
+
+        config = new GraphDbEmbeddedConfig();
+        config.setDataDirectory(data.toString());
+        config.setIndexDirectory(index.toString());
+        config.setMaterializationDirectory(materialization.toString());
+        config.setWordnetFiles(new String[]{directory.resolve("wordnet.nt").toString()});
+        config.setLoadBatchSize(1);
+        config.setLoadParallelism(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutDown();
+    }
+
+    @Test
+    void testInitialLoad() throws IOException {
+        // Execute
+        boolean changed = new RepositoryLoader(repository, config).load();
+
+        // Assert
+        assertTrue(changed);
+        try (RepositoryConnection conn = repository.getConnection()) {
+            assertEquals(1, conn.size(VF.createIRI(RepositoryLoader.NAMESPACE, "data/a.ttl")));
+            assertEquals(1, conn.size(VF.createIRI(RepositoryLoader.NAMESPACE, "data/b.ttl")));
+            assertEquals(3, conn.size(WORDNET));
+            assertEquals(2, conn.size(VF.createIRI(EX + "labels")));
+            assertEquals(1, conn.size(VF.createIRI(EX + "index")));
+            assertEquals(
+                    conn.getStatements(VF.createIRI(EX + "w1"), null, null, WORDNET).next().getObject(),
+                    conn.getStatements(VF.createIRI(EX + "w2"), null, null, WORDNET).next().getObject(),
+                    "blank nodes parsed in different chunks must be the same");
+        }
+    }
+
+    @Test
+    void testUnchangedLoad() throws IOException {
+        // Prepare
+        new RepositoryLoader(repository, config).load();
+
+        // Execute
+        boolean changed = new RepositoryLoader(repository, config).load();
+
+        // Assert
+        assertFalse(changed);
+    }
+
+    @Test
+    void testChangedAndRemovedDataFile() throws IOException {
+        // Prepare
+        new RepositoryLoader(repository, config).load();
+        write(directory.resolve("data/a.ttl"), "@prefix ex: <" + EX + "> . ex:a ex:label \"A2\" .");
+        Files.delete(directory.resolve("data/b.ttl"));
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.add(VF.createIRI(EX + "marker"), VF.createIRI(EX + "p"), VF.createLiteral("m"), WORDNET);
+        }
+
+        // Execute
+        boolean changed = new RepositoryLoader(repository, config).load();
+
+        // Assert
+        assertTrue(changed);
+        try (RepositoryConnection conn = repository.getConnection()) {
+            assertTrue(conn.hasStatement(VF.createIRI(EX + "a"), VF.createIRI(EX + "label"), VF.createLiteral("A2"), false));
+            assertFalse(conn.hasStatement(VF.createIRI(EX + "a"), VF.createIRI(EX + "label"), VF.createLiteral("A"), false));
+            assertFalse(conn.hasStatement(VF.createIRI(EX + "b"), null, null, false));
+            assertEquals(1, conn.size(VF.createIRI(EX + "labels")));
+            assertTrue(conn.hasStatement(VF.createIRI(EX + "a"), VF.createIRI(EX + "copy"), VF.createLiteral("A2"), false));
+            assertEquals(4, conn.size(WORDNET), "unchanged wordnet files must not be reloaded");
+        }
+    }
+
+    @Test
+    void testLegacyRepositoryIsReloaded() throws IOException {
+        // Prepare
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.add(directory.resolve("data/a.ttl").toFile(), "urn:base", RDFFormat.TURTLE);
+        }
+
+        // Execute
+        new RepositoryLoader(repository, config).load();
+
+        // Assert
+        try (RepositoryConnection conn = repository.getConnection()) {
+            assertFalse(conn.hasStatement(null, null, null, false, (IRI) null));
+            assertEquals(1, conn.size(VF.createIRI(RepositoryLoader.NAMESPACE, "data/a.ttl")));
+        }
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
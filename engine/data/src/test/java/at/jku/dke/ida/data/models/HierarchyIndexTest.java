@@ -0,0 +1,79 @@
+package at.jku.dke.ida.data.models;
+
+import at.jku.dke.ida.shared.IRIConstants;
+import org.apache.commons.lang3.tuple.ImmutableTriple;
+import org.apache.commons.lang3.tuple.Triple;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchyIndexTest {
+
+    private static final String TOP = IRIConstants.RESOURCE_TOP_LEVEL;
+
+    // day -> month -> year, day -> week; drug -> drugType (second dimension); all (no parent)
+    private static final Set<Triple<String, String, String>> RELATIONSHIPS = Set.of(
+            new ImmutableTriple<>("ex:Time", "ex:Day", "ex:Month"),
+            new ImmutableTriple<>("ex:Time", "ex:Month", "ex:Year"),
+            new ImmutableTriple<>("ex:Time", "ex:Day", "ex:Week"),
+            new ImmutableTriple<>("ex:Drug", "ex:Drug", "ex:DrugType"),
+            new ImmutableTriple<>("ex:Other", "ex:All", null));
+
+    @Test
+    void testGraph() {
+        // Execute
+        HierarchyIndex index = HierarchyIndex.of(RELATIONSHIPS);
+
+        // Assert
+        assertEquals(8, index.getGraph().nodes().size());
+        assertEquals(Set.of("ex:Day", "ex:Drug", "ex:All"), index.getGraph().successors(TOP));
+        assertEquals(Set.of("ex:Month", "ex:Week"), index.getGraph().successors("ex:Day"));
+        assertFalse(index.isEmpty());
+        assertTrue(index.contains("ex:Year"));
+    }
+
+    @Test
+    void testParentsAndChildren() {
+        // Prepare
+        HierarchyIndex index = HierarchyIndex.of(RELATIONSHIPS);
+
+        // Execute & Assert
+        assertTrue(index.hasParents("ex:Day"));
+        assertTrue(index.hasParents(TOP));
+        assertFalse(index.hasParents("ex:Year"));
+        assertFalse(index.hasParents("ex:All"));
+        assertTrue(index.hasChildren("ex:Month"));
+        assertFalse(index.hasChildren("ex:Day"));
+        assertFalse(index.hasChildren("ex:Unknown"));
+        assertFalse(index.hasParents("ex:Unknown"));
+    }
+
+    @Test
+    void testCycle() {
+        // Execute
+        HierarchyIndex index = HierarchyIndex.of(Set.of(
+                new ImmutableTriple<>("ex:D", "ex:A", "ex:B"),
+                new ImmutableTriple<>("ex:D", "ex:B", "ex:A")));
+
+        // Assert
+        assertTrue(index.hasParents("ex:A"));
+        assertTrue(index.hasChildren("ex:A"));
+        assertFalse(index.hasParents(TOP));
+    }
+
+    @Test
+    void testEmpty() {
+        // Execute
+        HierarchyIndex empty = HierarchyIndex.empty();
+        HierarchyIndex noRelationships = HierarchyIndex.of(Set.of());
+
+        // Assert
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.contains(TOP));
+        assertFalse(noRelationships.isEmpty());
+        assertFalse(noRelationships.hasParents(TOP));
+        assertThrows(IllegalArgumentException.class, () -> HierarchyIndex.of(null));
+    }
+}
@@ -0,0 +1,113 @@
+package at.jku.dke.ida.data.query;
+
+import at.jku.dke.ida.data.QueryException;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTemplateTest {
+
+    @Test
+    void testPlaceholders() {
+        // Execute
+        QueryTemplate template = new QueryTemplate("test", "SELECT * WHERE { <###CUBE###> ?p ?o . FILTER (lang(?o) = \"###LANG###\") . <###CUBE###> ?x ?y }");
+
+        // Assert
+        assertEquals(Set.of("CUBE", "LANG"), template.getPlaceholders());
+    }
+
+    @Test
+    void testRender() {
+        // Prepare
+        QueryTemplate template = new QueryTemplate("test", "###A###-x-###B###-###A###");
+
+        // Execute
+        String result = template.render(Map.of("A", "1$", "B", "\\2"));
+
+        // Assert
+        assertEquals("1$-x-\\2-1$", result);
+    }
+
+    @Test
+    void testRenderWithoutPlaceholders() {
+        // Prepare
+        QueryTemplate template = new QueryTemplate("test", "SELECT * WHERE { ?s ?p ?o }");
+
+        // Execute + Assert
+        assertEquals("SELECT * WHERE { ?s ?p ?o }", template.render(Map.of()));
+    }
+
+    @Test
+    void testRenderMissingParameter() {
+        // Prepare
+        QueryTemplate template = new QueryTemplate("test", "###A### ###B###");
+
+        // Execute + Assert
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of("A", "a")));
+    }
+
+    @Test
+    void testRegistryLoadsRepositoryQueries() throws QueryException {
+        // Execute
+        QueryTemplateRegistry registry = new QueryTemplateRegistry();
+
+        // Assert
+        assertTrue(registry.getNames().contains("/repo_aggmeasure/getAllByCube.sparql"));
+        assertEquals(Set.of("NOTIN"), registry.get("/repo_aggmeasure/getAllByCube.sparql").getPlaceholders());
+        for (String name : registry.getNames()) {
+            assertTrue(QueryTemplateRegistry.KNOWN_PLACEHOLDERS.containsAll(registry.get(name).getPlaceholders()), name);
+        }
+        assertThrows(QueryException.class, () -> registry.get("/repo_cube/doesNotExist.sparql"));
+    }
+
+    @Test
+    void testSubSelectsProjectBoundCube() throws QueryException {
+        // Prepare
+        QueryTemplateRegistry registry = new QueryTemplateRegistry();
+
+        for (String name : registry.getNames()) {
+            if (name.startsWith("/repo_nlp/")) continue;
+            String text = registry.get(name).getText()
+                    .replace("###LIMIT###", "1")
+                    .replace("###LEVELS###", "(<urn:x>)")
+                    .replaceAll("<###[A-Z_]+###>", "<urn:x>")
+                    .replaceAll("###[A-Z_]+###", "<urn:x>");
+
+            // Execute
+            TupleExpr expr = new SPARQLParser().parseQuery(text, null).getTupleExpr();
+
+            // Assert: a binding of ?cube only restricts a sub-select which projects ?cube
+            expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+                private int depth;
+
+                @Override
+                public void meet(Projection node) {
+                    if (depth > 0 && usesCube(node.getArg()))
+                        assertTrue(node.getProjectionElemList().getTargetNames().contains("cube"), name);
+                    depth++;
+                    super.meet(node);
+                    depth--;
+                }
+            });
+        }
+    }
+
+    private static boolean usesCube(TupleExpr expr) {
+        boolean[] found = {false};
+        expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Var node) {
+                if (!node.hasValue() && node.getName().equals("cube")) found[0] = true;
+            }
+        });
+        return found[0];
+    }
+}
@@ -0,0 +1,148 @@
+package at.jku.dke.ida.data.repositories;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.models.CubeContext;
+import at.jku.dke.ida.data.models.HierarchyIndex;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CubeRepositoryTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+    private static final String SALES = "http://www.example.org/sales#";
+    private static final String SALES_CUBE = SALES + "SalesCube";
+    private static final List<String> EXCLUSIONS = List.of(DRUGS + "SumCostsMeasure", DRUGS + "DrugDimensionDrugLevel");
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private CubeSchemaService schemaService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        GraphDbConfig config = new GraphDbConfig();
+        config.getSchema().setEnabled(false);
+        connection = createConnection(config, repository);
+        schemaService = new CubeSchemaService(connection, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testGetContextByCubeMatchesRepositories() throws QueryException {
+        // Execute
+        CubeContext context = new CubeRepository(connection, schemaService).getContextByCube(CUBE, EXCLUSIONS);
+
+        // Assert
+        assertEquals(CUBE, context.getCubeIri());
+        assertFalse(context.getAggregateMeasures().isEmpty());
+        assertFalse(context.getLevelMembers().isEmpty());
+        assertEquals(new AggregateMeasureRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getAggregateMeasures());
+        assertEquals(new AggregateMeasurePredicateRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getAggregateMeasurePredicates());
+        assertEquals(new BaseMeasurePredicateRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getBaseMeasurePredicates());
+        assertEquals(new ComparativeMeasureRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getComparativeMeasures());
+        assertEquals(new ComparativeMeasurePredicateRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getComparativeMeasurePredicates());
+        assertEquals(new JoinConditionPredicateRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getJoinConditionPredicates());
+        assertEquals(new LevelRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getLevels());
+        assertEquals(new LevelPredicateRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getLevelPredicates());
+        assertEquals(new LevelMemberRepository(connection, schemaService).getAllByCube(CUBE, EXCLUSIONS), context.getLevelMembers());
+        assertEquals(new LevelRepository(connection, schemaService).getAllRelationshipsByCube(CUBE), context.getLevelRelationships());
+        assertEquals(new LevelPredicateRepository(connection, schemaService).getAllRelationshipsByCube(CUBE), context.getLevelPredicateRelationships());
+    }
+
+    @Test
+    void testGetContextByCubeExcludesOtherCubes() throws QueryException, IOException {
+        // Prepare
+        try (var conn = repository.getConnection()) {
+            conn.add(getClass().getResourceAsStream("/sales.ttl"), "", RDFFormat.TURTLE);
+        }
+        CubeRepository cubeRepository = new CubeRepository(connection, schemaService);
+
+        // Execute
+        CubeContext drugs = cubeRepository.getContextByCube(CUBE, List.of());
+        CubeContext sales = cubeRepository.getContextByCube(SALES_CUBE, List.of());
+
+        // Assert
+        assertTrue(drugs.getAggregateMeasures().stream().noneMatch(x -> x.startsWith(SALES)));
+        assertTrue(drugs.getBaseMeasurePredicates().stream().noneMatch(x -> x.startsWith(SALES)));
+        assertTrue(drugs.getLevels().stream().noneMatch(x -> x.getRight().startsWith(SALES)));
+        assertTrue(drugs.getLevelPredicates().stream().noneMatch(x -> x.getRight().startsWith(SALES)));
+        assertTrue(drugs.getLevelMembers().stream().noneMatch(x -> x.getRight().startsWith(SALES)));
+        assertTrue(drugs.getLevelRelationships().stream().noneMatch(x -> x.getLeft().startsWith(SALES)));
+        assertEquals(Set.of(SALES + "SumRevenueMeasure"), sales.getAggregateMeasures());
+        assertEquals(Set.of(SALES + "HighRevenuePredicate"), sales.getBaseMeasurePredicates());
+        assertEquals(2, sales.getLevels().size());
+        assertEquals(Set.of(SALES + "NorthStorePredicate"), sales.getLevelPredicates().stream().map(Pair::getRight).collect(Collectors.toSet()));
+        assertEquals(2, sales.getLevelMembers().size());
+        assertTrue(sales.getJoinConditionPredicates().isEmpty());
+        assertTrue(sales.getComparativeMeasures().isEmpty());
+    }
+
+    @Test
+    void testGetContextByCubeFromSnapshot() throws QueryException {
+        // Prepare
+        GraphDbConfig config = new GraphDbConfig();
+        CubeSchemaService snapshotService = new CubeSchemaService(connection, config);
+        CubeContext queried = new CubeRepository(connection, schemaService).getContextByCube(CUBE, EXCLUSIONS);
+
+        // Execute
+        CubeContext snapshot = new CubeRepository(connection, snapshotService).getContextByCube(CUBE, EXCLUSIONS);
+
+        // Assert
+        assertEquals(queried.getAggregateMeasures(), snapshot.getAggregateMeasures());
+        assertEquals(queried.getLevels(), snapshot.getLevels());
+        assertEquals(queried.getLevelMembers(), snapshot.getLevelMembers());
+        assertEquals(queried.getLevelRelationships(), snapshot.getLevelRelationships());
+        assertFalse(snapshot.getAggregateMeasures().contains(DRUGS + "SumCostsMeasure"));
+        assertTrue(snapshotService.getSnapshot(CUBE).getContext().getAggregateMeasures().contains(DRUGS + "SumCostsMeasure"));
+    }
+
+    @Test
+    void testHierarchyIndexSharedWithSnapshot() throws QueryException {
+        // Prepare
+        GraphDbConfig config = new GraphDbConfig();
+        CubeSchemaService snapshotService = new CubeSchemaService(connection, config);
+        HierarchyIndex queried = new LevelRepository(connection, schemaService).getHierarchyIndex(CUBE);
+
+        // Execute
+        CubeContext first = new CubeRepository(connection, snapshotService).getContextByCube(CUBE, EXCLUSIONS);
+        CubeContext second = new CubeRepository(connection, snapshotService).getContextByCube(CUBE, List.of());
+
+        // Assert
+        assertSame(first.getLevelHierarchy(), second.getLevelHierarchy());
+        assertSame(snapshotService.getSnapshot(CUBE).getHierarchy("repo_level"), first.getLevelHierarchy());
+        assertSame(first.getLevelPredicateHierarchy(), new LevelPredicateRepository(connection, snapshotService).getHierarchyIndex(CUBE));
+        assertEquals(queried.getGraph(), first.getLevelHierarchy().getGraph());
+    }
+
+    @Test
+    void testGetContextByCubeUnknownCube() throws QueryException {
+        // Execute
+        CubeContext context = new CubeRepository(connection, schemaService).getContextByCube(DRUGS + "Unknown", Set.of());
+
+        // Assert
+        assertTrue(context.getAggregateMeasures().isEmpty());
+        assertTrue(context.getLevelMembers().isEmpty());
+    }
+}
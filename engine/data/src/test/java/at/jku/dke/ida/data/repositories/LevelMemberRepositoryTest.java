@@ -0,0 +1,111 @@
+package at.jku.dke.ida.data.repositories;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.models.DimensionLevelLabel;
+import at.jku.dke.ida.data.models.Page;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import org.eclipse.rdf4j.repository.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelMemberRepositoryTest {
+
+    private static final String LEVEL = DRUGS + "TimeDimensionQuarterLevel";
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private LevelMemberRepository levelMemberRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        GraphDbConfig config = new GraphDbConfig();
+        connection = createConnection(config, repository);
+        levelMemberRepository = new LevelMemberRepository(connection, new CubeSchemaService(connection, config));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testGetLabelsByLangAndLevelPaged() throws QueryException {
+        // Prepare
+        List<String> expected = levelMemberRepository.getLabelsByLangAndLevel("en", LEVEL, Collections.emptySet()).stream()
+                .map(DimensionLevelLabel::getLabel)
+                .collect(Collectors.toList());
+
+        // Execute
+        List<String> actual = new ArrayList<>();
+        int pages = 0;
+        String token = null;
+        do {
+            Page<DimensionLevelLabel> page = levelMemberRepository.getLabelsByLangAndLevel("en", LEVEL, Collections.emptySet(), token, 3);
+            assertTrue(page.getItems().size() <= 3);
+            page.getItems().forEach(x -> actual.add(x.getLabel()));
+            token = page.getNextPageToken();
+            pages++;
+        } while (token != null);
+
+        // Assert
+        assertTrue(expected.size() > 3);
+        assertEquals(expected, actual);
+        assertEquals((expected.size() + 2) / 3, pages);
+    }
+
+    @Test
+    void testGetLabelsByLangAndLevelPagedExclusions() throws QueryException {
+        // Prepare
+        Page<DimensionLevelLabel> first = levelMemberRepository.getLabelsByLangAndLevel("en", LEVEL, Collections.emptySet(), null, 2);
+        String excluded = first.getItems().get(0).getUri();
+
+        // Execute
+        Page<DimensionLevelLabel> page = levelMemberRepository.getLabelsByLangAndLevel("en", LEVEL, Set.of(excluded), null, 2);
+
+        // Assert
+        assertTrue(first.hasNext());
+        assertEquals(first.getItems().get(1), page.getItems().get(0));
+        assertTrue(page.getItems().stream().noneMatch(x -> x.getUri().equals(excluded)));
+    }
+
+    @Test
+    void testSearchLabelsByLangAndLevel() throws QueryException {
+        // Execute
+        Page<DimensionLevelLabel> prefix = levelMemberRepository.searchLabelsByLangAndLevel("en", LEVEL, "2019-q", true, null, 10);
+        Page<DimensionLevelLabel> contains = levelMemberRepository.searchLabelsByLangAndLevel("en", LEVEL, "QUARTER1", false, null, 10);
+        Page<DimensionLevelLabel> none = levelMemberRepository.searchLabelsByLangAndLevel("en", LEVEL, "quarter1", true, null, 10);
+
+        // Assert
+        assertEquals(List.of("2019-Quarter1", "2019-Quarter2", "2019-Quarter3", "2019-Quarter4"),
+                prefix.getItems().stream().map(DimensionLevelLabel::getLabel).collect(Collectors.toList()));
+        assertFalse(prefix.hasNext());
+        assertFalse(contains.getItems().isEmpty());
+        assertTrue(contains.getItems().stream().allMatch(x -> x.getLabel().endsWith("Quarter1")));
+        assertTrue(none.getItems().isEmpty());
+    }
+
+    @Test
+    void testGetLabelsByLangAndLevelInvalidArguments() {
+        // Execute + Assert
+        assertThrows(IllegalArgumentException.class, () -> levelMemberRepository.getLabelsByLangAndLevel("en", LEVEL, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> levelMemberRepository.getLabelsByLangAndLevel("en", LEVEL, null, "not a token", 5));
+        assertThrows(IllegalArgumentException.class, () -> levelMemberRepository.searchLabelsByLangAndLevel("en", LEVEL, " ", false, null, 5));
+    }
+}
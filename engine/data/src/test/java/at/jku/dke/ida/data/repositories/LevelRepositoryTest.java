@@ -0,0 +1,109 @@
+package at.jku.dke.ida.data.repositories;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.QueryFutures;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.models.HierarchyIndex;
+import at.jku.dke.ida.data.models.Label;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import at.jku.dke.ida.shared.models.DimensionQualification;
+import org.eclipse.rdf4j.repository.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelRepositoryTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private LevelRepository queried;
+    private LevelRepository indexed;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        GraphDbConfig config = new GraphDbConfig();
+        connection = createConnection(config, repository);
+        indexed = new LevelRepository(connection, new CubeSchemaService(connection, config));
+
+        GraphDbConfig disabled = new GraphDbConfig();
+        disabled.getSchema().setEnabled(false);
+        queried = new LevelRepository(connection, new CubeSchemaService(connection, disabled));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testRollUpAndDrillDownUseHierarchy() throws QueryException {
+        for (String level : List.of("DrugDimensionDrugLevel", "DrugDimensionATC3Level", "DrugDimensionATC1Level")) {
+            // Prepare
+            DimensionQualification dq = new DimensionQualification(DRUGS + "DrugDimension");
+            dq.setGranularityLevel(DRUGS + level);
+            List<DimensionQualification> dqs = List.of(dq);
+
+            // Execute & Assert
+            assertEquals(uris(queried.getDimensionsWhereRollUpPossible("en", CUBE, dqs)), uris(indexed.getDimensionsWhereRollUpPossible("en", CUBE, dqs)), level);
+            assertEquals(uris(queried.getDimensionsWhereDrillDownPossible("en", CUBE, dqs)), uris(indexed.getDimensionsWhereDrillDownPossible("en", CUBE, dqs)), level);
+        }
+    }
+
+    @Test
+    void testAsyncVariantsMatch() throws QueryException {
+        // Execute
+        var all = queried.getAllByCubeAsync(CUBE, List.of());
+        var relationships = queried.getAllRelationshipsByCubeAsync(CUBE);
+        QueryFutures.joinAll(all, relationships);
+
+        // Assert
+        assertEquals(queried.getAllByCube(CUBE), QueryFutures.join(all));
+        assertEquals(queried.getAllRelationshipsByCube(CUBE), QueryFutures.join(relationships));
+    }
+
+    @Test
+    void testHierarchyIndex() throws QueryException {
+        // Execute & Assert
+        assertTrue(indexed.getHierarchyIndex(CUBE).hasParents(DRUGS + "DrugDimensionDrugLevel"));
+        assertTrue(queried.getHierarchyIndex(CUBE).hasParents(DRUGS + "DrugDimensionDrugLevel"));
+        assertTrue(indexed.getHierarchyIndex(CUBE).hasChildren(DRUGS + "DrugDimensionATC1Level"));
+        assertTrue(queried.getHierarchyIndex(CUBE).hasChildren(DRUGS + "DrugDimensionATC1Level"));
+        assertFalse(indexed.getHierarchyIndex(CUBE).hasParents(DRUGS + "DrugDimensionATC1Level"));
+        assertSame(indexed.getHierarchyIndex(CUBE), indexed.getHierarchyIndex(CUBE));
+    }
+
+    @Test
+    void testHierarchyIndexCachedWithoutSnapshots() throws QueryException {
+        // Prepare
+        HierarchyIndex first = queried.getHierarchyIndex(CUBE);
+
+        // Execute
+        HierarchyIndex cached = queried.getHierarchyIndex(CUBE);
+        queried.onRepositoryChanged(new RepositoryChangedEvent(this, 1, "1", "2"));
+        HierarchyIndex reloaded = queried.getHierarchyIndex(CUBE);
+
+        // Assert
+        assertSame(first, cached);
+        assertNotSame(first, reloaded);
+        assertEquals(first.getGraph(), reloaded.getGraph());
+    }
+
+    private static List<String> uris(List<Label> labels) {
+        return labels.stream().map(Label::getUri).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,159 @@
+package at.jku.dke.ida.data.repositories;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.schema.CubeSchemaService;
+import at.jku.dke.ida.data.similarity.SimilarityIndexService;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarityRepositoryCacheTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private GraphDbConfig config;
+    private CubeSchemaService schemaService;
+    private SimilarityRepository similarityRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        try (var conn = repository.getConnection()) {
+            conn.add(getClass().getResourceAsStream("/wordnet-sample.trig"), "", RDFFormat.TRIG);
+        }
+        config = new GraphDbConfig();
+        config.getSimilarity().setLocal(true);
+        config.getSimilarity().setDimension(64);
+        config.getSimilarity().setSeeds(4);
+        connection = createConnection(config, repository);
+        schemaService = new CubeSchemaService(connection, config);
+        similarityRepository = new SimilarityRepository(connection, config, new SimilarityIndexService(connection, config), schemaService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testTermSimilarityCached() throws QueryException {
+        // Prepare
+        List<CubeSimilarity> first = similarityRepository.getTermSimilarity("en", "quantity");
+
+        // Execute
+        List<CubeSimilarity> second = similarityRepository.getTermSimilarity("en", " Quantity ");
+
+        // Assert
+        assertEquals(first.size(), second.size());
+        assertEquals(first.get(0).getElement(), second.get(0).getElement());
+        assertEquals(first.get(0).getScore(), second.get(0).getScore());
+        assertEquals(" Quantity ", second.get(0).getTerm());
+        assertEquals(1, similarityRepository.getSimilarityCacheStats().missCount());
+        assertEquals(1, similarityRepository.getSimilarityCacheStats().hitCount());
+    }
+
+    @Test
+    void testTermNormalizedBeforeQuery() throws QueryException {
+        // Prepare
+        List<CubeSimilarity> first = similarityRepository.getTermSimilarity("en", " Quantity ");
+        similarityRepository.invalidateSimilarityCache();
+
+        // Execute
+        List<CubeSimilarity> second = similarityRepository.getTermSimilarity("en", "quantity");
+
+        // Assert
+        assertFalse(first.isEmpty());
+        assertEquals(" Quantity ", first.get(0).getTerm());
+        assertEquals(first.stream().map(CubeSimilarity::getElement).collect(Collectors.toList()),
+                second.stream().map(CubeSimilarity::getElement).collect(Collectors.toList()));
+        assertEquals(first.stream().map(CubeSimilarity::getScore).collect(Collectors.toList()),
+                second.stream().map(CubeSimilarity::getScore).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testCachedResultsAreCopies() throws QueryException {
+        // Prepare
+        List<CubeSimilarity> first = similarityRepository.getTermSimilarity("en", "quantity");
+        double score = first.get(0).getScore();
+
+        // Execute
+        first.get(0).setScore(0);
+        first.clear();
+        List<CubeSimilarity> second = similarityRepository.getTermSimilarity("en", "quantity");
+
+        // Assert
+        assertFalse(second.isEmpty());
+        assertEquals(score, second.get(0).getScore());
+    }
+
+    @Test
+    void testKeyContainsKindAndCube() throws QueryException {
+        // Execute
+        similarityRepository.getTermSimilarity("en", "cost");
+        similarityRepository.getTermSimilarity("en", "cost", CUBE);
+        similarityRepository.getWordSimilarity("en", "cost");
+        similarityRepository.getWordSimilarity("en", "cost", CUBE);
+
+        // Assert
+        assertEquals(4, similarityRepository.getSimilarityCacheStats().missCount());
+        assertEquals(4, similarityRepository.getSimilarityCacheSize());
+    }
+
+    @Test
+    void testSchemaRefreshInvalidatesCube() throws QueryException {
+        // Prepare
+        similarityRepository.getTermSimilarity("en", "cost");
+        similarityRepository.getTermSimilarity("en", "cost", CUBE);
+        similarityRepository.getTermSimilarity("en", "cost", "http://example.org/OtherCube");
+
+        // Execute
+        schemaService.refresh(CUBE);
+
+        // Assert
+        assertEquals(1, similarityRepository.getSimilarityCacheSize());
+    }
+
+    @Test
+    void testSchemaInvalidateAll() throws QueryException {
+        // Prepare
+        similarityRepository.getTermSimilarity("en", "cost", "http://example.org/OtherCube");
+
+        // Execute
+        schemaService.invalidateAll();
+
+        // Assert
+        assertEquals(0, similarityRepository.getSimilarityCacheSize());
+    }
+
+    @Test
+    void testDisabledCache() throws QueryException {
+        // Prepare
+        config.getSimilarityCache().setMaxWeight(0);
+        SimilarityRepository uncached = new SimilarityRepository(connection, config, new SimilarityIndexService(connection, config));
+
+        // Execute
+        uncached.getTermSimilarity("en", "quantity");
+        List<CubeSimilarity> result = uncached.getTermSimilarity("en", "quantity");
+
+        // Assert
+        assertFalse(result.isEmpty());
+        assertEquals(0, uncached.getSimilarityCacheStats().hitCount());
+    }
+}
@@ -0,0 +1,127 @@
+package at.jku.dke.ida.data.repositories;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.models.Label;
+import org.eclipse.rdf4j.repository.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimpleRepositoryTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+    private static final String MEASURE = DRUGS + "SumCostsMeasure";
+    private static final String UNKNOWN = DRUGS + "Unknown";
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private SimpleRepository simpleRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        GraphDbConfig config = new GraphDbConfig();
+        connection = createConnection(config, repository);
+        simpleRepository = new SimpleRepository(connection, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testGetLabelsByLangAndIrisCachesLabels() throws QueryException {
+        // Prepare
+        Map<String, Label> first = simpleRepository.getLabelsByLangAndIris("en", List.of(CUBE, MEASURE, UNKNOWN));
+
+        // Execute
+        Map<String, Label> second = simpleRepository.getLabelsByLangAndIris("en", Set.of(CUBE, MEASURE, UNKNOWN));
+
+        // Assert
+        assertEquals(Set.of(CUBE, MEASURE), first.keySet());
+        assertEquals(first, second);
+        assertEquals(3, simpleRepository.getLabelCacheStats().missCount());
+        assertEquals(3, simpleRepository.getLabelCacheStats().hitCount());
+        assertEquals(3, simpleRepository.getLabelCacheSize());
+    }
+
+    @Test
+    void testGetLabelsByLangAndIrisFetchesOnlyMisses() throws QueryException {
+        // Prepare
+        simpleRepository.getLabelsByLangAndIris("de", List.of(CUBE));
+
+        // Execute
+        Map<String, Label> result = simpleRepository.getLabelsByLangAndIris("de", List.of(CUBE, MEASURE));
+
+        // Assert
+        assertEquals(Set.of(CUBE, MEASURE), result.keySet());
+        assertEquals("de", result.get(CUBE).getLang());
+        assertEquals(1, simpleRepository.getLabelCacheStats().hitCount());
+        assertEquals(2, simpleRepository.getLabelCacheStats().missCount());
+    }
+
+    @Test
+    void testGetLabelsByLangAndIrisSeparatesLanguages() throws QueryException {
+        // Execute
+        Label en = simpleRepository.getLabelsByLangAndIris("en", List.of(CUBE)).get(CUBE);
+        Label de = simpleRepository.getLabelsByLangAndIris("de", List.of(CUBE)).get(CUBE);
+
+        // Assert
+        assertEquals("Medikamentenrezept", de.getLabel());
+        assertNotEquals(en.getLabel(), de.getLabel());
+    }
+
+    @Test
+    void testGetLabelByLangAndIriNegativeCaching() throws QueryException {
+        // Execute
+        Label first = simpleRepository.getLabelByLangAndIri("en", UNKNOWN);
+        Label second = simpleRepository.getLabelByLangAndIri("en", UNKNOWN);
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        assertEquals(1, simpleRepository.getLabelCacheStats().hitCount());
+    }
+
+    @Test
+    void testInvalidateLabelCache() throws QueryException {
+        // Prepare
+        simpleRepository.getLabelsByLangAndIris("en", List.of(CUBE));
+
+        // Execute
+        simpleRepository.invalidateLabelCache();
+
+        // Assert
+        assertEquals(0, simpleRepository.getLabelCacheSize());
+    }
+
+    @Test
+    void testDisabledCache() throws QueryException {
+        // Prepare
+        GraphDbConfig config = new GraphDbConfig();
+        config.getLabelCache().setMaxWeight(0);
+        SimpleRepository uncached = new SimpleRepository(connection, config);
+
+        // Execute
+        uncached.getLabelsByLangAndIris("en", List.of(CUBE));
+        Map<String, Label> result = uncached.getLabelsByLangAndIris("en", List.of(CUBE));
+
+        // Assert
+        assertEquals(Set.of(CUBE), result.keySet());
+        assertEquals(0, uncached.getLabelCacheStats().hitCount());
+    }
+}
@@ -0,0 +1,165 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.RepositoryChangedEvent;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.similarity.MappingIndex;
+import org.eclipse.rdf4j.repository.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CubeSchemaFileTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+
+    @TempDir
+    Path tempDir;
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private CubeSchemaLoader loader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        connection = createConnection(new GraphDbConfig(), repository);
+        loader = new CubeSchemaLoader(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testWriteAndRead() throws QueryException, IOException {
+        // Prepare
+        Path path = tempDir.resolve("schema.bin");
+        CubeSchemaSnapshot expected = loader.loadSnapshot(CUBE, 1);
+        expected.addLabels(loader.loadLabels(CUBE, "en"));
+        MappingIndex mappings = new MappingIndex.Builder()
+                .add("doc1", CUBE, DRUGS + "DrugDimension", DRUGS + "DrugDimensionDrugLevel", "Level", 0.5)
+                .add("doc1", CUBE, null, DRUGS + "SumCostsMeasure", "AggregateMeasure", 0.25)
+                .add("doc2", CUBE, null, DRUGS + "SumCostsMeasure", "AggregateMeasure", 1)
+                .build();
+
+        // Execute
+        CubeSchemaFile.write(path, "fingerprint", List.of(expected), mappings);
+        CubeSchemaFile file = CubeSchemaFile.open(path);
+        CubeSchemaSnapshot actual = file.readSnapshot(CUBE, 2);
+
+        // Assert
+        assertEquals("fingerprint", file.getSource());
+        assertEquals(Set.of(CUBE), file.getCubes());
+        assertTrue(file.hasMappings());
+        assertEquals(2, actual.getVersion());
+        assertEquals(expected.getContext().getAggregateMeasures(), actual.getContext().getAggregateMeasures());
+        assertEquals(expected.getContext().getLevels(), actual.getContext().getLevels());
+        assertEquals(expected.getLevelMembers(), actual.getLevelMembers());
+        assertEquals(expected.getRelationships("repo_level"), actual.getRelationships("repo_level"));
+        assertEquals(expected.getRelationships("repo_levelpred"), actual.getRelationships("repo_levelpred"));
+
+        CubeSchemaLabels expectedLabels = expected.findLabels("en");
+        CubeSchemaLabels actualLabels = actual.findLabels("en");
+        assertNotNull(actualLabels);
+        assertNull(actual.findLabels("de"));
+        for (String folder : CubeSchemaLoader.SIMPLE_FOLDERS)
+            assertEquals(expectedLabels.getLabels(folder), actualLabels.getLabels(folder), folder);
+        assertEquals(expectedLabels.getDimensionLabels("repo_levelpred"), actualLabels.getDimensionLabels("repo_levelpred"));
+        assertEquals(expectedLabels.getLevelMemberLabels(), actualLabels.getLevelMemberLabels());
+        assertEquals(toList(mappings), toList(file.readMappings()));
+    }
+
+    @Test
+    void testOpenInvalidFile() throws IOException {
+        // Prepare
+        Path wrongMagic = Files.write(tempDir.resolve("magic.bin"), ByteBuffer.allocate(16).putInt(42).array());
+        Path wrongVersion = tempDir.resolve("version.bin");
+        CubeSchemaFile.write(wrongVersion, "", List.of(), null);
+        byte[] bytes = Files.readAllBytes(wrongVersion);
+        ByteBuffer.wrap(bytes).putInt(4, CubeSchemaFile.FORMAT_VERSION + 1);
+        Files.write(wrongVersion, bytes);
+
+        // Execute + Assert
+        assertThrows(IOException.class, () -> CubeSchemaFile.open(wrongMagic));
+        assertThrows(IOException.class, () -> CubeSchemaFile.open(wrongVersion));
+        assertThrows(IOException.class, () -> CubeSchemaFile.open(tempDir.resolve("missing.bin")));
+    }
+
+    @Test
+    void testServiceReadsFileWithoutGraphDb() throws QueryException, IOException {
+        // Prepare
+        Path path = tempDir.resolve("schema.bin");
+        GraphDbConfig config = new GraphDbConfig();
+        config.getSchema().setFile(path.toString());
+        CubeSchemaService schemaService = new CubeSchemaService(connection, config);
+        CubeSchemaExporter exporter = new CubeSchemaExporter(connection, config, schemaService, null);
+        CubeSchemaSnapshot expected = schemaService.getSnapshot(CUBE);
+
+        // Execute
+        exporter.exportIfOutdated();
+        connection.close();
+        repository.shutDown();
+        CubeSchemaService restarted = new CubeSchemaService(connection, config);
+        CubeSchemaSnapshot actual = restarted.getSnapshot(CUBE);
+
+        // Assert
+        assertNotNull(schemaService.getFile());
+        assertNotNull(restarted.getFile());
+        assertEquals(expected.getContext().getLevels(), actual.getContext().getLevels());
+        assertEquals(expected.getLevelMembers(), actual.getLevelMembers());
+        assertFalse(restarted.getLabels(CUBE, "de").getLabels("repo_aggmeasure").isEmpty());
+    }
+
+    @Test
+    void testServiceReadsOutdatedFileWithoutGraphDb() throws QueryException, IOException {
+        // Prepare
+        Path path = tempDir.resolve("schema.bin");
+        GraphDbConfig config = new GraphDbConfig();
+        config.getSchema().setFile(path.toString());
+        config.getSchema().setExport(false);
+        CubeSchemaService schemaService = new CubeSchemaService(connection, config);
+        new CubeSchemaExporter(connection, config, schemaService, null).export(path);
+        schemaService.importFile(path);
+        CubeSchemaSnapshot expected = schemaService.getSnapshot(CUBE);
+
+        // Execute
+        schemaService.onRepositoryChanged(new RepositoryChangedEvent(this, 1, "1", "2"));
+        CubeSchemaFile outdated = schemaService.getFile();
+        CubeSchemaSnapshot loaded = schemaService.getSnapshot(CUBE);
+        schemaService.invalidateAll();
+        connection.close();
+        repository.shutDown();
+        CubeSchemaSnapshot actual = schemaService.getSnapshot(CUBE);
+
+        // Assert
+        assertNull(outdated);
+        assertNotNull(schemaService.getFallbackFile());
+        assertEquals(expected.getLevelMembers(), loaded.getLevelMembers());
+        assertEquals(expected.getLevelMembers(), actual.getLevelMembers());
+    }
+
+    private static List<String> toList(MappingIndex index) {
+        List<String> list = new ArrayList<>();
+        index.forEach((documentId, cube, dimension, element, type, score) ->
+                list.add(String.join("|", documentId, cube, String.valueOf(dimension), element, type, String.valueOf(score))));
+        return list;
+    }
+}
@@ -0,0 +1,169 @@
+package at.jku.dke.ida.data.schema;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.repositories.*;
+import at.jku.dke.ida.data.repositories.base.CubeElementRepository;
+import org.eclipse.rdf4j.repository.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CubeSchemaServiceTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+
+    private Repository repository;
+    private GraphDbConnection snapshotConnection;
+    private GraphDbConnection queryConnection;
+    private CubeSchemaService snapshotService;
+    private CubeSchemaService queryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+
+        GraphDbConfig snapshotConfig = new GraphDbConfig();
+        snapshotConnection = createConnection(snapshotConfig, repository);
+        snapshotService = new CubeSchemaService(snapshotConnection, snapshotConfig);
+
+        GraphDbConfig queryConfig = new GraphDbConfig();
+        queryConfig.getSchema().setEnabled(false);
+        queryConnection = createConnection(queryConfig, repository);
+        queryService = new CubeSchemaService(queryConnection, queryConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotConnection.close();
+        queryConnection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testSimpleRepositoriesMatchQueries() throws QueryException {
+        assertMatchesQueries(AggregateMeasureRepository::new, DRUGS + "SumCostsMeasure");
+        assertMatchesQueries(AggregateMeasurePredicateRepository::new, null);
+        assertMatchesQueries(BaseMeasurePredicateRepository::new, null);
+        assertMatchesQueries(ComparativeMeasureRepository::new, null);
+        assertMatchesQueries(ComparativeMeasurePredicateRepository::new, null);
+        assertMatchesQueries(JoinConditionPredicateRepository::new, null);
+    }
+
+    @Test
+    void testDimensionRepositoriesMatchQueries() throws QueryException {
+        // Prepare
+        LevelRepository snapshotLevels = new LevelRepository(snapshotConnection, snapshotService);
+        LevelRepository queryLevels = new LevelRepository(queryConnection, queryService);
+        LevelPredicateRepository snapshotPredicates = new LevelPredicateRepository(snapshotConnection, snapshotService);
+        LevelPredicateRepository queryPredicates = new LevelPredicateRepository(queryConnection, queryService);
+
+        // Execute + Assert
+        assertFalse(snapshotLevels.getAllByCube(CUBE).isEmpty());
+        assertEquals(queryLevels.getAllByCube(CUBE), snapshotLevels.getAllByCube(CUBE));
+        assertEquals(queryLevels.getAllByCube(CUBE, Set.of(DRUGS + "DrugDimensionDrugLevel")),
+                snapshotLevels.getAllByCube(CUBE, Set.of(DRUGS + "DrugDimensionDrugLevel")));
+        assertEquals(queryLevels.getAllRelationshipsByCube(CUBE), snapshotLevels.getAllRelationshipsByCube(CUBE));
+        assertEquals(queryPredicates.getAllByCube(CUBE), snapshotPredicates.getAllByCube(CUBE));
+        assertEquals(queryPredicates.getAllRelationshipsByCube(CUBE), snapshotPredicates.getAllRelationshipsByCube(CUBE));
+        assertEquals(queryPredicates.getLabelsByLangAndCube("en", CUBE), snapshotPredicates.getLabelsByLangAndCube("en", CUBE));
+    }
+
+    @Test
+    void testLevelMemberRepositoryMatchesQueries() throws QueryException {
+        // Prepare
+        LevelMemberRepository snapshotRepository = new LevelMemberRepository(snapshotConnection, snapshotService);
+        LevelMemberRepository queryRepository = new LevelMemberRepository(queryConnection, queryService);
+
+        // Execute + Assert
+        assertFalse(snapshotRepository.getAllByCube(CUBE).isEmpty());
+        assertEquals(queryRepository.getAllByCube(CUBE), snapshotRepository.getAllByCube(CUBE));
+        assertEquals(queryRepository.getAllByCubeAndDimension(CUBE, DRUGS + "DrugDimension"),
+                snapshotRepository.getAllByCubeAndDimension(CUBE, DRUGS + "DrugDimension"));
+        assertEquals(queryRepository.getAllByCubeAndLevel(CUBE, DRUGS + "DrugDimensionATC5Level"),
+                snapshotRepository.getAllByCubeAndLevel(CUBE, DRUGS + "DrugDimensionATC5Level"));
+        assertEquals(queryRepository.getLabelsByLangAndCube("de", CUBE), snapshotRepository.getLabelsByLangAndCube("de", CUBE));
+    }
+
+    @Test
+    void testRefresh() throws QueryException {
+        // Prepare
+        CubeSchemaSnapshot first = snapshotService.getSnapshot(CUBE);
+        snapshotService.getLabels(CUBE, "en");
+
+        // Execute
+        CubeSchemaSnapshot second = snapshotService.refresh(CUBE);
+
+        // Assert
+        assertTrue(second.getVersion() > first.getVersion());
+        assertSame(second, snapshotService.getSnapshot(CUBE));
+        assertNull(second.findLabels("en"));
+        assertEquals(first.getLevelMembers(), second.getLevelMembers());
+    }
+
+    @Test
+    void testInvalidate() throws QueryException {
+        // Prepare
+        CubeSchemaSnapshot first = snapshotService.getSnapshot(CUBE);
+
+        // Execute
+        snapshotService.invalidate(CUBE);
+
+        // Assert
+        assertNull(snapshotService.findSnapshot(CUBE));
+        assertNotSame(first, snapshotService.getSnapshot(CUBE));
+        assertEquals(Set.of(CUBE), snapshotService.getLoadedCubes());
+    }
+
+    @Test
+    void testSnapshotIgnoresQueryLimits() throws QueryException {
+        // Prepare
+        GraphDbConfig limitedConfig = new GraphDbConfig();
+        limitedConfig.getQuery().setMaxResults(1);
+        GraphDbConnection limitedConnection = createConnection(limitedConfig, repository);
+        CubeSchemaService limitedService = new CubeSchemaService(limitedConnection, limitedConfig);
+
+        try {
+            // Execute
+            CubeSchemaSnapshot snapshot = limitedService.getSnapshot(CUBE);
+            CubeSchemaLabels labels = limitedService.getLabels(CUBE, "en");
+
+            // Assert
+            assertEquals(snapshotService.getSnapshot(CUBE).getLevelMembers(), snapshot.getLevelMembers());
+            assertTrue(snapshot.getLevelMembers().size() > 1);
+            assertEquals(snapshotService.getLabels(CUBE, "en").getLevelMemberLabels(), labels.getLevelMemberLabels());
+        } finally {
+            limitedConnection.close();
+        }
+    }
+
+    @Test
+    void testInvalidCubeIri() {
+        // Execute + Assert
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.getSnapshot("drugs"));
+    }
+
+    private <T extends CubeElementRepository<String, ?>> void assertMatchesQueries(
+            BiFunction<GraphDbConnection, CubeSchemaService, T> constructor, String exclusion) throws QueryException {
+        T snapshotRepository = constructor.apply(snapshotConnection, snapshotService);
+        T queryRepository = constructor.apply(queryConnection, queryService);
+        List<String> exclusions = exclusion == null ? List.of() : List.of(exclusion);
+
+        for (String lang : List.of("en", "de")) {
+            assertEquals(queryRepository.getLabelsByLangAndCube(lang, CUBE, exclusions),
+                    snapshotRepository.getLabelsByLangAndCube(lang, CUBE, exclusions));
+        }
+        assertEquals(queryRepository.getAllByCube(CUBE, exclusions), snapshotRepository.getAllByCube(CUBE, exclusions));
+    }
+}
@@ -0,0 +1,110 @@
+package at.jku.dke.ida.data.similarity;
+
+import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.models.DimensionSimilarity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappingIndexTest {
+
+    private static final String TYPE = "http://purl.org/linked-data/cube#MeasureProperty";
+
+    private static MappingIndex createIndex() {
+        return new MappingIndex.Builder()
+                .add("wn:quantity", "ex:Cube", null, "ex:Quantity", TYPE, 0.9)
+                .add("wn:amount", "ex:Cube", null, "ex:Quantity", TYPE, 0.6)
+                .add("wn:cost", "ex:Cube", null, "ex:Costs", TYPE, 0.8)
+                .add("wn:cost", "ex:Other", null, "ex:OtherCosts", TYPE, 0.7)
+                .add("wn:drug", "ex:Cube", "ex:DrugDimension", "ex:DrugLevel", TYPE, 0.5)
+                .build();
+    }
+
+    @Test
+    void testBuild() {
+        // Execute
+        MappingIndex index = createIndex();
+
+        // Assert
+        assertEquals(4, index.getDocumentCount());
+        assertEquals(5, index.getMappingCount());
+        assertEquals(4, index.getGroupCount());
+    }
+
+    @Test
+    void testBuildNull() {
+        // Prepare
+        MappingIndex.Builder builder = new MappingIndex.Builder();
+
+        // Execute & Assert
+        assertThrows(IllegalArgumentException.class, () -> builder.add(null, "ex:Cube", null, "ex:E", TYPE, 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.add("wn:d", "ex:Cube", null, null, TYPE, 1));
+    }
+
+    @Test
+    void testAddKeepsMaximum() {
+        // Prepare
+        MappingIndex index = createIndex();
+
+        // Execute
+        List<CubeSimilarity> result = index.newScores(null)
+                .add("wn:amount", 1.0)
+                .add("wn:quantity", 0.5)
+                .add("wn:unknown", 1.0)
+                .toSimilarities("quantity");
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("ex:Quantity", result.get(0).getElement());
+        assertEquals("ex:Cube", result.get(0).getCube());
+        assertEquals(0.6, result.get(0).getScore(), 1e-6);
+    }
+
+    @Test
+    void testCubeFilter() {
+        // Prepare
+        MappingIndex index = createIndex();
+
+        // Execute
+        List<CubeSimilarity> all = index.newScores(null).add("wn:cost", 1).toSimilarities("cost");
+        List<CubeSimilarity> other = index.newScores("ex:Other").add("wn:cost", 1).toSimilarities("cost");
+        List<CubeSimilarity> unknown = index.newScores("ex:Unknown").add("wn:cost", 1).toSimilarities("cost");
+
+        // Assert
+        assertEquals(2, all.size());
+        assertEquals("ex:Costs", all.get(0).getElement());
+        assertEquals(1, other.size());
+        assertEquals("ex:OtherCosts", other.get(0).getElement());
+        assertTrue(unknown.isEmpty());
+    }
+
+    @Test
+    void testDimensionSimilarity() {
+        // Execute
+        List<CubeSimilarity> result = createIndex().newScores(null).add("wn:drug", 0.8).toSimilarities("drug");
+
+        // Assert
+        assertTrue(result.get(0) instanceof DimensionSimilarity);
+        assertEquals("ex:DrugDimension", ((DimensionSimilarity) result.get(0)).getDimension());
+        assertEquals(0.4, result.get(0).getScore(), 1e-6);
+    }
+
+    @Test
+    void testMultiplyByElement() {
+        // Prepare
+        MappingIndex index = createIndex();
+        MappingIndex.Scores first = index.newScores(null).add("wn:quantity", 1).add("wn:cost", 1);
+        MappingIndex.Scores second = index.newScores(null).add("wn:amount", 0.5);
+
+        // Execute
+        List<CubeSimilarity> result = first.multiplyByElement(second).toSimilarities("quantity amount");
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("ex:Quantity", result.get(0).getElement());
+        assertEquals(0.9 * 0.3, result.get(0).getScore(), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> first.multiplyByElement(null));
+    }
+}
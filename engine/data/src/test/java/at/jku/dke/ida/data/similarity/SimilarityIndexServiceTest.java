@@ -0,0 +1,101 @@
+package at.jku.dke.ida.data.similarity;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.models.DimensionSimilarity;
+import at.jku.dke.ida.data.repositories.SimilarityRepository;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarityIndexServiceTest {
+
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private SimilarityRepository similarityRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = createDrugsRepository();
+        try (var conn = repository.getConnection()) {
+            conn.add(getClass().getResourceAsStream("/wordnet-sample.trig"), "", RDFFormat.TRIG);
+        }
+        GraphDbConfig config = new GraphDbConfig();
+        config.getSimilarity().setLocal(true);
+        config.getSimilarity().setDimension(64);
+        config.getSimilarity().setSeeds(4);
+        connection = createConnection(config, repository);
+        similarityRepository = new SimilarityRepository(connection, config, new SimilarityIndexService(connection, config));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testTermSimilarity() throws QueryException {
+        // Execute
+        List<CubeSimilarity> result = similarityRepository.getTermSimilarity("en", "quantities");
+
+        // Assert
+        CubeSimilarity first = result.get(0);
+        assertEquals(DRUGS + "SumQuantityMeasure", first.getElement());
+        assertEquals(CUBE, first.getCube());
+        assertEquals("quantities", first.getTerm());
+        assertFalse(first instanceof DimensionSimilarity);
+        assertTrue(first.getScore() > 0 && first.getScore() <= 0.9);
+        assertEquals(1, result.stream().filter(x -> x.getElement().equals(DRUGS + "SumQuantityMeasure")).count());
+    }
+
+    @Test
+    void testTermSimilarityWithCube() throws QueryException {
+        // Execute
+        List<CubeSimilarity> all = similarityRepository.getTermSimilarity("en", "cost");
+        List<CubeSimilarity> cube = similarityRepository.getTermSimilarity("en", "cost", CUBE);
+
+        // Assert
+        assertTrue(all.stream().anyMatch(x -> x.getCube().equals("http://example.org/OtherCube")));
+        assertTrue(cube.stream().allMatch(x -> x.getCube().equals(CUBE)));
+        assertEquals(DRUGS + "SumCostsMeasure", cube.get(0).getElement());
+    }
+
+    @Test
+    void testTermSimilarityDimension() throws QueryException {
+        // Execute
+        List<CubeSimilarity> result = similarityRepository.getTermSimilarity("en", "drug");
+
+        // Assert
+        assertTrue(result.get(0) instanceof DimensionSimilarity);
+        assertEquals(DRUGS + "DrugDimension", ((DimensionSimilarity) result.get(0)).getDimension());
+    }
+
+    @Test
+    void testWordSimilarity() throws QueryException {
+        // Prepare
+        CubeSimilarity single = similarityRepository.getTermSimilarity("en", "quantity").get(0);
+
+        // Execute
+        List<CubeSimilarity> result = similarityRepository.getWordSimilarity("en", "quantity quantity");
+
+        // Assert
+        assertEquals(single.getElement(), result.get(0).getElement());
+        assertEquals(single.getScore() * single.getScore(), result.get(0).getScore(), 1e-9);
+        assertTrue(similarityRepository.getWordSimilarity("en", "quantity unknown").isEmpty());
+    }
+}
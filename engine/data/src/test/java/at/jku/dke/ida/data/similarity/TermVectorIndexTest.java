@@ -0,0 +1,92 @@
+package at.jku.dke.ida.data.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermVectorIndexTest {
+
+    private static TermVectorIndex createIndex(int clusters) {
+        return new TermVectorIndex.Builder(64, 4, clusters)
+                .add("quantity", "quantity")
+                .add("quantity", "how much there is of something that you can quantify")
+                .add("cost", "cost the total spent for goods or services")
+                .add("drug", "drug a substance that is used as a medicine")
+                .add("medicine", "medicine a drug used to treat an illness")
+                .add("time", "time an instance or single occasion for some event")
+                .add("day", "day time for earth to make a complete rotation")
+                .build();
+    }
+
+    @Test
+    void testTokenize() {
+        // Execute
+        List<String> tokens = TermVectorIndex.tokenize("Quantities of the Drugs, boxes and costs!");
+
+        // Assert
+        assertEquals(List.of("quantity", "drug", "box", "cost"), tokens);
+    }
+
+    @Test
+    void testBuild() {
+        // Execute
+        TermVectorIndex index = createIndex(0);
+
+        // Assert
+        assertEquals(6, index.size());
+        assertEquals(2, index.getClusterCount());
+        assertTrue(index.getTermCount() > 20);
+    }
+
+    @Test
+    void testSearchExact() {
+        // Prepare
+        TermVectorIndex index = createIndex(3);
+
+        // Execute
+        List<TermVectorIndex.Hit> hits = index.search("medicines", 3, 3);
+
+        // Assert
+        assertFalse(hits.isEmpty());
+        assertTrue(hits.size() <= 3);
+        assertTrue(List.of("drug", "medicine").contains(hits.get(0).getDocumentId()));
+        for (int i = 1; i < hits.size(); i++)
+            assertTrue(hits.get(i - 1).getScore() >= hits.get(i).getScore());
+    }
+
+    @Test
+    void testSearchApproximate() {
+        // Prepare
+        TermVectorIndex index = createIndex(6);
+
+        // Execute
+        List<TermVectorIndex.Hit> hits = index.search("quantity", 10, 1);
+
+        // Assert
+        assertEquals("quantity", hits.get(0).getDocumentId());
+        assertTrue(hits.size() <= 1, "only the documents of the nearest cluster are scanned");
+    }
+
+    @Test
+    void testSearchUnknownTerm() {
+        // Prepare
+        TermVectorIndex index = createIndex(0);
+
+        // Execute + Assert
+        assertTrue(index.search("unknown", 10, 10).isEmpty());
+        assertTrue(index.search("the", 10, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.search("quantity", 0, 1));
+    }
+
+    @Test
+    void testEmptyIndex() {
+        // Execute
+        TermVectorIndex index = new TermVectorIndex.Builder(64, 4, 0).build();
+
+        // Assert
+        assertEquals(0, index.size());
+        assertTrue(index.search("quantity", 10, 10).isEmpty());
+    }
+}
@@ -0,0 +1,205 @@
+package at.jku.dke.ida.data.similarity;
+
+import at.jku.dke.ida.data.GraphDbConnection;
+import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.configuration.GraphDbConfig;
+import at.jku.dke.ida.data.models.CubeSimilarity;
+import at.jku.dke.ida.data.models.DimensionSimilarity;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static at.jku.dke.ida.data.GraphDbTestUtils.DRUGS;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createConnection;
+import static at.jku.dke.ida.data.GraphDbTestUtils.createDrugsRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the combined single-word similarities with the results of the multi-word query,
+ * which are computed by a brute-force evaluation of the query on the mappings of the sample schema.
+ */
+class WordSimilaritiesTest {
+
+    private static final String WN = "http://wordnet-rdf.princeton.edu/id/";
+    private static final String CUBE = DRUGS + "DrugPrescriptionCube";
+    private static final String EXTRA_MAPPINGS = "@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .\n" +
+            "@prefix sim: <http://dke.jku.at/ida/similarity#> .\n" +
+            "@prefix qbx: <http://dke.jku.at/inga/cubes#> .\n" +
+            "@prefix wn: <" + WN + "> .\n" +
+            "@prefix drugs: <" + DRUGS + "> .\n" +
+            "@prefix ex: <http://example.org/> .\n" +
+            "sim:wordnet-scores-en {\n" +
+            "    ex:m6 rdf:type sim:Mapping ; sim:inCube drugs:DrugPrescriptionCube ; sim:from drugs:SumCostsMeasure ; sim:to wn:amount ; sim:hasScore 0.4 ; sim:fromType qbx:AggregateMeasure .\n" +
+            "    ex:m7 rdf:type sim:Mapping ; sim:inCube ex:OtherCube ; sim:from ex:OtherCosts ; sim:to wn:amount ; sim:hasScore 0.3 ; sim:fromType qbx:AggregateMeasure .\n" +
+            "    ex:m8 rdf:type sim:Mapping ; sim:inCube drugs:DrugPrescriptionCube ; sim:inDim drugs:DrugDimension ; sim:from drugs:DrugDimensionDrugLevel ; sim:to wn:quantity ; sim:hasScore 0.2 ; sim:fromType qbx:Level .\n" +
+            "}\n";
+
+    /**
+     * Simulated results of the similarity plugin.
+     */
+    private static final Map<String, Map<String, Double>> SEARCH = Map.of(
+            "cost", Map.of(WN + "cost", 1.0, WN + "amount", 0.5),
+            "amount", Map.of(WN + "amount", 0.9, WN + "quantity", 0.6),
+            "quantity", Map.of(WN + "quantity", 1.0, WN + "amount", 0.7),
+            "drug", Map.of(WN + "drug", 1.0, WN + "quantity", 0.1),
+            "unknown", Map.of());
+
+    private Repository repository;
+    private GraphDbConnection connection;
+    private List<BindingSet> mappings;
+
+    @BeforeEach
+    void setUp() throws IOException, QueryException {
+        repository = createDrugsRepository();
+        try (var conn = repository.getConnection()) {
+            conn.add(getClass().getResourceAsStream("/wordnet-sample.trig"), "", RDFFormat.TRIG);
+            conn.add(new StringReader(EXTRA_MAPPINGS), "", RDFFormat.TRIG);
+        }
+        connection = createConnection(new GraphDbConfig(), repository);
+        mappings = connection.getQueryResult("/repo_nlp/getMappings_en.sparql", Collections.emptyMap());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.close();
+        repository.shutDown();
+    }
+
+    @Test
+    void testCombineMatchesQuery() {
+        for (String term : List.of("quantity amount", "amount cost", "cost amount", "amount quantity drug", "drug quantity", "amount amount")) {
+            for (String cube : Arrays.asList(null, CUBE, "http://example.org/OtherCube")) {
+                // Execute
+                List<CubeSimilarity> result = WordSimilarities.combine(term, singleWords(term, cube), 0);
+
+                // Assert
+                assertEquals(toMap(multipleWords(term, cube)), toMap(result), term + " in " + cube);
+                for (int i = 1; i < result.size(); i++)
+                    assertTrue(result.get(i - 1).getScore() >= result.get(i).getScore());
+            }
+        }
+    }
+
+    @Test
+    void testCombineDimension() {
+        // Execute
+        List<CubeSimilarity> result = WordSimilarities.combine("drug quantity", singleWords("drug quantity", null), 0);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertTrue(result.get(0) instanceof DimensionSimilarity);
+        assertEquals(DRUGS + "DrugDimension", ((DimensionSimilarity) result.get(0)).getDimension());
+        assertEquals("drug quantity", result.get(0).getTerm());
+    }
+
+    @Test
+    void testCombineMissingWord() {
+        // Execute
+        List<CubeSimilarity> result = WordSimilarities.combine("amount unknown", singleWords("amount unknown", null), 0);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testCombineLimit() {
+        // Prepare
+        List<CubeSimilarity> all = WordSimilarities.combine("amount amount", singleWords("amount amount", null), 0);
+
+        // Execute
+        List<CubeSimilarity> top = WordSimilarities.combine("amount amount", singleWords("amount amount", null), 2);
+
+        // Assert
+        assertEquals(4, all.size());
+        assertEquals(all.subList(0, 2), top);
+    }
+
+    @Test
+    void testCombineInvalid() {
+        // Execute & Assert
+        assertThrows(IllegalArgumentException.class, () -> WordSimilarities.combine(null, List.of(List.of()), 0));
+        assertThrows(IllegalArgumentException.class, () -> WordSimilarities.combine("a", List.of(), 0));
+        assertThrows(IllegalArgumentException.class, () -> WordSimilarities.combine("a", List.of(List.of()), -1));
+    }
+
+    // region --- Query evaluation ---
+
+    /**
+     * Evaluates {@code similarity_single_en.sparql} (or {@code cube_similarity_single_en.sparql}) for each word.
+     */
+    private List<List<CubeSimilarity>> singleWords(String term, String cube) {
+        List<List<CubeSimilarity>> words = new ArrayList<>();
+        for (String word : term.split(" ")) {
+            Map<List<String>, Double> groups = new HashMap<>();
+            for (BindingSet mapping : mappings) {
+                Double documentScore = SEARCH.get(word).get(value(mapping, "documentID"));
+                if (documentScore == null || (cube != null && !cube.equals(value(mapping, "cube")))) continue;
+                groups.merge(group(mapping), score(mapping) * documentScore, Math::max);
+            }
+            words.add(toSimilarities(word, groups));
+        }
+        return words;
+    }
+
+    /**
+     * Evaluates {@code similarity_multiple_en.sparql} by enumerating all combinations of mappings of the words
+     * to the same element.
+     */
+    private List<CubeSimilarity> multipleWords(String term, String cube) {
+        String[] words = term.split(" ");
+        Map<List<String>, Double> groups = new HashMap<>();
+        for (BindingSet first : mappings)
+            enumerate(words, cube, 0, first, 1.0, groups);
+        return toSimilarities(term, groups);
+    }
+
+    private void enumerate(String[] words, String cube, int i, BindingSet first, double product, Map<List<String>, Double> groups) {
+        if (i == words.length) {
+            groups.merge(group(first), product, Math::max);
+            return;
+        }
+        for (BindingSet mapping : i == 0 ? List.of(first) : mappings) {
+            Double documentScore = SEARCH.get(words[i]).get(value(mapping, "documentID"));
+            if (documentScore == null || !value(mapping, "element").equals(value(first, "element"))) continue;
+            if (cube != null && !cube.equals(value(mapping, "cube"))) continue;
+            enumerate(words, cube, i + 1, first, product * score(mapping) * documentScore, groups);
+        }
+    }
+
+    private static List<String> group(BindingSet mapping) {
+        return Arrays.asList(value(mapping, "cube"), value(mapping, "dimension"), value(mapping, "element"), value(mapping, "type"));
+    }
+
+    private static List<CubeSimilarity> toSimilarities(String term, Map<List<String>, Double> groups) {
+        return groups.entrySet().stream()
+                .map(x -> x.getKey().get(1) == null ?
+                        new CubeSimilarity(term, x.getKey().get(0), x.getKey().get(2), x.getKey().get(3), x.getValue()) :
+                        new DimensionSimilarity(term, x.getKey().get(0), x.getKey().get(2), x.getKey().get(3), x.getValue(), x.getKey().get(1)))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Long> toMap(List<CubeSimilarity> similarities) {
+        return similarities.stream().collect(Collectors.toMap(
+                x -> x.getCube() + ' ' + x.getElement() + ' ' + x.getType() + ' ' +
+                        (x instanceof DimensionSimilarity ? ((DimensionSimilarity) x).getDimension() : "") + ' ' + x.getTerm(),
+                x -> Math.round(x.getScore() * 1e9)));
+    }
+
+    private static String value(BindingSet binding, String name) {
+        return binding.hasBinding(name) ? binding.getValue(name).stringValue() : null;
+    }
+
+    private static double score(BindingSet binding) {
+        return ((Literal) binding.getValue("score")).doubleValue();
+    }
+    // endregion
+}
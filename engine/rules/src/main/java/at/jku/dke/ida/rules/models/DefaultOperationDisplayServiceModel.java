@@ -1,5 +1,6 @@
 package at.jku.dke.ida.rules.models;
 
+import at.jku.dke.ida.data.models.HierarchyIndex;
 import at.jku.dke.ida.rules.interfaces.OperationDisplayServiceModel;
 import at.jku.dke.ida.shared.Event;
 import at.jku.dke.ida.shared.IRIConstants;
@@ -7,7 +8,6 @@ import at.jku.dke.ida.shared.models.DimensionQualification;
 import at.jku.dke.ida.shared.models.EngineAnalysisSituation;
 import at.jku.dke.ida.shared.models.NonComparativeAnalysisSituation;
 import at.jku.dke.ida.shared.session.SessionModel;
-import com.google.common.graph.Graph;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
@@ -23,8 +23,7 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
     private final Collection<String> notSelectedMeasures;
     private final Collection<String> notSelectedFilters;
     private final Collection<String> notSelectedBaseMeasureConditions;
-    private final Graph<String> granularityLevelHierarchy;
-    private final Graph<String> sliceConditionHierarchy;
+    private final HierarchyIndex granularityLevelHierarchy;
     private final Set<Pair<String, String>> sliceConditions;
     private final Collection<Triple<String, String, String>> diceNodes;
     private final Collection<String> notSelectedJoinConditions;
@@ -39,8 +38,7 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
      * @param notSelectedMeasures              The not selected measures.
      * @param notSelectedFilters               The not selected filters.
      * @param notSelectedBaseMeasureConditions The not selected base measure conditions.
-     * @param granularityLevelHierarchy        The granularity level hierarchy.
-     * @param sliceConditionHierarchy          The slice condition hierarchy.
+     * @param granularityLevelHierarchy        The index of the granularity level hierarchy.
      * @param sliceConditions                  The slice conditions.
      * @param diceNodes                        The dice nodes.
      * @param notSelectedJoinConditions        The not selected join conditions.
@@ -50,8 +48,8 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
      */
     public DefaultOperationDisplayServiceModel(String currentState, SessionModel sessionModel, Collection<String> notSelectedMeasures,
                                                Collection<String> notSelectedFilters, Collection<String> notSelectedBaseMeasureConditions,
-                                               Graph<String> granularityLevelHierarchy, Graph<String> sliceConditionHierarchy,
-                                               Set<Pair<String, String>> sliceConditions, Collection<Triple<String, String, String>> diceNodes,
+                                               HierarchyIndex granularityLevelHierarchy, Set<Pair<String, String>> sliceConditions,
+                                               Collection<Triple<String, String, String>> diceNodes,
                                                Collection<String> notSelectedJoinConditions, Collection<String> notSelectedScores,
                                                Collection<String> notSelectedScoreFilters) {
         super(currentState, sessionModel);
@@ -59,8 +57,6 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
         if (notSelectedFilters == null) throw new IllegalArgumentException("notSelectedFilters must not be null");
         if (granularityLevelHierarchy == null)
             throw new IllegalArgumentException("granularityLevelHierarchy must not be null");
-        if (sliceConditionHierarchy == null)
-            throw new IllegalArgumentException("sliceConditionHierarchy must not be null");
         if (sliceConditions == null)
             throw new IllegalArgumentException("sliceConditions must not be null");
         if (notSelectedBaseMeasureConditions == null)
@@ -78,7 +74,6 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
         this.notSelectedFilters = notSelectedFilters;
         this.notSelectedBaseMeasureConditions = notSelectedBaseMeasureConditions;
         this.granularityLevelHierarchy = granularityLevelHierarchy;
-        this.sliceConditionHierarchy = sliceConditionHierarchy;
         this.sliceConditions = sliceConditions;
         this.diceNodes = diceNodes;
         this.notSelectedJoinConditions = notSelectedJoinConditions;
@@ -97,8 +92,7 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
      * @param notSelectedMeasures              The not selected measures.
      * @param notSelectedFilters               The not selected filters.
      * @param notSelectedBaseMeasureConditions The not selected base measure conditions.
-     * @param granularityLevelHierarchy        The granularity level hierarchy.
-     * @param sliceConditionHierarchy          The slice condition hierarchy.
+     * @param granularityLevelHierarchy        The index of the granularity level hierarchy.
      * @param sliceConditions                  The slice conditions.
      * @param diceNodes                        The dice nodes.
      * @param notSelectedJoinConditions        The not selected join conditions.
@@ -109,8 +103,8 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
     public DefaultOperationDisplayServiceModel(String currentState, Locale locale, EngineAnalysisSituation analysisSituation,
                                                Event operation, SessionModel sessionModel, Collection<String> notSelectedMeasures,
                                                Collection<String> notSelectedFilters, Collection<String> notSelectedBaseMeasureConditions,
-                                               Graph<String> granularityLevelHierarchy, Graph<String> sliceConditionHierarchy,
-                                               Set<Pair<String, String>> sliceConditions, Collection<Triple<String, String, String>> diceNodes,
+                                               HierarchyIndex granularityLevelHierarchy, Set<Pair<String, String>> sliceConditions,
+                                               Collection<Triple<String, String, String>> diceNodes,
                                                Collection<String> notSelectedJoinConditions, Collection<String> notSelectedScores,
                                                Collection<String> notSelectedScoreFilters) {
         super(currentState, locale, analysisSituation, operation, sessionModel);
@@ -118,8 +112,6 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
         if (notSelectedFilters == null) throw new IllegalArgumentException("notSelectedFilters must not be null");
         if (granularityLevelHierarchy == null)
             throw new IllegalArgumentException("granularityLevelHierarchy must not be null");
-        if (sliceConditionHierarchy == null)
-            throw new IllegalArgumentException("sliceConditionHierarchy must not be null");
         if (sliceConditions == null)
             throw new IllegalArgumentException("sliceConditions must not be null");
         if (notSelectedBaseMeasureConditions == null)
@@ -137,7 +129,6 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
         this.notSelectedFilters = notSelectedFilters;
         this.notSelectedBaseMeasureConditions = notSelectedBaseMeasureConditions;
         this.granularityLevelHierarchy = granularityLevelHierarchy;
-        this.sliceConditionHierarchy = sliceConditionHierarchy;
         this.sliceConditions = sliceConditions;
         this.diceNodes = diceNodes;
         this.notSelectedJoinConditions = notSelectedJoinConditions;
@@ -190,37 +181,25 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
     }
 
     @Override
-    @SuppressWarnings("Duplicates")
     public boolean isDrillDownRelationshipAvailable() {
-        if (granularityLevelHierarchy.nodes().isEmpty())
+        if (granularityLevelHierarchy.isEmpty())
             return false;
         if (!(getAnalysisSituation() instanceof NonComparativeAnalysisSituation)) return false;
 
         NonComparativeAnalysisSituation as = (NonComparativeAnalysisSituation) getAnalysisSituation();
-        int count = 0;
-        for (DimensionQualification dq : as.getDimensionQualifications()) {
-            var preds = new HashSet<>(this.granularityLevelHierarchy.predecessors(dq.getGranularityLevel()));
-            preds.remove(IRIConstants.RESOURCE_TOP_LEVEL);
-            count += preds.size();
-        }
-
-        return count > 0;
+        return as.getDimensionQualifications().stream()
+                .anyMatch(dq -> granularityLevelHierarchy.hasChildren(dq.getGranularityLevel()));
     }
 
     @Override
-    @SuppressWarnings("Duplicates")
     public boolean isRollUpRelationshipAvailable() {
-        if (granularityLevelHierarchy.nodes().isEmpty())
+        if (granularityLevelHierarchy.isEmpty())
             return false;
         if (!(getAnalysisSituation() instanceof NonComparativeAnalysisSituation)) return false;
 
         NonComparativeAnalysisSituation as = (NonComparativeAnalysisSituation) getAnalysisSituation();
-        int count = 0;
-        for (DimensionQualification dq : as.getDimensionQualifications()) {
-            count += this.granularityLevelHierarchy.successors(dq.getGranularityLevel()).size();
-        }
-
-        return count > 0;
+        return as.getDimensionQualifications().stream()
+                .anyMatch(dq -> granularityLevelHierarchy.hasParents(dq.getGranularityLevel()));
     }
 
     @Override
@@ -252,6 +231,8 @@ public class DefaultOperationDisplayServiceModel extends AbstractServiceModel im
                 }).count() > 0;
     }
 
+    // The narrow and broaden operations add and drop slice conditions (see OperationNames),
+    // so they do not depend on the implications between slice conditions in the slice condition hierarchy.
     @Override
     @SuppressWarnings("Duplicates")
     public boolean isImplyRelationshipForSliceConditionAvailable() {
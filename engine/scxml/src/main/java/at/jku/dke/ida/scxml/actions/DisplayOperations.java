@@ -1,25 +1,22 @@
 package at.jku.dke.ida.scxml.actions;
 
+import at.jku.dke.ida.data.QueryCancelledException;
 import at.jku.dke.ida.data.QueryException;
+import at.jku.dke.ida.data.QueryTimeoutException;
+import at.jku.dke.ida.data.models.CubeContext;
+import at.jku.dke.ida.data.models.HierarchyIndex;
 import at.jku.dke.ida.data.repositories.*;
 import at.jku.dke.ida.rules.interfaces.OperationDisplayServiceModel;
 import at.jku.dke.ida.rules.models.DefaultOperationDisplayServiceModel;
 import at.jku.dke.ida.rules.services.OperationDisplayService;
 import at.jku.dke.ida.scxml.interceptors.DisplayOperationsInterceptor;
 import at.jku.dke.ida.scxml.session.SessionContextModel;
-import at.jku.dke.ida.shared.IRIConstants;
 import at.jku.dke.ida.shared.display.ErrorDisplay;
 import at.jku.dke.ida.shared.display.ListDisplay;
 import at.jku.dke.ida.shared.models.ComparativeAnalysisSituation;
 import at.jku.dke.ida.shared.models.NonComparativeAnalysisSituation;
 import at.jku.dke.ida.shared.operations.Operation;
 import at.jku.dke.ida.shared.spring.BeanUtil;
-import com.google.common.graph.Graph;
-import com.google.common.graph.GraphBuilder;
-import com.google.common.graph.ImmutableGraph;
-import com.google.common.graph.MutableGraph;
-import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 import org.apache.commons.scxml2.ActionExecutionContext;
 import org.apache.commons.scxml2.model.ModelException;
 
@@ -54,8 +51,7 @@ public class DisplayOperations extends BaseAction {
                             Collections.emptyList(),
                             Collections.emptyList(),
                             Collections.emptyList(),
-                            GraphBuilder.directed().build(),
-                            GraphBuilder.directed().build(),
+                            HierarchyIndex.empty(),
                             Collections.emptySet(),
                             Collections.emptyList(),
                             Collections.emptyList(),
@@ -64,6 +60,13 @@ public class DisplayOperations extends BaseAction {
                     );
                 }
             }
+        } catch (QueryCancelledException ex) {
+            logger.info("Loading the data for OperationDisplayServiceModel was cancelled.");
+            return;
+        } catch (QueryTimeoutException ex) {
+            logger.error("Loading the data for OperationDisplayServiceModel took too long.", ex);
+            ctxModel.setDisplayData(new ErrorDisplay("errorLoadDataTimeout", ctxModel.getLocale()));
+            return;
         } catch (QueryException ex) {
             logger.fatal("Could not load required data for OperationDisplayServiceModel.", ex);
             ctxModel.setDisplayData(new ErrorDisplay("errorLoadData", ctxModel.getLocale()));
@@ -88,9 +91,10 @@ public class DisplayOperations extends BaseAction {
         ComparativeAnalysisSituation as = (ComparativeAnalysisSituation) ctxModel.getAnalysisSituation();
 
         // Load data
-        Set<String> joinConditions = BeanUtil.getBean(JoinConditionPredicateRepository.class).getAllByCube(cube, as.getJoinConditions());
-        Set<String> scores = BeanUtil.getBean(ComparativeMeasureRepository.class).getAllByCube(cube, as.getScores());
-        Set<String> scoreFilters = BeanUtil.getBean(ComparativeMeasurePredicateRepository.class).getAllByCube(cube, as.getScoreFilters());
+        Set<String> exclusions = new HashSet<>(as.getJoinConditions());
+        exclusions.addAll(as.getScores());
+        exclusions.addAll(as.getScoreFilters());
+        CubeContext context = BeanUtil.getBean(CubeRepository.class).getContextByCube(cube, exclusions);
 
         // Build model
         return new DefaultOperationDisplayServiceModel(
@@ -99,13 +103,12 @@ public class DisplayOperations extends BaseAction {
                 Collections.emptyList(),
                 Collections.emptyList(),
                 Collections.emptyList(),
-                GraphBuilder.directed().build(),
-                GraphBuilder.directed().build(),
+                HierarchyIndex.empty(),
                 Collections.emptySet(),
                 Collections.emptyList(),
-                joinConditions,
-                scores,
-                scoreFilters
+                context.getJoinConditionPredicates(),
+                context.getComparativeMeasures(),
+                context.getComparativeMeasurePredicates()
         );
     }
 
@@ -113,53 +116,24 @@ public class DisplayOperations extends BaseAction {
         NonComparativeAnalysisSituation as = (NonComparativeAnalysisSituation) ctxModel.getAnalysisSituation();
 
         // Load data
-        Set<String> measures = BeanUtil.getBean(AggregateMeasureRepository.class).getAllByCube(cube, as.getMeasures());
-        Set<String> bmcs = BeanUtil.getBean(BaseMeasurePredicateRepository.class).getAllByCube(cube, as.getBaseMeasureConditions());
-        Set<String> filters = BeanUtil.getBean(AggregateMeasurePredicateRepository.class).getAllByCube(cube, as.getFilterConditions());
-        Graph<String> granularityLevels = buildDependencyGraph(BeanUtil.getBean(LevelRepository.class).getAllRelationshipsByCube(cube));
-        Set<Triple<String, String, String>> diceNodes = BeanUtil.getBean(LevelMemberRepository.class).getAllByCube(cube);
-
-        var repo = BeanUtil.getBean(LevelPredicateRepository.class);
-        Graph<String> sliceConditions = repo.getDependencyGraph(cube);
-        Set<Pair<String, String>> allSCs = repo.getAllByCube(cube);
+        Set<String> exclusions = new HashSet<>(as.getMeasures());
+        exclusions.addAll(as.getBaseMeasureConditions());
+        exclusions.addAll(as.getFilterConditions());
+        CubeContext context = BeanUtil.getBean(CubeRepository.class).getContextByCube(cube, exclusions);
 
         // Build model
         return new DefaultOperationDisplayServiceModel(
                 getCurrentState(),
                 ctxModel,
-                measures,
-                filters,
-                bmcs,
-                granularityLevels,
-                sliceConditions,
-                allSCs,
-                diceNodes,
+                context.getAggregateMeasures(),
+                context.getAggregateMeasurePredicates(),
+                context.getBaseMeasurePredicates(),
+                context.getLevelHierarchy(),
+                context.getLevelPredicates(),
+                context.getLevelMembers(),
                 Collections.emptyList(),
                 Collections.emptyList(),
                 Collections.emptyList()
         );
     }
-
-    private Graph<String> buildDependencyGraph(Set<Triple<String, String, String>> relationships) throws QueryException {
-        MutableGraph<String> graph = GraphBuilder.directed().build();
-
-        for (Triple<String, String, String> pair : relationships) {
-            graph.addNode(pair.getMiddle());
-            if (pair.getRight() != null) {
-                graph.addNode(pair.getRight());
-                graph.putEdge(pair.getMiddle(), pair.getRight());
-            }
-        }
-
-        // Add top level
-        graph.addNode(IRIConstants.RESOURCE_TOP_LEVEL);
-        Set<String> nodes = new HashSet<>(graph.nodes());
-        for (String node : nodes) {
-            if (!node.equals(IRIConstants.RESOURCE_TOP_LEVEL) && graph.inDegree(node) == 0) {
-                graph.putEdge(IRIConstants.RESOURCE_TOP_LEVEL, node);
-            }
-        }
-
-        return ImmutableGraph.copyOf(graph);
-    }
 }
@@ -1,5 +1,6 @@
 package at.jku.dke.ida.scxml.session;
 
+import at.jku.dke.ida.data.QueryScope;
 import at.jku.dke.ida.scxml.events.AnalysisSituationListener;
 import at.jku.dke.ida.scxml.events.DisplayListener;
 import at.jku.dke.ida.scxml.events.QueryResultListener;
@@ -93,12 +94,14 @@ public final class SessionManager {
             if (!sessions.containsKey(sessionId)) return;
 
             LOGGER.info("Initiating session {} state machine.", sessionId);
-            sessions.get(sessionId).initiate();
+            try (QueryScope scope = QueryScope.open(sessionId)) {
+                sessions.get(sessionId).initiate();
+            }
         }
     }
 
     /**
-     * Deletes the session.
+     * Deletes the session and cancels its running queries.
      * If the session id was not found, nothing will happen.
      *
      * @param sessionId The session id.
@@ -106,6 +109,7 @@ public final class SessionManager {
      */
     public void deleteSession(String sessionId) {
         if (StringUtils.isBlank(sessionId)) throw new IllegalArgumentException("sessionId must not be null empty");
+        QueryScope.cancel(sessionId);
 
         synchronized (sessions) {
             if (!sessions.containsKey(sessionId)) return;
@@ -165,7 +169,7 @@ public final class SessionManager {
         }
 
         // Trigger event
-        try {
+        try (QueryScope scope = QueryScope.open(sessionId)) {
             session.triggerUserInputEvent(userInput);
         } catch (ModelException ex) {
             LOGGER.error("An error occurred while triggering the user input event for session {}.", sessionId);
@@ -201,7 +205,7 @@ public final class SessionManager {
         }
 
         // Trigger event
-        try {
+        try (QueryScope scope = QueryScope.open(sessionId)) {
             session.triggerReviseQuery();
         } catch (ModelException ex) {
             LOGGER.error("An error occurred while triggering the revise query event for session {}.", sessionId);
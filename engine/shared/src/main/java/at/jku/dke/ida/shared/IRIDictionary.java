@@ -0,0 +1,115 @@
+package at.jku.dke.ida.shared;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A global dictionary which maps IRIs of schema elements to compact, dense integer identifiers.
+ * <p>
+ * Every IRI is stored once: {@link #intern(String)} returns the canonical instance, so that all sessions share
+ * the same strings and comparisons of interned IRIs succeed on reference equality. The identifiers are assigned
+ * in ascending order starting with 0 and are never reused, which allows {@link IRISet} to store IRIs as bits.
+ * <p>
+ * Entries are never removed. Only IRIs of schema elements (cubes, measures, levels, ...) should be added, never
+ * user input or literals, as the dictionary would grow unbounded otherwise.
+ * Use {@link #canonical(String)} or {@link #lookup(String)} for values which may not be schema IRIs.
+ * <p>
+ * This class is thread-safe; lookups of existing IRIs do not block.
+ */
+public final class IRIDictionary {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private static final Object LOCK = new Object();
+    private static volatile String[] iris = new String[INITIAL_CAPACITY];
+    private static volatile int size;
+
+    /**
+     * Prevents creation of instances of this class.
+     */
+    private IRIDictionary() {
+    }
+
+    /**
+     * Returns the identifier of the IRI and adds it to the dictionary if it is not present.
+     *
+     * @param iri The absolute IRI.
+     * @return The identifier of the IRI.
+     * @throws IllegalArgumentException If {@code iri} is {@code null}.
+     */
+    public static int id(String iri) {
+        if (iri == null) throw new IllegalArgumentException("iri must not be null");
+        Integer id = IDS.get(iri);
+        if (id != null) return id;
+
+        synchronized (LOCK) {
+            id = IDS.get(iri);
+            if (id != null) return id;
+
+            final int next = size;
+            String[] array = iris;
+            if (next == array.length) array = Arrays.copyOf(array, array.length * 2);
+            array[next] = iri;
+            iris = array;
+            size = next + 1;
+            IDS.put(iri, next);
+            return next;
+        }
+    }
+
+    /**
+     * Returns the identifier of the IRI without adding it to the dictionary.
+     *
+     * @param iri The absolute IRI.
+     * @return The identifier of the IRI or {@code -1} if {@code iri} is {@code null} or not present.
+     */
+    public static int lookup(String iri) {
+        if (iri == null) return -1;
+        Integer id = IDS.get(iri);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the IRI with the specified identifier.
+     *
+     * @param id The identifier returned by {@link #id(String)}.
+     * @return The canonical instance of the IRI.
+     * @throws IllegalArgumentException If {@code id} was not assigned.
+     */
+    public static String iri(int id) {
+        if (id < 0 || id >= size) throw new IllegalArgumentException("Unknown IRI identifier " + id);
+        return iris[id]; // read after size, so the array contains the identifier
+    }
+
+    /**
+     * Returns the canonical instance of the IRI and adds it to the dictionary if it is not present.
+     *
+     * @param iri The absolute IRI (may be {@code null}).
+     * @return The canonical instance or {@code null} if {@code iri} is {@code null}.
+     */
+    public static String intern(String iri) {
+        if (iri == null) return null;
+        return iri(id(iri));
+    }
+
+    /**
+     * Returns the canonical instance of the IRI if it is present in the dictionary without adding it.
+     *
+     * @param iri The absolute IRI (may be {@code null}).
+     * @return The canonical instance if present; otherwise {@code iri}.
+     */
+    public static String canonical(String iri) {
+        final int id = lookup(iri);
+        return id < 0 ? iri : iri(id);
+    }
+
+    /**
+     * Returns the number of IRIs in the dictionary, which is also the next identifier assigned.
+     *
+     * @return The size of the dictionary.
+     */
+    public static int size() {
+        return size;
+    }
+}
@@ -0,0 +1,139 @@
+package at.jku.dke.ida.shared;
+
+import java.util.*;
+
+/**
+ * A set of IRIs which stores the identifiers of the {@link IRIDictionary} as bits.
+ * <p>
+ * Membership checks neither hash nor compare strings and the set needs one bit per IRI in the dictionary.
+ * Added IRIs are added to the dictionary, so only IRIs of schema elements should be added;
+ * checking unknown IRIs does not modify the dictionary.
+ * The iteration order is the order in which the IRIs were added to the dictionary.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class IRISet extends AbstractSet<String> {
+
+    private final BitSet ids;
+
+    /**
+     * Instantiates a new instance of class {@linkplain IRISet}.
+     */
+    public IRISet() {
+        this.ids = new BitSet();
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain IRISet}.
+     *
+     * @param iris The IRIs to add.
+     * @throws IllegalArgumentException If {@code iris} is {@code null} or contains {@code null}.
+     */
+    public IRISet(Collection<String> iris) {
+        this();
+        if (iris == null) throw new IllegalArgumentException("iris must not be null");
+        addAll(iris);
+    }
+
+    /**
+     * Adds the IRI with the specified identifier.
+     *
+     * @param id The identifier of the IRI.
+     * @return {@code true} if the set did not already contain the IRI
+     * @throws IllegalArgumentException If {@code id} was not assigned by the {@link IRIDictionary}.
+     */
+    public boolean add(int id) {
+        if (id < 0 || id >= IRIDictionary.size()) throw new IllegalArgumentException("Unknown IRI identifier " + id);
+        if (ids.get(id)) return false;
+        ids.set(id);
+        return true;
+    }
+
+    /**
+     * Returns whether the set contains the IRI with the specified identifier.
+     *
+     * @param id The identifier of the IRI.
+     * @return {@code true} if the set contains the IRI
+     */
+    public boolean contains(int id) {
+        return id >= 0 && ids.get(id);
+    }
+
+    /**
+     * Adds the specified IRI if it is not already present.
+     *
+     * @param iri The absolute IRI.
+     * @return {@code true} if the set did not already contain the IRI
+     * @throws IllegalArgumentException If {@code iri} is {@code null}.
+     */
+    @Override
+    public boolean add(String iri) {
+        return add(IRIDictionary.id(iri));
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String && contains(IRIDictionary.lookup((String) o));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        ids.clear(IRIDictionary.lookup((String) o));
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        ids.clear();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return ids.cardinality();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int next = ids.nextSetBit(0);
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) throw new NoSuchElementException();
+                last = next;
+                next = ids.nextSetBit(next + 1);
+                return IRIDictionary.iri(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                ids.clear(last);
+                last = -1;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof IRISet) return ids.equals(((IRISet) o).ids);
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
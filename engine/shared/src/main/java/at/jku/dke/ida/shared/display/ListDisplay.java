@@ -10,6 +10,7 @@ import java.util.stream.StreamSupport;
 public class ListDisplay extends Display {
 
     private final List<? extends Displayable> data;
+    private final String nextPageToken;
 
     /**
      * Instantiates a new instance of class {@linkplain ListDisplay}.
@@ -20,6 +21,7 @@ public class ListDisplay extends Display {
     public ListDisplay(String displayMessage, List<? extends Displayable> data) {
         super(displayMessage);
         this.data = Collections.unmodifiableList(Objects.requireNonNullElseGet(data, ArrayList::new));
+        this.nextPageToken = null;
     }
 
     /**
@@ -33,6 +35,7 @@ public class ListDisplay extends Display {
         this.data = StreamSupport
                 .stream(data == null ? Spliterators.emptySpliterator() : data.spliterator(), false)
                 .collect(Collectors.toUnmodifiableList());
+        this.nextPageToken = null;
     }
 
     /**
@@ -43,8 +46,7 @@ public class ListDisplay extends Display {
      * @param data                       The data to display in a list.
      */
     public ListDisplay(String displayMessageResourceName, Locale locale, List<? extends Displayable> data) {
-        super(displayMessageResourceName, locale);
-        this.data = Collections.unmodifiableList(Objects.requireNonNullElseGet(data, ArrayList::new));
+        this(displayMessageResourceName, locale, data, null);
     }
 
     /**
@@ -60,6 +62,21 @@ public class ListDisplay extends Display {
             this.data = new ArrayList<>();
         else
             this.data = new ArrayList<>(data);
+        this.nextPageToken = null;
+    }
+
+    /**
+     * Instantiates a new instance of class {@linkplain Display} which shows one page of a longer list.
+     *
+     * @param displayMessageResourceName The resource name in the {@code DisplayMessages}-resource for the message to display.
+     * @param locale                     The locale for the resource name.
+     * @param data                       The data to display in a list.
+     * @param nextPageToken              The token to request the next page ({@code null} if this is the last page).
+     */
+    public ListDisplay(String displayMessageResourceName, Locale locale, List<? extends Displayable> data, String nextPageToken) {
+        super(displayMessageResourceName, locale);
+        this.data = Collections.unmodifiableList(Objects.requireNonNullElseGet(data, ArrayList::new));
+        this.nextPageToken = nextPageToken;
     }
 
     /**
@@ -71,11 +88,30 @@ public class ListDisplay extends Display {
         return data;
     }
 
+    /**
+     * Returns the token to request the next page of the list.
+     *
+     * @return The token of the next page or {@code null} if all data is displayed.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Returns whether more data is available than displayed.
+     *
+     * @return {@code true} if there is a next page, otherwise {@code false}.
+     */
+    public boolean hasMore() {
+        return nextPageToken != null;
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", ListDisplay.class.getSimpleName() + "[", "]")
                 .add("displayMessage='" + getDisplayMessage() + "'")
                 .add("data=" + data)
+                .add("nextPageToken='" + nextPageToken + "'")
                 .toString();
     }
 
@@ -85,11 +121,12 @@ public class ListDisplay extends Display {
         if (!(o instanceof ListDisplay)) return false;
         if (!super.equals(o)) return false;
         ListDisplay that = (ListDisplay) o;
-        return Objects.equals(data, that.data);
+        return Objects.equals(data, that.data) &&
+                Objects.equals(nextPageToken, that.nextPageToken);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), data);
+        return Objects.hash(super.hashCode(), data, nextPageToken);
     }
 }
@@ -1,12 +1,15 @@
 package at.jku.dke.ida.shared.models;
 
 import at.jku.dke.ida.shared.IRIConstants;
+import at.jku.dke.ida.shared.IRIDictionary;
 import at.jku.dke.ida.shared.models.generic.GenericDimensionQualification;
 
 import java.util.Objects;
 
 /**
  * Represents a dimension qualification.
+ * <p>
+ * IRIs known to the {@link IRIDictionary} are replaced by their canonical instances.
  */
 public class DimensionQualification extends GenericDimensionQualification<String> {
 
@@ -26,7 +29,7 @@ public class DimensionQualification extends GenericDimensionQualification<String
      * @param dimension The URI of the dimension.
      */
     public DimensionQualification(String dimension) {
-        super(dimension);
+        super(IRIDictionary.canonical(dimension));
         this.setGranularityLevel(IRIConstants.RESOURCE_TOP_LEVEL);
         this.setDiceLevel(IRIConstants.RESOURCE_TOP_LEVEL);
         this.setDiceNode(IRIConstants.RESOURCE_ALL_NODES);
@@ -39,7 +42,7 @@ public class DimensionQualification extends GenericDimensionQualification<String
      */
     @Override
     public void setDiceLevel(String diceLevel) {
-        super.setDiceLevel(Objects.requireNonNullElse(diceLevel, IRIConstants.RESOURCE_TOP_LEVEL));
+        super.setDiceLevel(Objects.requireNonNullElse(IRIDictionary.canonical(diceLevel), IRIConstants.RESOURCE_TOP_LEVEL));
     }
 
     /**
@@ -49,7 +52,7 @@ public class DimensionQualification extends GenericDimensionQualification<String
      */
     @Override
     public void setDiceNode(String diceNode) {
-        super.setDiceNode(Objects.requireNonNullElse(diceNode, IRIConstants.RESOURCE_ALL_NODES));
+        super.setDiceNode(Objects.requireNonNullElse(IRIDictionary.canonical(diceNode), IRIConstants.RESOURCE_ALL_NODES));
     }
 
     /**
@@ -59,7 +62,28 @@ public class DimensionQualification extends GenericDimensionQualification<String
      */
     @Override
     public void setGranularityLevel(String granularityLevel) {
-        super.setGranularityLevel(Objects.requireNonNullElse(granularityLevel, IRIConstants.RESOURCE_TOP_LEVEL));
+        super.setGranularityLevel(Objects.requireNonNullElse(IRIDictionary.canonical(granularityLevel), IRIConstants.RESOURCE_TOP_LEVEL));
+    }
+
+    /**
+     * Sets the dimension.
+     *
+     * @param dimension the dimension
+     */
+    @Override
+    public void setDimension(String dimension) {
+        super.setDimension(IRIDictionary.canonical(dimension));
+    }
+
+    /**
+     * Adds the specified slice condition if it is not already present.
+     *
+     * @param cond The slice condition to be added to the set.
+     * @return {@code true} if this set did not already contain the specified element
+     */
+    @Override
+    public boolean addSliceCondition(String cond) {
+        return super.addSliceCondition(IRIDictionary.canonical(cond));
     }
 
     /**
@@ -1,9 +1,12 @@
 package at.jku.dke.ida.shared.models;
 
+import at.jku.dke.ida.shared.IRIDictionary;
 import at.jku.dke.ida.shared.models.generic.GenericNonComparativeAnalysisSituation;
 
 /**
  * Non-comparative analysis situations represent multi-dimensional queries on cube instances.
+ * <p>
+ * IRIs known to the {@link IRIDictionary} are replaced by their canonical instances.
  */
 public class NonComparativeAnalysisSituation extends GenericNonComparativeAnalysisSituation<String, DimensionQualification> implements EngineAnalysisSituation {
 
@@ -14,6 +17,49 @@ public class NonComparativeAnalysisSituation extends GenericNonComparativeAnalys
         super();
     }
 
+    /**
+     * Sets the cube.
+     *
+     * @param cube the cube
+     */
+    @Override
+    public void setCube(String cube) {
+        super.setCube(IRIDictionary.canonical(cube));
+    }
+
+    /**
+     * Adds the specified base measure condition if it is not already present.
+     *
+     * @param cond The base measure condition to be added to the set.
+     * @return {@code true} if this set did not already contain the specified condition
+     */
+    @Override
+    public boolean addBaseMeasureCondition(String cond) {
+        return super.addBaseMeasureCondition(IRIDictionary.canonical(cond));
+    }
+
+    /**
+     * Adds the specified measure if it is not already present.
+     *
+     * @param measure The measure to be added to the set.
+     * @return {@code true} if this set did not already contain the specified measure
+     */
+    @Override
+    public boolean addMeasure(String measure) {
+        return super.addMeasure(IRIDictionary.canonical(measure));
+    }
+
+    /**
+     * Adds the specified filter condition if it is not already present.
+     *
+     * @param cond The filter condition to be added to the set.
+     * @return {@code true} if this set did not already contain the specified condition
+     */
+    @Override
+    public boolean addFilterCondition(String cond) {
+        return super.addFilterCondition(IRIDictionary.canonical(cond));
+    }
+
     @Override
     public boolean isCubeDefined() {
         return super.isCubeDefined() && !getCube().isBlank();
@@ -0,0 +1,84 @@
+package at.jku.dke.ida.shared;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IRIDictionaryTest {
+
+    private static final String IRI = "http://www.example.org/dictionary#";
+
+    @Test
+    void testId() {
+        // Execute
+        int id = IRIDictionary.id(IRI + "Id");
+
+        // Assert
+        assertEquals(id, IRIDictionary.id(new String(IRI + "Id")));
+        assertEquals(id, IRIDictionary.lookup(IRI + "Id"));
+        assertEquals(IRI + "Id", IRIDictionary.iri(id));
+        assertTrue(id < IRIDictionary.size());
+    }
+
+    @Test
+    void testIdNull() {
+        // Execute & Assert
+        assertThrows(IllegalArgumentException.class, () -> IRIDictionary.id(null));
+    }
+
+    @Test
+    void testIriUnknown() {
+        // Execute & Assert
+        assertThrows(IllegalArgumentException.class, () -> IRIDictionary.iri(-1));
+        assertThrows(IllegalArgumentException.class, () -> IRIDictionary.iri(IRIDictionary.size()));
+    }
+
+    @Test
+    void testIntern() {
+        // Prepare
+        String first = new String(IRI + "Intern");
+        String second = new String(IRI + "Intern");
+
+        // Execute
+        String interned = IRIDictionary.intern(first);
+
+        // Assert
+        assertSame(interned, IRIDictionary.intern(second));
+        assertNull(IRIDictionary.intern(null));
+    }
+
+    @Test
+    void testCanonical() {
+        // Prepare
+        String unknown = IRI + "Unknown";
+        String known = IRIDictionary.intern(new String(IRI + "Known"));
+        int size = IRIDictionary.size();
+
+        // Execute & Assert
+        assertSame(unknown, IRIDictionary.canonical(unknown));
+        assertSame(known, IRIDictionary.canonical(new String(IRI + "Known")));
+        assertNull(IRIDictionary.canonical(null));
+        assertEquals(-1, IRIDictionary.lookup(unknown));
+        assertEquals(size, IRIDictionary.size());
+    }
+
+    @Test
+    void testConcurrentIds() {
+        // Execute
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        List<String> iris = new ArrayList<>();
+        IntStream.range(0, 5000).parallel().forEach(i -> ids.add(IRIDictionary.id(IRI + "Concurrent" + (i % 2500))));
+        IntStream.range(0, 2500).forEach(i -> iris.add(IRIDictionary.iri(IRIDictionary.lookup(IRI + "Concurrent" + i))));
+
+        // Assert
+        assertEquals(2500, ids.size());
+        for (int i = 0; i < 2500; i++)
+            assertEquals(IRI + "Concurrent" + i, iris.get(i));
+    }
+}
@@ -0,0 +1,75 @@
+package at.jku.dke.ida.shared;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IRISetTest {
+
+    private static final String IRI = "http://www.example.org/set#";
+
+    @Test
+    void testAddAndContains() {
+        // Prepare
+        IRISet set = new IRISet();
+
+        // Execute
+        boolean first = set.add(IRI + "A");
+        boolean second = set.add(new String(IRI + "A"));
+        set.add(IRI + "B");
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(2, set.size());
+        assertTrue(set.contains(IRI + "A"));
+        assertTrue(set.contains(IRIDictionary.lookup(IRI + "B")));
+        assertFalse(set.contains(IRI + "C"));
+        assertFalse(set.contains((Object) 1));
+        assertFalse(set.contains(null));
+        assertEquals(-1, IRIDictionary.lookup(IRI + "C"));
+    }
+
+    @Test
+    void testAddNull() {
+        // Execute & Assert
+        assertThrows(IllegalArgumentException.class, () -> new IRISet().add(null));
+        assertThrows(IllegalArgumentException.class, () -> new IRISet(null));
+        assertThrows(IllegalArgumentException.class, () -> new IRISet().add(-1));
+    }
+
+    @Test
+    void testRemoveAndIterate() {
+        // Prepare
+        IRISet set = new IRISet(List.of(IRI + "D", IRI + "E", IRI + "F"));
+
+        // Execute
+        boolean removed = set.remove(IRI + "E");
+        boolean removedUnknown = set.remove(IRI + "G");
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(removedUnknown);
+        assertEquals(List.of(IRI + "D", IRI + "F"), List.copyOf(set));
+        set.removeIf(x -> x.endsWith("D"));
+        assertEquals(Set.of(IRI + "F"), set);
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void testEquals() {
+        // Prepare
+        IRISet set = new IRISet(List.of(IRI + "H", IRI + "I"));
+
+        // Execute & Assert
+        assertEquals(set, new IRISet(Set.of(IRI + "I", IRI + "H")));
+        assertEquals(set, Set.of(IRI + "H", IRI + "I"));
+        assertEquals(Set.of(IRI + "H", IRI + "I"), set);
+        assertEquals(Set.of(IRI + "H", IRI + "I").hashCode(), set.hashCode());
+        assertNotEquals(set, new IRISet(List.of(IRI + "H")));
+    }
+}
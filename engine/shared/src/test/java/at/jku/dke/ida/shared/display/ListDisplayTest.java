@@ -42,4 +42,19 @@ class ListDisplayTest {
         assertNotNull(d.getData());
         assertTrue(d.getData().isEmpty());
     }
+
+    @Test
+    void testConstructorWithNextPageToken() {
+        // Execute
+        ListDisplay d = new ListDisplay("addMeasure", Locale.GERMAN, null, "token");
+        ListDisplay last = new ListDisplay("addMeasure", Locale.GERMAN, null);
+
+        // Assert
+        assertTrue(d.getData().isEmpty());
+        assertEquals("token", d.getNextPageToken());
+        assertTrue(d.hasMore());
+        assertNull(last.getNextPageToken());
+        assertFalse(last.hasMore());
+        assertNotEquals(last, d);
+    }
 }
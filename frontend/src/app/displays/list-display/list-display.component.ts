@@ -5,6 +5,7 @@ import { TextToSpeechService } from '../../services';
 interface ListDisplay {
   displayMessage: string;
   data: Array<{ title: string, details: string, displayableId: string }>;
+  nextPageToken?: string;
 }
 
 @Component({
@@ -43,6 +44,9 @@ export class ListDisplayComponent implements OnChanges {
       text += d.title + '\r\n';
       i++;
     }
+    if (display.nextPageToken) {
+      text += this.translateService.instant('display.more');
+    }
 
     setTimeout(() => this.tts.speak(text), 600);
   }